@@ -0,0 +1,86 @@
+package ru.tinkoff.kora.common;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Point in time after which the result of the current operation is not needed anymore, e.g. because the client stopped waiting for the response.
+ * Deadline is kept in the {@link Context}, so it is propagated to the downstream calls of the operation.
+ */
+public final class Deadline {
+    public static final Context.Key<Deadline> KEY = new Context.Key<>() {
+        @Override
+        protected Deadline copy(Deadline object) {
+            return object;
+        }
+    };
+
+    // System.nanoTime() based, so it isn't affected by wall clock adjustments
+    private final long deadline;
+
+    private Deadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return after(System.nanoTime(), timeout.toNanos());
+    }
+
+    /**
+     * @param start   {@link System#nanoTime()} the timeout is counted from
+     * @param timeout timeout in nanoseconds
+     */
+    public static Deadline after(long start, long timeout) {
+        return new Deadline(start + timeout);
+    }
+
+    @Nullable
+    public static Deadline current() {
+        return current(Context.current());
+    }
+
+    @Nullable
+    public static Deadline current(Context context) {
+        return context.get(KEY);
+    }
+
+    /**
+     * Sets the deadline unless the context already has an earlier one, so nested operations can't extend the deadline of the outer one.
+     *
+     * @return deadline that is effective in the context
+     */
+    public static Deadline set(Context context, Deadline deadline) {
+        var current = context.get(KEY);
+        if (current != null && current.deadline - deadline.deadline <= 0) {
+            return current;
+        }
+        return context.set(KEY, deadline);
+    }
+
+    /**
+     * @return time left until the deadline, negative when the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(this.deadline - System.nanoTime());
+    }
+
+    /**
+     * @return milliseconds left until the deadline rounded up, so that remaining time below a millisecond isn't treated as no time at all
+     */
+    public long remainingMillis() {
+        var remaining = this.deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return 0;
+        }
+        return (remaining + 999_999) / 1_000_000;
+    }
+
+    public boolean isExpired() {
+        return this.deadline - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + this.remaining() + '}';
+    }
+}
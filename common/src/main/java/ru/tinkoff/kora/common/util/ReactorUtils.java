@@ -13,6 +13,15 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 public class ReactorUtils {
+    /**
+     * System property to run {@link #ioMono(Supplier)} tasks on virtual threads, requires JDK 21+
+     */
+    public static final String IO_VIRTUAL_THREADS_PROPERTY = "kora.io.virtualThreads";
+    /**
+     * System property with the max number of concurrently running {@link #ioMono(Supplier)} tasks when virtual threads are used, unlimited by default
+     */
+    public static final String IO_VIRTUAL_THREADS_CONCURRENCY_PROPERTY = "kora.io.virtualThreadsConcurrency";
+
     private static final AtomicReference<Scheduler> CACHED_ELASTIC = new AtomicReference<>();
 
     private static Scheduler ioScheduler() {
@@ -20,8 +29,13 @@ public class ReactorUtils {
         if (s != null) {
             return s;
         }
-        var maxThreads = Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 2) * 8, 64);
-        s = Schedulers.newBoundedElastic(maxThreads, Integer.MAX_VALUE, "kora-io-", 60, true);
+        if (Boolean.getBoolean(IO_VIRTUAL_THREADS_PROPERTY) && VirtualThreadExecutor.isSupported()) {
+            var maxConcurrency = Integer.getInteger(IO_VIRTUAL_THREADS_CONCURRENCY_PROPERTY, 0);
+            s = Schedulers.fromExecutorService(VirtualThreadExecutor.create("kora-io-", maxConcurrency), "kora-io");
+        } else {
+            var maxThreads = Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 2) * 8, 64);
+            s = Schedulers.newBoundedElastic(maxThreads, Integer.MAX_VALUE, "kora-io-", 60, true);
+        }
         if (CACHED_ELASTIC.compareAndSet(null, s)) {
             return s;
         }
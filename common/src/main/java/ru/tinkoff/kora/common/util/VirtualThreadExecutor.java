@@ -0,0 +1,131 @@
+package ru.tinkoff.kora.common.util;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Executor service that starts a new virtual thread for each task.
+ * <p>
+ * Virtual threads are available since JDK 21 only, so they are created through method handles resolved at runtime:
+ * the class can be loaded on JDK 17, {@link #isSupported()} tells whether it can be used.
+ * <p>
+ * Number of concurrently running tasks can be limited, tasks over the limit park their virtual thread until another task finishes.
+ * It is useful when tasks use some limited resource like jdbc connection pool.
+ */
+public final class VirtualThreadExecutor extends AbstractExecutorService {
+    @Nullable
+    private static final MethodHandle OF_VIRTUAL = ofVirtual();
+
+    private final ExecutorService delegate;
+    @Nullable
+    private final Semaphore semaphore;
+
+    private VirtualThreadExecutor(ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.semaphore = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @param name           prefix of the virtual thread names
+     * @param maxConcurrency maximum number of concurrently running tasks, zero or less for unlimited
+     * @throws IllegalStateException if the runtime doesn't support virtual threads
+     */
+    public static VirtualThreadExecutor create(String name, int maxConcurrency) {
+        if (OF_VIRTUAL == null) {
+            throw new IllegalStateException("Virtual threads are not supported by the current runtime: " + Runtime.version());
+        }
+        try {
+            var builder = OF_VIRTUAL.invoke();
+            var lookup = MethodHandles.publicLookup();
+            var builderClass = Class.forName("java.lang.Thread$Builder");
+            var ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = lookup.findVirtual(ofVirtualClass, "name", MethodType.methodType(ofVirtualClass, String.class, long.class))
+                .invoke(builder, name, 0L);
+            var threadFactory = (ThreadFactory) lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class))
+                .invoke(builder);
+            var executor = (ExecutorService) lookup.findStatic(Executors.class, "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class))
+                .invoke(threadFactory);
+            return new VirtualThreadExecutor(executor, maxConcurrency);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can't create virtual thread executor", e);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        var semaphore = this.semaphore;
+        if (semaphore == null) {
+            this.delegate.execute(command);
+            return;
+        }
+        this.delegate.execute(() -> {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the executor permit", e);
+            }
+            try {
+                command.run();
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    /**
+     * @return number of tasks that can be started without waiting, -1 when concurrency is unlimited
+     */
+    public int availablePermits() {
+        return this.semaphore == null ? -1 : this.semaphore.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return this.delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+
+    @Nullable
+    private static MethodHandle ofVirtual() {
+        if (Runtime.version().feature() < 21) {
+            // virtual threads are preview feature before 21
+            return null;
+        }
+        try {
+            var ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            return MethodHandles.publicLookup().findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.tinkoff.kora.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadExecutorTest {
+
+    @Test
+    void testSupportedSinceJdk21() {
+        assertThat(VirtualThreadExecutor.isSupported()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    void testCreateFailsWhenNotSupported() {
+        assumeFalse(VirtualThreadExecutor.isSupported());
+
+        assertThatThrownBy(() -> VirtualThreadExecutor.create("test-", 0))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Virtual threads are not supported");
+    }
+
+    @Test
+    void testTasksAreExecutedOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadExecutor.isSupported());
+        var executor = VirtualThreadExecutor.create("test-virtual-", 0);
+        try {
+            var thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat(thread.getName()).startsWith("test-virtual-");
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+            assertThat(executor.availablePermits()).isEqualTo(-1);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    @Test
+    void testConcurrencyIsLimited() throws Exception {
+        assumeTrue(VirtualThreadExecutor.isSupported());
+        var executor = VirtualThreadExecutor.create("test-virtual-", 2);
+        var release = new CountDownLatch(1);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var done = new CountDownLatch(5);
+        try {
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            while (running.get() < 2) {
+                Thread.onSpinWait();
+            }
+            assertThat(executor.availablePermits()).isZero();
+            release.countDown();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(maxRunning.get()).isEqualTo(2);
+            assertThat(executor.availablePermits()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
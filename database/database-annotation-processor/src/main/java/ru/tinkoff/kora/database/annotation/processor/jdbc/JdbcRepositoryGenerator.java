@@ -157,6 +157,7 @@ public final class JdbcRepositoryGenerator implements RepositoryGenerator {
             );
             var _telemetry = this._connectionFactory.telemetry().createContext(ru.tinkoff.kora.common.Context.current(), _query);
             try (_conToClose; var _stmt = _conToUse.prepareStatement(_query.sql())) {$>
+            ru.tinkoff.kora.database.jdbc.JdbcHelper.applyDeadline(_stmt);
             """, connection, JdbcTypes.CONNECTION, DbUtils.QUERY_CONTEXT, query.rawQuery(), sql);
         b.addCode(StatementSetterGenerator.generate(method, query, parameters, batchParam, parameterMappers));
         if (isVoid(method) || isMono && isVoid(((DeclaredType) methodType.getReturnType()).getTypeArguments().get(0))) {
@@ -2,16 +2,21 @@ package ru.tinkoff.kora.database.common.annotation.processor.jdbc;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
 import ru.tinkoff.kora.database.common.UpdateCount;
 import ru.tinkoff.kora.database.jdbc.mapper.result.JdbcResultSetMapper;
 
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +36,36 @@ public class JdbcResultsTest extends AbstractJdbcRepositoryTest {
         verify(executor.preparedStatement).execute();
     }
 
+    @Test
+    public void testDeadlineSetsQueryTimeout() throws SQLException {
+        var repository = compileJdbc(List.of(), """
+            @Repository
+            public interface TestRepository extends JdbcRepository {
+                @Query("INSERT INTO test(value) VALUES ('value')")
+                void test();
+            }
+            """);
+
+        var context = Context.current();
+        Deadline.set(context, Deadline.after(Duration.ofMillis(1500)));
+        try {
+            repository.invoke("test");
+        } finally {
+            context.remove(Deadline.KEY);
+        }
+        verify(executor.preparedStatement).setQueryTimeout(2);
+        verify(executor.preparedStatement).execute();
+
+        executor.reset();
+        Deadline.set(context, Deadline.after(Duration.ofMillis(-1)));
+        try {
+            assertThatThrownBy(() -> repository.invoke("test")).hasRootCauseInstanceOf(SQLTimeoutException.class);
+        } finally {
+            context.remove(Deadline.KEY);
+        }
+        verify(executor.preparedStatement, never()).execute();
+    }
+
     @Test
     public void testReturnPrimitive() throws SQLException {
         var mapper = Mockito.mock(JdbcResultSetMapper.class);
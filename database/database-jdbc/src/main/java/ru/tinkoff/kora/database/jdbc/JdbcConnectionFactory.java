@@ -23,6 +23,7 @@ public interface JdbcConnectionFactory {
         var telemetry = this.telemetry().createContext(Context.current(), queryContext);
         return withConnection(connection -> {
             try (var ps = connection.prepareStatement(queryContext.sql())) {
+                JdbcHelper.applyDeadline(ps);
                 var result = callback.apply(ps);
                 telemetry.close(null);
                 return result;
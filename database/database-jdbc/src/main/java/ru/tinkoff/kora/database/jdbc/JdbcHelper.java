@@ -1,6 +1,10 @@
 package ru.tinkoff.kora.database.jdbc;
 
+import ru.tinkoff.kora.common.Deadline;
+
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
 
 public class JdbcHelper {
     public interface SqlFunction0<T> {
@@ -18,4 +22,24 @@ public class JdbcHelper {
     public interface SqlRunnable {
         void run() throws SQLException;
     }
+
+    /**
+     * Limits statement execution time by the {@link Deadline} of the current context, statement is not executed when the deadline has already passed
+     */
+    public static void applyDeadline(Statement statement) throws SQLException {
+        var deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        var remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("Deadline exceeded before statement was executed");
+        }
+        // query timeout has seconds precision, so it's rounded up not to fail statements that still have time
+        var timeout = (remaining + 999) / 1000;
+        var current = statement.getQueryTimeout();
+        if (current == 0 || timeout < current) {
+            statement.setQueryTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package ru.tinkoff.kora.database.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class JdbcHelperTest {
+    private final Statement statement = mock(Statement.class);
+
+    @AfterEach
+    void tearDown() {
+        Context.clear();
+    }
+
+    @Test
+    void testStatementWithoutDeadlineIsNotChanged() throws SQLException {
+        JdbcHelper.applyDeadline(this.statement);
+
+        verifyNoInteractions(this.statement);
+    }
+
+    @Test
+    void testQueryTimeoutIsRoundedUpToSeconds() throws SQLException {
+        Deadline.set(Context.current(), Deadline.after(Duration.ofMillis(2500)));
+
+        JdbcHelper.applyDeadline(this.statement);
+
+        verify(this.statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void testShorterQueryTimeoutIsKept() throws SQLException {
+        when(this.statement.getQueryTimeout()).thenReturn(1);
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(10)));
+
+        JdbcHelper.applyDeadline(this.statement);
+
+        verify(this.statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void testLongerQueryTimeoutIsLimited() throws SQLException {
+        when(this.statement.getQueryTimeout()).thenReturn(60);
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(10)));
+
+        JdbcHelper.applyDeadline(this.statement);
+
+        verify(this.statement).setQueryTimeout(10);
+    }
+
+    @Test
+    void testExpiredDeadlineFailsStatement() {
+        Deadline.set(Context.current(), Deadline.after(System.nanoTime(), -1));
+
+        assertThatThrownBy(() -> JdbcHelper.applyDeadline(this.statement))
+            .isInstanceOf(SQLTimeoutException.class);
+        verifyNoInteractions(this.statement);
+    }
+}
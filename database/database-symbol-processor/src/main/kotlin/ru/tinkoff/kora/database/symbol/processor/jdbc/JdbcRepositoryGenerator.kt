@@ -86,6 +86,7 @@ class JdbcRepositoryGenerator(private val resolver: Resolver) : RepositoryGenera
         b.controlFlow("try") {
             controlFlow("_conToClose.use") {
                 controlFlow("_conToUse!!.prepareStatement(_query.sql()).use { _stmt ->") {
+                    addStatement("ru.tinkoff.kora.database.jdbc.JdbcHelper.applyDeadline(_stmt)")
                     StatementSetterGenerator.generate(b, method, query, parameters, batchParam, parameterMappers)
                     if (methodType.returnType!! == resolver.builtIns.unitType) {
                         if (batchParam != null) {
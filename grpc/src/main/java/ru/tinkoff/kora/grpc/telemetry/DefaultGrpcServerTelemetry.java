@@ -1,9 +1,11 @@
 package ru.tinkoff.kora.grpc.telemetry;
 
 import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.ServerCall;
 
 import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class DefaultGrpcServerTelemetry implements GrpcServerTelemetry {
     @Nullable
@@ -12,6 +14,8 @@ public final class DefaultGrpcServerTelemetry implements GrpcServerTelemetry {
     private final GrpcServerTracer tracing;
     @Nullable
     private final GrpcServerLogger logger;
+    // method descriptors are singletons, so lookup is by identity and doesn't allocate
+    private final ConcurrentHashMap<MethodDescriptor<?, ?>, MethodTelemetry> methods = new ConcurrentHashMap<>();
 
     public DefaultGrpcServerTelemetry(@Nullable GrpcServerMetricsFactory metrics, @Nullable GrpcServerTracer tracing, @Nullable GrpcServerLogger logger) {
         this.metrics = metrics;
@@ -22,14 +26,29 @@ public final class DefaultGrpcServerTelemetry implements GrpcServerTelemetry {
     @Override
     public GrpcServerTelemetryContext createContext(ServerCall<?, ?> call, Metadata headers) {
         var start = System.nanoTime();
-        var serviceName = service(call);
-        var methodName = method(call);
-        var metrics = this.metrics == null ? null : this.metrics.get(call, headers, serviceName, methodName);
+        var method = this.methods.get(call.getMethodDescriptor());
+        if (method == null) {
+            method = this.methods.computeIfAbsent(call.getMethodDescriptor(), descriptor -> this.method(call));
+        }
+        var serviceName = method.serviceName();
+        var methodName = method.methodName();
+        var metrics = method.metrics() != null
+            ? method.metrics()
+            : this.metrics == null ? null : this.metrics.get(call, headers, serviceName, methodName);
         var span = this.tracing == null ? null : this.tracing.createSpan(call, headers, serviceName, methodName);
         if (this.logger != null) this.logger.logBegin(call, headers, serviceName, methodName);
         return new DefaultGrpcServerTelemetryContext(start, serviceName, methodName, metrics, logger, span);
     }
 
+    private record MethodTelemetry(String serviceName, String methodName, @Nullable GrpcServerMetrics metrics) {}
+
+    private MethodTelemetry method(ServerCall<?, ?> call) {
+        var serviceName = service(call);
+        var methodName = methodName(call);
+        var metrics = this.metrics == null ? null : this.metrics.get(serviceName, methodName);
+        return new MethodTelemetry(serviceName, methodName, metrics);
+    }
+
     private String service(ServerCall<?, ?> call) {
         var fullMethodName = call.getMethodDescriptor().getFullMethodName();
         int slashIndex = fullMethodName.lastIndexOf('/');
@@ -39,7 +58,7 @@ public final class DefaultGrpcServerTelemetry implements GrpcServerTelemetry {
         return fullMethodName.substring(0, slashIndex);
     }
 
-    private String method(ServerCall<?, ?> call) {
+    private String methodName(ServerCall<?, ?> call) {
         String fullMethodName = call.getMethodDescriptor().getFullMethodName();
         int slashIndex = fullMethodName.lastIndexOf('/');
         if (slashIndex == -1) {
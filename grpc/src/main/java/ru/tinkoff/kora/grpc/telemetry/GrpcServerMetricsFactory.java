@@ -3,6 +3,17 @@ package ru.tinkoff.kora.grpc.telemetry;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 
+import javax.annotation.Nullable;
+
 public interface GrpcServerMetricsFactory {
     GrpcServerMetrics get(ServerCall<?, ?> call, Metadata headers, String serviceName, String methodName);
+
+    /**
+     * Metrics that don't depend on the call, resolved once for each method.
+     * When null is returned, {@link #get(ServerCall, Metadata, String, String)} is called for each call.
+     */
+    @Nullable
+    default GrpcServerMetrics get(String serviceName, String methodName) {
+        return null;
+    }
 }
@@ -44,7 +44,7 @@ public class ConfigClassGenerator {
             import %s;
                         
             @Generated(\"%s\")
-            public record %s(String url, @Nullable Duration requestTimeout,
+            public record %s(String url, @Nullable Duration requestTimeout, @Nullable String deadlineHeader,
             """.formatted(packageName.getQualifiedName(),
             Nullable.class.getCanonicalName(), HttpClientOperationConfig.class.getCanonicalName(),
             DeclarativeHttpClientConfig.class.getCanonicalName(), Duration.class.getCanonicalName(),
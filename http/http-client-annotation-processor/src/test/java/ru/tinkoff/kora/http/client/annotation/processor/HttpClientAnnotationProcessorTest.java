@@ -382,10 +382,10 @@ class HttpClientAnnotationProcessorTest {
     }
 
     private <T> T config(Class<T> clazz, String url, @Nullable Duration requestTimeout, HttpClientOperationConfig... configs) {
-        var types = Arrays.copyOf(new Class<?>[]{String.class, Duration.class}, 2 + configs.length);
-        Arrays.fill(types, 2, types.length, HttpClientOperationConfig.class);
-        var parameters = Arrays.copyOf(new Object[]{url, requestTimeout}, 2 + configs.length);
-        System.arraycopy(configs, 0, parameters, 2, configs.length);
+        var types = Arrays.copyOf(new Class<?>[]{String.class, Duration.class, String.class}, 3 + configs.length);
+        Arrays.fill(types, 3, types.length, HttpClientOperationConfig.class);
+        var parameters = Arrays.copyOf(new Object[]{url, requestTimeout, null}, 3 + configs.length);
+        System.arraycopy(configs, 0, parameters, 3, configs.length);
 
         try {
             return clazz.getConstructor(types).newInstance(parameters);
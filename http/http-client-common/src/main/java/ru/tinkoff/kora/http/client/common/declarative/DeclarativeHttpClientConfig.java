@@ -1,6 +1,7 @@
 package ru.tinkoff.kora.http.client.common.declarative;
 
 import ru.tinkoff.kora.http.client.common.HttpClient;
+import ru.tinkoff.kora.http.client.common.interceptor.DeadlineInterceptor;
 import ru.tinkoff.kora.http.client.common.interceptor.TelemetryInterceptor;
 import ru.tinkoff.kora.http.client.common.telemetry.HttpClientTelemetryFactory;
 
@@ -13,6 +14,14 @@ public interface DeclarativeHttpClientConfig {
     @Nullable
     Duration requestTimeout();
 
+    /**
+     * @return header to forward remaining time of the request {@link ru.tinkoff.kora.common.Deadline} with, remaining time is not forwarded when null
+     */
+    @Nullable
+    default String deadlineHeader() {
+        return null;
+    }
+
     default DeclarativeHttpClientOperationData apply(HttpClient root, Class<?> clientClass, String operationName, @Nullable HttpClientOperationConfig operationConfig, HttpClientTelemetryFactory telemetryFactory, String operationPath) {
         var builder = root;
         var url = this.url() + operationPath;
@@ -24,6 +33,8 @@ public interface DeclarativeHttpClientConfig {
             requestTimeout = operationConfig.requestTimeout().toMillis();
         }
 
+        // inner to telemetry, so requests failed by the deadline are reported
+        builder = builder.with(new DeadlineInterceptor(this.deadlineHeader()));
         var telemetry = telemetryFactory.get(clientClass.getCanonicalName() + "." + operationName);
         if (telemetry != null) {
             builder = builder.with(new TelemetryInterceptor(telemetry));
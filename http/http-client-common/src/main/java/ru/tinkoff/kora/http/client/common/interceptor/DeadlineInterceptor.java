@@ -0,0 +1,56 @@
+package ru.tinkoff.kora.http.client.common.interceptor;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
+import ru.tinkoff.kora.http.client.common.HttpClientTimeoutException;
+import ru.tinkoff.kora.http.client.common.request.HttpClientRequest;
+import ru.tinkoff.kora.http.client.common.response.HttpClientResponse;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Limits request timeout by the {@link Deadline} of the current {@link Context} and forwards the remaining time to the server in the {@code header},
+ * requests are not sent at all when the deadline has already passed.
+ */
+public class DeadlineInterceptor implements HttpClientInterceptor {
+    @Nullable
+    private final String header;
+
+    /**
+     * @param header header to forward remaining time in milliseconds with, remaining time is not forwarded when null
+     */
+    public DeadlineInterceptor(@Nullable String header) {
+        this.header = header;
+    }
+
+    @Override
+    public Mono<HttpClientResponse> processRequest(Function<HttpClientRequest, Mono<HttpClientResponse>> chain, HttpClientRequest request) {
+        // blocking callers don't propagate context with the subscription, so the context of the calling thread is used
+        var callerContext = Context.current();
+        return Mono.deferContextual(rctx -> {
+            var ctx = rctx.hasKey(Context.class)
+                ? rctx.get(Context.class)
+                : callerContext;
+            var deadline = Deadline.current(ctx);
+            if (deadline == null) {
+                return chain.apply(request);
+            }
+            var remaining = deadline.remainingMillis();
+            if (remaining <= 0) {
+                return Mono.error(new HttpClientTimeoutException(new TimeoutException("Deadline exceeded before request was sent")));
+            }
+            var timeout = request.requestTimeout() > 0
+                ? Math.min(request.requestTimeout(), remaining)
+                : remaining;
+            var builder = request.toBuilder()
+                .requestTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+            if (this.header != null) {
+                builder.header(this.header, Long.toString(timeout));
+            }
+            return chain.apply(builder.build());
+        });
+    }
+}
@@ -2,4 +2,11 @@ package ru.tinkoff.kora.http.client.common.telemetry;
 
 public interface HttpClientMetricsFactory {
     HttpClientMetrics get(String clientName);
+
+    /**
+     * Called once after the http client implementation is created
+     *
+     * @param client config name of the http client
+     */
+    default void poolStats(String client, HttpClientPoolStats stats) {}
 }
@@ -0,0 +1,21 @@
+package ru.tinkoff.kora.http.client.common.telemetry;
+
+/**
+ * Usage of the connections and threads shared by all the requests of an http client implementation
+ */
+public interface HttpClientPoolStats {
+    /**
+     * @return requests that are sent and wait for the response headers, each of them holds an HTTP/1.1 connection
+     */
+    int activeRequests();
+
+    /**
+     * @return threads of the client executor that are running tasks, -1 when the executor doesn't report it
+     */
+    int executorActiveThreads();
+
+    /**
+     * @return tasks waiting in the client executor queue, -1 when the executor doesn't report it
+     */
+    int executorQueueSize();
+}
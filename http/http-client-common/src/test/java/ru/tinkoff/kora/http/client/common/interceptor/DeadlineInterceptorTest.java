@@ -0,0 +1,134 @@
+package ru.tinkoff.kora.http.client.common.interceptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
+import ru.tinkoff.kora.http.client.common.HttpClient;
+import ru.tinkoff.kora.http.client.common.HttpClientTimeoutException;
+import ru.tinkoff.kora.http.client.common.declarative.DeclarativeHttpClientConfig;
+import ru.tinkoff.kora.http.client.common.request.HttpClientRequest;
+import ru.tinkoff.kora.http.client.common.response.HttpClientResponse;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineInterceptorTest {
+    private static final String HEADER = "X-Request-Timeout";
+
+    private final AtomicReference<HttpClientRequest> sent = new AtomicReference<>();
+    private final Function<HttpClientRequest, Mono<HttpClientResponse>> chain = request -> {
+        this.sent.set(request);
+        return Mono.empty();
+    };
+
+    @AfterEach
+    void tearDown() {
+        Context.clear();
+    }
+
+    @Test
+    void testRequestWithoutDeadlineIsNotChanged() {
+        var request = HttpClientRequest.get("/test").requestTimeout(1000).build();
+
+        new DeadlineInterceptor(HEADER).processRequest(this.chain, request).block();
+
+        assertThat(this.sent.get()).isSameAs(request);
+    }
+
+    @Test
+    void testRemainingTimeIsForwarded() {
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(5)));
+
+        new DeadlineInterceptor(HEADER).processRequest(this.chain, HttpClientRequest.get("/test").requestTimeout(60000).build()).block();
+
+        var timeout = this.sent.get().requestTimeout();
+        assertThat(timeout).isPositive().isLessThanOrEqualTo(5000);
+        assertThat(this.sent.get().headers().getFirst(HEADER)).isEqualTo(Integer.toString(timeout));
+    }
+
+    @Test
+    void testShorterRequestTimeoutIsKept() {
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(5)));
+
+        new DeadlineInterceptor(HEADER).processRequest(this.chain, HttpClientRequest.get("/test").requestTimeout(100).build()).block();
+
+        assertThat(this.sent.get().requestTimeout()).isEqualTo(100);
+        assertThat(this.sent.get().headers().getFirst(HEADER)).isEqualTo("100");
+    }
+
+    @Test
+    void testDeadlineIsTakenFromReactorContext() {
+        var context = Context.current().fork();
+        Deadline.set(context, Deadline.after(Duration.ofSeconds(5)));
+
+        new DeadlineInterceptor(HEADER).processRequest(this.chain, HttpClientRequest.get("/test").build())
+            .contextWrite(c -> Context.Reactor.inject(c, context))
+            .block();
+
+        assertThat(this.sent.get().requestTimeout()).isPositive().isLessThanOrEqualTo(5000);
+    }
+
+    @Test
+    void testTimeoutIsLimitedWithoutHeader() {
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(5)));
+
+        new DeadlineInterceptor(null).processRequest(this.chain, HttpClientRequest.get("/test").build()).block();
+
+        assertThat(this.sent.get().requestTimeout()).isPositive().isLessThanOrEqualTo(5000);
+        assertThat(this.sent.get().headers().getFirst(HEADER)).isNull();
+    }
+
+    @Test
+    void testExpiredDeadlineFailsWithoutSending() {
+        Deadline.set(Context.current(), Deadline.after(System.nanoTime(), -1));
+
+        assertThatThrownBy(() -> new DeadlineInterceptor(HEADER).processRequest(this.chain, HttpClientRequest.get("/test").build()).block())
+            .isInstanceOf(HttpClientTimeoutException.class);
+        assertThat(this.sent.get()).isNull();
+    }
+
+    @Test
+    void testDeclarativeClientForwardsDeadlineOnlyWhenHeaderIsSet() {
+        HttpClient root = this.chain::apply;
+        Deadline.set(Context.current(), Deadline.after(Duration.ofSeconds(5)));
+
+        config(null).apply(root, DeadlineInterceptorTest.class, "test", null, clientName -> null, "/test").client()
+            .execute(HttpClientRequest.get("/test").build())
+            .block();
+        assertThat(this.sent.get().requestTimeout()).isPositive().isLessThanOrEqualTo(5000);
+        assertThat(this.sent.get().headers().getFirst(HEADER)).isNull();
+
+        config(HEADER).apply(root, DeadlineInterceptorTest.class, "test", null, clientName -> null, "/test").client()
+            .execute(HttpClientRequest.get("/test").build())
+            .block();
+        assertThat(this.sent.get().headers().getFirst(HEADER)).isNotNull();
+    }
+
+    private static DeclarativeHttpClientConfig config(@Nullable String deadlineHeader) {
+        return new DeclarativeHttpClientConfig() {
+            @Override
+            public String url() {
+                return "http://localhost";
+            }
+
+            @Nullable
+            @Override
+            public Duration requestTimeout() {
+                return null;
+            }
+
+            @Nullable
+            @Override
+            public String deadlineHeader() {
+                return deadlineHeader;
+            }
+        };
+    }
+}
@@ -11,10 +11,19 @@ import java.net.http.HttpResponse;
 public class JdkBlockingHttpResponse implements BlockingHttpResponse {
     private final HttpResponse<InputStream> response;
     private final JdkHttpClientHeaders headers;
+    private final Runnable onClose;
 
     public JdkBlockingHttpResponse(HttpResponse<InputStream> response) {
+        this(response, () -> {});
+    }
+
+    /**
+     * @param onClose called when the response is closed, may be called more than once
+     */
+    public JdkBlockingHttpResponse(HttpResponse<InputStream> response, Runnable onClose) {
         this.response = response;
         this.headers = new JdkHttpClientHeaders(this.response.headers());
+        this.onClose = onClose;
     }
 
     @Override
@@ -38,6 +47,8 @@ public class JdkBlockingHttpResponse implements BlockingHttpResponse {
             this.response.body().close();
         } catch (IOException e) {
             throw new UnknownHttpClientException(e);
+        } finally {
+            this.onClose.run();
         }
     }
 }
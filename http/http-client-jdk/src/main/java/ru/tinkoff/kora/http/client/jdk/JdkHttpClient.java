@@ -11,7 +11,9 @@ import ru.tinkoff.kora.http.client.common.UnknownHttpClientException;
 import ru.tinkoff.kora.http.client.common.request.HttpClientRequest;
 import ru.tinkoff.kora.http.client.common.response.BlockingHttpResponse;
 import ru.tinkoff.kora.http.client.common.response.HttpClientResponse;
+import ru.tinkoff.kora.http.client.common.telemetry.HttpClientPoolStats;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.ProtocolException;
 import java.net.URI;
@@ -23,12 +25,21 @@ import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class JdkHttpClient implements HttpClient {
+public class JdkHttpClient implements HttpClient, HttpClientPoolStats {
     private final java.net.http.HttpClient httpClient;
+    @Nullable
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger activeRequests = new AtomicInteger();
 
     public JdkHttpClient(java.net.http.HttpClient client) {
         this.httpClient = client;
+        this.executor = client.executor().orElse(null) instanceof ThreadPoolExecutor pool
+            ? pool
+            : null;
     }
 
     @Override
@@ -49,6 +60,7 @@ public class JdkHttpClient implements HttpClient {
             }
             httpClientRequest.method(request.method(), this.toBodyPublisher(request.body()));
 
+            var release = this.acquire();
             var future = this.httpClient.sendAsync(httpClientRequest.build(), HttpResponse.BodyHandlers.ofPublisher())
                 .exceptionallyCompose(error -> {
                     if (!(error instanceof CompletionException completionException) || !(completionException.getCause() instanceof IOException ioException)) {
@@ -61,8 +73,16 @@ public class JdkHttpClient implements HttpClient {
                         return CompletableFuture.failedFuture(error);
                     }
                     return this.httpClient.sendAsync(httpClientRequest.build(), HttpResponse.BodyHandlers.ofPublisher());
+                })
+                .whenComplete((response, error) -> {
+                    // request is active until its response body is read
+                    if (error != null) {
+                        release.run();
+                    }
                 });
             return Mono.fromFuture(future)
+                // response of the cancelled request is never read
+                .doOnCancel(release)
                 .onErrorMap(error -> {
                     if (error instanceof java.net.ProtocolException protocolException) {
                         return new HttpClientConnectionException(protocolException);
@@ -75,7 +95,7 @@ public class JdkHttpClient implements HttpClient {
                     }
                     return new UnknownHttpClientException(error);
                 })
-                .map(JdkHttpClientResponse::new);
+                .map(response -> new JdkHttpClientResponse(response, release));
         });
     }
 
@@ -95,18 +115,57 @@ public class JdkHttpClient implements HttpClient {
         }
         httpClientRequest.method(request.method(), this.toBodyPublisher(request.body()));
 
+        var release = this.acquire();
         try {
             var response = this.httpClient.send(httpClientRequest.build(), HttpResponse.BodyHandlers.ofInputStream());
-            return new JdkBlockingHttpResponse(response);
+            return new JdkBlockingHttpResponse(response, release);
         } catch (ProtocolException | HttpConnectTimeoutException e) {
+            release.run();
             throw new HttpClientConnectionException(e);
         } catch (HttpTimeoutException e) {
+            release.run();
             throw new HttpClientTimeoutException(e);
         } catch (IOException | InterruptedException e) {
+            release.run();
             throw new UnknownHttpClientException(e);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
         }
     }
 
+    /**
+     * @return callback that ends the request, it can be called more than once
+     */
+    private Runnable acquire() {
+        this.activeRequests.incrementAndGet();
+        var released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                this.activeRequests.decrementAndGet();
+            }
+        };
+    }
+
+    @Override
+    public int activeRequests() {
+        return this.activeRequests.get();
+    }
+
+    @Override
+    public int executorActiveThreads() {
+        return this.executor == null
+            ? -1
+            : this.executor.getActiveCount();
+    }
+
+    @Override
+    public int executorQueueSize() {
+        return this.executor == null
+            ? -1
+            : this.executor.getQueue().size();
+    }
+
     private HttpRequest.BodyPublisher toBodyPublisher(Flux<ByteBuffer> body) {
         if (body instanceof Fuseable.ScalarCallable<?> callable) {
             ByteBuffer buf = null;
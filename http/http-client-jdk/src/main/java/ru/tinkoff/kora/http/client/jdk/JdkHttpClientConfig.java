@@ -1,5 +1,19 @@
 package ru.tinkoff.kora.http.client.jdk;
 
 import javax.annotation.Nullable;
+import java.net.http.HttpClient;
+import java.time.Duration;
 
-public record JdkHttpClientConfig(@Nullable Integer threads) {}
+/**
+ * @param threads          threads count of the client executor, twice the available processors by default
+ * @param virtualThreads   run client tasks on virtual threads instead of the fixed pool, requires JDK 21+
+ * @param httpVersion      preferred http version, {@code HTTP_2} falls back to {@code HTTP/1.1} for servers that don't support it, JDK default is used when not set
+ * @param keepAliveTimeout time after which idle connections are closed, JDK default is 20 minutes
+ * @param maxConnections   max idle HTTP/1.1 connections kept in the pool, unlimited by default
+ */
+public record JdkHttpClientConfig(
+    @Nullable Integer threads,
+    @Nullable Boolean virtualThreads,
+    @Nullable HttpClient.Version httpVersion,
+    @Nullable Duration keepAliveTimeout,
+    @Nullable Integer maxConnections) {}
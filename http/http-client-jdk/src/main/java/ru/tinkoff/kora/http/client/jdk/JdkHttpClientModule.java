@@ -5,19 +5,27 @@ import ru.tinkoff.kora.common.DefaultComponent;
 import ru.tinkoff.kora.config.common.extractor.ConfigValueExtractor;
 import ru.tinkoff.kora.http.client.common.HttpClientConfig;
 import ru.tinkoff.kora.http.client.common.HttpClientModule;
+import ru.tinkoff.kora.http.client.common.telemetry.HttpClientMetricsFactory;
 
+import javax.annotation.Nullable;
 import java.net.http.HttpClient;
 
 public interface JdkHttpClientModule extends HttpClientModule {
-    default JdkHttpClient jdkHttpClient(HttpClient client) {
-        return new JdkHttpClient(client);
+    String CONFIG_PATH = "httpClient.jdk";
+
+    default JdkHttpClient jdkHttpClient(HttpClient client, @Nullable HttpClientMetricsFactory metricsFactory) {
+        var jdkHttpClient = new JdkHttpClient(client);
+        if (metricsFactory != null) {
+            metricsFactory.poolStats(CONFIG_PATH, jdkHttpClient);
+        }
+        return jdkHttpClient;
     }
 
     default JdkHttpClientConfig jdkHttpClientConfig(Config config, ConfigValueExtractor<JdkHttpClientConfig> extractor) {
-        if (config.hasPath("httpClient.jdk")) {
-            return extractor.extract(config.getValue("httpClient.jdk"));
+        if (config.hasPath(CONFIG_PATH)) {
+            return extractor.extract(config.getValue(CONFIG_PATH));
         } else {
-            return new JdkHttpClientConfig(null);
+            return new JdkHttpClientConfig(null, null, null, null, null);
         }
     }
 
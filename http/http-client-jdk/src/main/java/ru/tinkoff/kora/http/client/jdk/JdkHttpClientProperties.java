@@ -0,0 +1,56 @@
+package ru.tinkoff.kora.http.client.jdk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection pool of the jdk http client can be configured with system properties only, and they are read once when the first client in the JVM is created.
+ * So the properties are set only when they aren't set already, e.g. with {@code -D} flags, and before the first client is created by this module,
+ * otherwise a warning is logged.
+ */
+final class JdkHttpClientProperties {
+    private static final Logger log = LoggerFactory.getLogger(JdkHttpClientProperties.class);
+
+    static final String KEEP_ALIVE_TIMEOUT = "jdk.httpclient.keepalive.timeout";
+    static final String KEEP_ALIVE_TIMEOUT_H2 = "jdk.httpclient.keepalive.timeout.h2";
+    static final String CONNECTION_POOL_SIZE = "jdk.httpclient.connectionPoolSize";
+
+    private static boolean clientCreated = false;
+
+    private JdkHttpClientProperties() {}
+
+    static synchronized void apply(JdkHttpClientConfig config) {
+        var keepAliveTimeout = config.keepAliveTimeout();
+        if (keepAliveTimeout != null) {
+            // properties are in seconds, zero would mean the connections are never kept alive
+            var seconds = Long.toString(Math.max(1, (keepAliveTimeout.toMillis() + 999) / 1000));
+            set(KEEP_ALIVE_TIMEOUT, seconds);
+            set(KEEP_ALIVE_TIMEOUT_H2, seconds);
+        }
+        var maxConnections = config.maxConnections();
+        if (maxConnections != null) {
+            set(CONNECTION_POOL_SIZE, Integer.toString(maxConnections));
+        }
+        clientCreated = true;
+    }
+
+    // only tests can undo the creation of the client
+    static synchronized void reset() {
+        clientCreated = false;
+    }
+
+    private static void set(String property, String value) {
+        var current = System.getProperty(property);
+        if (current != null) {
+            if (!current.equals(value)) {
+                log.warn("System property {} is already set to {}, configured value {} is ignored", property, current, value);
+            }
+            return;
+        }
+        if (clientCreated) {
+            log.warn("System property {} can't be set to {}: jdk http client reads it only once when the first client is created", property, value);
+            return;
+        }
+        System.setProperty(property, value);
+    }
+}
@@ -15,10 +15,19 @@ import java.util.function.Function;
 public class JdkHttpClientResponse implements HttpClientResponse {
     private final HttpResponse<Flow.Publisher<List<ByteBuffer>>> response;
     private final JdkHttpClientHeaders headers;
+    private final Runnable onComplete;
 
     public JdkHttpClientResponse(HttpResponse<Flow.Publisher<List<ByteBuffer>>> response) {
+        this(response, () -> {});
+    }
+
+    /**
+     * @param onComplete called when the body is read, cancelled or the response is closed, may be called more than once
+     */
+    public JdkHttpClientResponse(HttpResponse<Flow.Publisher<List<ByteBuffer>>> response, Runnable onComplete) {
         this.response = response;
         this.headers = new JdkHttpClientHeaders(this.response.headers());
+        this.onComplete = onComplete;
     }
 
     @Override
@@ -33,11 +42,14 @@ public class JdkHttpClientResponse implements HttpClientResponse {
 
     @Override
     public Flux<ByteBuffer> body() {
-        return JdkFlowAdapter.flowPublisherToFlux(this.response.body()).flatMapIterable(Function.identity());
+        return JdkFlowAdapter.flowPublisherToFlux(this.response.body())
+            .flatMapIterable(Function.identity())
+            .doOnTerminate(this.onComplete)
+            .doOnCancel(this.onComplete);
     }
 
     @Override
     public Mono<Void> close() {
-        return Mono.empty();
+        return Mono.fromRunnable(this.onComplete);
     }
 }
@@ -1,8 +1,10 @@
 package ru.tinkoff.kora.http.client.jdk;
 
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.application.graph.Lifecycle;
 import ru.tinkoff.kora.application.graph.Wrapped;
+import ru.tinkoff.kora.common.util.VirtualThreadExecutor;
 import ru.tinkoff.kora.http.client.common.HttpClientConfig;
 
 import java.net.Authenticator;
@@ -27,15 +29,15 @@ public class JdkHttpClientWrapper implements Lifecycle, Wrapped<HttpClient> {
     @Override
     public Mono<?> init() {
         return Mono.fromRunnable(() -> {
-            var executorThreads = this.config.threads();
-            if (executorThreads == null) {
-                executorThreads = Runtime.getRuntime().availableProcessors() * 2;
-            }
-            this.executor = Executors.newFixedThreadPool(executorThreads);
+            JdkHttpClientProperties.apply(this.config);
+            this.executor = this.createExecutor();
             var builder = HttpClient.newBuilder()
                 .executor(this.executor)
                 .connectTimeout(Duration.ofMillis(this.baseConfig.connectTimeout()))
                 .followRedirects(HttpClient.Redirect.NORMAL);
+            if (this.config.httpVersion() != null) {
+                builder.version(this.config.httpVersion());
+            }
             var proxyConfig = this.baseConfig.proxy();
             if (this.baseConfig.useEnvProxy() != null && this.baseConfig.useEnvProxy()) {
                 proxyConfig = HttpClientConfig.HttpClientProxyConfig.fromEnv();
@@ -58,6 +60,21 @@ public class JdkHttpClientWrapper implements Lifecycle, Wrapped<HttpClient> {
         });
     }
 
+    private ExecutorService createExecutor() {
+        var virtualThreads = this.config.virtualThreads() != null && this.config.virtualThreads();
+        if (virtualThreads && VirtualThreadExecutor.isSupported()) {
+            return VirtualThreadExecutor.create("kora-jdk-http-client-virtual-", 0);
+        }
+        if (virtualThreads) {
+            LoggerFactory.getLogger(JdkHttpClientWrapper.class).warn("Virtual threads are not supported by the current runtime {}, jdk http client uses a fixed thread pool", Runtime.version());
+        }
+        var executorThreads = this.config.threads();
+        if (executorThreads == null) {
+            executorThreads = Runtime.getRuntime().availableProcessors() * 2;
+        }
+        return Executors.newFixedThreadPool(executorThreads);
+    }
+
     @Override
     public Mono<?> release() {
         return Mono.fromRunnable(() -> {
@@ -0,0 +1,65 @@
+package ru.tinkoff.kora.http.client.jdk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkHttpClientPropertiesTest {
+    @BeforeEach
+    void setUp() {
+        clearProperties();
+        JdkHttpClientProperties.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearProperties();
+        JdkHttpClientProperties.reset();
+    }
+
+    @Test
+    void testPropertiesAreSetForFirstClient() {
+        JdkHttpClientProperties.apply(new JdkHttpClientConfig(null, null, null, Duration.ofMillis(1500), 64));
+
+        assertThat(System.getProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT)).isEqualTo("2");
+        assertThat(System.getProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT_H2)).isEqualTo("2");
+        assertThat(System.getProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE)).isEqualTo("64");
+    }
+
+    @Test
+    void testKeepAliveTimeoutIsAtLeastOneSecond() {
+        JdkHttpClientProperties.apply(new JdkHttpClientConfig(null, null, null, Duration.ZERO, null));
+
+        assertThat(System.getProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT)).isEqualTo("1");
+        assertThat(System.getProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE)).isNull();
+    }
+
+    @Test
+    void testPropertiesSetWithFlagsAreNotOverridden() {
+        System.setProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE, "10");
+
+        JdkHttpClientProperties.apply(new JdkHttpClientConfig(null, null, null, null, 64));
+
+        assertThat(System.getProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE)).isEqualTo("10");
+    }
+
+    @Test
+    void testPropertiesAreNotSetAfterFirstClient() {
+        JdkHttpClientProperties.apply(new JdkHttpClientConfig(null, null, null, null, null));
+
+        JdkHttpClientProperties.apply(new JdkHttpClientConfig(null, null, null, Duration.ofSeconds(30), 64));
+
+        assertThat(System.getProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT)).isNull();
+        assertThat(System.getProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE)).isNull();
+    }
+
+    private static void clearProperties() {
+        System.clearProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT);
+        System.clearProperty(JdkHttpClientProperties.KEEP_ALIVE_TIMEOUT_H2);
+        System.clearProperty(JdkHttpClientProperties.CONNECTION_POOL_SIZE);
+    }
+}
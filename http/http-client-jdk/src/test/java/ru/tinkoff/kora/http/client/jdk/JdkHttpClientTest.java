@@ -1,11 +1,20 @@
 package ru.tinkoff.kora.http.client.jdk;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.client.common.HttpClient;
 import ru.tinkoff.kora.http.client.common.HttpClientConfig;
 import ru.tinkoff.kora.http.client.common.HttpClientTest;
+import ru.tinkoff.kora.http.client.common.request.HttpClientRequest;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class JdkHttpClientTest extends HttpClientTest {
 
     @Override
@@ -14,4 +23,53 @@ class JdkHttpClientTest extends HttpClientTest {
             .connectTimeout(Duration.ofMillis(config.connectTimeout()));
         return new JdkHttpClient(client.build());
     }
+
+    @Test
+    void testRequestIsActiveUntilBodyIsRead() throws IOException {
+        var server = helloServer();
+        try {
+            var client = new JdkHttpClient(java.net.http.HttpClient.newHttpClient());
+            var request = HttpClientRequest.get("http://localhost:" + server.getAddress().getPort() + "/").build();
+
+            var response = client.execute(request).block(Duration.ofSeconds(10));
+            assertThat(client.activeRequests()).isEqualTo(1);
+
+            var body = ReactorUtils.toByteArrayMono(response.body()).block(Duration.ofSeconds(10));
+            assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo("hello");
+            assertThat(client.activeRequests()).isZero();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testBlockingRequestIsActiveUntilResponseIsClosed() throws IOException {
+        var server = helloServer();
+        try {
+            var client = new JdkHttpClient(java.net.http.HttpClient.newHttpClient());
+            var request = HttpClientRequest.get("http://localhost:" + server.getAddress().getPort() + "/").build();
+
+            var response = client.executeBlocking(request);
+            assertThat(client.activeRequests()).isEqualTo(1);
+
+            response.close();
+            response.close();
+            assertThat(client.activeRequests()).isZero();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer helloServer() throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            var body = "hello".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (var os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
 }
@@ -0,0 +1,61 @@
+package ru.tinkoff.kora.http.client.jdk;
+
+import org.junit.jupiter.api.Test;
+import ru.tinkoff.kora.common.util.VirtualThreadExecutor;
+import ru.tinkoff.kora.http.client.common.HttpClientConfig;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkHttpClientWrapperTest {
+    private static final HttpClientConfig BASE_CONFIG = new HttpClientConfig((Duration) null, null, null, null);
+
+    @Test
+    void testDefaultConfig() {
+        var wrapper = new JdkHttpClientWrapper(new JdkHttpClientConfig(null, null, null, null, null), BASE_CONFIG);
+        wrapper.init().block();
+        try {
+            var client = wrapper.value();
+            assertThat(client.version()).isEqualTo(HttpClient.Version.HTTP_2);
+            assertThat(client.connectTimeout()).contains(Duration.ofMillis(BASE_CONFIG.connectTimeout()));
+            assertThat(client.executor()).get()
+                .isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> assertThat(pool.getCorePoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors() * 2));
+        } finally {
+            wrapper.release().block();
+        }
+    }
+
+    @Test
+    void testThreadsAndHttpVersion() {
+        var wrapper = new JdkHttpClientWrapper(new JdkHttpClientConfig(3, false, HttpClient.Version.HTTP_1_1, null, null), BASE_CONFIG);
+        wrapper.init().block();
+        try {
+            var client = wrapper.value();
+            assertThat(client.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+            assertThat(client.executor()).get()
+                .isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> assertThat(pool.getCorePoolSize()).isEqualTo(3));
+        } finally {
+            wrapper.release().block();
+        }
+    }
+
+    @Test
+    void testVirtualThreads() {
+        var wrapper = new JdkHttpClientWrapper(new JdkHttpClientConfig(3, true, null, null, null), BASE_CONFIG);
+        wrapper.init().block();
+        try {
+            var executor = wrapper.value().executor().orElseThrow();
+            if (VirtualThreadExecutor.isSupported()) {
+                assertThat(executor).isInstanceOf(VirtualThreadExecutor.class);
+            } else {
+                // falls back to the fixed pool on runtimes without virtual threads
+                assertThat(executor).isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> assertThat(pool.getCorePoolSize()).isEqualTo(3));
+            }
+        } finally {
+            wrapper.release().block();
+        }
+    }
+}
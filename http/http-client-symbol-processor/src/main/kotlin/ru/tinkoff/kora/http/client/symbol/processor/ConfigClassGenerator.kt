@@ -21,6 +21,8 @@ class ConfigClassGenerator {
             .addReturnFun("url", String::class.asTypeName())
             .addProperty(PropertySpec.builder("requestTimeout", Duration::class.asTypeName().copy(true)).initializer("requestTimeout").build())
             .addReturnFun("requestTimeout", Duration::class.asTypeName().copy(true))
+            .addProperty(PropertySpec.builder("deadlineHeader", String::class.asTypeName().copy(true)).initializer("deadlineHeader").build())
+            .addReturnFun("deadlineHeader", String::class.asTypeName().copy(true))
 
         functions.forEach { function ->
             tb.addProperty(PropertySpec.builder("${function}Config", HttpClientOperationConfig::class.asTypeName().copy(true)).initializer("${function}Config").build())
@@ -28,6 +30,7 @@ class ConfigClassGenerator {
         val constructor = FunSpec.constructorBuilder()
             .addParameter("url", String::class)
             .addParameter("requestTimeout", Duration::class.asTypeName().copy(true))
+            .addParameter("deadlineHeader", String::class.asTypeName().copy(true))
         functions.forEach { function ->
             constructor.addParameter("${function}Config", HttpClientOperationConfig::class.asTypeName().copy(true))
         }
@@ -445,8 +445,8 @@ class HttpClientSymbolProcessorTest {
     }
 
     private fun <T> config(clazz: Class<T>, url: String, requestTimeout: Duration?, vararg configs: HttpClientOperationConfig): T {
-        val parameters = arrayOf<Any?>(url, requestTimeout).copyOf(2 + configs.size)
-        System.arraycopy(configs, 0, parameters, 2, configs.size)
+        val parameters = arrayOf<Any?>(url, requestTimeout, null).copyOf(3 + configs.size)
+        System.arraycopy(configs, 0, parameters, 3, configs.size)
         return try {
             val constructor = clazz.constructors.first()
             constructor.newInstance(*parameters) as T
@@ -5,4 +5,10 @@ public @interface HttpRoute {
     String method();
 
     String path();
+
+    /**
+     * Used by http server only: maximum request body size in bytes for the route, requests with larger body are rejected with 413.
+     * Negative value means that server default {@code httpServer.limits.maxRequestBodySize} is used.
+     */
+    long maxRequestBodySize() default -1;
 }
@@ -3,6 +3,7 @@ package ru.tinkoff.kora.http.server.annotation.processor;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.TypeName;
 import ru.tinkoff.kora.annotation.processor.common.CommonUtils;
 import ru.tinkoff.kora.http.common.annotation.HttpRoute;
@@ -29,7 +30,10 @@ public class HttpServerUtils {
     public static final ClassName interceptWithClassName = ClassName.get("ru.tinkoff.kora.http.common.annotation", "InterceptWith");
     public static final ClassName interceptWithContainerClassName = ClassName.get("ru.tinkoff.kora.http.common.annotation", "InterceptWith", "InterceptWithContainer");
 
-    record Interceptor(TypeName type, @Nullable AnnotationSpec tag) {}
+    /**
+     * @param initializer code that creates the interceptor in place, interceptor is requested from the graph when null
+     */
+    record Interceptor(TypeName type, @Nullable AnnotationSpec tag, @Nullable CodeBlock initializer) {}
 
     public static Interceptor parseInterceptor(AnnotationMirror a) {
         var interceptorType = ((TypeMirror) CommonUtils.parseAnnotationValueWithoutDefault(a, "value"));
@@ -37,7 +41,7 @@ public class HttpServerUtils {
         @Nullable
         var interceptorTag = (AnnotationMirror) CommonUtils.parseAnnotationValueWithoutDefault(a, "tag");
         var interceptorTagAnnotationSpec = interceptorTag == null ? null : AnnotationSpec.get(interceptorTag);
-        return new Interceptor(interceptorTypeName, interceptorTagAnnotationSpec);
+        return new Interceptor(interceptorTypeName, interceptorTagAnnotationSpec, null);
     }
 
     @Nullable
@@ -93,6 +97,7 @@ public class HttpServerUtils {
             executableType,
             httpMethod,
             finalPath,
+            route.maxRequestBodySize(),
             mappingData,
             responseMapper
         );
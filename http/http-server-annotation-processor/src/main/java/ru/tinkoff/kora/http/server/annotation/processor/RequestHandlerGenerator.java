@@ -2,7 +2,9 @@ package ru.tinkoff.kora.http.server.annotation.processor;
 
 import com.squareup.javapoet.*;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.annotation.processor.common.CommonClassNames;
 import ru.tinkoff.kora.annotation.processor.common.CommonUtils;
 import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.common.annotation.Header;
@@ -10,8 +12,11 @@ import ru.tinkoff.kora.http.common.annotation.Path;
 import ru.tinkoff.kora.http.common.annotation.Query;
 import ru.tinkoff.kora.http.server.common.HttpServerRequestHandler;
 import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseCacheInterceptor;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseEntity;
 import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.annotation.HttpBlockingExecutor;
+import ru.tinkoff.kora.http.server.common.annotation.HttpResponseCache;
 import ru.tinkoff.kora.http.server.common.handler.*;
 
 import javax.annotation.Nullable;
@@ -25,6 +30,8 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -86,29 +93,82 @@ public class RequestHandlerGenerator {
         var isBlocking = isBlocking(requestMappingData);
 
         if (isBlocking) {
-            methodBuilder.addParameter(TypeName.get(BlockingRequestExecutor.class), "_executor");
+            var executor = ParameterSpec.builder(TypeName.get(BlockingRequestExecutor.class), "_executor");
+            var executorTag = this.blockingExecutorTag(controller, requestMappingData);
+            if (executorTag != null) {
+                executor.addAnnotation(executorTag);
+            }
+            methodBuilder.addParameter(executor.build());
+        }
+
+        var parametersCode = this.defineParameters(parameters, methodBuilder);
+        var interceptors = this.interceptors(controller, requestMappingData);
+        for (int i = 0; i < interceptors.size(); i++) {
+            var interceptor = interceptors.get(i);
+            if (interceptor.initializer() != null) {
+                methodBuilder.addStatement("var $L = $L", "$interceptor" + (i + 1), interceptor.initializer());
+                continue;
+            }
+            var builder = ParameterSpec.builder(interceptor.type(), "$interceptor" + (i + 1));
+            if (interceptor.tag() != null) {
+                builder.addAnnotation(interceptor.tag());
+            }
+            methodBuilder.addParameter(builder.build());
         }
 
-        var handlerCode = this.buildRequestHandler(controller, requestMappingData, parameters, methodBuilder);
+        if (isBlocking) {
+            var blockingConditions = this.addBlockingPipelineComponents(methodBuilder, requestMappingData, parameters, interceptors);
+            var blockingHandlerCode = this.buildBlockingRequestHandler(requestMappingData, parameters, parametersCode, interceptors);
+            final CodeBlock blockingReturn;
+            if (requestMappingData.maxRequestBodySize() >= 0) {
+                blockingReturn = CodeBlock.of("return new $T($S, $S, $LL, _executor, _request -> {$>\n$L\n$<});\n",
+                    BlockingHttpServerRequestHandlerImpl.class,
+                    requestMappingData.httpMethod(),
+                    requestMappingData.route(),
+                    requestMappingData.maxRequestBodySize(),
+                    blockingHandlerCode
+                );
+            } else {
+                blockingReturn = CodeBlock.of("return $T.$L($S, _executor, _request -> {$>\n$L\n$<});\n",
+                    BlockingHttpServerRequestHandlerImpl.class,
+                    requestMappingData.httpMethod().toLowerCase(),
+                    requestMappingData.route(),
+                    blockingHandlerCode
+                );
+            }
+            if (blockingConditions.isEmpty()) {
+                methodBuilder.addCode(blockingReturn);
+                return methodBuilder.build();
+            }
+            methodBuilder.beginControlFlow("if ($L)", String.join(" && ", blockingConditions));
+            methodBuilder.addCode(blockingReturn);
+            methodBuilder.endControlFlow();
+        }
 
-        methodBuilder.addCode("return $T.$L($S, _request -> {$>\n$L\n$<});",
-            HttpServerRequestHandlerImpl.class,
-            requestMappingData.httpMethod().toLowerCase(),
-            requestMappingData.route(),
-            handlerCode
-        );
+        var handlerCode = this.buildRequestHandler(requestMappingData, parameters, parametersCode, interceptors);
+
+        if (requestMappingData.maxRequestBodySize() >= 0) {
+            methodBuilder.addCode("return new $T($S, $S, $LL, _request -> {$>\n$L\n$<});",
+                HttpServerRequestHandlerImpl.class,
+                requestMappingData.httpMethod(),
+                requestMappingData.route(),
+                requestMappingData.maxRequestBodySize(),
+                handlerCode
+            );
+        } else {
+            methodBuilder.addCode("return $T.$L($S, _request -> {$>\n$L\n$<});",
+                HttpServerRequestHandlerImpl.class,
+                requestMappingData.httpMethod().toLowerCase(),
+                requestMappingData.route(),
+                handlerCode
+            );
+        }
 
         return methodBuilder.build();
     }
 
-    private CodeBlock buildRequestHandler(TypeElement controller, RequestMappingData requestMappingData, List<Parameter> parameters, MethodSpec.Builder methodBuilder) {
-        var handler = CodeBlock.builder();
-        var isBlocking = this.isBlocking(requestMappingData);
-        var returnType = requestMappingData.executableType().getReturnType();
-        var returnVoid = isVoidReturnType(returnType);
-        var isNullable = this.isNullable(requestMappingData);
-        var isMonoVoid = this.isMonoVoidReturnType(requestMappingData);
-
+    private CodeBlock defineParameters(List<Parameter> parameters, MethodSpec.Builder methodBuilder) {
+        var code = CodeBlock.builder();
         for (var parameter : parameters) {
             var codeBlock = switch (parameter.parameterType) {
                 case PATH -> this.definePathParameter(parameter, methodBuilder);
@@ -116,16 +176,117 @@ public class RequestHandlerGenerator {
                 case HEADER -> this.defineHeaderParameter(parameter, methodBuilder);
                 case MAPPED_HTTP_REQUEST -> CodeBlock.of("");
             };
-            handler.add(codeBlock);
-            handler.add("\n");
+            code.add(codeBlock);
+            code.add("\n");
+        }
+        return code.build();
+    }
 
+    @Nullable
+    private AnnotationSpec blockingExecutorTag(TypeElement controller, RequestMappingData requestMappingData) {
+        var tag = CommonUtils.parseAnnotationClassValue(requestMappingData.executableElement(), HttpBlockingExecutor.class.getCanonicalName());
+        if (tag.length == 0) {
+            tag = CommonUtils.parseAnnotationClassValue(controller, HttpBlockingExecutor.class.getCanonicalName());
         }
+        if (tag.length == 0) {
+            return null;
+        }
+        return AnnotationSpec.builder(CommonClassNames.tag).addMember("value", CommonUtils.writeTagAnnotationValue(tag)).build();
+    }
+
+    private List<HttpServerUtils.Interceptor> interceptors(TypeElement controller, RequestMappingData requestMappingData) {
         var interceptors = Stream.concat(
                 CommonUtils.findRepeatableAnnotationsOnElement(controller, interceptWithClassName, interceptWithContainerClassName).stream().map(HttpServerUtils::parseInterceptor),
                 CommonUtils.findRepeatableAnnotationsOnElement(requestMappingData.executableElement(), interceptWithClassName, interceptWithContainerClassName).stream().map(HttpServerUtils::parseInterceptor)
             )
             .distinct()
-            .toList();
+            .collect(Collectors.toCollection(ArrayList::new));
+        var responseCache = requestMappingData.executableElement().getAnnotation(HttpResponseCache.class);
+        if (responseCache != null) {
+            // innermost, so the cached response is produced after all the other interceptors let the request through
+            var initializer = CodeBlock.of("new $T($LL, $T.of($LL, $T.$L))",
+                HttpServerResponseCacheInterceptor.class, responseCache.maxBytes(), Duration.class, responseCache.ttl(), ChronoUnit.class, responseCache.unit().name());
+            interceptors.add(new HttpServerUtils.Interceptor(ClassName.get(HttpServerResponseCacheInterceptor.class), null, initializer));
+        }
+        return interceptors;
+    }
+
+    /**
+     * Blocking pipeline is available only when every mapper and interceptor of the route has a blocking implementation,
+     * that is checked at runtime when the handler is created.
+     *
+     * @return conditions for the blocking pipeline to be used
+     */
+    private List<String> addBlockingPipelineComponents(MethodSpec.Builder methodBuilder, RequestMappingData requestMappingData, List<Parameter> parameters, List<HttpServerUtils.Interceptor> interceptors) {
+        var conditions = new ArrayList<String>();
+        for (var parameter : parameters) {
+            if (parameter.parameterType != MAPPED_HTTP_REQUEST) {
+                continue;
+            }
+            var blockingMapperName = parameter.name + "BlockingHttpRequestMapper";
+            methodBuilder.addStatement("var $L = $T.of($LHttpRequestMapper)", blockingMapperName, BlockingHttpServerRequestMapper.class, parameter.name);
+            conditions.add(blockingMapperName + " != null");
+        }
+        if (!isVoidReturnType(requestMappingData.executableType().getReturnType())) {
+            methodBuilder.addStatement("var _blockingResponseMapper = $T.of(_responseMapper)", BlockingHttpServerResponseMapper.class);
+            conditions.add("_blockingResponseMapper != null");
+        }
+        for (int i = 0; i < interceptors.size(); i++) {
+            var blockingInterceptorName = "$blockingInterceptor" + (i + 1);
+            methodBuilder.addStatement("var $L = $T.of($L)", blockingInterceptorName, BlockingHttpServerInterceptor.class, "$interceptor" + (i + 1));
+            conditions.add(blockingInterceptorName + " != null");
+        }
+        return conditions;
+    }
+
+    private CodeBlock buildBlockingRequestHandler(RequestMappingData requestMappingData, List<Parameter> parameters, CodeBlock parametersCode, List<HttpServerUtils.Interceptor> interceptors) {
+        var handler = CodeBlock.builder();
+        var returnType = requestMappingData.executableType().getReturnType();
+        var returnVoid = isVoidReturnType(returnType);
+        var executeParameters = parameters.stream()
+            .map(_p -> _p.variableElement.getSimpleName())
+            .collect(Collectors.joining(", "));
+
+        handler.add(parametersCode);
+        handler.add("\n");
+        var requestName = "_request";
+        for (int i = 0; i < interceptors.size(); i++) {
+            var newRequestName = "$request" + (i + 1);
+            handler.add("return $L.interceptBlocking($L, $L -> {$>\n", "$blockingInterceptor" + (i + 1), requestName, newRequestName);
+            requestName = newRequestName;
+        }
+        for (var parameter : parameters) {
+            if (parameter.parameterType == MAPPED_HTTP_REQUEST) {
+                handler.addStatement("var $L = $LBlockingHttpRequestMapper.applyBlocking($L)", parameter.variableElement.getSimpleName(), parameter.name, requestName);
+            }
+        }
+        if (returnVoid) {
+            handler.addStatement("_controller.$L($L)", requestMappingData.executableElement().getSimpleName(), executeParameters);
+            handler.addStatement("return new $T(200, \"application/octet-stream\", $T.of(), $T.allocate(0))", SimpleHttpServerResponse.class, HttpHeaders.class, ByteBuffer.class);
+        } else {
+            handler.addStatement("var _result = _controller.$L($L)", requestMappingData.executableElement().getSimpleName(), executeParameters);
+            if (!returnType.getKind().isPrimitive() && !this.isNullable(requestMappingData)) {
+                handler.beginControlFlow("if (_result == null)");
+                handler.addStatement("return null");
+                handler.endControlFlow();
+            }
+            handler.addStatement("return _blockingResponseMapper.applyBlocking(_result)");
+        }
+        for (var i : interceptors) {
+            handler.add("$<});\n");
+        }
+        return handler.build();
+    }
+
+    private CodeBlock buildRequestHandler(RequestMappingData requestMappingData, List<Parameter> parameters, CodeBlock parametersCode, List<HttpServerUtils.Interceptor> interceptors) {
+        var handler = CodeBlock.builder();
+        var isBlocking = this.isBlocking(requestMappingData);
+        var returnType = requestMappingData.executableType().getReturnType();
+        var returnVoid = isVoidReturnType(returnType);
+        var isNullable = this.isNullable(requestMappingData);
+        var isMonoVoid = this.isMonoVoidReturnType(requestMappingData);
+
+        handler.add(parametersCode);
         handler.add("\n");
         handler.add("return ");
         var executeParameters = parameters.stream()
@@ -153,6 +314,9 @@ public class RequestHandlerGenerator {
                 .add("$T.deferContextual(_ctx -> _controller.$L($L))\n", Mono.class, requestMappingData.executableElement().getSimpleName(), executeParameters)
                 .add("  .thenReturn(new $T(200, \"application/octet-stream\", $T.of(), $T.allocate(0)))", SimpleHttpServerResponse.class, HttpHeaders.class, ByteBuffer.class)
                 .build();
+        } else if (this.isFluxReturnType(returnType)) {
+            // flux is passed to the response mapper as is, so it can stream elements without collecting them
+            controllerCall = CodeBlock.of("$T.deferContextual(_ctx -> $T.just(_controller.$L($L)))", Mono.class, Mono.class, requestMappingData.executableElement().getSimpleName(), executeParameters);
         } else {
             controllerCall = CodeBlock.of("$T.deferContextual(_ctx -> _controller.$L($L))", Mono.class, requestMappingData.executableElement().getSimpleName(), executeParameters);
         }
@@ -160,16 +324,10 @@ public class RequestHandlerGenerator {
         var requestMappingBlock = CodeBlock.builder();
         var requestName = "_request";
         for (int i = 0; i < interceptors.size(); i++) {
-            var interceptor = interceptors.get(i);
             var interceptorName = "$interceptor" + (i + 1);
             var newRequestName = "$request" + (i + 1);
             requestMappingBlock.add("$L.intercept($L, $L -> $>\n", interceptorName, requestName, newRequestName);
             requestName = newRequestName;
-            var builder = ParameterSpec.builder(interceptor.type(), interceptorName);
-            if (interceptor.tag() != null) {
-                builder.addAnnotation(interceptor.tag());
-            }
-            methodBuilder.addParameter(builder.build());
         }
         for (var mappedParameter : mappedParameters) {
             requestMappingBlock.add("""
@@ -211,6 +369,11 @@ public class RequestHandlerGenerator {
         return typeMirror.toString().equals("java.lang.Void");
     }
 
+    private boolean isFluxReturnType(TypeMirror returnType) {
+        var fluxType = this.elements.getTypeElement(Flux.class.getCanonicalName()).asType();
+        return this.types.isAssignable(returnType, this.types.erasure(fluxType));
+    }
+
     private CodeBlock definePathParameter(Parameter parameter, MethodSpec.Builder methodBuilder) {
         var code = CodeBlock.builder();
         var typeString = parameter.type.toString();
@@ -611,6 +774,8 @@ public class RequestHandlerGenerator {
         if (isVoidReturnType(returnType)) {
             var voidType = this.elements.getTypeElement(HttpServerResponse.class.getCanonicalName());
             typeName = this.types.getDeclaredType(this.httpServerResponseMapperElement, voidType.asType());
+        } else if (this.isFluxReturnType(returnType)) {
+            typeName = this.types.getDeclaredType(this.httpServerResponseMapperElement, returnType);
         } else if (this.types.isAssignable(returnType, publisherTypeErasure)) {
             var resultType = ((DeclaredType) returnType).getTypeArguments().get(0);
             if (this.types.isAssignable(resultType, this.httpServerResponseEntityWildcard)) {
@@ -13,6 +13,7 @@ public record RequestMappingData(
     ExecutableType executableType,
     String httpMethod,
     String route,
+    long maxRequestBodySize,
     Map<VariableElement, CommonUtils.MappingData> httpRequestMappingData,
     @Nullable CommonUtils.MappingData responseMapper
 ) {
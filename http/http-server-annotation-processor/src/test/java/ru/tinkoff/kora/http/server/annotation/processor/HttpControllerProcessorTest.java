@@ -2,12 +2,19 @@ package ru.tinkoff.kora.http.server.annotation.processor;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.annotation.processor.common.TestUtils;
+import ru.tinkoff.kora.common.Tag;
 import ru.tinkoff.kora.http.server.annotation.processor.controller.*;
 import ru.tinkoff.kora.http.server.annotation.processor.server.TestHttpServer;
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -170,6 +177,74 @@ class HttpControllerProcessorTest {
             .verifyBody("null");
     }
 
+    @Test
+    void testFluxResult() {
+        var server = TestHttpServer.fromController(TestControllerWithFluxResult.class);
+        when(server.controller.flux()).thenCallRealMethod();
+
+        server.invoke("GET", "/flux", new byte[0])
+            .verifyStatus(200)
+            .verifyBody("abc");
+    }
+
+    @Test
+    void testRequestBodyLimit() {
+        var server = TestHttpServer.fromController(TestControllerWithRequestBodyLimit.class);
+
+        assertThat(server.handler(POST, "/limited").maxRequestBodySize()).isEqualTo(1024);
+        assertThat(server.handler(POST, "/limitedBlocking").maxRequestBodySize()).isEqualTo(2048);
+        assertThat(server.handler(POST, "/default").maxRequestBodySize()).isEqualTo(-1);
+    }
+
+    @Test
+    void testBlockingExecutorTag() throws Exception {
+        var classLoader = TestUtils.annotationProcess(TestControllerWithBlockingExecutor.class, new HttpControllerProcessor());
+        var module = classLoader.loadClass(TestControllerWithBlockingExecutor.class.getCanonicalName() + "Module");
+        var tags = new HashMap<String, List<String>>();
+        for (var method : module.getMethods()) {
+            for (var parameter : method.getParameters()) {
+                if (parameter.getType().equals(BlockingRequestExecutor.class)) {
+                    var tag = parameter.getAnnotation(Tag.class);
+                    tags.put(method.getName(), tag == null ? List.of() : Stream.of(tag.value()).map(Class::getName).toList());
+                }
+            }
+        }
+
+        assertThat(tags).containsOnly(
+            Map.entry("get_controller", List.of(TestControllerWithBlockingExecutor.class.getName())),
+            Map.entry("get_method", List.of(TestControllerWithBlockingExecutor.Reports.class.getName()))
+        );
+    }
+
+    @Test
+    void testResponseCache() {
+        var server = TestHttpServer.fromController(TestControllerWithResponseCache.class);
+        when(server.controller.etag()).thenCallRealMethod();
+        when(server.controller.cached()).thenCallRealMethod();
+
+        var etag = server.invoke("GET", "/etag", new byte[0])
+            .verifyStatus(200)
+            .verifyBody("etag")
+            .header("etag");
+        assertThat(etag).startsWith("\"");
+        server.invoke("GET", "/etag", new byte[0], Map.entry("if-none-match", etag))
+            .verifyStatus(304)
+            .verifyHeader("etag", etag)
+            .verifyBody("");
+        verify(server.controller, times(2)).etag();
+
+        var cachedEtag = server.invoke("GET", "/cached", new byte[0])
+            .verifyStatus(200)
+            .verifyBody("cached")
+            .header("etag");
+        server.invoke("GET", "/cached", new byte[0])
+            .verifyStatus(200)
+            .verifyBody("cached");
+        server.invoke("GET", "/cached", new byte[0], Map.entry("if-none-match", "W/" + cachedEtag))
+            .verifyStatus(304);
+        verify(server.controller, times(1)).cached();
+    }
+
     @Test
     void testResponseEntity() {
         var server = TestHttpServer.fromController(TestControllerWithResponseEntity.class);
@@ -200,6 +275,16 @@ class HttpControllerProcessorTest {
             .verifyBody("first, second, third, fourth");
     }
 
+    @Test
+    void testBlockingPipeline() {
+        var server = TestHttpServer.fromController(TestControllerWithBlockingPipeline.class);
+        when(server.controller.blocking(any())).thenCallRealMethod();
+
+        server.invoke("GET", "/blocking?value=test", new byte[0])
+            .verifyStatus(201)
+            .verifyBody("test");
+    }
+
     @Test
     void testControllerWithInterceptors() {
         var server = TestHttpServer.fromController(TestControllerWithInterceptors.class);
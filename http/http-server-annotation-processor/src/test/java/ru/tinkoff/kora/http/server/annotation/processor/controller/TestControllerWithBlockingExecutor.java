@@ -0,0 +1,24 @@
+package ru.tinkoff.kora.http.server.annotation.processor.controller;
+
+import ru.tinkoff.kora.http.common.annotation.HttpRoute;
+import ru.tinkoff.kora.http.server.common.annotation.HttpBlockingExecutor;
+import ru.tinkoff.kora.http.server.common.annotation.HttpController;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.GET;
+
+@HttpController
+@HttpBlockingExecutor(TestControllerWithBlockingExecutor.class)
+public class TestControllerWithBlockingExecutor {
+    public static final class Reports {}
+
+    @HttpRoute(method = GET, path = "/controller")
+    public String controller() {
+        return "controller";
+    }
+
+    @HttpBlockingExecutor(Reports.class)
+    @HttpRoute(method = GET, path = "/method")
+    public String method() {
+        return "method";
+    }
+}
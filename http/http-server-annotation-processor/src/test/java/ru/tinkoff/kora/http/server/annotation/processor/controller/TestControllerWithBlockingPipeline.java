@@ -0,0 +1,37 @@
+package ru.tinkoff.kora.http.server.annotation.processor.controller;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.annotation.HttpRoute;
+import ru.tinkoff.kora.http.common.annotation.InterceptWith;
+import ru.tinkoff.kora.http.common.annotation.Query;
+import ru.tinkoff.kora.http.server.common.BlockingHttpServerInterceptor;
+import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.annotation.HttpController;
+
+import java.util.function.Function;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.GET;
+
+@HttpController
+@InterceptWith(TestControllerWithBlockingPipeline.TestBlockingHttpServerInterceptor.class)
+public class TestControllerWithBlockingPipeline {
+    public static class TestBlockingHttpServerInterceptor implements BlockingHttpServerInterceptor {
+        @Override
+        public Mono<HttpServerResponse> intercept(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain) {
+            return chain.apply(request);
+        }
+
+        @Override
+        public HttpServerResponse interceptBlocking(HttpServerRequest request, Chain chain) throws Exception {
+            var response = chain.process(request);
+            return new SimpleHttpServerResponse(201, response.contentType(), response.headers(), response.contentLength(), response.body());
+        }
+    }
+
+    @HttpRoute(method = GET, path = "/blocking")
+    public String blocking(@Query("value") String value) {
+        return value;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.tinkoff.kora.http.server.annotation.processor.controller;
+
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.common.annotation.HttpRoute;
+import ru.tinkoff.kora.http.server.common.annotation.HttpController;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.GET;
+
+@HttpController
+public class TestControllerWithFluxResult {
+
+    @HttpRoute(method = GET, path = "/flux")
+    public Flux<String> flux() {
+        return Flux.just("a", "b", "c");
+    }
+
+}
@@ -0,0 +1,26 @@
+package ru.tinkoff.kora.http.server.annotation.processor.controller;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.annotation.HttpRoute;
+import ru.tinkoff.kora.http.server.common.annotation.HttpController;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.POST;
+
+@HttpController
+public class TestControllerWithRequestBodyLimit {
+
+    @HttpRoute(method = POST, path = "/limited", maxRequestBodySize = 1024)
+    public Mono<String> limited(String body) {
+        return Mono.just(body);
+    }
+
+    @HttpRoute(method = POST, path = "/limitedBlocking", maxRequestBodySize = 2048)
+    public String limitedBlocking(String body) {
+        return body;
+    }
+
+    @HttpRoute(method = POST, path = "/default")
+    public String defaultLimit(String body) {
+        return body;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.tinkoff.kora.http.server.annotation.processor.controller;
+
+import ru.tinkoff.kora.http.common.annotation.HttpRoute;
+import ru.tinkoff.kora.http.server.common.annotation.HttpController;
+import ru.tinkoff.kora.http.server.common.annotation.HttpResponseCache;
+
+import java.time.temporal.ChronoUnit;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.GET;
+
+@HttpController
+public class TestControllerWithResponseCache {
+
+    @HttpResponseCache
+    @HttpRoute(method = GET, path = "/etag")
+    public String etag() {
+        return "etag";
+    }
+
+    @HttpResponseCache(maxBytes = 1024 * 1024, ttl = 1, unit = ChronoUnit.MINUTES)
+    @HttpRoute(method = GET, path = "/cached")
+    public String cached() {
+        return "cached";
+    }
+}
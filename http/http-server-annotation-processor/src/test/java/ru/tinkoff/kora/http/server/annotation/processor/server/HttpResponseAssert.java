@@ -70,6 +70,17 @@ public class HttpResponseAssert {
         return this;
     }
 
+    public HttpResponseAssert verifyHeader(String name, String expected) {
+        Assertions.assertThat(this.headers.getFirst(name))
+            .withFailMessage("Expected header %s: %s, got %s", name, expected, this.headers.getFirst(name))
+            .isEqualTo(expected);
+        return this;
+    }
+
+    public String header(String name) {
+        return this.headers.getFirst(name);
+    }
+
     public AbstractByteArrayAssert<?> verifyBody() {
         return Assertions.assertThat(this.body);
     }
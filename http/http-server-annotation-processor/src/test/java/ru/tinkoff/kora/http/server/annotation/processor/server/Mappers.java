@@ -1,6 +1,7 @@
 package ru.tinkoff.kora.http.server.annotation.processor.server;
 
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
@@ -40,7 +41,7 @@ public class Mappers {
         }
         var parameter = (ParameterizedType) type;
         if (parameter.getRawType() instanceof Class<?> clazz && HttpServerResponseEntityMapper.class.isAssignableFrom(clazz)) {
-            return Tuples.of(HttpServerResponseEntityMapper.class, new HttpServerResponseEntityMapper<>(lookupResponseMapper(parameter)));
+            return Tuples.of(HttpServerResponseEntityMapper.class, HttpServerResponseEntityMapper.of(lookupResponseMapper(parameter)));
         }
         if (parameter.getRawType() instanceof Class clazz && HttpServerRequestMapper.class.isAssignableFrom(clazz)) {
             return Tuples.of(HttpServerRequestMapper.class, lookupRequestMapper(parameter));
@@ -124,7 +125,10 @@ public class Mappers {
             return jsonResponseMapper(TypeRef.of(SomeEntity.class));
         }
         if (responseType.equals(TypeRef.of(HttpServerResponseEntity.class, TypeRef.of(String.class)))) {
-            return new HttpServerResponseEntityMapper<>(stringResponseMapper());
+            return HttpServerResponseEntityMapper.of(stringResponseMapper());
+        }
+        if (responseType.equals(TypeRef.of(Flux.class, TypeRef.of(String.class)))) {
+            return stringFluxResponseMapper();
         }
 
         throw new RuntimeException("Unknown test response mapper: " + responseType);
@@ -156,7 +160,11 @@ public class Mappers {
     }
 
     private static HttpServerResponseMapper<String> stringResponseMapper() {
-        return result -> Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of(), StandardCharsets.UTF_8.encode(result != null ? result : "null")));
+        return (BlockingHttpServerResponseMapper<String>) result -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of(), StandardCharsets.UTF_8.encode(result != null ? result : "null"));
+    }
+
+    private static HttpServerResponseMapper<Flux<String>> stringFluxResponseMapper() {
+        return r -> Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of(), -1, r.map(StandardCharsets.UTF_8::encode)));
     }
 
     private static HttpServerRequestMapper<Integer> integerRequestMapper() {
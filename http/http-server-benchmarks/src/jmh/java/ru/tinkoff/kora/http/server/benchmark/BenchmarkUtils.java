@@ -0,0 +1,65 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.HttpServerInterceptor;
+import ru.tinkoff.kora.http.server.common.HttpServerRequestHandler;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.DefaultHttpServerTelemetry;
+import ru.tinkoff.kora.http.server.undertow.UndertowHttpServer;
+import ru.tinkoff.kora.http.server.undertow.UndertowPublicApiHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkUtils {
+    private BenchmarkUtils() {}
+
+    static HttpServerConfig config() {
+        return new HttpServerConfig(0, 0, HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_READINESS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_LIVENESS_PATH, 2, 16, 0, false, false, 0,
+            HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_SCRAPE_INTERVAL,
+            new HttpServerConfig.ConnectionConfig(null, null, null, null, null),
+            new HttpServerConfig.LimitsConfig(null, null, null),
+            new HttpServerConfig.LoadSheddingConfig(null, null, null, null, null, null),
+            new HttpServerConfig.TelemetryConfig(null, null, null, null),
+            new HttpServerConfig.MultipartConfig(null, null),
+            new HttpServerConfig.ProbesConfig(null, null, null, null));
+    }
+
+    static PublicApiHandler publicApiHandler(List<HttpServerRequestHandler> handlers, List<HttpServerInterceptor> interceptors) {
+        var handlerValues = new ArrayList<ValueOf<HttpServerRequestHandler>>(handlers.size());
+        for (var handler : handlers) {
+            handlerValues.add(valueOf(handler));
+        }
+        var interceptorValues = new ArrayList<ValueOf<HttpServerInterceptor>>(interceptors.size());
+        for (var interceptor : interceptors) {
+            interceptorValues.add(valueOf(interceptor));
+        }
+        return new PublicApiHandler(All.of(handlerValues), All.of(interceptorValues), valueOf(new DefaultHttpServerTelemetry(null, null, null)));
+    }
+
+    /**
+     * Starts undertow server on a random loopback port, {@link UndertowHttpServer#port()} should be used to send requests to it
+     */
+    static UndertowHttpServer startServer(PublicApiHandler publicApiHandler) {
+        var server = new UndertowHttpServer(valueOf(config()), valueOf(new UndertowPublicApiHandler(publicApiHandler, null)), null);
+        server.init().block();
+        return server;
+    }
+
+    static <T> ValueOf<T> valueOf(T object) {
+        return new ValueOf<>() {
+            @Override
+            public T get() {
+                return object;
+            }
+
+            @Override
+            public Mono<Void> refresh() {
+                return Mono.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerRequestHandler;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.handler.RequestHandlerUtils;
+import ru.tinkoff.kora.http.server.undertow.UndertowHttpServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full request through the undertow listener on loopback: request parsing, routing, parameter parsing, handler dispatch and response writing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class LoopbackRequestBenchmark {
+    @Param({"false", "true"})
+    boolean blocking;
+
+    UndertowHttpServer server;
+    ExecutorService blockingExecutor;
+    HttpClient client;
+    HttpRequest request;
+
+    @Setup
+    public void setup() {
+        final HttpServerRequestHandler handler;
+        if (this.blocking) {
+            this.blockingExecutor = Executors.newFixedThreadPool(16);
+            handler = BlockingHttpServerRequestHandlerImpl.get("/users/{id}", new BlockingRequestExecutor.Default(this.blockingExecutor), request -> {
+                var id = RequestHandlerUtils.parseLongPathParameter(request, "id");
+                return new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(Long.toString(id)));
+            });
+        } else {
+            handler = HttpServerRequestHandlerImpl.get("/users/{id}", request -> Mono.fromCallable(() -> {
+                var id = RequestHandlerUtils.parseLongPathParameter(request, "id");
+                return new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(Long.toString(id)));
+            }));
+        }
+        this.server = BenchmarkUtils.startServer(BenchmarkUtils.publicApiHandler(List.of(handler), List.of()));
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.server.port() + "/users/123456")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.server.release().block();
+        if (this.blockingExecutor != null) {
+            this.blockingExecutor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String request() throws Exception {
+        var response = this.client.send(this.request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode());
+        }
+        return response.body();
+    }
+}
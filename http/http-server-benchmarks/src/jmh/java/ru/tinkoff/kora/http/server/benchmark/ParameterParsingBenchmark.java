@@ -0,0 +1,76 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
+import ru.tinkoff.kora.http.server.common.handler.RequestHandlerUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parameter parsing as it is done by the generated controller handlers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ParameterParsingBenchmark {
+    HttpServerRequest request;
+
+    @Setup
+    public void setup() {
+        this.request = new Request(
+            Map.of("id", "123456", "uuid", UUID.randomUUID().toString()),
+            Map.of("limit", List.of("100"), "name", List.of("some-name"), "ids", List.of("1", "2", "3", "4", "5", "6", "7", "8")),
+            HttpHeaders.of("x-request-id", UUID.randomUUID().toString(), "x-attempt", "3")
+        );
+    }
+
+    @Benchmark
+    public void pathParameters(Blackhole bh) throws HttpServerResponseException {
+        bh.consume(RequestHandlerUtils.parseLongPathParameter(this.request, "id"));
+        bh.consume(RequestHandlerUtils.parseUUIDPathParameter(this.request, "uuid"));
+    }
+
+    @Benchmark
+    public void queryParameters(Blackhole bh) throws HttpServerResponseException {
+        bh.consume(RequestHandlerUtils.parseIntegerQueryParameter(this.request, "limit"));
+        bh.consume(RequestHandlerUtils.parseOptionalStringQueryParameter(this.request, "name"));
+        bh.consume(RequestHandlerUtils.parseOptionalStringQueryParameter(this.request, "missing"));
+        bh.consume(RequestHandlerUtils.parseLongListQueryParameter(this.request, "ids"));
+    }
+
+    @Benchmark
+    public void headerParameters(Blackhole bh) throws HttpServerResponseException {
+        bh.consume(RequestHandlerUtils.parseStringHeaderParameter(this.request, "x-request-id"));
+        bh.consume(RequestHandlerUtils.parseIntegerHeaderParameter(this.request, "x-attempt"));
+        bh.consume(RequestHandlerUtils.parseOptionalStringHeaderParameter(this.request, "x-missing"));
+    }
+
+    private record Request(Map<String, String> pathParams, Map<String, ? extends Collection<String>> queryParams, HttpHeaders headers) implements HttpServerRequest {
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        @Override
+        public String path() {
+            return "/";
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.empty();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.undertow.UndertowHttpServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response writing of the undertow sender for the single buffer bodies and chunked publisher bodies of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class ResponseWritingBenchmark {
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"buffer", "chunked"})
+    String body;
+
+    @Param({"0", "1024", "65536", "1048576"})
+    int bodySize;
+
+    UndertowHttpServer server;
+    HttpClient client;
+    HttpRequest request;
+
+    @Setup
+    public void setup() {
+        var bytes = new byte[this.bodySize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        final Mono<HttpServerResponse> response;
+        if (this.body.equals("buffer")) {
+            response = Mono.fromSupplier(() -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, ByteBuffer.wrap(bytes)));
+        } else {
+            var chunks = new ArrayList<ByteBuffer>();
+            for (int i = 0; i < bytes.length; i += CHUNK_SIZE) {
+                chunks.add(ByteBuffer.wrap(bytes, i, Math.min(CHUNK_SIZE, bytes.length - i)));
+            }
+            // content length is unknown, so the response is written with chunked transfer encoding
+            response = Mono.fromSupplier(() -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, -1, Flux.fromIterable(chunks).map(ByteBuffer::slice)));
+        }
+        var handler = HttpServerRequestHandlerImpl.get("/response", request -> response);
+        this.server = BenchmarkUtils.startServer(BenchmarkUtils.publicApiHandler(List.of(handler), List.of()));
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.server.port() + "/response")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.server.release().block();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int response() throws Exception {
+        var response = this.client.send(this.request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.*;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request dispatch through {@link PublicApiHandler} without any network: route matching, interceptor chain and response handoff to the sender.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class RoutingBenchmark {
+    private static final Mono<HttpServerResponseSender.SendResult> SUCCESS = Mono.just(new HttpServerResponseSender.Success(200));
+
+    @Param({"10", "100", "1000"})
+    int routes;
+
+    @Param({"0", "3"})
+    int interceptors;
+
+    PublicApiHandler handler;
+    PublicApiHandler.PublicApiRequest[] requests;
+    PublicApiHandler.PublicApiRequest[] missingRequests;
+    HttpServerResponseSender sender;
+    int code;
+    int idx = 0;
+
+    @Setup
+    public void setup() {
+        var response = Mono.<HttpServerResponse>just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, null));
+        var templates = new ArrayList<String>();
+        var handlers = new ArrayList<HttpServerRequestHandler>();
+        for (int i = 0; i < this.routes; i++) {
+            var template = switch (i % 4) {
+                case 0 -> "/api/v1/static" + i;
+                case 1 -> "/api/v1/resource" + i + "/{id}";
+                case 2 -> "/api/v1/resource" + i + "/{id}/items/{itemId}";
+                default -> "/api/v1/{tenant}/resource" + i + "/{id}";
+            };
+            templates.add(template);
+            handlers.add(new HttpServerRequestHandlerImpl("GET", template, request -> response));
+        }
+        var interceptors = new ArrayList<HttpServerInterceptor>();
+        for (int i = 0; i < this.interceptors; i++) {
+            interceptors.add((request, chain) -> chain.apply(request));
+        }
+        this.handler = BenchmarkUtils.publicApiHandler(handlers, interceptors);
+        this.sender = r -> {
+            this.code = r.code();
+            return SUCCESS;
+        };
+
+        var random = new Random(1337);
+        this.requests = new PublicApiHandler.PublicApiRequest[1024];
+        this.missingRequests = new PublicApiHandler.PublicApiRequest[1024];
+        for (int i = 0; i < this.requests.length; i++) {
+            var path = templates.get(random.nextInt(templates.size()))
+                .replace("{id}", Integer.toString(random.nextInt(100000)))
+                .replace("{itemId}", Integer.toString(random.nextInt(100000)))
+                .replace("{tenant}", "tenant" + random.nextInt(10));
+            this.requests[i] = request(path);
+            this.missingRequests[i] = request("/api/v2/missing" + random.nextInt(this.routes) + "/" + random.nextInt(100000));
+        }
+    }
+
+    @Benchmark
+    public int hit() {
+        this.handler.process(this.requests[this.idx++ & (this.requests.length - 1)], this.sender);
+        return this.code;
+    }
+
+    @Benchmark
+    public int miss() {
+        this.handler.process(this.missingRequests[this.idx++ & (this.missingRequests.length - 1)], this.sender);
+        return this.code;
+    }
+
+    private static PublicApiHandler.PublicApiRequest request(String path) {
+        return new PublicApiHandler.PublicApiRequest("GET", path, "localhost", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.tinkoff.kora.http.server.benchmark;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.common.util.ReactorUtils;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServer;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.netty.NettyHttpServer;
+import ru.tinkoff.kora.http.server.netty.NettyPublicApiHandler;
+import ru.tinkoff.kora.http.server.undertow.UndertowHttpServer;
+import ru.tinkoff.kora.http.server.undertow.UndertowPublicApiHandler;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same handlers on undertow and netty servers over loopback: small response and request body upload.
+ * Both servers use the same number of io threads, so the difference is request parsing, body reading and response writing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class ServerComparisonBenchmark {
+    @Param({"undertow", "netty"})
+    String server;
+
+    HttpServer httpServer;
+    EventLoopGroup bossEventLoop;
+    EventLoopGroup eventLoop;
+    HttpClient client;
+    HttpRequest getRequest;
+    HttpRequest postRequest;
+
+    @Setup
+    public void setup() {
+        var publicApiHandler = BenchmarkUtils.publicApiHandler(List.of(
+            HttpServerRequestHandlerImpl.get("/hello", request -> Mono.just(
+                new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode("Hello world"))
+            )),
+            HttpServerRequestHandlerImpl.post("/upload", request -> ReactorUtils.toByteArrayMono(Flux.from(request.body()))
+                .map(body -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(Integer.toString(body.length)))))
+        ), List.of());
+        var config = BenchmarkUtils.valueOf(BenchmarkUtils.config());
+        if (this.server.equals("netty")) {
+            this.bossEventLoop = new NioEventLoopGroup(1);
+            this.eventLoop = new NioEventLoopGroup(config.get().ioThreads());
+            this.httpServer = new NettyHttpServer(config, BenchmarkUtils.valueOf(new NettyPublicApiHandler(publicApiHandler, null)), this.eventLoop, this.bossEventLoop);
+        } else {
+            this.httpServer = new UndertowHttpServer(config, BenchmarkUtils.valueOf(new UndertowPublicApiHandler(publicApiHandler, null)), null);
+        }
+        this.httpServer.init().block();
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.getRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + this.httpServer.port() + "/hello")).GET().build();
+        this.postRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + this.httpServer.port() + "/upload"))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[256 * 1024]))
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.httpServer.release().block();
+        if (this.eventLoop != null) {
+            this.eventLoop.shutdownGracefully().syncUninterruptibly();
+            this.bossEventLoop.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String get() throws Exception {
+        return this.send(this.getRequest);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String upload() throws Exception {
+        return this.send(this.postRequest);
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        var response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,88 @@
+package ru.tinkoff.kora.http.server.common.router;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class RouterBenchmark {
+    @Param({"10", "100", "1000"})
+    int routes;
+
+    PathTemplateMatcher<String> matcher;
+    RouteTrie<String> trie;
+    String[] paths;
+    String[] missingPaths;
+    int idx = 0;
+
+    @Setup
+    public void setup() {
+        this.matcher = new PathTemplateMatcher<>();
+        this.trie = new RouteTrie<>();
+        var templates = new ArrayList<String>();
+        for (int i = 0; i < this.routes; i++) {
+            templates.add(switch (i % 4) {
+                case 0 -> "/api/v1/static" + i;
+                case 1 -> "/api/v1/resource" + i + "/{id}";
+                case 2 -> "/api/v1/resource" + i + "/{id}/items/{itemId}";
+                default -> "/api/v1/{tenant}/resource" + i + "/{id}";
+            });
+        }
+        for (var template : templates) {
+            this.matcher.add(template, template);
+            this.trie.add(template, template);
+        }
+        var random = new Random(1337);
+        this.paths = new String[1024];
+        this.missingPaths = new String[1024];
+        for (int i = 0; i < this.paths.length; i++) {
+            var template = templates.get(random.nextInt(templates.size()));
+            this.paths[i] = template
+                .replace("{id}", Integer.toString(random.nextInt(100000)))
+                .replace("{itemId}", Integer.toString(random.nextInt(100000)))
+                .replace("{tenant}", "tenant" + random.nextInt(10));
+            this.missingPaths[i] = "/api/v2/missing" + random.nextInt(this.routes) + "/" + random.nextInt(100000);
+        }
+        for (var path : this.paths) {
+            var expected = this.matcher.match(path);
+            var actual = this.trie.match(path);
+            if (expected == null || actual == null || !expected.matchedTemplate().equals(actual.matchedTemplate()) || !expected.parameters().equals(actual.parameters())) {
+                throw new IllegalStateException("Router mismatch for " + path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void matcherHit(Blackhole bh) {
+        var match = this.matcher.match(this.nextPath(this.paths));
+        bh.consume(match.parameters().get("id"));
+    }
+
+    @Benchmark
+    public void trieHit(Blackhole bh) {
+        var match = this.trie.match(this.nextPath(this.paths));
+        bh.consume(match.parameters().get("id"));
+    }
+
+    @Benchmark
+    public Object matcherMiss() {
+        return this.matcher.match(this.nextPath(this.missingPaths));
+    }
+
+    @Benchmark
+    public Object trieMiss() {
+        return this.trie.match(this.nextPath(this.missingPaths));
+    }
+
+    private String nextPath(String[] paths) {
+        return paths[this.idx++ & (paths.length - 1)];
+    }
+}
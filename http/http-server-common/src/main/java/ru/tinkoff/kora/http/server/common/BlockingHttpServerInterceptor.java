@@ -0,0 +1,25 @@
+package ru.tinkoff.kora.http.server.common;
+
+import javax.annotation.Nullable;
+
+/**
+ * Interceptor that can be run in the blocking pipeline of a blocking request handler without reactive scaffolding.
+ * <p>
+ * {@link #interceptBlocking(HttpServerRequest, Chain)} is called on the blocking executor thread, reactive
+ * {@link #intercept(HttpServerRequest, java.util.function.Function)} is still used when some other part of the pipeline is reactive.
+ */
+public interface BlockingHttpServerInterceptor extends HttpServerInterceptor {
+    HttpServerResponse interceptBlocking(HttpServerRequest request, Chain chain) throws Exception;
+
+    @FunctionalInterface
+    interface Chain {
+        HttpServerResponse process(HttpServerRequest request) throws Exception;
+    }
+
+    @Nullable
+    static BlockingHttpServerInterceptor of(HttpServerInterceptor interceptor) {
+        return interceptor instanceof BlockingHttpServerInterceptor blocking
+            ? blocking
+            : null;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.tinkoff.kora.http.server.common;
+
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
+
+/**
+ * Request handler which whole pipeline (request mappers, interceptors, controller and response mapper) is blocking.
+ * <p>
+ * When all the server interceptors are blocking too the request is processed with {@link #handleBlocking(HttpServerRequest)}
+ * as straight-line code on the {@link #executor()}, {@link #handle(HttpServerRequest)} is used otherwise.
+ */
+public interface BlockingHttpServerRequestHandler extends HttpServerRequestHandler {
+    BlockingRequestExecutor executor();
+
+    HttpServerResponse handleBlocking(HttpServerRequest request) throws Exception;
+}
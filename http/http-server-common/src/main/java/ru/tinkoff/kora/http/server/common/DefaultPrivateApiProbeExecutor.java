@@ -0,0 +1,239 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.Lifecycle;
+import ru.tinkoff.kora.application.graph.PromiseOf;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.liveness.LivenessProbe;
+import ru.tinkoff.kora.common.liveness.LivenessProbeFailure;
+import ru.tinkoff.kora.common.readiness.ReadinessProbe;
+import ru.tinkoff.kora.common.readiness.ReadinessProbeFailure;
+import ru.tinkoff.kora.http.server.common.telemetry.PrivateApiMetrics;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Executes probes on every probe request unless {@link HttpServerConfig.ProbesConfig#interval()} is set. Then each probe is checked on a background schedule
+ * with a fixed delay between the checks and probe requests are answered with the last result, so slow probes neither pile up nor get executed per request.
+ * Probes are executed on request until their first scheduled check completes. Scheduled checks are subscribed on {@link Schedulers#boundedElastic()},
+ * so a probe that blocks doesn't delay the checks of other probes. Last result is reported as failed when the probe hasn't completed a check
+ * for three intervals plus its timeout, e.g. because its check is stuck.
+ * <p>
+ * Interval and timeout of a single probe can be overridden by its class simple name with {@link HttpServerConfig.ProbesConfig#intervals()} and {@link HttpServerConfig.ProbesConfig#timeouts()}.
+ */
+public final class DefaultPrivateApiProbeExecutor implements PrivateApiProbeExecutor, Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(DefaultPrivateApiProbeExecutor.class);
+    // probes of the components that are not initialized yet are answered on request, so waiting for them is cheap
+    private static final long PENDING_PROBE_DELAY = 1000;
+    private static final int STALE_INTERVALS = 3;
+
+    private final ValueOf<HttpServerConfig> config;
+    private final ValueOf<Optional<PrivateApiMetrics>> metrics;
+    private final List<ProbeState<ReadinessProbe>> readinessProbes;
+    private final List<ProbeState<LivenessProbe>> livenessProbes;
+    private volatile boolean running;
+
+    public DefaultPrivateApiProbeExecutor(ValueOf<HttpServerConfig> config,
+                                          ValueOf<Optional<PrivateApiMetrics>> metrics,
+                                          All<PromiseOf<ReadinessProbe>> readinessProbes,
+                                          All<PromiseOf<LivenessProbe>> livenessProbes) {
+        this.config = config;
+        this.metrics = metrics;
+        this.readinessProbes = readinessProbes.stream()
+            .map(promise -> new ProbeState<>("readiness", promise, probe -> probe.probe().map(ReadinessProbeFailure::message)))
+            .toList();
+        this.livenessProbes = livenessProbes.stream()
+            .map(promise -> new ProbeState<>("liveness", promise, probe -> probe.probe().map(LivenessProbeFailure::message)))
+            .toList();
+    }
+
+    @Override
+    public Mono<String> readiness() {
+        return check(this.readinessProbes);
+    }
+
+    @Override
+    public Mono<String> liveness() {
+        return check(this.livenessProbes);
+    }
+
+    private static <P> Mono<String> check(List<ProbeState<P>> probes) {
+        return Flux.fromIterable(probes)
+            .flatMap(ProbeState::result)
+            .next();
+    }
+
+    @Override
+    public Mono<?> init() {
+        return Mono.fromRunnable(() -> {
+            var config = this.config.get();
+            if (config.probes().interval() <= 0 && config.probes().intervals().isEmpty()) {
+                return;
+            }
+            this.running = true;
+            for (var probe : this.readinessProbes) {
+                probe.schedule(0);
+            }
+            for (var probe : this.livenessProbes) {
+                probe.schedule(0);
+            }
+        });
+    }
+
+    @Override
+    public Mono<?> release() {
+        return Mono.fromRunnable(() -> {
+            this.running = false;
+            for (var probe : this.readinessProbes) {
+                probe.cancel();
+            }
+            for (var probe : this.livenessProbes) {
+                probe.cancel();
+            }
+        });
+    }
+
+    private static String probeName(Object probe) {
+        var name = probe.getClass().getSimpleName();
+        return name.isEmpty()
+            ? probe.getClass().getName()
+            : name;
+    }
+
+    private final class ProbeState<P> {
+        private final String kind;
+        private final PromiseOf<P> promise;
+        private final Function<P, Mono<String>> check;
+        // null until the first scheduled check completes
+        @Nullable
+        private volatile CheckResult last;
+        @Nullable
+        private volatile Disposable task;
+
+        private ProbeState(String kind, PromiseOf<P> promise, Function<P, Mono<String>> check) {
+            this.kind = kind;
+            this.promise = promise;
+            this.check = check;
+        }
+
+        private Mono<String> result() {
+            var last = this.last;
+            if (last != null && running) {
+                var age = System.nanoTime() - last.checkedAt();
+                if (age > last.staleAfter()) {
+                    return Mono.just("Probe has not completed a check for " + TimeUnit.NANOSECONDS.toMillis(age) + "ms");
+                }
+                return Mono.justOrEmpty(last.failure());
+            }
+            var probe = this.promise.get();
+            if (probe.isEmpty()) {
+                return Mono.just("Probe is not ready yet");
+            }
+            return this.execute(probe.get(), false)
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+        }
+
+        private void schedule(long delay) {
+            try {
+                // timer only triggers the check, probe itself is subscribed on the bounded elastic scheduler
+                this.task = Schedulers.parallel().schedule(this::run, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // scheduler is disposed
+            }
+        }
+
+        private void cancel() {
+            var task = this.task;
+            this.task = null;
+            if (task != null) {
+                task.dispose();
+            }
+        }
+
+        private void run() {
+            if (!running) {
+                return;
+            }
+            var probe = this.promise.get();
+            if (probe.isEmpty()) {
+                this.schedule(PENDING_PROBE_DELAY);
+                return;
+            }
+            var config = DefaultPrivateApiProbeExecutor.this.config.get();
+            var name = probeName(probe.get());
+            var interval = config.probes().intervals().getOrDefault(name, config.probes().interval());
+            if (interval <= 0) {
+                return;
+            }
+            this.task = this.execute(probe.get(), true)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(result -> {
+                    if (running) {
+                        this.schedule(interval);
+                    }
+                });
+        }
+
+        private void store(String name, Optional<String> result, long staleAfter) {
+            var previous = this.last;
+            if (result.isPresent() && (previous == null || previous.failure().isEmpty())) {
+                log.warn("{} probe {} failed: {}", this.kind, name, result.get());
+            } else if (result.isEmpty() && previous != null && previous.failure().isPresent()) {
+                log.info("{} probe {} recovered", this.kind, name);
+            }
+            this.last = new CheckResult(result, System.nanoTime(), staleAfter);
+        }
+
+        /**
+         * @param scheduled whether the result should be stored to answer the following probe requests with
+         */
+        private Mono<Optional<String>> execute(P probe, boolean scheduled) {
+            var config = DefaultPrivateApiProbeExecutor.this.config.get();
+            var name = probeName(probe);
+            var timeout = config.probes().timeouts().getOrDefault(name, config.probes().timeout());
+            return Mono.defer(() -> {
+                var start = System.nanoTime();
+                var result = Mono.defer(() -> this.check.apply(probe))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty());
+                if (timeout > 0) {
+                    result = result.timeout(Duration.ofMillis(timeout));
+                }
+                return result
+                    .onErrorResume(e -> Mono.just(Optional.of(e instanceof TimeoutException
+                        ? "Probe timed out after " + timeout + "ms"
+                        : "Probe failed: " + e.getMessage())))
+                    .doOnNext(failure -> {
+                        var processingTime = System.nanoTime() - start;
+                        if (scheduled) {
+                            var interval = config.probes().intervals().getOrDefault(name, config.probes().interval());
+                            var staleAfter = TimeUnit.MILLISECONDS.toNanos((long) interval * STALE_INTERVALS + Math.max(timeout, 0));
+                            this.store(name, failure, staleAfter);
+                        }
+                        metrics.get().ifPresent(m -> m.probeChecked(this.kind, name, failure.isEmpty(), processingTime));
+                    });
+            });
+        }
+    }
+
+    /**
+     * @param failure    empty when the check succeeded
+     * @param checkedAt  {@link System#nanoTime()} when the check completed
+     * @param staleAfter nanoseconds after which the result is not reported anymore
+     */
+    private record CheckResult(Optional<String> failure, long checkedAt, long staleAfter) {}
+}
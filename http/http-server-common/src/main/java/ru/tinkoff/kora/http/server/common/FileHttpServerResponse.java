@@ -0,0 +1,253 @@
+package ru.tinkoff.kora.http.server.common;
+
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Response with body read from a region of a file.
+ * <p>
+ * Http servers that know about this response type send the region directly from the file channel (sendfile),
+ * others read it with {@link #body()} in chunks of {@link #CHUNK_SIZE} bytes.
+ * File channel is opened only when the body is sent and is closed after that,
+ * channel passed to the constructor is owned by the response and is closed the same way.
+ * <p>
+ * Use {@link #of(HttpServerRequest, Path, String)} to get a response that honors {@code Range}, {@code If-Range} and {@code If-Modified-Since} request headers.
+ */
+public final class FileHttpServerResponse implements HttpServerResponse {
+    public static final int CHUNK_SIZE = 64 * 1024;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final int code;
+    private final String contentType;
+    private final HttpHeaders headers;
+    @Nullable
+    private final Path path;
+    @Nullable
+    private final FileChannel channel;
+    private final long position;
+    private final long count;
+
+    public FileHttpServerResponse(int code, String contentType, HttpHeaders headers, Path path, long position, long count) {
+        this(code, contentType, headers, Objects.requireNonNull(path), null, position, count);
+    }
+
+    public FileHttpServerResponse(int code, String contentType, HttpHeaders headers, FileChannel channel, long position, long count) {
+        this(code, contentType, headers, null, Objects.requireNonNull(channel), position, count);
+    }
+
+    private FileHttpServerResponse(int code, String contentType, HttpHeaders headers, @Nullable Path path, @Nullable FileChannel channel, long position, long count) {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid file region: position=" + position + ", count=" + count);
+        }
+        this.code = code;
+        this.contentType = contentType;
+        this.headers = headers;
+        this.path = path;
+        this.channel = channel;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * @return response with the whole file, the range of it, 304 if file wasn't modified or 416 if range can't be satisfied
+     */
+    public static HttpServerResponse of(HttpServerRequest request, Path path, String contentType) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw HttpServerResponseException.of(e, 404, "File not found");
+        }
+        if (!attributes.isRegularFile()) {
+            throw HttpServerResponseException.of(404, "File not found");
+        }
+        return of(request, contentType, path, null, attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    /**
+     * Channel is closed when there is no body to send from it
+     *
+     * @return response with the whole file, the range of it, 304 if file wasn't modified or 416 if range can't be satisfied
+     */
+    public static HttpServerResponse of(HttpServerRequest request, FileChannel channel, String contentType, @Nullable Instant lastModified) throws IOException {
+        var response = of(request, contentType, null, channel, channel.size(), lastModified);
+        if (!(response instanceof FileHttpServerResponse)) {
+            channel.close();
+        }
+        return response;
+    }
+
+    private static HttpServerResponse of(HttpServerRequest request, String contentType, @Nullable Path path, @Nullable FileChannel channel, long size, @Nullable Instant lastModified) {
+        var headers = HttpHeaders.of("accept-ranges", "bytes");
+        var lastModifiedHeader = (String) null;
+        if (lastModified != null) {
+            lastModified = lastModified.truncatedTo(ChronoUnit.SECONDS);
+            lastModifiedHeader = HTTP_DATE.format(ZonedDateTime.ofInstant(lastModified, ZoneOffset.UTC));
+            headers = headers.with("last-modified", lastModifiedHeader);
+            var ifModifiedSince = parseDate(request.headers().getFirst("if-modified-since"));
+            var isGet = request.method().equals("GET") || request.method().equals("HEAD");
+            if (isGet && ifModifiedSince != null && !lastModified.isAfter(ifModifiedSince)) {
+                return new SimpleHttpServerResponse(304, contentType, headers, null);
+            }
+        }
+        var range = request.headers().getFirst("range");
+        var ifRange = request.headers().getFirst("if-range");
+        if (range == null || ifRange != null && !ifRange.equals(lastModifiedHeader)) {
+            return new FileHttpServerResponse(200, contentType, headers, path, channel, 0, size);
+        }
+        var parsed = parseRange(range, size);
+        if (parsed == null) {
+            return new FileHttpServerResponse(200, contentType, headers, path, channel, 0, size);
+        }
+        if (parsed.length == 0) {
+            return new SimpleHttpServerResponse(416, contentType, headers.with("content-range", "bytes */" + size), null);
+        }
+        var start = parsed[0];
+        var end = parsed[1];
+        headers = headers.with("content-range", "bytes " + start + "-" + end + "/" + size);
+        return new FileHttpServerResponse(206, contentType, headers, path, channel, start, end - start + 1);
+    }
+
+    /**
+     * Only single byte range is supported, multiple ranges are ignored and the whole file is sent
+     *
+     * @return null if range should be ignored, empty array if it can't be satisfied, first and last byte positions otherwise
+     */
+    @Nullable
+    static long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        var dash = range.indexOf('-', 6);
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            var first = range.substring(6, dash).trim();
+            var last = range.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                var suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            var start = Long.parseLong(first);
+            var end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return new long[0];
+            }
+            return new long[]{start, Math.min(end, size - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Instant parseDate(@Nullable String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(date, HTTP_DATE).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return channel positioned at the start of the file, region is defined by {@link #position()} and {@link #count()}
+     */
+    public FileChannel open() throws IOException {
+        if (this.channel != null) {
+            return this.channel;
+        }
+        return FileChannel.open(this.path, StandardOpenOption.READ);
+    }
+
+    public long position() {
+        return this.position;
+    }
+
+    public long count() {
+        return this.count;
+    }
+
+    @Override
+    public int code() {
+        return this.code;
+    }
+
+    /**
+     * @return -1 for regions larger than 2GB, use {@link #count()} instead
+     */
+    @Override
+    public int contentLength() {
+        return this.count <= Integer.MAX_VALUE ? (int) this.count : -1;
+    }
+
+    @Override
+    public String contentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return this.headers;
+    }
+
+    @Override
+    public Flux<? extends ByteBuffer> body() {
+        return Flux.using(this::open, channel -> Flux.<ByteBuffer, Long>generate(() -> this.position, (position, sink) -> {
+            var end = this.position + this.count;
+            if (position >= end) {
+                sink.complete();
+                return position;
+            }
+            var buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, end - position));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        sink.error(new IOException("File is shorter than response region"));
+                        return position;
+                    }
+                }
+            } catch (IOException e) {
+                sink.error(e);
+                return position;
+            }
+            sink.next(buffer.flip());
+            return position + buffer.limit();
+        }), channel -> {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package ru.tinkoff.kora.http.server.common;
 
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
 
 public record HttpServerConfig(
     int publicApiHttpPort,
@@ -10,7 +12,17 @@ public record HttpServerConfig(
     String privateApiHttpLivenessPath,
     int ioThreads,
     int blockingThreads,
-    int shutdownWait) {
+    int shutdownWait,
+    boolean pooledRequestBody,
+    boolean virtualThreads,
+    int virtualThreadsConcurrency,
+    int privateApiHttpMetricsScrapeInterval,
+    ConnectionConfig connection,
+    LimitsConfig limits,
+    LoadSheddingConfig loadShedding,
+    TelemetryConfig telemetry,
+    MultipartConfig multipart,
+    ProbesConfig probes) {
 
     public static int DEFAULT_PUBLIC_API_PORT = 8080;
     public static int DEFAULT_PRIVATE_API_PORT = 8085;
@@ -20,6 +32,10 @@ public record HttpServerConfig(
     public static int DEFAULT_IO_THREADS = Math.max(Runtime.getRuntime().availableProcessors(), 2);
     public static int DEFAULT_BLOCKING_THREADS = Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 2) * 8, 200);
     public static int DEFAULT_SHUTDOWN_WAIT = 5000;
+    public static boolean DEFAULT_POOLED_REQUEST_BODY = false;
+    public static boolean DEFAULT_VIRTUAL_THREADS = false;
+    public static int DEFAULT_VIRTUAL_THREADS_CONCURRENCY = 0;
+    public static int DEFAULT_PRIVATE_API_METRICS_SCRAPE_INTERVAL = 0;
 
     public HttpServerConfig(
         @Nullable Integer publicApiHttpPort,
@@ -29,7 +45,17 @@ public record HttpServerConfig(
         @Nullable String  privateApiHttpLivenessPath,
         @Nullable Integer ioThreads,
         @Nullable Integer blockingThreads,
-        @Nullable Integer shutdownWait) {
+        @Nullable Integer shutdownWait,
+        @Nullable Boolean pooledRequestBody,
+        @Nullable Boolean virtualThreads,
+        @Nullable Integer virtualThreadsConcurrency,
+        @Nullable Integer privateApiHttpMetricsScrapeInterval,
+        @Nullable ConnectionConfig connection,
+        @Nullable LimitsConfig limits,
+        @Nullable LoadSheddingConfig loadShedding,
+        @Nullable TelemetryConfig telemetry,
+        @Nullable MultipartConfig multipart,
+        @Nullable ProbesConfig probes) {
         this(
             publicApiHttpPort != null ? publicApiHttpPort : DEFAULT_PUBLIC_API_PORT,
             privateApiHttpPort != null ? privateApiHttpPort : DEFAULT_PRIVATE_API_PORT,
@@ -38,7 +64,148 @@ public record HttpServerConfig(
             privateApiHttpLivenessPath != null ? privateApiHttpLivenessPath : DEFAULT_PRIVATE_API_LIVENESS_PATH,
             ioThreads != null ? ioThreads : DEFAULT_IO_THREADS,
             blockingThreads != null ? blockingThreads : DEFAULT_BLOCKING_THREADS,
-            shutdownWait != null ? shutdownWait : DEFAULT_SHUTDOWN_WAIT
+            shutdownWait != null ? shutdownWait : DEFAULT_SHUTDOWN_WAIT,
+            pooledRequestBody != null ? pooledRequestBody : DEFAULT_POOLED_REQUEST_BODY,
+            virtualThreads != null ? virtualThreads : DEFAULT_VIRTUAL_THREADS,
+            virtualThreadsConcurrency != null ? virtualThreadsConcurrency : DEFAULT_VIRTUAL_THREADS_CONCURRENCY,
+            privateApiHttpMetricsScrapeInterval != null ? privateApiHttpMetricsScrapeInterval : DEFAULT_PRIVATE_API_METRICS_SCRAPE_INTERVAL,
+            connection != null ? connection : new ConnectionConfig(null, null, null, null, null),
+            limits != null ? limits : new LimitsConfig(null, null, null),
+            loadShedding != null ? loadShedding : new LoadSheddingConfig(null, null, null, null, null, null),
+            telemetry != null ? telemetry : new TelemetryConfig(null, null, null, null),
+            multipart != null ? multipart : new MultipartConfig(null, null),
+            probes != null ? probes : new ProbesConfig(null, null, null, null)
         );
     }
+
+    /**
+     * Socket and buffer options of the public api listener
+     */
+    public record ConnectionConfig(int bufferSize, boolean directBuffers, int idleTimeout, boolean tcpNoDelay, int backlog) {
+        public static int DEFAULT_BUFFER_SIZE = -1;
+        public static boolean DEFAULT_DIRECT_BUFFERS = true;
+        public static int DEFAULT_IDLE_TIMEOUT = -1;
+        public static boolean DEFAULT_TCP_NO_DELAY = true;
+        public static int DEFAULT_BACKLOG = 1000;
+
+        public ConnectionConfig(
+            @Nullable Integer bufferSize,
+            @Nullable Boolean directBuffers,
+            @Nullable Integer idleTimeout,
+            @Nullable Boolean tcpNoDelay,
+            @Nullable Integer backlog) {
+            this(
+                bufferSize != null ? bufferSize : DEFAULT_BUFFER_SIZE,
+                directBuffers != null ? directBuffers : DEFAULT_DIRECT_BUFFERS,
+                idleTimeout != null ? idleTimeout : DEFAULT_IDLE_TIMEOUT,
+                tcpNoDelay != null ? tcpNoDelay : DEFAULT_TCP_NO_DELAY,
+                backlog != null ? backlog : DEFAULT_BACKLOG
+            );
+        }
+    }
+
+    public record LimitsConfig(long maxRequestBodySize, int requestTimeout, @Nullable String deadlineHeader) {
+        public static long DEFAULT_MAX_REQUEST_BODY_SIZE = 10 * 1024 * 1024;
+        public static int DEFAULT_REQUEST_TIMEOUT = -1;
+
+        public LimitsConfig(
+            @Nullable Long maxRequestBodySize,
+            @Nullable Integer requestTimeout,
+            @Nullable String deadlineHeader) {
+            this(
+                maxRequestBodySize != null ? maxRequestBodySize : DEFAULT_MAX_REQUEST_BODY_SIZE,
+                requestTimeout != null ? requestTimeout : DEFAULT_REQUEST_TIMEOUT,
+                deadlineHeader
+            );
+        }
+    }
+
+    public record LoadSheddingConfig(
+        boolean enabled,
+        int target,
+        int interval,
+        int retryAfter,
+        Map<String, HttpServerLoadShedder.Priority> routePriorities,
+        List<String> exemptRoutes) {
+
+        public static boolean DEFAULT_ENABLED = false;
+        public static int DEFAULT_TARGET = 5;
+        public static int DEFAULT_INTERVAL = 100;
+        public static int DEFAULT_RETRY_AFTER = 1;
+        public static Map<String, HttpServerLoadShedder.Priority> DEFAULT_ROUTE_PRIORITIES = Map.of();
+        public static List<String> DEFAULT_EXEMPT_ROUTES = List.of();
+
+        public LoadSheddingConfig(
+            @Nullable Boolean enabled,
+            @Nullable Integer target,
+            @Nullable Integer interval,
+            @Nullable Integer retryAfter,
+            @Nullable Map<String, HttpServerLoadShedder.Priority> routePriorities,
+            @Nullable List<String> exemptRoutes) {
+            this(
+                enabled != null ? enabled : DEFAULT_ENABLED,
+                target != null ? target : DEFAULT_TARGET,
+                interval != null ? interval : DEFAULT_INTERVAL,
+                retryAfter != null ? retryAfter : DEFAULT_RETRY_AFTER,
+                routePriorities != null ? routePriorities : DEFAULT_ROUTE_PRIORITIES,
+                exemptRoutes != null ? exemptRoutes : DEFAULT_EXEMPT_ROUTES
+            );
+        }
+    }
+
+    public record TelemetryConfig(double samplingProbability, Map<String, Double> routeSamplingProbabilities, int logRateLimit, int slowRequestThreshold) {
+        public static double DEFAULT_SAMPLING_PROBABILITY = 1.0;
+        public static Map<String, Double> DEFAULT_ROUTE_SAMPLING_PROBABILITIES = Map.of();
+        public static int DEFAULT_LOG_RATE_LIMIT = -1;
+        public static int DEFAULT_SLOW_REQUEST_THRESHOLD = -1;
+
+        public TelemetryConfig(
+            @Nullable Double samplingProbability,
+            @Nullable Map<String, Double> routeSamplingProbabilities,
+            @Nullable Integer logRateLimit,
+            @Nullable Integer slowRequestThreshold) {
+            this(
+                samplingProbability != null ? samplingProbability : DEFAULT_SAMPLING_PROBABILITY,
+                routeSamplingProbabilities != null ? routeSamplingProbabilities : DEFAULT_ROUTE_SAMPLING_PROBABILITIES,
+                logRateLimit != null ? logRateLimit : DEFAULT_LOG_RATE_LIMIT,
+                slowRequestThreshold != null ? slowRequestThreshold : DEFAULT_SLOW_REQUEST_THRESHOLD
+            );
+        }
+    }
+
+    /**
+     * @param memoryThreshold when not negative, parts are streamed and content larger than threshold is written to a temporary file
+     * @param maxPartSize     maximum size of a part with its headers that is buffered on heap when {@code memoryThreshold} is negative, negative value means no limit
+     */
+    public record MultipartConfig(int memoryThreshold, int maxPartSize) {
+        public static int DEFAULT_MEMORY_THRESHOLD = -1;
+        public static int DEFAULT_MAX_PART_SIZE = 10 * 1024 * 1024;
+
+        public MultipartConfig(@Nullable Integer memoryThreshold, @Nullable Integer maxPartSize) {
+            this(
+                memoryThreshold != null ? memoryThreshold : DEFAULT_MEMORY_THRESHOLD,
+                maxPartSize != null ? maxPartSize : DEFAULT_MAX_PART_SIZE
+            );
+        }
+    }
+
+    public record ProbesConfig(int interval, int timeout, Map<String, Integer> intervals, Map<String, Integer> timeouts) {
+        public static int DEFAULT_INTERVAL = -1;
+        public static int DEFAULT_TIMEOUT = 30000;
+        public static Map<String, Integer> DEFAULT_INTERVALS = Map.of();
+        public static Map<String, Integer> DEFAULT_TIMEOUTS = Map.of();
+
+        public ProbesConfig(
+            @Nullable Integer interval,
+            @Nullable Integer timeout,
+            @Nullable Map<String, Integer> intervals,
+            @Nullable Map<String, Integer> timeouts) {
+            this(
+                interval != null ? interval : DEFAULT_INTERVAL,
+                timeout != null ? timeout : DEFAULT_TIMEOUT,
+                intervals != null ? intervals : DEFAULT_INTERVALS,
+                timeouts != null ? timeouts : DEFAULT_TIMEOUTS
+            );
+        }
+    }
 }
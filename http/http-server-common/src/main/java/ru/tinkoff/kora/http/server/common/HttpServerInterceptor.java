@@ -7,6 +7,16 @@ import java.util.function.Function;
 public interface HttpServerInterceptor {
     Mono<HttpServerResponse> intercept(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain);
 
+    /**
+     * Checked once for every route when interceptor chains are composed, interceptor is not invoked for the routes it doesn't apply to.
+     * Requests that didn't match any route (404 and 405 responses) are passed through all the interceptors.
+     *
+     * @param routeTemplate route template of the handler, e.g. {@code /users/{id}}
+     */
+    default boolean appliesTo(String method, String routeTemplate) {
+        return true;
+    }
+
     static HttpServerInterceptor noop() {
         return (request, chain) -> chain.apply(request);
     }
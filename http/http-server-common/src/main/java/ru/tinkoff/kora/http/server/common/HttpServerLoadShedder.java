@@ -0,0 +1,180 @@
+package ru.tinkoff.kora.http.server.common;
+
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rejects requests that have been waiting in the queue for too long, before their handler is started.
+ * <p>
+ * Queue time is the time between the request was received by the server and the start of its handler on a blocking executor.
+ * Requests are admitted only where they actually wait: reactive handlers are started on the io thread right away,
+ * so they are neither measured nor rejected, their zero queue time would hide the queue of the blocking executors.
+ * Handlers that call the executor themselves are admitted when their task is started with the {@link Admission} kept in the request {@link Context}.
+ * <p>
+ * Minimal queue time is tracked over each {@code interval}: when it stays above {@code target} during the whole interval the server is considered overloaded,
+ * and requests waiting longer than {@code target} are rejected. Otherwise only requests waiting longer than {@code interval} are rejected.
+ * This way short bursts are queued, while standing queue is drained quickly and requests that most probably already timed out at the client are not processed.
+ * <p>
+ * Timeouts are halved for {@link Priority#LOW} routes and doubled for {@link Priority#HIGH} ones, exempt routes are never rejected.
+ */
+public final class HttpServerLoadShedder {
+    public enum Priority {
+        LOW(1),
+        NORMAL(2),
+        HIGH(4);
+
+        // in halves of the timeout
+        private final int weight;
+
+        Priority(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final long target;
+    private final long interval;
+    private final Map<String, Priority> routePriorities;
+    private final Set<String> exemptRoutes;
+    private final String retryAfter;
+    @Nullable
+    private final HttpServerMetrics metrics;
+    private final LongSupplier ticker;
+
+    private final AtomicLong intervalEnd;
+    private final AtomicLong minQueueTime = new AtomicLong(Long.MAX_VALUE);
+    private volatile boolean overloaded = false;
+
+    public HttpServerLoadShedder(HttpServerConfig.LoadSheddingConfig config, @Nullable HttpServerMetrics metrics) {
+        this(
+            TimeUnit.MILLISECONDS.toNanos(config.target()),
+            TimeUnit.MILLISECONDS.toNanos(config.interval()),
+            config.routePriorities(),
+            config.exemptRoutes(),
+            config.retryAfter(),
+            metrics,
+            System::nanoTime
+        );
+    }
+
+    /**
+     * @param ticker source of {@link System#nanoTime()} compatible time
+     */
+    HttpServerLoadShedder(long target, long interval, Map<String, Priority> routePriorities, List<String> exemptRoutes, int retryAfter, @Nullable HttpServerMetrics metrics, LongSupplier ticker) {
+        if (target <= 0 || interval < target) {
+            throw new IllegalArgumentException("Load shedding target should be positive and not greater than interval, got target=%dns, interval=%dns".formatted(target, interval));
+        }
+        this.target = target;
+        this.interval = interval;
+        this.routePriorities = Map.copyOf(routePriorities);
+        this.exemptRoutes = Set.copyOf(exemptRoutes);
+        this.retryAfter = Integer.toString(retryAfter);
+        this.metrics = metrics;
+        this.ticker = ticker;
+        this.intervalEnd = new AtomicLong(ticker.getAsLong() + interval);
+    }
+
+    /**
+     * Should be called when the request handler is started after waiting in a queue
+     *
+     * @param receivedAt {@link System#nanoTime()} when the request was received by the server
+     * @return null if request should be processed, response to send otherwise
+     */
+    @Nullable
+    public HttpServerResponseException admit(String method, @Nullable String routeTemplate, long receivedAt) {
+        var now = this.ticker.getAsLong();
+        var queueTime = now - receivedAt;
+        var overloaded = this.observe(now, queueTime);
+        if (routeTemplate == null || this.exemptRoutes.contains(routeTemplate)) {
+            return null;
+        }
+        var priority = this.routePriorities.getOrDefault(routeTemplate, Priority.NORMAL);
+        var timeout = (overloaded ? this.target : this.interval) / 2 * priority.weight;
+        if (queueTime <= timeout) {
+            return null;
+        }
+        if (this.metrics != null) {
+            this.metrics.requestShed(method, routeTemplate, priority.name(), queueTime);
+        }
+        var message = "Server is overloaded";
+        return new HttpServerResponseException(503, "text/plain; charset=utf-8", message, StandardCharsets.UTF_8.encode(message), HttpHeaders.of("retry-after", this.retryAfter));
+    }
+
+    /**
+     * @return admission of the request that is decided once when its handler is started on a blocking executor
+     */
+    public Admission admission(String method, String routeTemplate, long receivedAt) {
+        return new Admission(this, method, routeTemplate, receivedAt);
+    }
+
+    boolean isOverloaded() {
+        return this.overloaded;
+    }
+
+    private boolean observe(long now, long queueTime) {
+        var intervalEnd = this.intervalEnd.get();
+        if (now - intervalEnd >= 0 && this.intervalEnd.compareAndSet(intervalEnd, now + this.interval)) {
+            // only one thread closes the interval, observations racing with it are accounted in the next one
+            var minQueueTime = this.minQueueTime.getAndSet(queueTime);
+            this.overloaded = minQueueTime > this.target && minQueueTime != Long.MAX_VALUE;
+            return this.overloaded;
+        }
+        if (queueTime < this.minQueueTime.get()) {
+            this.minQueueTime.accumulateAndGet(queueTime, Math::min);
+        }
+        return this.overloaded;
+    }
+
+    /**
+     * Admission of the request kept in its {@link Context}, so that {@link ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor}
+     * can decide it when the handler task is started.
+     */
+    public static final class Admission {
+        public static final Context.Key<Admission> KEY = new Context.Key<>() {
+            @Override
+            protected Admission copy(Admission object) {
+                return object;
+            }
+        };
+
+        private final HttpServerLoadShedder shedder;
+        private final String method;
+        private final String routeTemplate;
+        private final long receivedAt;
+        private volatile boolean decided = false;
+
+        private Admission(HttpServerLoadShedder shedder, String method, String routeTemplate, long receivedAt) {
+            this.shedder = shedder;
+            this.method = method;
+            this.routeTemplate = routeTemplate;
+            this.receivedAt = receivedAt;
+        }
+
+        @Nullable
+        public static Admission current(Context context) {
+            return context.get(KEY);
+        }
+
+        /**
+         * @return null if request should be processed or was already admitted, error to answer with otherwise
+         */
+        @Nullable
+        public HttpServerResponseException admit() {
+            if (this.decided) {
+                // only the first blocking task of the request waited since it was received
+                return null;
+            }
+            this.decided = true;
+            return this.shedder.admit(this.method, this.routeTemplate, this.receivedAt);
+        }
+    }
+}
@@ -16,6 +16,8 @@ import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.common.form.FormUrlEncoded;
 import ru.tinkoff.kora.http.server.common.form.FormMultipartServerRequestMapper;
 import ru.tinkoff.kora.http.server.common.form.FormUrlEncodedServerRequestMapper;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerRequestMapper;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerResponseMapper;
 import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestMapper;
 import ru.tinkoff.kora.http.server.common.handler.HttpServerResponseEntityMapper;
 import ru.tinkoff.kora.http.server.common.handler.HttpServerResponseMapper;
@@ -38,16 +40,27 @@ public interface HttpServerModule extends StringParameterReadersModule {
     }
 
     @DefaultComponent
-    default DefaultHttpServerTelemetry defaultHttpServerTelemetry(@Nullable HttpServerMetrics metricWriter, @Nullable HttpServerLogger logger, @Nullable HttpServerTracer tracer) {
-        return new DefaultHttpServerTelemetry(metricWriter, logger, tracer);
+    default DefaultHttpServerTelemetry defaultHttpServerTelemetry(@Nullable HttpServerMetrics metricWriter, @Nullable HttpServerLogger logger, @Nullable HttpServerTracer tracer, HttpServerConfig config) {
+        return new DefaultHttpServerTelemetry(metricWriter, logger, tracer, HttpServerTelemetrySampler.of(config.telemetry()));
     }
 
-    default PrivateApiHandler privateApiHandler(ValueOf<HttpServerConfig> config, ValueOf<Optional<PrivateApiMetrics>> meterRegistry, All<PromiseOf<ReadinessProbe>> readinessProbes, All<PromiseOf<LivenessProbe>> livenessProbes) {
-        return new PrivateApiHandler(config, meterRegistry, readinessProbes, livenessProbes);
+    @DefaultComponent
+    default DefaultPrivateApiProbeExecutor defaultPrivateApiProbeExecutor(ValueOf<HttpServerConfig> config, ValueOf<Optional<PrivateApiMetrics>> meterRegistry,
+                                                                          All<PromiseOf<ReadinessProbe>> readinessProbes, All<PromiseOf<LivenessProbe>> livenessProbes) {
+        return new DefaultPrivateApiProbeExecutor(config, meterRegistry, readinessProbes, livenessProbes);
+    }
+
+    default PrivateApiHandler privateApiHandler(ValueOf<HttpServerConfig> config, ValueOf<Optional<PrivateApiMetrics>> meterRegistry, PrivateApiProbeExecutor probes) {
+        return new PrivateApiHandler(config, meterRegistry, probes);
     }
 
-    default PublicApiHandler publicApiHandler(All<ValueOf<HttpServerRequestHandler>> handlers, @Tag(HttpServerModule.class) All<ValueOf<HttpServerInterceptor>> interceptors, ValueOf<HttpServerTelemetry> telemetry) {
-        return new PublicApiHandler(handlers, interceptors, telemetry);
+    default PublicApiHandler publicApiHandler(All<ValueOf<HttpServerRequestHandler>> handlers, @Tag(HttpServerModule.class) All<ValueOf<HttpServerInterceptor>> interceptors, ValueOf<HttpServerTelemetry> telemetry,
+                                              HttpServerConfig config, @Nullable HttpServerMetrics metrics) {
+        var limits = config.limits();
+        var loadShedder = config.loadShedding().enabled()
+            ? new HttpServerLoadShedder(config.loadShedding(), metrics)
+            : null;
+        return new PublicApiHandler(handlers, interceptors, telemetry, loadShedder, limits.maxRequestBodySize(), limits.deadlineHeader(), limits.requestTimeout());
     }
 
     default HttpServerLogger httpServerLogger() {
@@ -55,42 +68,72 @@ public interface HttpServerModule extends StringParameterReadersModule {
     }
 
     default HttpServerResponseMapper<HttpServerResponse> noopResponseMapper() {
-        return Mono::just;
+        return (BlockingHttpServerResponseMapper<HttpServerResponse>) r -> r;
     }
 
     default HttpServerRequestMapper<HttpServerRequest> noopRequestMapper() {
-        return Mono::just;
+        return new BlockingHttpServerRequestMapper<>() {
+            @Override
+            public HttpServerRequest applyBlocking(HttpServerRequest request) {
+                return request;
+            }
+
+            @Override
+            public Mono<HttpServerRequest> apply(HttpServerRequest request) {
+                return Mono.just(request);
+            }
+        };
     }
 
     default HttpServerRequestMapper<ByteBuffer> byteBufBodyRequestMapper() {
-        return r -> ReactorUtils.toByteBufferMono(r.body());
+        return new BlockingHttpServerRequestMapper<>() {
+            @Override
+            public ByteBuffer applyBlocking(HttpServerRequest request) {
+                return ReactorUtils.toByteBufferMono(request.body()).block();
+            }
+
+            @Override
+            public Mono<ByteBuffer> apply(HttpServerRequest request) {
+                return ReactorUtils.toByteBufferMono(request.body());
+            }
+        };
     }
 
     default HttpServerRequestMapper<byte[]> byteArrayRequestMapper() {
-        return (request) -> ReactorUtils.toByteArrayMono(request.body());
+        return new BlockingHttpServerRequestMapper<>() {
+            @Override
+            public byte[] applyBlocking(HttpServerRequest request) {
+                return ReactorUtils.toByteArrayMono(request.body()).block();
+            }
+
+            @Override
+            public Mono<byte[]> apply(HttpServerRequest request) {
+                return ReactorUtils.toByteArrayMono(request.body());
+            }
+        };
     }
 
     default HttpServerResponseMapper<ByteBuffer> byteBufBodyResponseMapper() {
-        return r -> Mono.just(new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, r));
+        return (BlockingHttpServerResponseMapper<ByteBuffer>) r -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, r);
     }
 
     default HttpServerResponseMapper<byte[]> byteArrayResponseMapper() {
-        return r -> Mono.just(new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, ByteBuffer.wrap(r)));
+        return (BlockingHttpServerResponseMapper<byte[]>) r -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, ByteBuffer.wrap(r));
     }
 
     default HttpServerResponseMapper<String> stringResponseMapper() {
-        return r -> Mono.just(new SimpleHttpServerResponse(200, "text/plain; charset=utf-8", HttpHeaders.EMPTY, ByteBuffer.wrap(r.getBytes(StandardCharsets.UTF_8))));
+        return (BlockingHttpServerResponseMapper<String>) r -> new SimpleHttpServerResponse(200, "text/plain; charset=utf-8", HttpHeaders.EMPTY, ByteBuffer.wrap(r.getBytes(StandardCharsets.UTF_8)));
     }
 
     default <T> HttpServerResponseMapper<HttpServerResponseEntity<T>> httpServerResponseEntityMapper(HttpServerResponseMapper<T> delegate) {
-        return new HttpServerResponseEntityMapper<>(delegate);
+        return HttpServerResponseEntityMapper.of(delegate);
     }
 
     default HttpServerRequestMapper<FormUrlEncoded> formUrlEncoderHttpServerRequestMapper() {
         return new FormUrlEncodedServerRequestMapper();
     }
 
-    default FormMultipartServerRequestMapper formMultipartServerRequestMapper() {
-        return new FormMultipartServerRequestMapper();
+    default FormMultipartServerRequestMapper formMultipartServerRequestMapper(HttpServerConfig config) {
+        return new FormMultipartServerRequestMapper(config.multipart().memoryThreshold(), config.multipart().maxPartSize());
     }
 }
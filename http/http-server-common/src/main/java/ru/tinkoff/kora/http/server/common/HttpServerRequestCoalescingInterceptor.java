@@ -0,0 +1,224 @@
+package ru.tinkoff.kora.http.server.common;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces identical concurrent GET requests, so that only the first one is passed to the handler and the rest wait for its response.
+ * <p>
+ * Requests are identical when they have the same normalized path, values of selected query parameters and values of selected headers.
+ * Response body is buffered once and each waiting request receives its own duplicate of the buffer.
+ * Responses with unknown content length (streams) are not shared, waiting requests are passed to the handler in that case.
+ * Errors of the handler are propagated to all the waiting requests.
+ * <p>
+ * At most {@code maxWaiters} requests wait for the same response, the rest are passed to the handler.
+ * Request that waited for {@code maxWait} is passed to the handler too, so a single slow request can't hold the others.
+ * <p>
+ * Response may belong to a single user, so requests with {@code Authorization} or {@code Cookie} headers are coalesced only when these headers are part of the key,
+ * and responses with {@code Set-Cookie} are never shared, waiting requests are passed to the handler instead.
+ * <p>
+ * Waiting is done only in the reactive pipeline, so routes with this interceptor don't use the blocking pipeline and waiting requests never hold blocking executor threads.
+ */
+public final class HttpServerRequestCoalescingInterceptor implements HttpServerInterceptor {
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    @Nullable
+    private final List<String> queryParameters;
+    private final List<String> headers;
+    private final boolean keyedByAuthorization;
+    private final boolean keyedByCookie;
+    private final int maxWaiters;
+    private final long maxWait;
+    @Nullable
+    private final HttpServerMetrics metrics;
+
+    /**
+     * Requests are keyed by path and all the query parameters
+     */
+    public HttpServerRequestCoalescingInterceptor(int maxWaiters, Duration maxWait, @Nullable HttpServerMetrics metrics) {
+        this(null, List.of(), maxWaiters, maxWait, metrics);
+    }
+
+    /**
+     * @param queryParameters query parameters that are part of the key, all of them are used when null
+     * @param headers         headers that are part of the key
+     */
+    public HttpServerRequestCoalescingInterceptor(@Nullable Collection<String> queryParameters, Collection<String> headers, int maxWaiters, Duration maxWait, @Nullable HttpServerMetrics metrics) {
+        if (maxWaiters < 0) {
+            throw new IllegalArgumentException("maxWaiters should not be negative: " + maxWaiters);
+        }
+        this.queryParameters = queryParameters == null ? null : List.copyOf(new TreeSet<>(queryParameters));
+        this.headers = headers.stream().map(String::toLowerCase).sorted().distinct().toList();
+        this.keyedByAuthorization = this.headers.contains("authorization");
+        this.keyedByCookie = this.headers.contains("cookie");
+        this.maxWaiters = maxWaiters;
+        this.maxWait = maxWait.toNanos();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean appliesTo(String method, String routeTemplate) {
+        return method.equals("GET");
+    }
+
+    @Override
+    public Mono<HttpServerResponse> intercept(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain) {
+        if (!request.method().equals("GET") || !this.isShareable(request)) {
+            return chain.apply(request);
+        }
+        return Mono.defer(() -> {
+            var key = this.key(request);
+            var flight = new Flight();
+            var current = this.flights.putIfAbsent(key, flight);
+            if (current == null) {
+                return this.lead(key, flight, request, chain);
+            }
+            if (!current.join(this.maxWaiters)) {
+                return chain.apply(request);
+            }
+            // copy, so cancellation of a waiter doesn't cancel the flight
+            return Mono.fromFuture(current.result.copy())
+                .timeout(Duration.ofNanos(this.maxWait))
+                .map(shared -> this.coalesced(request, shared))
+                .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> chain.apply(request)));
+        });
+    }
+
+    private Mono<HttpServerResponse> lead(String key, Flight flight, HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain) {
+        return chain.apply(request)
+            .flatMap(response -> {
+                if (response.contentLength() < 0 || response.headers().getFirst("set-cookie") != null) {
+                    this.complete(key, flight, null);
+                    return Mono.just(response);
+                }
+                Flux<? extends ByteBuffer> body = response.body();
+                return body
+                    .collect(() -> ByteBuffer.allocate(response.contentLength()), (buf, chunk) -> buf.put(chunk))
+                    .map(buf -> {
+                        var shared = new SharedResponse(response.code(), response.contentType(), response.headers(), buf.flip());
+                        this.complete(key, flight, shared);
+                        return shared.toResponse();
+                    });
+            })
+            .doOnError(e -> this.fail(key, flight, e))
+            // cancelled or empty leader: waiters are passed to the handler
+            .doFinally(signal -> this.complete(key, flight, null));
+    }
+
+    private boolean isShareable(HttpServerRequest request) {
+        var headers = request.headers();
+        return (this.keyedByAuthorization || headers.getFirst("authorization") == null)
+            && (this.keyedByCookie || headers.getFirst("cookie") == null);
+    }
+
+    private HttpServerResponse coalesced(HttpServerRequest request, SharedResponse shared) {
+        if (this.metrics != null) {
+            this.metrics.requestCoalesced(request.method());
+        }
+        return shared.toResponse();
+    }
+
+    private void complete(String key, Flight flight, @Nullable SharedResponse response) {
+        // flight is removed first, so requests arriving after the response is ready start a new one
+        this.flights.remove(key, flight);
+        flight.result.complete(response);
+    }
+
+    private void fail(String key, Flight flight, Throwable error) {
+        this.flights.remove(key, flight);
+        flight.result.completeExceptionally(error);
+    }
+
+    private String key(HttpServerRequest request) {
+        var key = new StringBuilder(request.path().length() + 32);
+        normalizePath(key, request.path());
+        var separator = '?';
+        var queryParams = request.queryParams();
+        if (this.queryParameters == null) {
+            for (var entry : new TreeMap<String, Collection<String>>(queryParams).entrySet()) {
+                for (var value : entry.getValue()) {
+                    key.append(separator).append(entry.getKey()).append('=').append(value);
+                    separator = '&';
+                }
+            }
+        } else {
+            for (var name : this.queryParameters) {
+                var values = queryParams.get(name);
+                if (values != null) {
+                    for (var value : values) {
+                        key.append(separator).append(name).append('=').append(value);
+                        separator = '&';
+                    }
+                }
+            }
+        }
+        if (!this.headers.isEmpty()) {
+            var headers = request.headers();
+            for (var name : this.headers) {
+                var values = headers.get(name);
+                if (values != null) {
+                    for (var value : values) {
+                        key.append('\n').append(name).append(':').append(value);
+                    }
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Collapses repeated slashes and removes the trailing one
+     */
+    static void normalizePath(StringBuilder key, String path) {
+        var start = key.length();
+        for (int i = 0; i < path.length(); i++) {
+            var c = path.charAt(i);
+            if (c == '/' && key.length() > start && key.charAt(key.length() - 1) == '/') {
+                continue;
+            }
+            key.append(c);
+        }
+        if (key.length() > start + 1 && key.charAt(key.length() - 1) == '/') {
+            key.setLength(key.length() - 1);
+        }
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<SharedResponse> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private boolean join(int maxWaiters) {
+            while (true) {
+                var current = this.waiters.get();
+                if (current >= maxWaiters) {
+                    return false;
+                }
+                if (this.waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private record SharedResponse(int code, String contentType, HttpHeaders headers, ByteBuffer body) {
+        HttpServerResponse toResponse() {
+            return new SimpleHttpServerResponse(this.code, this.contentType, this.headers, this.body.duplicate());
+        }
+    }
+}
@@ -8,4 +8,11 @@ public interface HttpServerRequestHandler {
     String routeTemplate();
 
     Mono<HttpServerResponse> handle(HttpServerRequest request);
+
+    /**
+     * @return maximum request body size in bytes, negative value means that server default is used
+     */
+    default long maxRequestBodySize() {
+        return -1;
+    }
 }
@@ -0,0 +1,54 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.tinkoff.kora.common.Context;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Resources bound to the public api request, e.g. temporary files of multipart parts that the handler may never read.
+ * <p>
+ * Resources are registered in the request {@link Context} and are closed after the response is sent, so resources that
+ * are already closed by the handler must tolerate the second close.
+ */
+public final class HttpServerRequestResources {
+    private static final Logger log = LoggerFactory.getLogger(HttpServerRequestResources.class);
+
+    // context is forked for the handler subtasks, they must register resources in the same queue
+    private static final Context.Key<HttpServerRequestResources> KEY = new Context.KeyImmutable<>() {};
+
+    private final Queue<AutoCloseable> resources = new ConcurrentLinkedQueue<>();
+
+    private HttpServerRequestResources() {
+    }
+
+    public static void register(Context context, AutoCloseable resource) {
+        var resources = context.get(KEY);
+        if (resources == null) {
+            synchronized (context) {
+                resources = context.get(KEY);
+                if (resources == null) {
+                    resources = context.set(KEY, new HttpServerRequestResources());
+                }
+            }
+        }
+        resources.resources.add(resource);
+    }
+
+    public static void close(Context context) {
+        var resources = context.get(KEY);
+        if (resources == null) {
+            return;
+        }
+        AutoCloseable resource;
+        while ((resource = resources.resources.poll()) != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Error closing request resource", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package ru.tinkoff.kora.http.server.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Adds strong {@code ETag} to {@code 200} responses of GET and HEAD requests and answers requests with matching {@code If-None-Match} with {@code 304} without body.
+ * <p>
+ * ETag is taken from the {@code ETag} header set by the handler, so handlers that know the version of the data avoid body serialization for conditional requests.
+ * Otherwise it is computed from the serialized body. Responses with unknown content length (streams), with {@code Cache-Control: no-store}
+ * and {@link FileHttpServerResponse} without handler ETag (it is sent from the file and honors {@code If-Modified-Since} itself) are passed as is.
+ * Body of the response replaced with {@code 304} is subscribed and cancelled, so its resources are released.
+ * <p>
+ * When {@code maxBytes} is positive, last serialized responses are kept by path, query, {@code Accept} header and request headers named in response {@code Vary}
+ * for {@code ttl} while their bodies fit in {@code maxBytes}, and are served without calling the handler. This requires Caffeine on the classpath.
+ * Requests with {@code Authorization} or {@code Cookie} headers and responses with {@code Set-Cookie}, {@code Vary: *} or {@code Cache-Control: private}
+ * are never stored, as the response may belong to a single user.
+ */
+public final class HttpServerResponseCacheInterceptor implements BlockingHttpServerInterceptor {
+    @Nullable
+    private final ResponseStore store;
+
+    public HttpServerResponseCacheInterceptor() {
+        this.store = null;
+    }
+
+    /**
+     * @param maxBytes maximum total size of kept response bodies, {@code 0} means responses are not kept
+     */
+    public HttpServerResponseCacheInterceptor(long maxBytes, Duration ttl) {
+        this.store = maxBytes > 0
+            ? new CaffeineResponseStore(maxBytes, ttl)
+            : null;
+    }
+
+    @Override
+    public Mono<HttpServerResponse> intercept(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain) {
+        if (!isCacheable(request)) {
+            return chain.apply(request);
+        }
+        var ifNoneMatch = request.headers().getFirst("if-none-match");
+        var key = this.store == null || !isStorable(request) ? null : key(request);
+        if (key != null) {
+            var cached = this.store.get(key);
+            if (cached != null && cached.matches(request)) {
+                return Mono.just(cached.toResponse(ifNoneMatch));
+            }
+        }
+        return chain.apply(request).flatMap(response -> {
+            if (!isCacheable(response)) {
+                return Mono.just(response);
+            }
+            var etag = response.headers().getFirst("etag");
+            if (response instanceof FileHttpServerResponse) {
+                return Mono.just(etag == null ? response : withEtag(response, etag, ifNoneMatch));
+            }
+            var storeKey = key != null && isStorable(response) ? key : null;
+            if (etag != null && storeKey == null) {
+                return Mono.just(withEtag(response, etag, ifNoneMatch));
+            }
+            Flux<? extends ByteBuffer> body = response.body();
+            return body
+                .collect(() -> ByteBuffer.allocate(response.contentLength()), (buf, chunk) -> buf.put(chunk))
+                .map(buf -> this.cache(storeKey, request, response, etag, buf.flip()).toResponse(ifNoneMatch));
+        });
+    }
+
+    @Override
+    public HttpServerResponse interceptBlocking(HttpServerRequest request, Chain chain) throws Exception {
+        if (!isCacheable(request)) {
+            return chain.process(request);
+        }
+        var ifNoneMatch = request.headers().getFirst("if-none-match");
+        var key = this.store == null || !isStorable(request) ? null : key(request);
+        if (key != null) {
+            var cached = this.store.get(key);
+            if (cached != null && cached.matches(request)) {
+                return cached.toResponse(ifNoneMatch);
+            }
+        }
+        var response = chain.process(request);
+        if (!isCacheable(response)) {
+            return response;
+        }
+        var etag = response.headers().getFirst("etag");
+        if (response instanceof FileHttpServerResponse) {
+            return etag == null ? response : withEtag(response, etag, ifNoneMatch);
+        }
+        var storeKey = key != null && isStorable(response) ? key : null;
+        if (etag != null && storeKey == null) {
+            return withEtag(response, etag, ifNoneMatch);
+        }
+        var buf = ByteBuffer.allocate(response.contentLength());
+        // blocking response mappers produce already serialized bodies, so this doesn't wait for anything
+        for (var chunk : response.body().toIterable()) {
+            buf.put(chunk);
+        }
+        return this.cache(storeKey, request, response, etag, buf.flip()).toResponse(ifNoneMatch);
+    }
+
+    private CachedResponse cache(@Nullable String key, HttpServerRequest request, HttpServerResponse response, @Nullable String etag, ByteBuffer body) {
+        if (etag == null) {
+            etag = etag(body);
+        }
+        var vary = vary(response);
+        var varyValues = new String[vary.size()];
+        for (int i = 0; i < varyValues.length; i++) {
+            varyValues[i] = request.headers().getFirst(vary.get(i));
+        }
+        var cached = new CachedResponse(response.contentType(), response.headers().without("etag").with("etag", etag), body, etag, vary, varyValues);
+        if (key != null) {
+            this.store.put(key, cached);
+        }
+        return cached;
+    }
+
+    private static boolean isCacheable(HttpServerRequest request) {
+        return request.method().equals("GET") || request.method().equals("HEAD");
+    }
+
+    private static boolean isStorable(HttpServerRequest request) {
+        return request.headers().getFirst("authorization") == null && request.headers().getFirst("cookie") == null;
+    }
+
+    private static boolean isStorable(HttpServerResponse response) {
+        if (response.headers().getFirst("set-cookie") != null) {
+            return false;
+        }
+        var cacheControl = response.headers().getFirst("cache-control");
+        if (cacheControl != null && cacheControl.contains("private")) {
+            return false;
+        }
+        var vary = response.headers().get("vary");
+        if (vary != null) {
+            for (var value : vary) {
+                if (value.contains("*")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return lower case names of request headers listed in response {@code Vary}
+     */
+    private static List<String> vary(HttpServerResponse response) {
+        var vary = response.headers().get("vary");
+        if (vary == null) {
+            return List.of();
+        }
+        var names = new ArrayList<String>();
+        for (var value : vary) {
+            for (var name : value.split(",")) {
+                name = name.trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean isCacheable(HttpServerResponse response) {
+        if (response.code() != 200 || response.contentLength() < 0) {
+            return false;
+        }
+        var cacheControl = response.headers().getFirst("cache-control");
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    private static HttpServerResponse withEtag(HttpServerResponse response, String etag, @Nullable String ifNoneMatch) {
+        if (matches(ifNoneMatch, etag)) {
+            release(response);
+            return notModified(response.contentType(), response.headers(), etag);
+        }
+        return response;
+    }
+
+    /**
+     * Body that won't be sent is cancelled right after subscription, so publishers holding resources (e.g. file channels) close them
+     */
+    private static void release(HttpServerResponse response) {
+        response.body().subscribe(new BaseSubscriber<ByteBuffer>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.cancel();
+            }
+        });
+    }
+
+    private static HttpServerResponse notModified(String contentType, HttpHeaders headers, String etag) {
+        return new SimpleHttpServerResponse(304, contentType, headers.without("etag").with("etag", etag), null);
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so {@code W/} prefixes are ignored
+     */
+    static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        var opaqueTag = opaqueTag(etag);
+        var start = 0;
+        while (start < ifNoneMatch.length()) {
+            var end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = ifNoneMatch.length();
+            }
+            var candidate = ifNoneMatch.substring(start, end).trim();
+            if (candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/")
+            ? etag.substring(2)
+            : etag;
+    }
+
+    static String etag(ByteBuffer body) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(body.duplicate());
+        var hash = digest.digest();
+        // 128 bits are enough to tell versions of the same resource apart
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + '"';
+    }
+
+    private static String key(HttpServerRequest request) {
+        var key = new StringBuilder(request.method()).append(' ').append(request.path());
+        var queryParams = request.queryParams();
+        if (!queryParams.isEmpty()) {
+            var separator = '?';
+            for (var entry : new TreeMap<>(queryParams).entrySet()) {
+                for (var value : entry.getValue()) {
+                    key.append(separator).append(entry.getKey()).append('=').append(value);
+                    separator = '&';
+                }
+            }
+        }
+        var accept = request.headers().getFirst("accept");
+        if (accept != null) {
+            key.append('\n').append(accept);
+        }
+        return key.toString();
+    }
+
+    private record CachedResponse(String contentType, HttpHeaders headers, ByteBuffer body, String etag, List<String> vary, String[] varyValues) {
+        boolean matches(HttpServerRequest request) {
+            for (int i = 0; i < this.varyValues.length; i++) {
+                if (!Objects.equals(this.varyValues[i], request.headers().getFirst(this.vary.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int weight() {
+            return this.body.remaining() + this.etag.length();
+        }
+
+        HttpServerResponse toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch, this.etag)) {
+                return notModified(this.contentType, this.headers, this.etag);
+            }
+            return new SimpleHttpServerResponse(200, this.contentType, this.headers, this.body.duplicate());
+        }
+    }
+
+    private interface ResponseStore {
+        @Nullable
+        CachedResponse get(String key);
+
+        void put(String key, CachedResponse response);
+    }
+
+    /**
+     * Caffeine is an optional dependency, so it's referenced only from this class
+     */
+    private static final class CaffeineResponseStore implements ResponseStore {
+        private final long maxBytes;
+        private final Cache<String, CachedResponse> cache;
+
+        private CaffeineResponseStore(long maxBytes, Duration ttl) {
+            this.maxBytes = maxBytes;
+            this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, CachedResponse>weigher((key, response) -> key.length() + response.weight())
+                .expireAfterWrite(ttl)
+                .build();
+        }
+
+        @Nullable
+        @Override
+        public CachedResponse get(String key) {
+            return this.cache.getIfPresent(key);
+        }
+
+        @Override
+        public void put(String key, CachedResponse response) {
+            // would be evicted right away, but only after pushing out everything else
+            if (key.length() + response.weight() > this.maxBytes) {
+                return;
+            }
+            this.cache.put(key, response);
+        }
+    }
+}
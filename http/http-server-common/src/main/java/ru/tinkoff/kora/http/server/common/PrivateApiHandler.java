@@ -1,24 +1,27 @@
 package ru.tinkoff.kora.http.server.common;
 
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.application.graph.All;
 import ru.tinkoff.kora.application.graph.PromiseOf;
 import ru.tinkoff.kora.application.graph.ValueOf;
 import ru.tinkoff.kora.common.liveness.LivenessProbe;
-import ru.tinkoff.kora.common.liveness.LivenessProbeFailure;
 import ru.tinkoff.kora.common.readiness.ReadinessProbe;
-import ru.tinkoff.kora.common.readiness.ReadinessProbeFailure;
 import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.server.common.telemetry.PrivateApiMetrics;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 public class PrivateApiHandler {
     private static final String PLAIN_TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
@@ -26,26 +29,37 @@ public class PrivateApiHandler {
 
     private final ValueOf<HttpServerConfig> config;
     private final ValueOf<Optional<PrivateApiMetrics>> meterRegistry;
-    private final All<PromiseOf<ReadinessProbe>> readinessProbes;
-    private final All<PromiseOf<LivenessProbe>> livenessProbes;
+    private final PrivateApiProbeExecutor probes;
+    private final Map<String, MetricsSnapshot> metricsSnapshots = new ConcurrentHashMap<>(2);
+    private final Object scrapeLock = new Object();
+    private volatile int lastScrapeSize = 8192;
 
     public PrivateApiHandler(ValueOf<HttpServerConfig> config,
                              ValueOf<Optional<PrivateApiMetrics>> meterRegistry,
                              All<PromiseOf<ReadinessProbe>> readinessProbes,
                              All<PromiseOf<LivenessProbe>> livenessProbes) {
+        this(config, meterRegistry, new DefaultPrivateApiProbeExecutor(config, meterRegistry, readinessProbes, livenessProbes));
+    }
+
+    public PrivateApiHandler(ValueOf<HttpServerConfig> config,
+                             ValueOf<Optional<PrivateApiMetrics>> meterRegistry,
+                             PrivateApiProbeExecutor probes) {
         this.config = config;
         this.meterRegistry = meterRegistry;
-        this.readinessProbes = readinessProbes;
-        this.livenessProbes = livenessProbes;
+        this.probes = probes;
     }
 
     public Publisher<? extends HttpServerResponse> handle(String path) {
+        return this.handle(path, HttpHeaders.of());
+    }
+
+    public Publisher<? extends HttpServerResponse> handle(String path, HttpHeaders headers) {
         String metricsPath = config.get().privateApiHttpMetricsPath();
         String livenessPath = config.get().privateApiHttpLivenessPath();
         String readinessPath = config.get().privateApiHttpReadinessPath();
 
         if (path.equals(metricsPath) || path.startsWith(metricsPath + "?")) {
-            return this.metrics();
+            return this.metrics(headers);
         }
         if (path.equals(readinessPath) || path.startsWith(readinessPath + "?")) {
             return this.readiness();
@@ -57,46 +71,155 @@ public class PrivateApiHandler {
         return Mono.just(new SimpleHttpServerResponse(404, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), ByteBuffer.wrap("Private api path not found".getBytes(StandardCharsets.UTF_8))));
     }
 
-    private Publisher<HttpServerResponse> metrics() {
-        var response = this.meterRegistry.get()
-            .map(PrivateApiMetrics::scrape)
-            .orElse("");
-        var body = ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8));
-        return Mono.just(new SimpleHttpServerResponse(200, "text/plain; charset=utf-8", HttpHeaders.of(), body));
+    private Publisher<HttpServerResponse> metrics(HttpHeaders headers) {
+        var metrics = this.meterRegistry.get().orElse(null);
+        if (metrics == null) {
+            return Mono.just(new SimpleHttpServerResponse(200, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), ByteBuffer.allocate(0)));
+        }
+        var contentType = metrics.supportsOpenMetrics() && accepts(headers.get("accept"), "application/openmetrics-text")
+            ? PrivateApiMetrics.OPENMETRICS_CONTENT_TYPE
+            : PrivateApiMetrics.TEXT_CONTENT_TYPE;
+        var gzip = accepts(headers.get("accept-encoding"), "gzip");
+        return Mono.fromCallable(() -> {
+            var body = this.scrape(metrics, contentType, gzip);
+            var responseHeaders = gzip
+                ? HttpHeaders.of("content-encoding", "gzip", "vary", "accept, accept-encoding")
+                : HttpHeaders.of("vary", "accept, accept-encoding");
+            return new SimpleHttpServerResponse(200, contentType, responseHeaders, body);
+        });
     }
 
-    private Publisher<HttpServerResponse> readiness() {
-        return handleProbes(readinessProbes, probe -> probe.probe().map(ReadinessProbeFailure::message), () -> "GET " + config.get().privateApiHttpReadinessPath());
+    private ByteBuffer scrape(PrivateApiMetrics metrics, String contentType, boolean gzip) throws IOException {
+        var interval = TimeUnit.MILLISECONDS.toNanos(this.config.get().privateApiHttpMetricsScrapeInterval());
+        if (interval <= 0) {
+            return this.write(metrics, contentType, gzip);
+        }
+        var snapshot = this.metricsSnapshots.get(contentType);
+        if (snapshot == null || snapshot.isStale(interval)) {
+            synchronized (this.scrapeLock) {
+                // concurrent scrapes wait for the one in progress and reuse its result instead of scraping the registry again
+                snapshot = this.metricsSnapshots.get(contentType);
+                if (snapshot == null || snapshot.isStale(interval)) {
+                    snapshot = new MetricsSnapshot(System.nanoTime(), this.write(metrics, contentType, false));
+                    this.metricsSnapshots.put(contentType, snapshot);
+                }
+            }
+        }
+        return gzip
+            ? snapshot.gzip()
+            : snapshot.body;
     }
 
-    private Publisher<HttpServerResponse> liveness() {
-        return handleProbes(livenessProbes, probe -> probe.probe().map(LivenessProbeFailure::message), () -> "GET " + config.get().privateApiHttpLivenessPath());
+    private ByteBuffer write(PrivateApiMetrics metrics, String contentType, boolean gzip) throws IOException {
+        // sized by the previous scrape, so the buffer isn't regrown and copied several times for big registries
+        var sizeHint = this.lastScrapeSize + this.lastScrapeSize / 8;
+        var out = new ScrapeOutputStream(gzip ? sizeHint / 4 : sizeHint);
+        try (var writer = new OutputStreamWriter(gzip ? new GZIPOutputStream(out, 8192) : out, StandardCharsets.UTF_8)) {
+            metrics.scrape(contentType, writer);
+        }
+        if (!gzip) {
+            this.lastScrapeSize = out.size();
+        }
+        return out.buffer();
     }
 
-    private <Probe> Publisher<HttpServerResponse> handleProbes(All<PromiseOf<Probe>> probes, Function<Probe, Mono<String>> performProbe, Supplier<String> operationName) {
-        return Flux.fromIterable(probes)
-            .<HttpServerResponse>flatMap(probePromise -> {
-                var probe = probePromise.get();
-                if (!probe.isPresent()) {
-                    var body = ByteBuffer.wrap("Probe is not ready yet".getBytes(StandardCharsets.UTF_8));
-                    return Mono.just(new SimpleHttpServerResponse(503, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), body));
+    private static boolean accepts(@Nullable List<String> headers, String value) {
+        if (headers == null) {
+            return false;
+        }
+        for (var header : headers) {
+            for (var item : header.split(",")) {
+                var params = item.split(";");
+                if (!params[0].trim().regionMatches(true, 0, value, 0, value.length())) {
+                    continue;
                 }
+                var rejected = false;
+                for (int i = 1; i < params.length; i++) {
+                    var param = params[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            rejected = Double.parseDouble(param.substring(2).trim()) == 0.0;
+                        } catch (NumberFormatException e) {
+                            rejected = false;
+                        }
+                    }
+                }
+                if (!rejected) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-                return performProbe.apply(probe.get()).map(failure -> {
-                    var body = ByteBuffer.wrap(failure.getBytes(StandardCharsets.UTF_8));
-                    return new SimpleHttpServerResponse(503, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), body);
-                });
+    private Publisher<HttpServerResponse> readiness() {
+        return handleProbes(this.probes.readiness());
+    }
+
+    private Publisher<HttpServerResponse> liveness() {
+        return handleProbes(this.probes.liveness());
+    }
+
+    private static Publisher<HttpServerResponse> handleProbes(Mono<String> probes) {
+        return probes
+            .<HttpServerResponse>map(failure -> {
+                var body = ByteBuffer.wrap(failure.getBytes(StandardCharsets.UTF_8));
+                return new SimpleHttpServerResponse(503, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), body);
             })
-            .next()
             .switchIfEmpty(Mono.defer(() -> {
                 var body = ByteBuffer.wrap("OK".getBytes(StandardCharsets.UTF_8));
                 return Mono.just(new SimpleHttpServerResponse(200, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), body));
             }))
-            .timeout(Duration.ofSeconds(30))
             .onErrorResume(err -> {
                 String message = "Probe failed: " + err.getMessage();
                 var body = ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
                 return Mono.just(new SimpleHttpServerResponse(503, PLAIN_TEXT_CONTENT_TYPE, HttpHeaders.of(), body));
             });
     }
+
+    private static final class MetricsSnapshot {
+        private final long scrapedAt;
+        private final ByteBuffer body;
+        @Nullable
+        private volatile ByteBuffer gzip;
+
+        private MetricsSnapshot(long scrapedAt, ByteBuffer body) {
+            this.scrapedAt = scrapedAt;
+            this.body = body;
+        }
+
+        private boolean isStale(long interval) {
+            return System.nanoTime() - this.scrapedAt >= interval;
+        }
+
+        private ByteBuffer gzip() throws IOException {
+            var gzip = this.gzip;
+            if (gzip == null) {
+                synchronized (this) {
+                    gzip = this.gzip;
+                    if (gzip == null) {
+                        var out = new ScrapeOutputStream(this.body.remaining() / 4);
+                        try (var gzipOut = new GZIPOutputStream(out, 8192)) {
+                            gzipOut.write(this.body.array(), this.body.arrayOffset() + this.body.position(), this.body.remaining());
+                        }
+                        this.gzip = gzip = out.buffer();
+                    }
+                }
+            }
+            return gzip;
+        }
+    }
+
+    /**
+     * Exposes the written bytes as is, so the scrape result is not copied once more after it's written
+     */
+    private static final class ScrapeOutputStream extends ByteArrayOutputStream {
+        private ScrapeOutputStream(int size) {
+            super(Math.max(size, 1024));
+        }
+
+        private ByteBuffer buffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count);
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package ru.tinkoff.kora.http.server.common;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Executes readiness and liveness probes for the private api of the http server.
+ *
+ * @see DefaultPrivateApiProbeExecutor
+ */
+public interface PrivateApiProbeExecutor {
+    /**
+     * @return failure message of a failed probe or Mono.empty() when all the probes succeeded
+     */
+    Mono<String> readiness();
+
+    /**
+     * @return failure message of a failed probe or Mono.empty() when all the probes succeeded
+     */
+    Mono<String> liveness();
+}
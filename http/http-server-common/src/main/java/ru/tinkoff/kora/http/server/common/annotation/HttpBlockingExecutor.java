@@ -0,0 +1,25 @@
+package ru.tinkoff.kora.http.server.common.annotation;
+
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
+import ru.tinkoff.kora.http.server.common.handler.BoundedBlockingRequestExecutor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Blocking handlers of the annotated controller or method are executed on the {@link BlockingRequestExecutor} with the given tag
+ * instead of the server default one, so that slow routes can't take all the blocking threads of the server.
+ * Method annotation takes precedence over the controller one.
+ *
+ * @see BoundedBlockingRequestExecutor
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface HttpBlockingExecutor {
+    /**
+     * @return tag of the {@link BlockingRequestExecutor} component
+     */
+    Class<?>[] value();
+}
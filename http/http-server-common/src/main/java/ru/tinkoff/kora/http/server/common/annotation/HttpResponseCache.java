@@ -0,0 +1,34 @@
+package ru.tinkoff.kora.http.server.common.annotation;
+
+import ru.tinkoff.kora.http.server.common.HttpServerResponseCacheInterceptor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Applies {@link HttpServerResponseCacheInterceptor} to the controller method: responses get strong {@code ETag} and conditional requests
+ * with matching {@code If-None-Match} are answered with {@code 304 Not Modified} without body.
+ * The interceptor is applied after all the {@code @InterceptWith} interceptors of the method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface HttpResponseCache {
+    /**
+     * @return maximum total size in bytes of last serialized responses kept in memory, {@code 0} means responses are not kept and controller is called for every request.
+     * Requires {@code com.github.ben-manes.caffeine:caffeine} on the classpath when positive
+     */
+    long maxBytes() default 0;
+
+    /**
+     * @return time in {@link #unit()} kept response is served without calling controller
+     */
+    long ttl() default 60_000;
+
+    /**
+     * @return unit to use for {@link #ttl()} interpretation
+     */
+    ChronoUnit unit() default ChronoUnit.MILLIS;
+}
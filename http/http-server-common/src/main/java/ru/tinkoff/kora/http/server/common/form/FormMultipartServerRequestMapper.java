@@ -2,13 +2,42 @@ package ru.tinkoff.kora.http.server.common.form;
 
 import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.http.common.form.FormMultipart;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
 import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestMapper;
 
 public final class FormMultipartServerRequestMapper implements HttpServerRequestMapper<FormMultipart> {
+    private final int memoryThreshold;
+    private final int maxPartSize;
+
+    public FormMultipartServerRequestMapper() {
+        this(HttpServerConfig.MultipartConfig.DEFAULT_MEMORY_THRESHOLD, HttpServerConfig.MultipartConfig.DEFAULT_MAX_PART_SIZE);
+    }
+
+    /**
+     * @param memoryThreshold when not negative, parts are {@link FormMultipart.FormPart.MultipartFileStream} and content larger than threshold is written to a temporary file
+     */
+    public FormMultipartServerRequestMapper(int memoryThreshold) {
+        this(memoryThreshold, HttpServerConfig.MultipartConfig.DEFAULT_MAX_PART_SIZE);
+    }
+
+    /**
+     * @param memoryThreshold when not negative, parts are {@link FormMultipart.FormPart.MultipartFileStream} and content larger than threshold is written to a temporary file
+     * @param maxPartSize     maximum size of a part with its headers buffered on heap when {@code memoryThreshold} is negative, larger parts are rejected with 413, negative value means no limit
+     */
+    public FormMultipartServerRequestMapper(int memoryThreshold, int maxPartSize) {
+        this.memoryThreshold = memoryThreshold;
+        this.maxPartSize = maxPartSize < 0 ? Integer.MAX_VALUE : maxPartSize;
+    }
+
     @Override
     public Mono<FormMultipart> apply(HttpServerRequest request) {
-        return MultipartReader.read(request)
+        if (this.memoryThreshold < 0) {
+            return MultipartReader.read(request, this.maxPartSize)
+                .collectList()
+                .map(FormMultipart::new);
+        }
+        return MultipartReader.readStream(request, this.memoryThreshold)
             .collectList()
             .map(FormMultipart::new);
     }
@@ -1,22 +1,59 @@
 package ru.tinkoff.kora.http.server.common.form;
 
 import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.common.Context;
 import ru.tinkoff.kora.http.common.form.FormMultipart.FormPart.MultipartFile;
+import ru.tinkoff.kora.http.common.form.FormMultipart.FormPart.MultipartFileStream;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+import ru.tinkoff.kora.http.server.common.HttpServerRequestResources;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
 
 import javax.annotation.Nullable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.function.Function;
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 public class MultipartReader {
     private static final Pattern boundaryPattern = Pattern.compile(".*(\\s|;)boundary=\"?(?<boundary>[^;\"]+).*");
 
     public static Flux<MultipartFile> read(HttpServerRequest r) {
+        return read(r, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBufferSize maximum size of a buffered part with its headers, larger parts are rejected with 413
+     */
+    public static Flux<MultipartFile> read(HttpServerRequest r, int maxBufferSize) {
+        var boundary = boundary(r);
+        return decode(r, () -> new MultipartDecoder<>(boundary, headers -> new HeapPart(headers, maxBufferSize)));
+    }
+
+    /**
+     * Parts are emitted as soon as they are received, so only the part that is being received is buffered.
+     * Part content up to {@code memoryThreshold} bytes is kept on heap, larger content is written to a temporary file.
+     * <p>
+     * Content of each part can be read once, temporary file is removed when the content is read or cancelled.
+     * Temporary files of the parts that are never read are removed when the response is sent, so the method should be called in the request {@link Context}.
+     *
+     * @param memoryThreshold max part content size kept on heap, negative value means content is never written to disk
+     */
+    public static Flux<MultipartFileStream> readStream(HttpServerRequest r, int memoryThreshold) {
+        var boundary = boundary(r);
+        var context = Context.current();
+        return decode(r, () -> new MultipartDecoder<>(boundary, headers -> new SpillingPart(headers, memoryThreshold, context)));
+    }
+
+    private static String boundary(HttpServerRequest r) {
         var contentType = r.headers().getFirst("content-type");
         if (contentType == null) {
             throw HttpServerResponseException.of(400, "content-type header is required");
@@ -25,215 +62,444 @@ public class MultipartReader {
         if (!m.matches()) {
             throw HttpServerResponseException.of(400, "content-type header is invalid");
         }
-        var boundary = m.group("boundary");
-        return r.body().flatMap(new MultipartDecoder(boundary));
+        return m.group("boundary");
+    }
+
+    private static <T> Flux<T> decode(HttpServerRequest r, Supplier<MultipartDecoder<T>> decoderFactory) {
+        return Flux.defer(() -> {
+            var decoder = decoderFactory.get();
+            return r.body()
+                .concatMapIterable(decoder::decode)
+                .concatWith(Flux.defer(() -> {
+                    decoder.finish();
+                    return Flux.empty();
+                }))
+                .doFinally(signal -> decoder.release());
+        });
+    }
+
+    private record PartHeaders(String name, @Nullable String fileName, @Nullable String contentType, int size) {}
+
+    private interface PartBuilder<T> {
+        void write(byte[] data, int offset, int length);
+
+        T build();
+
+        /**
+         * Called when the part is not completed because of the error or cancellation
+         */
+        void release();
+    }
+
+    private interface PartBuilderFactory<T> {
+        PartBuilder<T> create(PartHeaders headers);
     }
 
-    private static class MultipartDecoder implements Function<ByteBuffer, Flux<MultipartFile>> {
+    /**
+     * Parses the body chunk by chunk, memory usage is bounded by the chunk size and the headers of a single part.
+     * <p>
+     * Parts are separated with {@code CRLF--boundary} delimiter that is searched with Boyer-Moore-Horspool algorithm, so most of the content bytes are skipped without comparison.
+     * Delimiter is followed by {@code CRLF} before the next part or by {@code --} after the last one.
+     * Body is prefixed with {@code CRLF}, so the first boundary matches the same delimiter and preamble before it is skipped.
+     */
+    private static final class MultipartDecoder<T> {
         private static final Pattern namePattern = Pattern.compile(".*form-data;.*(\\s|;)name=\"(?<name>.*?)\".*", Pattern.CASE_INSENSITIVE);
         private static final Pattern fileNamePattern = Pattern.compile(".*form-data;.*(\\s|;)filename=\"(?<filename>.*?)\".*", Pattern.CASE_INSENSITIVE);
-        private static final int SIZE_STEP = 4 * 1024 * 1024; // 4 mb
-        private final byte[] boundary;
-        private final byte[] boundaryBuf;
-        private ByteBuffer buf = null;
-        private State state = State.BEGIN;
-        private int readPosition = 0;
-        private ArrayList<byte[]> currentHeaders;
-        private ContentDisposition currentContentDisposition;
-        private int lastBodyPosition = 0;
+        private static final int INITIAL_SIZE = 8 * 1024;
+        private static final int MAX_HEADERS_SIZE = 16 * 1024;
+        private final PartBuilderFactory<T> partFactory;
+        private final byte[] delimiter;
+        private final int[] skip = new int[256];
+        private byte[] buf = new byte[INITIAL_SIZE];
+        private int length;
+        private boolean received;
+        private State state = State.PREAMBLE;
+        @Nullable
+        private PartBuilder<T> part;
 
-        public MultipartDecoder(String boundary) {
-            this.boundary = boundary.getBytes(StandardCharsets.US_ASCII);
-            this.boundaryBuf = new byte[this.boundary.length];
+        private MultipartDecoder(String boundary, PartBuilderFactory<T> partFactory) {
+            this.partFactory = partFactory;
+            var boundaryBytes = boundary.getBytes(StandardCharsets.US_ASCII);
+            this.delimiter = new byte[boundaryBytes.length + 4];
+            this.delimiter[0] = '\r';
+            this.delimiter[1] = '\n';
+            this.delimiter[2] = '-';
+            this.delimiter[3] = '-';
+            System.arraycopy(boundaryBytes, 0, this.delimiter, 4, boundaryBytes.length);
+            var last = this.delimiter.length - 1;
+            Arrays.fill(this.skip, this.delimiter.length);
+            for (int i = 0; i < last; i++) {
+                this.skip[this.delimiter[i] & 0xFF] = last - i;
+            }
+            this.buf[0] = '\r';
+            this.buf[1] = '\n';
+            this.length = 2;
         }
 
-        @Override
-        public Flux<MultipartFile> apply(ByteBuffer byteBuffer) {
-            if (this.state == State.ERROR) {
-                return Flux.error(new IllegalStateException());
+        private List<T> decode(ByteBuffer byteBuffer) {
+            if (this.state == State.EPILOGUE) {
+                return List.of();
             }
-            if (this.state == State.CLOSE) {
-                return Flux.empty();
-            }
-            this.ensureWritable(byteBuffer);
-            this.buf.put(byteBuffer);
-            var parts = new ArrayList<MultipartFile>();
+            var bytes = byteBuffer.remaining();
+            this.received |= bytes > 0;
+            this.ensureCapacity(this.length + bytes);
+            byteBuffer.get(this.buf, this.length, bytes);
+            this.length += bytes;
+
+            List<T> parts = List.of();
+            var pos = 0;
             loop:
             for (; ; ) {
-                var readPosition = this.readPosition;
                 switch (this.state) {
-                    case BEGIN -> {
-                        if (this.buf.position() - readPosition < this.boundary.length + 4) {
+                    case PREAMBLE -> {
+                        var delimiter = this.findDelimiter(pos);
+                        if (delimiter < 0) {
+                            pos = Math.max(pos, this.length - this.delimiter.length + 1);
                             break loop;
                         }
-                        if (this.buf.get(this.readPosition) != '-' || this.buf.get(this.readPosition + 1) != '-') {
-                            return Flux.error(HttpServerResponseException.of(400, "Invalid beginning of multipart body"));
-                        }
-                        readPosition += 2;
-                        this.buf.get(readPosition, this.boundaryBuf);
-                        if (!Arrays.equals(this.boundary, this.boundaryBuf)) {
-                            return Flux.error(HttpServerResponseException.of(400, "Invalid beginning of multipart body"));
+                        if (!this.isConfirmed(delimiter)) {
+                            pos = delimiter;
+                            break loop;
                         }
-                        readPosition += this.boundary.length;
-                        if (this.buf.get(readPosition) != '\r' || this.buf.get(readPosition + 1) != '\n') {
-                            return Flux.error(HttpServerResponseException.of(400, "Invalid beginning of multipart body"));
+                        pos = delimiter + this.delimiter.length;
+                        this.state = State.DELIMITER;
+                    }
+                    case DELIMITER -> {
+                        // delimiter is confirmed, so it is followed either by "--" or by CRLF
+                        if (this.buf[pos] == '-') {
+                            this.state = State.EPILOGUE;
+                            pos = this.length;
+                            break loop;
                         }
-                        readPosition += 2;
-                        this.readPosition = readPosition;
-                        this.state = State.READ_HEADERS;
-                        this.currentHeaders = new ArrayList<>();
+                        pos += 2;
+                        this.state = State.HEADERS;
                     }
-                    case READ_HEADERS -> {
-                        var nextLineBreak = this.findNextLineBreak();
-                        if (nextLineBreak < 0) {
+                    case HEADERS -> {
+                        if (this.length - pos < 2) {
                             break loop;
                         }
-                        if (nextLineBreak != this.readPosition) {
-                            var bytes = new byte[nextLineBreak - this.readPosition];
-                            this.buf.get(this.readPosition, bytes);
-                            this.currentHeaders.add(bytes);
-                            this.readPosition = nextLineBreak + 2;
+                        final int headersEnd;
+                        final int bodyStart;
+                        if (this.buf[pos] == '\r' && this.buf[pos + 1] == '\n') {
+                            headersEnd = pos;
+                            bodyStart = pos + 2;
                         } else {
-                            var contentDisposition = this.parseContentDisposition();
-                            if (contentDisposition == null) {
-                                return Flux.error(HttpServerResponseException.of(400, "Multipart part is missing content-disposition header"));
+                            headersEnd = this.findHeadersEnd(pos);
+                            if (headersEnd < 0) {
+                                if (this.length - pos > MAX_HEADERS_SIZE) {
+                                    throw HttpServerResponseException.of(413, "Multipart part headers are larger than " + MAX_HEADERS_SIZE + " bytes");
+                                }
+                                break loop;
                             }
-                            this.currentContentDisposition = contentDisposition;
-                            this.state = State.READ_BODY;
-                            this.readPosition = this.readPosition + 2;
-                            this.lastBodyPosition = readPosition;
+                            bodyStart = headersEnd + 4;
                         }
+                        this.part = this.partFactory.create(this.parseHeaders(pos, headersEnd));
+                        pos = bodyStart;
+                        this.state = State.BODY;
                     }
-                    case READ_BODY -> {
-                        for (int i = this.lastBodyPosition; i <= this.buf.position() - (6 + this.boundary.length); i++) {
-                            if (this.buf.get(i) != '\r' || this.buf.get(i + 1) != '\n' || this.buf.get(i + 2) != '-' || this.buf.get(i + 3) != '-') {
-                                this.lastBodyPosition = i + 1;
-                                continue;
-                            }
-                            if ((this.buf.get(i + 4 + this.boundary.length) != '-' || this.buf.get(i + 4 + this.boundary.length + 1) != '-')
-                                && (this.buf.get(i + 4 + this.boundary.length) != '\r' || this.buf.get(i + 4 + this.boundary.length + 1) != '\n')) {
-                                this.lastBodyPosition = i + 1;
-                                continue;
-                            }
-                            this.buf.get(i + 4, this.boundaryBuf);
-                            if (Arrays.equals(this.boundary, this.boundaryBuf)) {
-                                var array = new byte[i - this.readPosition];
-                                this.buf.get(this.readPosition, array);
-                                parts.add(new MultipartFile(
-                                    currentContentDisposition.name(),
-                                    currentContentDisposition.filename(),
-                                    this.parseContentType(),
-                                    array
-                                ));
-                                if (this.buf.get(i + 4 + this.boundary.length) == '-' || this.buf.get(i + 4 + this.boundary.length + 1) == '-') {
-                                    this.state = State.CLOSE;
-                                    break loop;
-                                }
-                                this.readPosition = i + 4 + this.boundary.length + 2;
-                                this.state = State.READ_HEADERS;
-                                this.currentHeaders = new ArrayList<>();
-                                this.currentContentDisposition = null;
-                                var writePosition = this.buf.position();
-                                var newWritePosition = writePosition - this.readPosition;
-                                this.buf.position(this.readPosition)
-                                    .compact()
-                                    .position(newWritePosition);
-                                this.readPosition = 0;
-                                continue loop;
+                    case BODY -> {
+                        var part = this.part;
+                        var delimiter = this.findDelimiter(pos);
+                        if (delimiter < 0) {
+                            // tail can be the beginning of the delimiter, it is kept until the next chunk
+                            var end = this.length - this.delimiter.length + 1;
+                            if (end > pos) {
+                                part.write(this.buf, pos, end - pos);
+                                pos = end;
                             }
+                            break loop;
+                        }
+                        part.write(this.buf, pos, delimiter - pos);
+                        pos = delimiter;
+                        if (!this.isConfirmed(delimiter)) {
+                            break loop;
+                        }
+                        if (parts.isEmpty()) {
+                            parts = new ArrayList<>(2);
                         }
+                        parts.add(part.build());
+                        this.part = null;
+                        pos = delimiter + this.delimiter.length;
+                        this.state = State.DELIMITER;
+                    }
+                    case EPILOGUE -> {
+                        pos = this.length;
                         break loop;
                     }
-                    case CLOSE -> {}
-                    case ERROR -> {}
                 }
             }
-            return Flux.fromIterable(parts);
+            this.length -= pos;
+            System.arraycopy(this.buf, pos, this.buf, 0, this.length);
+            return parts;
         }
 
-        private record ContentDisposition(String name, @Nullable String filename) {}
+        private void finish() {
+            if (this.state == State.EPILOGUE || this.state == State.PREAMBLE && !this.received) {
+                return;
+            }
+            if (this.state == State.PREAMBLE) {
+                throw HttpServerResponseException.of(400, "Invalid beginning of multipart body");
+            }
+            throw HttpServerResponseException.of(400, "Unexpected end of multipart body");
+        }
 
-        @Nullable
-        private ContentDisposition parseContentDisposition() {
-            for (var header : this.currentHeaders) {
-                if (header.length < 19) {
-                    continue;
-                }
-                var headerStr = new String(header, 0, 19);
-                if (!headerStr.equalsIgnoreCase("content-disposition")) {
-                    continue;
-                }
-                headerStr = new String(header, 19, header.length - 19);
+        private void release() {
+            var part = this.part;
+            this.part = null;
+            if (part != null) {
+                part.release();
+            }
+        }
 
-                var m1 = namePattern.matcher(headerStr);
-                if (!m1.matches()) {
-                    continue;
-                }
-                var name = m1.group("name");
-                var m2 = fileNamePattern.matcher(headerStr);
-                var fileName = m2.matches()
-                    ? m2.group("filename")
-                    : null;
-                return new ContentDisposition(name, fileName);
+        /**
+         * @return position of the first delimiter that is not followed by the bytes other than "--" or CRLF, or -1
+         */
+        private int findDelimiter(int from) {
+            var delimiter = this.indexOf(from);
+            while (delimiter >= 0 && delimiter + this.delimiter.length + 2 <= this.length && !this.isConfirmed(delimiter)) {
+                delimiter = this.indexOf(delimiter + 1);
             }
-            return null;
+            return delimiter;
         }
 
-        @Nullable
-        private String parseContentType() {
-            for (var header : this.currentHeaders) {
-                if (header.length < 12) {
-                    continue;
-                }
-                var headerStr = new String(header, 0, 12);
-                if (!headerStr.equalsIgnoreCase("content-type")) {
-                    continue;
-                }
-                for (int i = 12; i < header.length; i++) {
-                    if (header[i] == ':') {
-                        return new String(header, i + 1, header.length - i - 1).trim();
+        private boolean isConfirmed(int delimiter) {
+            var end = delimiter + this.delimiter.length;
+            if (end + 2 > this.length) {
+                return false;
+            }
+            var b1 = this.buf[end];
+            var b2 = this.buf[end + 1];
+            return b1 == '-' && b2 == '-' || b1 == '\r' && b2 == '\n';
+        }
+
+        private int indexOf(int from) {
+            var last = this.delimiter.length - 1;
+            var i = from;
+            while (i + last < this.length) {
+                var j = last;
+                while (this.buf[i + j] == this.delimiter[j]) {
+                    if (j == 0) {
+                        return i;
                     }
+                    j--;
                 }
+                i += this.skip[this.buf[i + last] & 0xFF];
             }
-            return null;
+            return -1;
         }
 
-        private int findNextLineBreak() {
-            for (int i = this.readPosition; i < this.buf.position() - 1; i++) {
-                if (this.buf.get(i) == '\r' && this.buf.get(i + 1) == '\n') {
+        private int findHeadersEnd(int from) {
+            for (int i = from; i + 3 < this.length; i++) {
+                if (this.buf[i] == '\r' && this.buf[i + 1] == '\n' && this.buf[i + 2] == '\r' && this.buf[i + 3] == '\n') {
                     return i;
                 }
             }
             return -1;
         }
 
+        private PartHeaders parseHeaders(int from, int to) {
+            String name = null;
+            String fileName = null;
+            String contentType = null;
+            var headers = new String(this.buf, from, to - from, StandardCharsets.UTF_8);
+            for (var header : headers.split("\r\n")) {
+                var colon = header.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                var headerName = header.substring(0, colon).trim();
+                var headerValue = header.substring(colon + 1);
+                if (headerName.equalsIgnoreCase("content-disposition") && name == null) {
+                    var m1 = namePattern.matcher(headerValue);
+                    if (!m1.matches()) {
+                        continue;
+                    }
+                    name = m1.group("name");
+                    var m2 = fileNamePattern.matcher(headerValue);
+                    fileName = m2.matches()
+                        ? m2.group("filename")
+                        : null;
+                } else if (headerName.equalsIgnoreCase("content-type") && contentType == null) {
+                    contentType = headerValue.trim();
+                }
+            }
+            if (name == null) {
+                throw HttpServerResponseException.of(400, "Multipart part is missing content-disposition header");
+            }
+            return new PartHeaders(name, fileName, contentType, to - from);
+        }
+
+        private void ensureCapacity(int required) {
+            if (this.buf.length >= required) {
+                return;
+            }
+            var newCapacity = (long) this.buf.length;
+            while (newCapacity < required) {
+                newCapacity *= 2;
+            }
+            this.buf = Arrays.copyOf(this.buf, (int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+        }
 
         private enum State {
-            BEGIN, READ_HEADERS, READ_BODY, ERROR, CLOSE
+            PREAMBLE, DELIMITER, HEADERS, BODY, EPILOGUE
+        }
+    }
+
+    private static final class HeapPart implements PartBuilder<MultipartFile> {
+        private final PartHeaders headers;
+        private final int maxContentSize;
+        private byte[] content = new byte[0];
+        private int size;
+
+        private HeapPart(PartHeaders headers, int maxBufferSize) {
+            this.headers = headers;
+            this.maxContentSize = maxBufferSize - headers.size();
         }
 
-        private void ensureWritable(ByteBuffer byteBuffer) {
-            var bytesToWrite = byteBuffer.remaining();
-            if (this.buf == null) {
-                var newCapacity = SIZE_STEP;
-                while (newCapacity <= bytesToWrite) {
-                    newCapacity += SIZE_STEP;
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            var required = (long) this.size + length;
+            if (required > this.maxContentSize) {
+                throw HttpServerResponseException.of(413, "Multipart part is larger than " + (this.maxContentSize + this.headers.size()) + " bytes");
+            }
+            if (required > this.content.length) {
+                // doubling keeps small parts small and copies each byte of a large part only a few times
+                var newCapacity = Math.max(this.content.length, 1024L);
+                while (newCapacity < required) {
+                    newCapacity *= 2;
                 }
-                this.buf = ByteBuffer.allocate(newCapacity);
-                return;
+                this.content = Arrays.copyOf(this.content, (int) Math.min(newCapacity, Math.min(this.maxContentSize, Integer.MAX_VALUE - 8)));
             }
-            var writableBytes = this.buf.capacity() - this.buf.position();
-            if (writableBytes >= bytesToWrite) {
+            System.arraycopy(data, offset, this.content, this.size, length);
+            this.size += length;
+        }
+
+        @Override
+        public MultipartFile build() {
+            var content = this.content.length == this.size
+                ? this.content
+                : Arrays.copyOf(this.content, this.size);
+            return new MultipartFile(this.headers.name(), this.headers.fileName(), this.headers.contentType(), content);
+        }
+
+        @Override
+        public void release() {
+            this.content = null;
+        }
+    }
+
+    /**
+     * Keeps content on heap until it reaches the threshold and moves it to a temporary file after that
+     */
+    private static final class SpillingPart implements PartBuilder<MultipartFileStream> {
+        private static final int CHUNK_SIZE = 64 * 1024;
+        private final PartHeaders headers;
+        private final int memoryThreshold;
+        private final Context context;
+        private byte[] content = new byte[0];
+        private int size;
+        @Nullable
+        private FileChannel file;
+
+        private SpillingPart(PartHeaders headers, int memoryThreshold, Context context) {
+            this.headers = headers;
+            this.memoryThreshold = memoryThreshold;
+            this.context = context;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            if (length == 0) {
                 return;
             }
-            var position = this.buf.position();
-            var newCapacity = this.buf.capacity();
-            while (newCapacity <= bytesToWrite + position) {
-                newCapacity += SIZE_STEP;
+            try {
+                if (this.file != null) {
+                    writeFully(this.file, ByteBuffer.wrap(data, offset, length));
+                    return;
+                }
+                var required = (long) this.size + length;
+                if (this.memoryThreshold >= 0 && required > this.memoryThreshold) {
+                    var path = Files.createTempFile("kora-multipart-", ".tmp");
+                    // file is deleted when the channel is closed, on unix it is unlinked right away
+                    this.file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                    // handler may never read the part content, closing the channel twice is a no-op
+                    HttpServerRequestResources.register(this.context, this.file);
+                    writeFully(this.file, ByteBuffer.wrap(this.content, 0, this.size));
+                    writeFully(this.file, ByteBuffer.wrap(data, offset, length));
+                    this.content = null;
+                    return;
+                }
+                if (required > this.content.length) {
+                    var newCapacity = Math.max(this.content.length, 1024L);
+                    while (newCapacity < required) {
+                        newCapacity *= 2;
+                    }
+                    if (this.memoryThreshold >= 0) {
+                        newCapacity = Math.min(newCapacity, this.memoryThreshold);
+                    }
+                    this.content = Arrays.copyOf(this.content, (int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+                }
+                System.arraycopy(data, offset, this.content, this.size, length);
+                this.size += length;
+            } catch (IOException e) {
+                this.release();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public MultipartFileStream build() {
+            var file = this.file;
+            final Flux<ByteBuffer> content;
+            if (file == null) {
+                var bytes = this.content;
+                var size = this.size;
+                content = Flux.defer(() -> Flux.just(ByteBuffer.wrap(bytes, 0, size)));
+            } else {
+                content = Flux.<ByteBuffer, Long>generate(() -> 0L, (position, sink) -> {
+                    try {
+                        var fileSize = file.position();
+                        if (position >= fileSize) {
+                            sink.complete();
+                            return position;
+                        }
+                        var chunk = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, fileSize - position));
+                        while (chunk.hasRemaining()) {
+                            if (file.read(chunk, position + chunk.position()) < 0) {
+                                throw new EOFException();
+                            }
+                        }
+                        sink.next(chunk.flip());
+                        return position + chunk.limit();
+                    } catch (IOException e) {
+                        sink.error(e);
+                        return position;
+                    }
+                }, position -> closeQuietly(file));
+            }
+            return new MultipartFileStream(this.headers.name(), this.headers.fileName(), this.headers.contentType(), content);
+        }
+
+        @Override
+        public void release() {
+            this.content = null;
+            if (this.file != null) {
+                closeQuietly(this.file);
+                this.file = null;
+            }
+        }
+
+        private static void writeFully(FileChannel file, ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) {
+                file.write(data);
+            }
+        }
+
+        private static void closeQuietly(FileChannel file) {
+            try {
+                file.close();
+            } catch (IOException ignored) {
             }
-            this.buf = ByteBuffer.allocate(newCapacity)
-                .put(this.buf.position(0))
-                .position(position);
         }
     }
 }
@@ -0,0 +1,99 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.server.common.BlockingHttpServerRequestHandler;
+import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+
+import static ru.tinkoff.kora.http.common.HttpMethod.*;
+
+public class BlockingHttpServerRequestHandlerImpl implements BlockingHttpServerRequestHandler {
+    private final String method;
+    private final String routeTemplate;
+    private final long maxRequestBodySize;
+    private final BlockingRequestExecutor executor;
+    private final Handler handler;
+
+    @FunctionalInterface
+    public interface Handler {
+        HttpServerResponse handle(HttpServerRequest request) throws Exception;
+    }
+
+    public BlockingHttpServerRequestHandlerImpl(String method, String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        this(method, routeTemplate, -1, executor, handler);
+    }
+
+    public BlockingHttpServerRequestHandlerImpl(String method, String routeTemplate, long maxRequestBodySize, BlockingRequestExecutor executor, Handler handler) {
+        this.method = method;
+        this.routeTemplate = routeTemplate;
+        this.maxRequestBodySize = maxRequestBodySize;
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl get(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(GET, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl head(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(HEAD, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl post(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(POST, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl put(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(PUT, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl delete(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(DELETE, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl connect(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(CONNECT, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl options(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(OPTIONS, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl trace(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(TRACE, routeTemplate, executor, handler);
+    }
+
+    public static BlockingHttpServerRequestHandlerImpl patch(String routeTemplate, BlockingRequestExecutor executor, Handler handler) {
+        return new BlockingHttpServerRequestHandlerImpl(PATCH, routeTemplate, executor, handler);
+    }
+
+    @Override
+    public String method() {
+        return this.method;
+    }
+
+    @Override
+    public String routeTemplate() {
+        return this.routeTemplate;
+    }
+
+    @Override
+    public long maxRequestBodySize() {
+        return this.maxRequestBodySize;
+    }
+
+    @Override
+    public BlockingRequestExecutor executor() {
+        return this.executor;
+    }
+
+    @Override
+    public HttpServerResponse handleBlocking(HttpServerRequest request) throws Exception {
+        return this.handler.handle(request);
+    }
+
+    @Override
+    public Mono<HttpServerResponse> handle(HttpServerRequest request) {
+        return this.executor.execute(() -> this.handler.handle(request));
+    }
+}
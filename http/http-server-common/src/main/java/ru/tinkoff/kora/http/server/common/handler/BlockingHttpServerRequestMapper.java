@@ -0,0 +1,23 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+
+import javax.annotation.Nullable;
+
+/**
+ * Request mapper that can be run in the blocking pipeline of a blocking request handler.
+ * <p>
+ * {@link #applyBlocking(HttpServerRequest)} is called only on the blocking executor thread after the request body is read by the server,
+ * so blocking on the request body returns right away and doesn't wait for the server threads that may be busy with other blocking handlers.
+ */
+public interface BlockingHttpServerRequestMapper<T> extends HttpServerRequestMapper<T> {
+    T applyBlocking(HttpServerRequest request) throws Exception;
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <T> BlockingHttpServerRequestMapper<T> of(HttpServerRequestMapper<T> mapper) {
+        return mapper instanceof BlockingHttpServerRequestMapper<?> blocking
+            ? (BlockingHttpServerRequestMapper<T>) blocking
+            : null;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+
+import javax.annotation.Nullable;
+
+/**
+ * Response mapper that can be run in the blocking pipeline of a blocking request handler.
+ */
+public interface BlockingHttpServerResponseMapper<T> extends HttpServerResponseMapper<T> {
+    HttpServerResponse applyBlocking(@Nullable T result) throws Exception;
+
+    @Override
+    default Mono<? extends HttpServerResponse> apply(T result) {
+        return Mono.fromCallable(() -> this.applyBlocking(result));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <T> BlockingHttpServerResponseMapper<T> of(HttpServerResponseMapper<T> mapper) {
+        return mapper instanceof BlockingHttpServerResponseMapper<?> blocking
+            ? (BlockingHttpServerResponseMapper<T>) blocking
+            : null;
+    }
+}
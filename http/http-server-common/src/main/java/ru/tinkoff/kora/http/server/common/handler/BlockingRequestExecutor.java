@@ -1,8 +1,12 @@
 package ru.tinkoff.kora.http.server.common.handler;
 
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 import reactor.core.publisher.Operators;
 import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
+import ru.tinkoff.kora.http.server.common.HttpServerLoadShedder;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -12,12 +16,50 @@ import java.util.function.Consumer;
 public interface BlockingRequestExecutor {
     <T> Mono<T> execute(Callable<T> handler);
 
+    /**
+     * Runs task on the executor as is: no publisher is created and no context is propagated,
+     * so task is responsible for its own error handling and {@link Context} injection.
+     */
+    default void dispatch(Runnable task) {
+        this.execute(() -> {
+            task.run();
+            return null;
+        }).subscribe();
+    }
+
     static <T> Mono<T> defaultExecute(Consumer<Runnable> executor, Callable<T> handler) {
-        return Mono.create(sink -> sink.onRequest(l -> executor.accept(() -> {
+        return Mono.create(sink -> sink.onRequest(l -> {
+            try {
+                executor.accept(task(sink, handler));
+            } catch (RuntimeException e) {
+                // rejected by the executor
+                sink.error(e);
+            }
+        }));
+    }
+
+    private static <T> Runnable task(MonoSink<T> sink, Callable<T> handler) {
+        return () -> {
             var cancelled = new AtomicBoolean(false);
             sink.onCancel(() -> cancelled.set(true));
             var reactorCtx = sink.contextView();
-            Context.Reactor.current(reactorCtx).inject();
+            var context = Context.Reactor.current(reactorCtx);
+            var admission = HttpServerLoadShedder.Admission.current(context);
+            if (admission != null) {
+                // the task is where the request waited in the executor queue
+                var rejected = admission.admit();
+                if (rejected != null) {
+                    sink.error(rejected);
+                    return;
+                }
+            }
+            var deadline = Deadline.current(context);
+            if (deadline != null && deadline.isExpired()) {
+                // nobody waits for the result anymore, so the task that sat in the queue for too long is skipped
+                sink.error(HttpServerResponseException.of(504, "Request deadline exceeded"));
+                return;
+            }
+            context.inject();
             T result;
             try {
                 result = handler.call();
@@ -38,8 +80,7 @@ public interface BlockingRequestExecutor {
             } finally {
                 Context.clear();
             }
-        })));
-
+        };
     }
 
     class Default implements BlockingRequestExecutor {
@@ -52,5 +93,10 @@ public interface BlockingRequestExecutor {
         public final <T> Mono<T> execute(Callable<T> handler) {
             return defaultExecute(this.executorService::execute, handler);
         }
+
+        @Override
+        public void dispatch(Runnable task) {
+            this.executorService.execute(task);
+        }
     }
 }
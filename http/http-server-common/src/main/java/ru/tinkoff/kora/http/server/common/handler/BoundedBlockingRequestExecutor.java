@@ -0,0 +1,136 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.Lifecycle;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
+import ru.tinkoff.kora.http.server.common.annotation.HttpBlockingExecutor;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerBlockingExecutorStats;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Blocking requests executor with a fixed threads count and a bounded queue, meant to isolate routes from each other:
+ * requests that don't fit into the queue are answered with {@code 503 Service Unavailable} immediately instead of waiting behind the slow ones.
+ * <p>
+ * Assign it to controllers with {@link HttpBlockingExecutor}:
+ * <pre>{@code
+ * @Tag(ReportsController.class)
+ * default BlockingRequestExecutor reportsExecutor(@Nullable HttpServerMetrics metrics) {
+ *     return new BoundedBlockingRequestExecutor("reports", 4, 16, metrics);
+ * }
+ * }</pre>
+ */
+public final class BoundedBlockingRequestExecutor implements BlockingRequestExecutor, Lifecycle, HttpServerBlockingExecutorStats {
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LongAdder rejected = new LongAdder();
+    @Nullable
+    private final HttpServerMetrics metrics;
+
+    /**
+     * @param name      executor name used for thread names and metrics
+     * @param threads   max threads count, threads are stopped after a minute without tasks
+     * @param queueSize max requests waiting for a thread, {@code 0} means requests are rejected when all the threads are busy
+     */
+    public BoundedBlockingRequestExecutor(String name, int threads, int queueSize, @Nullable HttpServerMetrics metrics) {
+        if (threads <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException("Blocking executor '%s' should have positive threads count and non negative queue size, got threads=%d, queueSize=%d".formatted(name, threads, queueSize));
+        }
+        var counter = new AtomicInteger();
+        this.name = name;
+        this.queueCapacity = queueSize;
+        this.metrics = metrics;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queueSize == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize), r -> {
+            var thread = new Thread(r, "kora-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        }, (r, e) -> {
+            throw new RejectedExecutionException();
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <T> Mono<T> execute(Callable<T> handler) {
+        return BlockingRequestExecutor.defaultExecute(this::submit, handler);
+    }
+
+    @Override
+    public void dispatch(Runnable task) {
+        this.submit(task);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw this.rejected();
+        }
+    }
+
+    private HttpServerResponseException rejected() {
+        this.rejected.increment();
+        var message = "Blocking executor '" + this.name + "' is saturated";
+        return new HttpServerResponseException(503, "text/plain; charset=utf-8", message, UTF_8.encode(message), HttpHeaders.of("retry-after", "1"));
+    }
+
+    @Override
+    public Mono<?> init() {
+        return Mono.fromRunnable(() -> {
+            if (this.metrics != null) {
+                this.metrics.blockingExecutorStats(this.name, this);
+            }
+        });
+    }
+
+    @Override
+    public Mono<?> release() {
+        return Mono.fromCallable(() -> {
+            this.executor.shutdown();
+            this.executor.awaitTermination(1, TimeUnit.MINUTES);
+            return null;
+        });
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public int queueSize() {
+        return this.executor.getQueue().size();
+    }
+
+    @Override
+    public int queueCapacity() {
+        return this.queueCapacity;
+    }
+
+    @Override
+    public int activeThreads() {
+        return this.executor.getActiveCount();
+    }
+
+    @Override
+    public int maxThreads() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public long rejectedTasks() {
+        return this.rejected.sum();
+    }
+}
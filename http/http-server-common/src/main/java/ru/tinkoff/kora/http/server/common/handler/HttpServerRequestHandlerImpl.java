@@ -12,11 +12,17 @@ import static ru.tinkoff.kora.http.common.HttpMethod.*;
 public class HttpServerRequestHandlerImpl implements HttpServerRequestHandler {
     private final String method;
     private final String routeTemplate;
+    private final long maxRequestBodySize;
     private final Function<HttpServerRequest, Mono<HttpServerResponse>> handler;
 
     public HttpServerRequestHandlerImpl(String method, String routeTemplate, Function<HttpServerRequest, Mono<HttpServerResponse>> handler) {
+        this(method, routeTemplate, -1, handler);
+    }
+
+    public HttpServerRequestHandlerImpl(String method, String routeTemplate, long maxRequestBodySize, Function<HttpServerRequest, Mono<HttpServerResponse>> handler) {
         this.method = method;
         this.routeTemplate = routeTemplate;
+        this.maxRequestBodySize = maxRequestBodySize;
         this.handler = handler;
     }
 
@@ -67,6 +73,11 @@ public class HttpServerRequestHandlerImpl implements HttpServerRequestHandler {
         return this.routeTemplate;
     }
 
+    @Override
+    public long maxRequestBodySize() {
+        return this.maxRequestBodySize;
+    }
+
     @Override
     public Mono<HttpServerResponse> handle(HttpServerRequest request) {
         return this.handler.apply(request);
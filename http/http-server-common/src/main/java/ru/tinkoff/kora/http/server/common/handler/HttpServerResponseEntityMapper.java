@@ -9,6 +9,9 @@ import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Entity mapper is usable in the blocking pipeline only when its delegate is, see {@link #of(HttpServerResponseMapper)}.
+ */
 public class HttpServerResponseEntityMapper<T> implements HttpServerResponseMapper<HttpServerResponseEntity<T>> {
     private final HttpServerResponseMapper<T> delegate;
 
@@ -16,36 +19,63 @@ public class HttpServerResponseEntityMapper<T> implements HttpServerResponseMapp
         this.delegate = delegate;
     }
 
+    public static <T> HttpServerResponseEntityMapper<T> of(HttpServerResponseMapper<T> delegate) {
+        var blockingDelegate = BlockingHttpServerResponseMapper.of(delegate);
+        return blockingDelegate != null
+            ? new Blocking<>(blockingDelegate)
+            : new HttpServerResponseEntityMapper<>(delegate);
+    }
+
     @Override
     public Mono<? extends HttpServerResponse> apply(HttpServerResponseEntity<T> result) {
         return delegate.apply(result.body())
-            .map(response -> {
-                HttpHeaders headers;
-                if (result.headers().size() == 0) {
-                    headers = response.headers();
-                } else if (response.headers().size() == 0) {
-                    headers = result.headers();
-                } else {
-                    @SuppressWarnings({"unchecked", "rawtypes"})
-                    Map.Entry<String, List<String>>[] entries = new Map.Entry[response.headers().size() + result.headers().size()];
-                    var i = 0;
-                    for (var entry : response.headers()) {
-                        entries[i++] = entry;
-                    }
-                    for (var entry : result.headers()) {
-                        entries[i++] = entry;
-                    }
-
-                    headers = HttpHeaders.of(entries);
-                }
-
-                return new SimpleHttpServerResponse(
-                    result.code(),
-                    response.contentType(),
-                    headers,
-                    response.contentLength(),
-                    response.body()
-                );
-            });
+            .map(response -> toResponse(result, response));
+    }
+
+    private static final class Blocking<T> extends HttpServerResponseEntityMapper<T> implements BlockingHttpServerResponseMapper<HttpServerResponseEntity<T>> {
+        private final BlockingHttpServerResponseMapper<T> delegate;
+
+        private Blocking(BlockingHttpServerResponseMapper<T> delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpServerResponse applyBlocking(HttpServerResponseEntity<T> result) throws Exception {
+            var response = this.delegate.applyBlocking(result.body());
+            if (response == null) {
+                return null;
+            }
+            return toResponse(result, response);
+        }
+    }
+
+    private static HttpServerResponse toResponse(HttpServerResponseEntity<?> result, HttpServerResponse response) {
+        HttpHeaders headers;
+        if (result.headers().size() == 0) {
+            headers = response.headers();
+        } else if (response.headers().size() == 0) {
+            headers = result.headers();
+        } else {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Map.Entry<String, List<String>>[] entries = new Map.Entry[response.headers().size() + result.headers().size()];
+            var i = 0;
+            for (var entry : response.headers()) {
+                entries[i++] = entry;
+            }
+            for (var entry : result.headers()) {
+                entries[i++] = entry;
+            }
+
+            headers = HttpHeaders.of(entries);
+        }
+
+        return new SimpleHttpServerResponse(
+            result.code(),
+            response.contentType(),
+            headers,
+            response.contentLength(),
+            response.body()
+        );
     }
 }
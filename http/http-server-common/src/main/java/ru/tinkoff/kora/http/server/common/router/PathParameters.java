@@ -0,0 +1,73 @@
+package ru.tinkoff.kora.http.server.common.router;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Read only path parameters map backed by parameter offsets in the request path.
+ * Values are extracted on access, full map is materialized only on iteration.
+ */
+final class PathParameters extends AbstractMap<String, String> {
+    private final String path;
+    private final String[] names;
+    private final int[] offsets;
+    private Map<String, String> materialized;
+
+    PathParameters(String path, String[] names, int[] offsets) {
+        this.path = path;
+        this.names = names;
+        this.offsets = offsets;
+    }
+
+    @Nullable
+    @Override
+    public String get(Object key) {
+        var idx = this.indexOf(key);
+        if (idx < 0) {
+            return null;
+        }
+        return this.path.substring(this.offsets[idx * 2], this.offsets[idx * 2 + 1]);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.names.length == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.materialize().size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return this.materialize().entrySet();
+    }
+
+    private int indexOf(Object key) {
+        // last one wins the same way it does with sequential map puts
+        for (int i = this.names.length - 1; i >= 0; i--) {
+            if (this.names[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Map<String, String> materialize() {
+        var materialized = this.materialized;
+        if (materialized == null) {
+            var map = new LinkedHashMap<String, String>(this.names.length * 2);
+            for (int i = 0; i < this.names.length; i++) {
+                map.put(this.names[i], this.path.substring(this.offsets[i * 2], this.offsets[i * 2 + 1]));
+            }
+            this.materialized = materialized = Collections.unmodifiableMap(map);
+        }
+        return materialized;
+    }
+}
@@ -6,6 +6,9 @@ import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.application.graph.All;
 import ru.tinkoff.kora.application.graph.RefreshListener;
 import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.Deadline;
+import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.common.HttpResultCode;
 import ru.tinkoff.kora.http.server.common.*;
@@ -16,126 +19,352 @@ import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.BiFunction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
- * Utility class that provides fast path matching of path templates. Templates are stored in a map based on the stem of the template,
- * and matches longest stem first.
+ * Routes public api requests to {@link HttpServerRequestHandler}. Routes are compiled once into a {@link RouteTrie} per http method,
+ * requests are dispatched by method first and then by path segments.
  * <p>
- * TODO: we can probably do this faster using a trie type structure, but I think the current impl should perform ok most of the time
- *
- * @author Stuart Douglas
+ * Interceptor chain of each route is composed once when the graph is refreshed from the interceptors that {@link HttpServerInterceptor#appliesTo(String, String) apply} to the route,
+ * so requests are passed through a fixed chain of functions ending with the route handler. Route telemetry is resolved at the same time.
+ * <p>
+ * Requests to {@link BlockingHttpServerRequestHandler} are processed as straight-line code on the handler blocking executor
+ * when all the interceptors of the route are {@link BlockingHttpServerInterceptor}, reactive pipeline is used otherwise.
  */
-
 public class PublicApiHandler implements RefreshListener {
     private final Function<HttpServerRequest, Mono<HttpServerResponse>> NOT_FOUND_HANDLER = request ->
         Mono.just(new SimpleHttpServerResponse(404, "application/octet-stream", HttpHeaders.of(), null));
+    // methods allowed for the request path are found per request, so the chain composed once takes them from the request context
+    private static final Context.Key<String> ALLOWED_METHODS = new Context.KeyImmutable<>() {};
+    private final Function<HttpServerRequest, Mono<HttpServerResponse>> METHOD_NOT_ALLOWED_HANDLER = request -> Mono.deferContextual(reactorContext -> {
+        var allowed = Context.Reactor.current(reactorContext).get(ALLOWED_METHODS);
+        var headers = allowed == null ? HttpHeaders.of() : HttpHeaders.of("allow", allowed);
+        return Mono.just(new SimpleHttpServerResponse(405, "application/octet-stream", headers, null));
+    });
 
-    private final Map<String, PathTemplateMatcher<ValueOf<HttpServerRequestHandler>>> pathTemplateMatcher;
-    private final PathTemplateMatcher<List<String>> allMethodMatchers;
+    private final Map<String, RouteTrie<Route>> routers;
+    private final List<Route> routes;
     private final All<ValueOf<HttpServerRequestHandler>> handlers;
     private final All<ValueOf<HttpServerInterceptor>> interceptors;
-    private final AtomicReference<RequestHandler> requestHandler = new AtomicReference<>();
+    private volatile Function<HttpServerRequest, Mono<HttpServerResponse>> notFoundChain = NOT_FOUND_HANDLER;
+    private volatile Function<HttpServerRequest, Mono<HttpServerResponse>> methodNotAllowedChain = METHOD_NOT_ALLOWED_HANDLER;
     private final ValueOf<HttpServerTelemetry> telemetry;
+    @Nullable
+    private final HttpServerLoadShedder loadShedder;
+    private final long maxRequestBodySize;
+    @Nullable
+    private final String deadlineHeader;
+    private final long requestTimeout;
 
     public PublicApiHandler(All<ValueOf<HttpServerRequestHandler>> handlers, All<ValueOf<HttpServerInterceptor>> interceptors, ValueOf<HttpServerTelemetry> httpServerTelemetry) {
+        this(handlers, interceptors, httpServerTelemetry, null, -1);
+    }
+
+    /**
+     * @param maxRequestBodySize request body size limit for routes that don't declare their own, negative value means no limit
+     */
+    public PublicApiHandler(All<ValueOf<HttpServerRequestHandler>> handlers, All<ValueOf<HttpServerInterceptor>> interceptors, ValueOf<HttpServerTelemetry> httpServerTelemetry,
+                            @Nullable HttpServerLoadShedder loadShedder, long maxRequestBodySize) {
+        this(handlers, interceptors, httpServerTelemetry, loadShedder, maxRequestBodySize, null, -1);
+    }
+
+    /**
+     * @param deadlineHeader request header with the time in milliseconds the client is going to wait for the response, header is ignored when null
+     * @param requestTimeout time in milliseconds the request can be processed, negative value means no limit
+     */
+    public PublicApiHandler(All<ValueOf<HttpServerRequestHandler>> handlers, All<ValueOf<HttpServerInterceptor>> interceptors, ValueOf<HttpServerTelemetry> httpServerTelemetry,
+                            @Nullable HttpServerLoadShedder loadShedder, long maxRequestBodySize, @Nullable String deadlineHeader, int requestTimeout) {
         this.handlers = handlers;
         this.interceptors = interceptors;
         this.telemetry = httpServerTelemetry;
-        this.pathTemplateMatcher = new HashMap<>();
-        this.allMethodMatchers = new PathTemplateMatcher<>();
+        this.loadShedder = loadShedder;
+        this.maxRequestBodySize = maxRequestBodySize;
+        this.deadlineHeader = deadlineHeader;
+        this.requestTimeout = requestTimeout < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(requestTimeout);
+        this.routers = new LinkedHashMap<>();
+        this.routes = new ArrayList<>(handlers.size());
         for (var h : handlers) {
             var handler = h.get();
-            var route = handler.routeTemplate();
-            var methodMatchers = this.pathTemplateMatcher.computeIfAbsent(handler.method(), k -> new PathTemplateMatcher<>());
-            var oldValue = methodMatchers.add(route, h);
+            var route = new Route(handler.method(), handler.routeTemplate(), h);
+            var router = this.routers.computeIfAbsent(handler.method(), k -> new RouteTrie<>());
+            var oldValue = router.add(route.routeTemplate, route);
             if (oldValue != null) {
-                throw new IllegalStateException("Cannot add path template %s, matcher already contains an equivalent pattern %s".formatted(route, oldValue.getKey().templateString()));
-            }
-            var otherMethods = new ArrayList<>(List.of(handler.method()));
-            var oldAllMethodValue = this.allMethodMatchers.add(route, otherMethods);
-            if (oldAllMethodValue != null) {
-                otherMethods.addAll(oldAllMethodValue.getValue());
+                throw new IllegalStateException("Cannot add path template %s, matcher already contains an equivalent pattern %s".formatted(route.routeTemplate, oldValue.getKey()));
             }
+            this.routes.add(route);
         }
-        if (interceptors.isEmpty()) {
-            this.requestHandler.set(new SimpleRequestHandler());
-        } else {
-            this.requestHandler.set(new AggregatedRequestHandler(interceptors));
-        }
+        this.graphRefreshed();
     }
 
     @Override
     public void graphRefreshed() {
-        if (interceptors.isEmpty()) {
-            requestHandler.set(new SimpleRequestHandler());
-        } else {
-            requestHandler.set(new AggregatedRequestHandler(interceptors));
+        var interceptors = new ArrayList<HttpServerInterceptor>(this.interceptors.size());
+        for (var interceptor : this.interceptors) {
+            interceptors.add(interceptor.get());
         }
+        var telemetry = this.telemetry == null ? null : this.telemetry.get();
+        for (var route : this.routes) {
+            route.chain = RouteChain.of(route, interceptors, telemetry);
+        }
+        // requests that didn't match any route can't be checked against interceptor routes, so all the interceptors are applied to them
+        this.notFoundChain = compose(interceptors, NOT_FOUND_HANDLER);
+        this.methodNotAllowedChain = compose(interceptors, METHOD_NOT_ALLOWED_HANDLER);
     }
 
     public int handlersSize() {
         return this.handlers.size();
     }
 
-    public record PublicApiRequest(String method, String path, String hostName, String scheme, HttpHeaders headers, Map<String, ? extends Collection<String>> queryParams, Flux<ByteBuffer> body) {}
+    /**
+     * @param protocol   request protocol as in the request line, e.g. {@code HTTP/1.1} or {@code HTTP/2.0}
+     * @param receivedAt {@link System#nanoTime()} when the request was received by the server
+     */
+    public record PublicApiRequest(String method, String path, String hostName, String scheme, HttpHeaders headers, Map<String, ? extends Collection<String>> queryParams, Flux<ByteBuffer> body, String protocol, long receivedAt) {
+        public static final String HTTP_1_1 = "HTTP/1.1";
+
+        public PublicApiRequest(String method, String path, String hostName, String scheme, HttpHeaders headers, Map<String, ? extends Collection<String>> queryParams, Flux<ByteBuffer> body, String protocol) {
+            this(method, path, hostName, scheme, headers, queryParams, body, protocol, System.nanoTime());
+        }
+
+        public PublicApiRequest(String method, String path, String hostName, String scheme, HttpHeaders headers, Map<String, ? extends Collection<String>> queryParams, Flux<ByteBuffer> body) {
+            this(method, path, hostName, scheme, headers, queryParams, body, HTTP_1_1);
+        }
+    }
 
     public void process(PublicApiRequest routerRequest, HttpServerResponseSender responseSender) {
         final Function<HttpServerRequest, Mono<HttpServerResponse>> handlerFunction;
+        RouteChain routeChain = null;
         final Map<String, String> templateParameters;
         final @Nullable String routeTemplate;
+        var maxRequestBodySize = -1L;
+        var methodNotAllowed = false;
 
-        var methodMatchers = pathTemplateMatcher.get(routerRequest.method());
-        var pathTemplateMatch = methodMatchers == null ? null : methodMatchers.match(routerRequest.path());
+        var router = this.routers.get(routerRequest.method());
+        var pathTemplateMatch = router == null ? null : router.match(routerRequest.path());
         if (pathTemplateMatch == null) {
-            var allMethodMatch = allMethodMatchers.match(routerRequest.path);
-            if (allMethodMatch != null) {
-                var allowed = String.join(", ", allMethodMatch.value());
-                handlerFunction = request -> Mono.just(new SimpleHttpServerResponse(405, "application/octet-stream", HttpHeaders.of("allow", allowed), null));
-                routeTemplate = allMethodMatch.matchedTemplate();
+            var allowedMethods = new StringJoiner(", ");
+            String allowedRouteTemplate = null;
+            for (var entry : this.routers.entrySet()) {
+                var otherMethodMatch = entry.getValue().match(routerRequest.path());
+                if (otherMethodMatch != null) {
+                    allowedMethods.add(entry.getKey());
+                    if (allowedRouteTemplate == null) {
+                        allowedRouteTemplate = otherMethodMatch.matchedTemplate();
+                    }
+                }
+            }
+            if (allowedRouteTemplate != null) {
+                Context.current().set(ALLOWED_METHODS, allowedMethods.toString());
+                methodNotAllowed = true;
+                handlerFunction = this.methodNotAllowedChain;
+                routeTemplate = allowedRouteTemplate;
                 templateParameters = Map.of();
             } else {
-                handlerFunction = NOT_FOUND_HANDLER;
+                handlerFunction = this.notFoundChain;
                 routeTemplate = null;
                 templateParameters = Map.of();
             }
         } else {
             templateParameters = pathTemplateMatch.parameters();
             routeTemplate = pathTemplateMatch.matchedTemplate();
-            handlerFunction = pathTemplateMatch.value().get()::handle;
+            routeChain = pathTemplateMatch.value().chain;
+            handlerFunction = routeChain.reactive();
+            var handler = routeChain.handler();
+            maxRequestBodySize = handler.maxRequestBodySize() >= 0 ? handler.maxRequestBodySize() : this.maxRequestBodySize;
         }
 
-        var request = new Request(routerRequest.method(), routerRequest.path(), routeTemplate, routerRequest.headers(), routerRequest.queryParams(), templateParameters, routerRequest.body());
-
-        var ctx = this.telemetry.get().get(routerRequest, routeTemplate);
+        var body = routerRequest.body();
+        var telemetryCtx = routeChain != null
+            ? routeChain.telemetry().get(routerRequest)
+            : this.telemetry.get().get(routerRequest, routeTemplate);
+        var requestContext = Context.current();
+        HttpServerTelemetry.HttpServerTelemetryContext ctx = (statusCode, resultCode, exception) -> {
+            try {
+                telemetryCtx.close(statusCode, resultCode, exception);
+            } finally {
+                HttpServerRequestResources.close(requestContext);
+            }
+        };
         var method = routerRequest.method;
+        if (maxRequestBodySize >= 0) {
+            if (contentLength(routerRequest.headers()) > maxRequestBodySize) {
+                var error = requestBodyTooLarge(maxRequestBodySize);
+                this.sendResponse(ctx, responseSender, error, error);
+                return;
+            }
+            body = limitBody(body, maxRequestBodySize);
+        }
+
+        var request = new Request(routerRequest.method(), routerRequest.path(), routeTemplate, routerRequest.headers(), routerRequest.queryParams(), templateParameters, body);
+        var deadline = this.deadline(routerRequest);
+        if (deadline != null) {
+            deadline = Deadline.set(Context.current(), deadline);
+        }
+
+        if (routeChain != null && routeChain.blocking() != null) {
+            var context = Context.current();
+            var blockingChain = routeChain.blocking();
+            var executor = ((BlockingHttpServerRequestHandler) routeChain.handler()).executor();
+            var blockingDeadline = deadline;
+            BiConsumer<HttpServerRequest, Long> dispatch = (blockingRequest, queuedAt) -> {
+                try {
+                    executor.dispatch(() -> {
+                        context.inject();
+                        try {
+                            // executor queue is where requests wait under load, so admission is decided when the task is started
+                            if (this.loadShedder != null && pathTemplateMatch != null) {
+                                var rejected = this.loadShedder.admit(method, routeTemplate, queuedAt);
+                                if (rejected != null) {
+                                    this.sendResponse(ctx, responseSender, rejected, null);
+                                    return;
+                                }
+                            }
+                            if (blockingDeadline != null && blockingDeadline.isExpired()) {
+                                var error = deadlineExceeded();
+                                this.sendResponse(ctx, responseSender, error, error);
+                                return;
+                            }
+                            this.processBlocking(ctx, responseSender, blockingRequest, blockingChain, routeTemplate);
+                        } finally {
+                            Context.clear();
+                        }
+                    });
+                } catch (Throwable error) {
+                    this.sendResponse(ctx, responseSender, errorResponse(error), error);
+                }
+            };
+            if (hasBody(routerRequest.headers())) {
+                // body publisher is driven by the server worker threads, which are the threads the blocking handler could wait for the body on,
+                // so the body is read before the handler is dispatched and its time isn't counted as the queue time
+                ReactorUtils.toByteArrayMono(request.body()).subscribe(
+                    bytes -> dispatch.accept(request.withBody(Flux.just(ByteBuffer.wrap(bytes))), System.nanoTime()),
+                    error -> this.sendResponse(ctx, responseSender, errorResponse(error), error)
+                );
+            } else {
+                dispatch.accept(request, routerRequest.receivedAt());
+            }
+            return;
+        }
+
+        // reactive handlers don't wait in any queue, the ones that call a blocking executor are admitted when their task is started
+        var admission = this.loadShedder != null && pathTemplateMatch != null;
+        if (admission) {
+            Context.current().set(HttpServerLoadShedder.Admission.KEY, this.loadShedder.admission(method, routeTemplate, routerRequest.receivedAt()));
+        }
 
         try {
-            this.requestHandler.get().apply(request, handlerFunction)
-                .switchIfEmpty(Mono.error(() -> new Exception(String.format("Empty result stream for `%1$s` request handler. Possibly request controller returns `null` as result", operation(method, routeTemplate)))))
+            var result = handlerFunction.apply(request)
+                .switchIfEmpty(Mono.error(() -> new Exception(String.format("Empty result stream for `%1$s` request handler. Possibly request controller returns `null` as result", operation(method, routeTemplate)))));
+            if (deadline != null) {
+                // handler is cancelled when the deadline passes, so its downstream calls are cancelled too
+                result = result.timeout(deadline.remaining(), Mono.error(PublicApiHandler::deadlineExceeded));
+            }
+            if (deadline != null || admission || methodNotAllowed) {
+                var context = Context.current();
+                result = result.contextWrite(c -> Context.Reactor.inject(c, context));
+            }
+            result
                 .subscribe(
                     response -> this.sendResponse(ctx, responseSender, response, null),
-                    error -> {
-                        var response = error instanceof HttpServerResponse httpServerResponse
-                            ? httpServerResponse
-                            : new SimpleHttpServerResponse(500, "text/plain", HttpHeaders.of(), StandardCharsets.UTF_8.encode(
-                            Objects.requireNonNullElse(error.getMessage(), "Unknown error")
-                        ));
-                        this.sendResponse(ctx, responseSender, response, error);
-                    });
+                    error -> this.sendResponse(ctx, responseSender, errorResponse(error), error));
 
         } catch (Throwable error) {
-            var response = error instanceof HttpServerResponse httpServerResponse
-                ? httpServerResponse
-                : new SimpleHttpServerResponse(500, "text/plain", HttpHeaders.of(), StandardCharsets.UTF_8.encode(
-                Objects.requireNonNullElse(error.getMessage(), "Unknown error")
-            ));
-            this.sendResponse(ctx, responseSender, response, error);
+            this.sendResponse(ctx, responseSender, errorResponse(error), error);
         }
     }
 
+    private void processBlocking(HttpServerTelemetry.HttpServerTelemetryContext ctx, HttpServerResponseSender responseSender, HttpServerRequest request,
+                                 BlockingHttpServerInterceptor.Chain blockingChain, String routeTemplate) {
+        final HttpServerResponse response;
+        try {
+            response = blockingChain.process(request);
+        } catch (Throwable error) {
+            this.sendResponse(ctx, responseSender, errorResponse(error), error);
+            return;
+        }
+        if (response == null) {
+            var error = new Exception(String.format("Empty result for `%1$s` request handler. Possibly request controller returns `null` as result", operation(request.method(), routeTemplate)));
+            this.sendResponse(ctx, responseSender, errorResponse(error), error);
+            return;
+        }
+        this.sendResponse(ctx, responseSender, response, null);
+    }
+
+    private static boolean hasBody(HttpHeaders headers) {
+        return contentLength(headers) > 0 || headers.getFirst("transfer-encoding") != null;
+    }
+
+    private static long contentLength(HttpHeaders headers) {
+        var contentLength = headers.getFirst("content-length");
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Chunked bodies and bodies with wrong content length are checked while they are read, the error is received by the body subscriber
+     */
+    private static Flux<ByteBuffer> limitBody(Flux<ByteBuffer> body, long maxRequestBodySize) {
+        return Flux.defer(() -> {
+            var read = new long[1];
+            return body.handle((buffer, sink) -> {
+                read[0] += buffer.remaining();
+                if (read[0] > maxRequestBodySize) {
+                    sink.error(requestBodyTooLarge(maxRequestBodySize));
+                } else {
+                    sink.next(buffer);
+                }
+            });
+        });
+    }
+
+    @Nullable
+    private Deadline deadline(PublicApiRequest request) {
+        var timeout = this.requestTimeout;
+        if (this.deadlineHeader != null) {
+            var header = request.headers().getFirst(this.deadlineHeader);
+            if (header != null) {
+                try {
+                    var clientTimeout = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(header.trim()));
+                    if (clientTimeout >= 0 && (timeout < 0 || clientTimeout < timeout)) {
+                        timeout = clientTimeout;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // malformed header is treated as absent
+                }
+            }
+        }
+        if (timeout < 0) {
+            return null;
+        }
+        return Deadline.after(request.receivedAt(), timeout);
+    }
+
+    private static HttpServerResponseException deadlineExceeded() {
+        return HttpServerResponseException.of(504, "Request deadline exceeded");
+    }
+
+    private static HttpServerResponseException requestBodyTooLarge(long maxRequestBodySize) {
+        var message = "Request body is larger than " + maxRequestBodySize + " bytes";
+        // the rest of the body is not read, so connection can't be reused
+        return new HttpServerResponseException(null, message, 413, "text/plain; charset=utf-8", StandardCharsets.UTF_8.encode(message), HttpHeaders.of("connection", "close"));
+    }
+
+    private static HttpServerResponse errorResponse(Throwable error) {
+        return error instanceof HttpServerResponse httpServerResponse
+            ? httpServerResponse
+            : new SimpleHttpServerResponse(500, "text/plain", HttpHeaders.of(), StandardCharsets.UTF_8.encode(
+            Objects.requireNonNullElse(error.getMessage(), "Unknown error")
+        ));
+    }
+
     private void sendResponse(HttpServerTelemetry.HttpServerTelemetryContext ctx, HttpServerResponseSender responseSender, HttpServerResponse response, @Nullable Throwable exception) {
         responseSender.send(response).subscribe(result -> {
             if (result instanceof HttpServerResponseSender.Success success) {
@@ -176,41 +405,71 @@ public class PublicApiHandler implements RefreshListener {
         Flux<ByteBuffer> body)
 
         implements HttpServerRequest {
-    }
-
-    private interface RequestHandler extends BiFunction<HttpServerRequest, Function<HttpServerRequest, Mono<HttpServerResponse>>, Mono<HttpServerResponse>> {}
 
-    private static class SimpleRequestHandler implements RequestHandler {
-        @Override
-        public Mono<HttpServerResponse> apply(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> handler) {
-            return handler.apply(request);
+        private Request withBody(Flux<ByteBuffer> body) {
+            return new Request(this.method, this.path, this.matchedTemplate, this.headers, this.queryParams, this.pathParams, body);
         }
     }
 
-    private static class AggregatedRequestHandler implements RequestHandler {
-
-        private static final Object HANDLER_KEY = new Object();
+    private static Function<HttpServerRequest, Mono<HttpServerResponse>> compose(List<HttpServerInterceptor> interceptors, Function<HttpServerRequest, Mono<HttpServerResponse>> handler) {
+        // the last interceptor is the outermost one
+        var chain = handler;
+        for (var interceptor : interceptors) {
+            var next = chain;
+            chain = request -> interceptor.intercept(request, next);
+        }
+        return chain;
+    }
 
-        @SuppressWarnings("unchecked")
-        private static final Function<HttpServerRequest, Mono<HttpServerResponse>> CONTEXTUAL_HANDLER = request ->
-            Mono.deferContextual(context -> ((Function<HttpServerRequest, Mono<HttpServerResponse>>) context.get(HANDLER_KEY)).apply(request));
+    private static final class Route {
+        private final String method;
+        private final String routeTemplate;
+        private final ValueOf<HttpServerRequestHandler> handler;
+        private volatile RouteChain chain;
 
-        private final Function<HttpServerRequest, Mono<HttpServerResponse>> chain;
+        private Route(String method, String routeTemplate, ValueOf<HttpServerRequestHandler> handler) {
+            this.method = method;
+            this.routeTemplate = routeTemplate;
+            this.handler = handler;
+        }
+    }
 
-        private AggregatedRequestHandler(All<ValueOf<HttpServerInterceptor>> interceptors) {
-            Function<HttpServerRequest, Mono<HttpServerResponse>> chain = CONTEXTUAL_HANDLER;
-            for (var httpServerInterceptorValueOf : interceptors) {
-                var interceptor = httpServerInterceptorValueOf.get();
-                var previousChain = chain;
-                chain = r -> interceptor.intercept(r, previousChain);
+    /**
+     * @param blocking  chain of blocking interceptors ending with the handler, null if handler is not blocking or some of the route interceptors are not blocking
+     * @param telemetry route telemetry with metrics resolved once for the route
+     */
+    private record RouteChain(HttpServerRequestHandler handler, Function<HttpServerRequest, Mono<HttpServerResponse>> reactive, @Nullable BlockingHttpServerInterceptor.Chain blocking,
+                              HttpServerTelemetry.HttpServerRouteTelemetry telemetry) {
+        static RouteChain of(Route route, List<HttpServerInterceptor> interceptors, @Nullable HttpServerTelemetry telemetry) {
+            var handler = route.handler.get();
+            var routeInterceptors = new ArrayList<HttpServerInterceptor>(interceptors.size());
+            for (var interceptor : interceptors) {
+                if (interceptor.appliesTo(route.method, route.routeTemplate)) {
+                    routeInterceptors.add(interceptor);
+                }
             }
-
-            this.chain = chain;
+            var reactive = compose(routeInterceptors, handler::handle);
+            var blocking = handler instanceof BlockingHttpServerRequestHandler blockingHandler
+                ? composeBlocking(routeInterceptors, blockingHandler)
+                : null;
+            var routeTelemetry = telemetry == null
+                ? null
+                : telemetry.route(route.method, route.routeTemplate);
+            return new RouteChain(handler, reactive, blocking, routeTelemetry);
         }
 
-        @Override
-        public Mono<HttpServerResponse> apply(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> handler) {
-            return chain.apply(request).contextWrite(ctx -> ctx.put(HANDLER_KEY, handler));
+        @Nullable
+        private static BlockingHttpServerInterceptor.Chain composeBlocking(List<HttpServerInterceptor> interceptors, BlockingHttpServerRequestHandler handler) {
+            BlockingHttpServerInterceptor.Chain chain = handler::handleBlocking;
+            for (var interceptor : interceptors) {
+                var blockingInterceptor = BlockingHttpServerInterceptor.of(interceptor);
+                if (blockingInterceptor == null) {
+                    return null;
+                }
+                var next = chain;
+                chain = request -> blockingInterceptor.interceptBlocking(request, next);
+            }
+            return chain;
         }
     }
 }
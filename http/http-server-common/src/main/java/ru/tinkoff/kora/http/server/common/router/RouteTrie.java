@@ -0,0 +1,276 @@
+package ru.tinkoff.kora.http.server.common.router;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Segment based radix trie of path templates.
+ * <p>
+ * Static segments are looked up in an open addressing table by hashing the segment region of the request path in place,
+ * so no substrings are created while matching. Path parameters are resolved to offsets into the request path only for the matched route
+ * and are converted to strings only when the handler reads them. Static segments have priority over parameters, parameters have
+ * priority over trailing wildcards.
+ * <p>
+ * Matching follows {@link PathTemplate#matches(String, Map)}: segments with braces that are not a whole parameter (like {@code /foo{id}}) are literals,
+ * and templates with parameters also match the path with a single trailing slash.
+ * <p>
+ * Templates with a wildcard in the middle of a segment (like {@code /static*}) can't be represented as trie nodes,
+ * they are matched with {@link PathTemplate#matches(String, Map)} when the trie has no match or matched a wildcard with a shorter prefix.
+ * <p>
+ * Trie is supposed to be built once and is not thread safe for modification.
+ */
+public final class RouteTrie<T> {
+    private final Node<T> root = new Node<>();
+    private final List<Route<T>> prefixRoutes = new ArrayList<>();
+
+    public record Match<T>(String matchedTemplate, Map<String, String> parameters, T value) {}
+
+    /**
+     * @return the value and template of the equivalent route if there is one, null if value was added
+     */
+    @Nullable
+    public Map.Entry<String, T> add(String template, T value) {
+        if (!template.startsWith("/")) {
+            template = "/" + template;
+        }
+        var pathTemplate = PathTemplate.create(template);
+        var segments = template.substring(1).split("/", -1);
+        if (!isTrieCompatible(segments)) {
+            for (var prefixRoute : this.prefixRoutes) {
+                if (prefixRoute.pathTemplate.equals(pathTemplate)) {
+                    return Map.entry(prefixRoute.template, prefixRoute.value);
+                }
+            }
+            this.prefixRoutes.add(new Route<>(template, value, new String[0], new int[0], pathTemplate, template.indexOf('*')));
+            // routes without wildcard match the whole path and go first, then the longest prefix wins
+            this.prefixRoutes.sort(Comparator.comparingInt((Route<T> r) -> r.wildcardStart < 0 ? Integer.MAX_VALUE : r.wildcardStart).reversed());
+            return null;
+        }
+
+        var node = this.root;
+        var parameterNames = new ArrayList<String>();
+        var parameterSegments = new ArrayList<Integer>();
+        for (int i = 0; i < segments.length; i++) {
+            var segment = segments[i];
+            if (segment.equals("*")) {
+                if (node.wildcard != null) {
+                    return Map.entry(node.wildcard.template, node.wildcard.value);
+                }
+                parameterNames.add("*");
+                parameterSegments.add(i);
+                node.wildcard = new Route<>(template, value, parameterNames.toArray(String[]::new), toArray(parameterSegments), pathTemplate, template.length() - 1);
+                return null;
+            }
+            if (isParameter(segment)) {
+                parameterNames.add(segment.substring(1, segment.length() - 1));
+                parameterSegments.add(i);
+                if (node.parameter == null) {
+                    node.parameter = new Node<>();
+                }
+                node = node.parameter;
+            } else {
+                node = node.addLiteral(segment);
+            }
+        }
+        if (node.route != null) {
+            return Map.entry(node.route.template, node.route.value);
+        }
+        node.route = new Route<>(template, value, parameterNames.toArray(String[]::new), toArray(parameterSegments), pathTemplate, -1);
+        return null;
+    }
+
+    @Nullable
+    public Match<T> match(String path) {
+        if (path.isEmpty()) {
+            path = "/";
+        } else if (path.charAt(0) != '/') {
+            return null;
+        }
+        var route = match(this.root, path, 1);
+        if (route != null && (route.wildcardStart < 0 || this.prefixRoutes.isEmpty())) {
+            return this.toMatch(route, path);
+        }
+        if (!this.prefixRoutes.isEmpty()) {
+            var wildcardStart = route == null ? -1 : segmentStart(path, route.parameterSegments[route.parameterSegments.length - 1]);
+            var parameters = new LinkedHashMap<String, String>();
+            for (var prefixRoute : this.prefixRoutes) {
+                if (prefixRoute.wildcardStart >= 0 && prefixRoute.wildcardStart <= wildcardStart) {
+                    break;
+                }
+                if (prefixRoute.pathTemplate.matches(path, parameters)) {
+                    return new Match<>(prefixRoute.template, parameters, prefixRoute.value);
+                }
+                parameters.clear();
+            }
+        }
+        return route == null ? null : this.toMatch(route, path);
+    }
+
+    private Match<T> toMatch(Route<T> route, String path) {
+        if (route.parameterNames.length == 0) {
+            return new Match<>(route.template, Map.of(), route.value);
+        }
+        var segments = route.parameterSegments;
+        var offsets = new int[segments.length * 2];
+        var segment = 0;
+        var start = 1;
+        for (int i = 0; i < segments.length; i++) {
+            for (; segment < segments[i]; segment++) {
+                start = path.indexOf('/', start) + 1;
+            }
+            var end = path.indexOf('/', start);
+            offsets[i * 2] = start;
+            offsets[i * 2 + 1] = end < 0 || (route.wildcardStart >= 0 && i == segments.length - 1)
+                ? path.length()
+                : end;
+        }
+        return new Match<>(route.template, new PathParameters(path, route.parameterNames, offsets), route.value);
+    }
+
+    private static int segmentStart(String path, int segmentIndex) {
+        var start = 1;
+        for (int i = 0; i < segmentIndex; i++) {
+            start = path.indexOf('/', start) + 1;
+        }
+        return start;
+    }
+
+    @Nullable
+    private static <T> Route<T> match(Node<T> node, String path, int segmentStart) {
+        var length = path.length();
+        if (segmentStart > length) {
+            return node.route;
+        }
+        var segmentEnd = path.indexOf('/', segmentStart);
+        if (segmentEnd < 0) {
+            segmentEnd = length;
+        }
+        var literal = node.literal(path, segmentStart, segmentEnd);
+        if (literal != null) {
+            var route = match(literal, path, segmentEnd + 1);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.parameter != null) {
+            var route = match(node.parameter, path, segmentEnd + 1);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.wildcard != null) {
+            return node.wildcard;
+        }
+        if (segmentStart == length && node.route != null && node.route.pathTemplate.template()) {
+            // path template with parameters ignores a trailing slash of the path
+            return node.route;
+        }
+        return null;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    private static boolean isTrieCompatible(String[] segments) {
+        for (int i = 0; i < segments.length; i++) {
+            var segment = segments[i];
+            if (segment.equals("*")) {
+                if (i != segments.length - 1) {
+                    return false;
+                }
+            } else if (segment.indexOf('*') >= 0) {
+                return false;
+            } else if (segment.startsWith("{") && !isParameter(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        var array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * @param parameterSegments index of the path segment of each parameter
+     * @param wildcardStart     position of the wildcard in template, -1 for routes without wildcard
+     */
+    private record Route<T>(String template, T value, String[] parameterNames, int[] parameterSegments, PathTemplate pathTemplate, int wildcardStart) {}
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private String[] literalKeys;
+        private int[] literalHashes;
+        private Node<T>[] literalNodes;
+        private Node<T> parameter;
+        private Route<T> route;
+        private Route<T> wildcard;
+
+        private Node<T> addLiteral(String segment) {
+            var existing = this.literals.get(segment);
+            if (existing != null) {
+                return existing;
+            }
+            var node = new Node<T>();
+            this.literals.put(segment, node);
+            this.rebuildTable();
+            return node;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void rebuildTable() {
+            var capacity = Integer.highestOneBit(Math.max(this.literals.size() * 2, 2) - 1) << 1;
+            var keys = new String[capacity];
+            var hashes = new int[capacity];
+            var nodes = (Node<T>[]) new Node<?>[capacity];
+            var mask = capacity - 1;
+            for (var entry : this.literals.entrySet()) {
+                var hash = entry.getKey().hashCode();
+                var idx = spread(hash) & mask;
+                while (keys[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = entry.getKey();
+                hashes[idx] = hash;
+                nodes[idx] = entry.getValue();
+            }
+            this.literalKeys = keys;
+            this.literalHashes = hashes;
+            this.literalNodes = nodes;
+        }
+
+        @Nullable
+        private Node<T> literal(String path, int start, int end) {
+            var keys = this.literalKeys;
+            if (keys == null) {
+                return null;
+            }
+            var hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            var length = end - start;
+            var mask = keys.length - 1;
+            var idx = spread(hash) & mask;
+            while (true) {
+                var key = keys[idx];
+                if (key == null) {
+                    return null;
+                }
+                if (this.literalHashes[idx] == hash && key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return this.literalNodes[idx];
+                }
+                idx = (idx + 1) & mask;
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
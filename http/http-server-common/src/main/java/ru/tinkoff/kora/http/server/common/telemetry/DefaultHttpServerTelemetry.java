@@ -13,43 +13,85 @@ public final class DefaultHttpServerTelemetry implements HttpServerTelemetry {
     private final HttpServerLogger logger;
     @Nullable
     private final HttpServerTracer tracer;
+    @Nullable
+    private final HttpServerTelemetrySampler sampler;
 
     public DefaultHttpServerTelemetry(@Nullable HttpServerMetrics metrics, @Nullable HttpServerLogger logger, @Nullable HttpServerTracer tracer) {
+        this(metrics, logger, tracer, null);
+    }
+
+    /**
+     * @param sampler decides which requests are traced and logged, all of them are when null
+     */
+    public DefaultHttpServerTelemetry(@Nullable HttpServerMetrics metrics, @Nullable HttpServerLogger logger, @Nullable HttpServerTracer tracer, @Nullable HttpServerTelemetrySampler sampler) {
         this.metrics = metrics;
         this.logger = logger;
         this.tracer = tracer;
+        this.sampler = sampler;
     }
 
     @Override
     public HttpServerTelemetryContext get(PublicApiHandler.PublicApiRequest request, @Nullable String routeTemplate) {
+        var metrics = this.metrics == null
+            ? null
+            : this.metrics.route(request.method(), routeTemplate != null ? routeTemplate : UNMATCHED_ROUTE_TEMPLATE);
+        var operation = routeTemplate != null
+            ? request.method() + " " + routeTemplate
+            : null;
+        var probability = routeTemplate != null && this.sampler != null
+            ? this.sampler.probability(routeTemplate)
+            : 1.0;
+        return this.get(request, routeTemplate, operation, metrics, probability);
+    }
+
+    @Override
+    public HttpServerRouteTelemetry route(String method, String routeTemplate) {
+        var metrics = this.metrics == null
+            ? null
+            : this.metrics.route(method, routeTemplate);
+        var operation = method + " " + routeTemplate;
+        var probability = this.sampler != null
+            ? this.sampler.probability(routeTemplate)
+            : 1.0;
+        return request -> this.get(request, routeTemplate, operation, metrics, probability);
+    }
+
+    private HttpServerTelemetryContext get(PublicApiHandler.PublicApiRequest request, @Nullable String routeTemplate, @Nullable String operation, @Nullable HttpServerMetrics.RouteMetrics metrics,
+                                           double probability) {
         var start = System.nanoTime();
-        var method = request.method();
         var scheme = request.scheme();
         var host = request.hostName();
+        var protocol = request.protocol();
 
-        if (this.metrics != null) this.metrics.requestStarted(method, routeTemplate != null ? routeTemplate : UNMATCHED_ROUTE_TEMPLATE, host, scheme);
+        if (metrics != null) metrics.requestStarted(host, scheme, protocol);
 
         final HttpServerTracer.HttpServerSpan span;
-        final String operation;
+        final boolean logged;
         if (routeTemplate != null) {
-            operation = method + " " + routeTemplate;
+            var sampled = this.sampler == null || this.sampler.sample(probability);
+            // tracer is called for requests that were not sampled too, so their trace context is propagated
             span = this.tracer != null
-                ? this.tracer.createSpan(routeTemplate, request)
+                ? this.tracer.createSpan(routeTemplate, request, sampled)
                 : null;
-            if (this.logger != null) this.logger.logStart(operation);
+            logged = sampled && this.logger != null && (this.sampler == null || this.sampler.tryAcquireLogPermit());
+            if (logged) this.logger.logStart(operation);
         } else {
             span = null;
-            operation = null;
+            logged = false;
         }
 
         return (statusCode, resultCode, exception) -> {
             var end = System.nanoTime();
             var processingTime = end - start;
 
-            if (this.metrics != null) this.metrics.requestFinished(method, routeTemplate != null ? routeTemplate : UNMATCHED_ROUTE_TEMPLATE, host, scheme, statusCode, processingTime);
+            if (metrics != null) metrics.requestFinished(host, scheme, protocol, statusCode, processingTime);
 
             if (routeTemplate != null) {
-                if (this.logger != null) this.logger.logEnd(operation, statusCode, resultCode, processingTime, exception);
+                if (logged) {
+                    this.logger.logEnd(operation, statusCode, resultCode, processingTime, exception);
+                } else if (this.logger != null && this.sampler != null && this.sampler.isForced(statusCode, exception, processingTime)) {
+                    this.logger.logEnd(operation, statusCode, resultCode, processingTime, exception);
+                }
 
                 if (span != null) span.close(statusCode, resultCode, processingTime, exception);
             }
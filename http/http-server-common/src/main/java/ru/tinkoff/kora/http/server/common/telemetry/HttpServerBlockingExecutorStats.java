@@ -0,0 +1,31 @@
+package ru.tinkoff.kora.http.server.common.telemetry;
+
+/**
+ * Live view of a blocking requests executor, values are read each time gauges are collected.
+ */
+public interface HttpServerBlockingExecutorStats {
+    /**
+     * @return tasks waiting in the executor queue
+     */
+    int queueSize();
+
+    /**
+     * @return max tasks waiting in the executor queue, requests are rejected when it's full
+     */
+    int queueCapacity();
+
+    /**
+     * @return executor threads that are running tasks
+     */
+    int activeThreads();
+
+    /**
+     * @return max executor threads count
+     */
+    int maxThreads();
+
+    /**
+     * @return how many tasks were rejected because the executor was saturated
+     */
+    long rejectedTasks();
+}
@@ -2,8 +2,82 @@ package ru.tinkoff.kora.http.server.common.telemetry;
 
 public interface HttpServerMetrics {
 
+    /**
+     * Metrics of a single route, resolved once when routes are built, so that the request path doesn't look them up.
+     */
+    interface RouteMetrics {
+        void requestStarted(String host, String scheme, String protocol);
+
+        void requestFinished(String host, String scheme, String protocol, int statusCode, long processingTime);
+    }
+
     void requestStarted(String method, String route, String host, String scheme);
 
     void requestFinished(String method, String route, String host, String scheme, int statusCode, long processingTime);
 
+    /**
+     * @param protocol request protocol, e.g. {@code HTTP/1.1} or {@code HTTP/2.0}
+     */
+    default void requestStarted(String method, String route, String host, String scheme, String protocol) {
+        this.requestStarted(method, route, host, scheme);
+    }
+
+    /**
+     * @param protocol request protocol, e.g. {@code HTTP/1.1} or {@code HTTP/2.0}
+     */
+    default void requestFinished(String method, String route, String host, String scheme, String protocol, int statusCode, long processingTime) {
+        this.requestFinished(method, route, host, scheme, statusCode, processingTime);
+    }
+
+    /**
+     * Called once for each route when routes are built, and for each request that didn't match any route.
+     */
+    default RouteMetrics route(String method, String route) {
+        return new RouteMetrics() {
+            @Override
+            public void requestStarted(String host, String scheme, String protocol) {
+                HttpServerMetrics.this.requestStarted(method, route, host, scheme, protocol);
+            }
+
+            @Override
+            public void requestFinished(String host, String scheme, String protocol, int statusCode, long processingTime) {
+                HttpServerMetrics.this.requestFinished(method, route, host, scheme, protocol, statusCode, processingTime);
+            }
+        };
+    }
+
+    /**
+     * Called when response body was compressed, for streamed bodies it's called after the last chunk.
+     *
+     * @param encoding         content encoding of the response, e.g. {@code gzip}
+     * @param uncompressedSize body size before compression in bytes
+     * @param compressedSize   body size after compression in bytes
+     * @param processingTime   time spent in compression in nanoseconds
+     */
+    default void responseCompressed(String encoding, long uncompressedSize, long compressedSize, long processingTime) {}
+
+    /**
+     * Called when request was rejected by load shedding before its handler was started.
+     *
+     * @param priority  priority of the route, e.g. {@code NORMAL}
+     * @param queueTime time request spent in the queue in nanoseconds
+     */
+    default void requestShed(String method, String route, String priority, long queueTime) {}
+
+    /**
+     * Called when request received response of an identical concurrent request instead of calling its handler.
+     */
+    default void requestCoalesced(String method) {}
+
+    /**
+     * Called when the server is started, stats should be registered as gauges.
+     */
+    default void workerStats(HttpServerWorkerStats stats) {}
+
+    /**
+     * Called when a blocking requests executor is started, stats should be registered as gauges.
+     *
+     * @param executor name of the executor
+     */
+    default void blockingExecutorStats(String executor, HttpServerBlockingExecutorStats stats) {}
 }
@@ -10,5 +10,16 @@ public interface HttpServerTelemetry {
         void close(int statusCode, HttpResultCode resultCode, @Nullable Throwable exception);
     }
 
+    interface HttpServerRouteTelemetry {
+        HttpServerTelemetryContext get(PublicApiHandler.PublicApiRequest request);
+    }
+
     HttpServerTelemetryContext get(PublicApiHandler.PublicApiRequest request, @Nullable String routeTemplate);
+
+    /**
+     * Telemetry of a single route, resolved once when routes are built.
+     */
+    default HttpServerRouteTelemetry route(String method, String routeTemplate) {
+        return request -> this.get(request, routeTemplate);
+    }
 }
@@ -0,0 +1,96 @@
+package ru.tinkoff.kora.http.server.common.telemetry;
+
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which requests are traced and logged, metrics are recorded for all the requests.
+ * <p>
+ * Requests are sampled when they are started with the probability of their route, sampled requests are logged while log rate limit allows it.
+ * Requests that were not sampled are still logged when they end with an error or take longer than slow request threshold,
+ * the rest of them skip log marker construction entirely and get no recorded span, their trace context is still propagated.
+ * Sampled flag of the caller trace takes precedence over the probability for spans.
+ */
+public final class HttpServerTelemetrySampler {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double probability;
+    private final Map<String, Double> routeProbabilities;
+    private final long logInterval;
+    private final long slowRequestThreshold;
+    // theoretical arrival time of the next log permit, see GCRA
+    private final AtomicLong nextLogPermit = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param logRateLimit         max sampled requests logged per second, non-positive value means no limit
+     * @param slowRequestThreshold processing time in nanoseconds after which request is always logged, negative value means no threshold
+     */
+    public HttpServerTelemetrySampler(double probability, Map<String, Double> routeProbabilities, int logRateLimit, long slowRequestThreshold) {
+        this.probability = probability;
+        this.routeProbabilities = Map.copyOf(routeProbabilities);
+        this.logInterval = logRateLimit > 0
+            ? SECOND / logRateLimit
+            : 0;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    /**
+     * @return null when the config doesn't limit telemetry, so each request is traced and logged
+     */
+    @Nullable
+    public static HttpServerTelemetrySampler of(HttpServerConfig.TelemetryConfig config) {
+        if (config.samplingProbability() >= 1.0 && config.routeSamplingProbabilities().isEmpty() && config.logRateLimit() <= 0) {
+            return null;
+        }
+        var slowRequestThreshold = config.slowRequestThreshold() >= 0
+            ? TimeUnit.MILLISECONDS.toNanos(config.slowRequestThreshold())
+            : -1;
+        return new HttpServerTelemetrySampler(config.samplingProbability(), config.routeSamplingProbabilities(), config.logRateLimit(), slowRequestThreshold);
+    }
+
+    public double probability(String routeTemplate) {
+        return this.routeProbabilities.getOrDefault(routeTemplate, this.probability);
+    }
+
+    public boolean sample(double probability) {
+        if (probability >= 1.0) {
+            return true;
+        }
+        if (probability <= 0.0) {
+            return false;
+        }
+        return ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    public boolean tryAcquireLogPermit() {
+        if (this.logInterval == 0) {
+            return true;
+        }
+        var now = System.nanoTime();
+        while (true) {
+            var next = this.nextLogPermit.get();
+            // bucket holds up to one second of permits
+            if (next - now > SECOND) {
+                return false;
+            }
+            var newNext = Math.max(next, now) + this.logInterval;
+            if (this.nextLogPermit.compareAndSet(next, newNext)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Requests that failed or were slow are logged even when they were not sampled
+     */
+    public boolean isForced(int statusCode, @Nullable Throwable exception, long processingTime) {
+        return statusCode >= 500
+            || exception != null
+            || this.slowRequestThreshold >= 0 && processingTime > this.slowRequestThreshold;
+    }
+}
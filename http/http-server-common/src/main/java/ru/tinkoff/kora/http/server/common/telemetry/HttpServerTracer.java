@@ -19,4 +19,18 @@ public interface HttpServerTracer {
     <T> void inject(Context context, T headers, HeadersSetter<T> headersSetter);
 
     HttpServerSpan createSpan(String template, PublicApiHandler.PublicApiRequest routerRequest);
+
+    /**
+     * Called for every request with a matched route. Trace context of the request should be propagated even when it is not sampled,
+     * so that calls made by the handler stay in the caller trace, and sampled flag of the caller should take precedence over {@code sampled}.
+     *
+     * @param sampled whether the request was sampled by the server when the caller didn't decide
+     * @return null when the request is not recorded
+     */
+    @Nullable
+    default HttpServerSpan createSpan(String template, PublicApiHandler.PublicApiRequest routerRequest, boolean sampled) {
+        return sampled
+            ? this.createSpan(template, routerRequest)
+            : null;
+    }
 }
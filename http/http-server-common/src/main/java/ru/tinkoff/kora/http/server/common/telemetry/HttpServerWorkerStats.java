@@ -0,0 +1,36 @@
+package ru.tinkoff.kora.http.server.common.telemetry;
+
+/**
+ * Live view of the server worker pool and buffer pool, values are read each time gauges are collected.
+ */
+public interface HttpServerWorkerStats {
+    /**
+     * @return tasks waiting in the worker pool queue
+     */
+    int workerQueueSize();
+
+    /**
+     * @return current worker pool threads count
+     */
+    int workerPoolSize();
+
+    /**
+     * @return worker pool threads that are running tasks
+     */
+    int busyWorkerThreads();
+
+    /**
+     * @return configured io threads count, server doesn't expose how many of them are busy
+     */
+    int configuredIoThreads();
+
+    /**
+     * @return buffers taken from the buffer pool and not yet returned
+     */
+    int buffersInUse();
+
+    /**
+     * @return how many times buffer pool had no free buffer and a new one was allocated
+     */
+    long buffersExhausted();
+}
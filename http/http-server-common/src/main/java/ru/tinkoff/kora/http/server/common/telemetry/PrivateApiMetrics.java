@@ -1,5 +1,32 @@
 package ru.tinkoff.kora.http.server.common.telemetry;
 
+import java.io.IOException;
+import java.io.Writer;
+
 public interface PrivateApiMetrics {
+    String TEXT_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
     String scrape();
+
+    /**
+     * Writes metrics straight to the writer without building the whole exposition in memory first.
+     *
+     * @param contentType either {@link #TEXT_CONTENT_TYPE} or {@link #OPENMETRICS_CONTENT_TYPE}, the latter only when {@link #supportsOpenMetrics()}
+     */
+    default void scrape(String contentType, Writer writer) throws IOException {
+        writer.write(this.scrape());
+    }
+
+    default boolean supportsOpenMetrics() {
+        return false;
+    }
+
+    /**
+     * @param kind           {@code readiness} or {@code liveness}
+     * @param probe          probe name
+     * @param success        false when the probe reported a failure, failed with an exception or timed out
+     * @param processingTime probe duration in nanoseconds
+     */
+    default void probeChecked(String kind, String probe, boolean success, long processingTime) {}
 }
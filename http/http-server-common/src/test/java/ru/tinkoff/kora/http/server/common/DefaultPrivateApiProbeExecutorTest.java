@@ -0,0 +1,182 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.PromiseOf;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.liveness.LivenessProbe;
+import ru.tinkoff.kora.common.readiness.ReadinessProbe;
+import ru.tinkoff.kora.common.readiness.ReadinessProbeFailure;
+import ru.tinkoff.kora.http.server.common.telemetry.PrivateApiMetrics;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class DefaultPrivateApiProbeExecutorTest {
+    private final PrivateApiMetrics metrics = Mockito.mock(PrivateApiMetrics.class);
+
+    @Test
+    void testProbesAreExecutedOnRequestByDefault() {
+        var probe = new CountingProbe(Mono.empty());
+        var executor = executor(null, null, probe);
+        executor.init().block();
+        try {
+            assertThat(executor.readiness().block()).isNull();
+            assertThat(executor.readiness().block()).isNull();
+            assertThat(probe.calls).hasValue(2);
+            verify(this.metrics, Mockito.times(2)).probeChecked(eq("readiness"), eq("CountingProbe"), eq(true), anyLong());
+        } finally {
+            executor.release().block();
+        }
+    }
+
+    @Test
+    void testProbeTimeout() {
+        var probe = new CountingProbe(Mono.never());
+        var executor = executor(null, 50, probe);
+
+        assertThat(executor.readiness().block(Duration.ofSeconds(5))).isEqualTo("Probe timed out after 50ms");
+        verify(this.metrics).probeChecked(eq("readiness"), eq("CountingProbe"), eq(false), anyLong());
+    }
+
+    @Test
+    void testProbeFailure() {
+        var executor = executor(null, null, new CountingProbe(Mono.just(new ReadinessProbeFailure("Failed"))));
+
+        assertThat(executor.readiness().block()).isEqualTo("Failed");
+        verify(this.metrics).probeChecked(eq("readiness"), eq("CountingProbe"), eq(false), anyLong());
+    }
+
+    @Test
+    void testScheduledProbesAreAnsweredFromLastResult() {
+        var probe = new CountingProbe(Mono.just(new ReadinessProbeFailure("Failed")));
+        var executor = executor(60_000, null, probe);
+        executor.init().block();
+        try {
+            verify(this.metrics, timeout(1000)).probeChecked(eq("readiness"), eq("CountingProbe"), eq(false), anyLong());
+            for (int i = 0; i < 10; i++) {
+                assertThat(executor.readiness().block()).isEqualTo("Failed");
+            }
+            assertThat(probe.calls).hasValue(1);
+        } finally {
+            executor.release().block();
+        }
+
+        // released executor falls back to the execution on request
+        assertThat(executor.readiness().block()).isEqualTo("Failed");
+        assertThat(probe.calls).hasValue(2);
+    }
+
+    @Test
+    void testStaleResultIsReportedAsFailed() throws InterruptedException {
+        var probe = new CountingProbe(Mono.empty());
+        var executor = executor(20, 0, probe);
+        executor.init().block();
+        try {
+            verify(this.metrics, timeout(1000)).probeChecked(eq("readiness"), eq("CountingProbe"), eq(true), anyLong());
+            // following checks never complete
+            probe.result = Mono.never();
+
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            String result;
+            while ((result = executor.readiness().block()) == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(result).startsWith("Probe has not completed a check for");
+        } finally {
+            executor.release().block();
+        }
+    }
+
+    @Test
+    void testBlockingProbeDoesNotDelayOtherProbes() {
+        var blocked = new CountDownLatch(1);
+        var blocking = new BlockingProbe(blocked);
+        var probe = new CountingProbe(Mono.empty());
+        var executor = new DefaultPrivateApiProbeExecutor(config(10, null), valueOf(Optional.of(this.metrics)), All.of(PromiseOf.of(blocking), PromiseOf.of(probe)), All.of());
+        executor.init().block();
+        try {
+            verify(this.metrics, timeout(2000).atLeast(3)).probeChecked(eq("readiness"), eq("CountingProbe"), eq(true), anyLong());
+        } finally {
+            executor.release().block();
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    void testUninitializedProbe() {
+        var executor = new DefaultPrivateApiProbeExecutor(config(null, null), valueOf(Optional.of(this.metrics)), All.of(PromiseOf.promiseOfNull()), All.of());
+
+        assertThat(executor.readiness().block()).isEqualTo("Probe is not ready yet");
+        assertThat(executor.liveness().block()).isNull();
+    }
+
+    private DefaultPrivateApiProbeExecutor executor(@Nullable Integer interval, @Nullable Integer timeout, ReadinessProbe probe) {
+        return new DefaultPrivateApiProbeExecutor(config(interval, timeout), valueOf(Optional.of(this.metrics)), All.of(PromiseOf.of(probe)), All.<PromiseOf<LivenessProbe>>of());
+    }
+
+    private static ValueOf<HttpServerConfig> config(@Nullable Integer interval, @Nullable Integer timeout) {
+        return valueOf(new HttpServerConfig(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+            new HttpServerConfig.ProbesConfig(interval, timeout, Map.of(), Map.of())));
+    }
+
+    private static <T> ValueOf<T> valueOf(T object) {
+        return new ValueOf<>() {
+            @Override
+            public T get() {
+                return object;
+            }
+
+            @Override
+            public Mono<Void> refresh() {
+                return Mono.empty();
+            }
+        };
+    }
+
+    private static final class CountingProbe implements ReadinessProbe {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Mono<ReadinessProbeFailure> result;
+
+        private CountingProbe(Mono<ReadinessProbeFailure> result) {
+            this.result = result;
+        }
+
+        @Override
+        public Mono<ReadinessProbeFailure> probe() {
+            this.calls.incrementAndGet();
+            return this.result;
+        }
+    }
+
+    private static final class BlockingProbe implements ReadinessProbe {
+        private final CountDownLatch latch;
+
+        private BlockingProbe(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public Mono<ReadinessProbeFailure> probe() {
+            try {
+                this.latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileHttpServerResponseTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testParseRange() {
+        assertThat(FileHttpServerResponse.parseRange("bytes=0-99", 1000)).containsExactly(0, 99);
+        assertThat(FileHttpServerResponse.parseRange("bytes=900-", 1000)).containsExactly(900, 999);
+        assertThat(FileHttpServerResponse.parseRange("bytes=900-2000", 1000)).containsExactly(900, 999);
+        assertThat(FileHttpServerResponse.parseRange("bytes=-100", 1000)).containsExactly(900, 999);
+        assertThat(FileHttpServerResponse.parseRange("bytes=-2000", 1000)).containsExactly(0, 999);
+        assertThat(FileHttpServerResponse.parseRange("bytes=1000-", 1000)).isEmpty();
+        assertThat(FileHttpServerResponse.parseRange("bytes=-0", 1000)).isEmpty();
+        assertThat(FileHttpServerResponse.parseRange("bytes=10-5", 1000)).isNull();
+        assertThat(FileHttpServerResponse.parseRange("bytes=0-1,5-6", 1000)).isNull();
+        assertThat(FileHttpServerResponse.parseRange("items=0-1", 1000)).isNull();
+        assertThat(FileHttpServerResponse.parseRange("bytes=a-b", 1000)).isNull();
+    }
+
+    @Test
+    void testIfRangeWithOtherDateSendsWholeFile() throws IOException {
+        var file = this.file(100);
+
+        var response = FileHttpServerResponse.of(request(Map.of("range", "bytes=0-9", "if-range", "Wed, 21 Oct 2015 07:28:00 GMT")), file, "text/plain");
+
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(response.contentLength()).isEqualTo(100);
+    }
+
+    @Test
+    void testBodyFallbackReadsRegion() throws IOException {
+        var data = new byte[FileHttpServerResponse.CHUNK_SIZE * 2 + 10];
+        ThreadLocalRandom.current().nextBytes(data);
+        var file = this.dir.resolve("data.bin");
+        Files.write(file, data);
+
+        var response = FileHttpServerResponse.of(request(Map.of("range", "bytes=5-" + (FileHttpServerResponse.CHUNK_SIZE + 100))), file, "application/octet-stream");
+
+        assertThat(response.code()).isEqualTo(206);
+        var out = new ByteArrayOutputStream();
+        for (var buffer : response.body().collectList().block()) {
+            var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.writeBytes(bytes);
+        }
+        assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(data, 5, FileHttpServerResponse.CHUNK_SIZE + 101));
+    }
+
+    private Path file(int size) throws IOException {
+        var file = this.dir.resolve("file-" + size);
+        Files.write(file, new byte[size]);
+        return file;
+    }
+
+    private static HttpServerRequest request(Map<String, String> headers) {
+        var httpHeaders = HttpHeaders.of();
+        for (var header : headers.entrySet()) {
+            httpHeaders = httpHeaders.with(header.getKey(), header.getValue());
+        }
+        var requestHeaders = httpHeaders;
+        return new HttpServerRequest() {
+            @Override
+            public String method() {
+                return "GET";
+            }
+
+            @Override
+            public String path() {
+                return "/";
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return requestHeaders;
+            }
+
+            @Override
+            public Map<String, ? extends Collection<String>> queryParams() {
+                return Map.of();
+            }
+
+            @Override
+            public Map<String, String> pathParams() {
+                return Map.of();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+}
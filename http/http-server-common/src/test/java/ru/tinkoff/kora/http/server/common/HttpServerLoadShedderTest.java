@@ -0,0 +1,104 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class HttpServerLoadShedderTest {
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STEP = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final HttpServerMetrics metrics = mock(HttpServerMetrics.class);
+    private final HttpServerLoadShedder shedder = new HttpServerLoadShedder(
+        TARGET,
+        INTERVAL,
+        Map.of("/low", HttpServerLoadShedder.Priority.LOW, "/high", HttpServerLoadShedder.Priority.HIGH),
+        List.of("/health"),
+        3,
+        this.metrics,
+        this.now::get
+    );
+
+    @Test
+    void testRequestsQueuedLongerThanIntervalAreRejected() {
+        assertThat(this.shedder.admit("GET", "/test", queuedFor(TARGET * 2))).isNull();
+
+        var response = this.shedder.admit("GET", "/test", queuedFor(INTERVAL * 2));
+
+        assertThat(response).isNotNull();
+        assertThat(response.code()).isEqualTo(503);
+        assertThat(response.headers().getFirst("retry-after")).isEqualTo("3");
+        verify(this.metrics).requestShed(eq("GET"), eq("/test"), eq("NORMAL"), eq(INTERVAL * 2));
+    }
+
+    @Test
+    void testStandingQueueSwitchesToTarget() {
+        for (var elapsed = 0L; elapsed <= INTERVAL * 2; elapsed += STEP) {
+            this.shedder.admit("GET", "/high", queuedFor(TARGET * 3));
+            this.now.addAndGet(STEP);
+        }
+        assertThat(this.shedder.isOverloaded()).isTrue();
+
+        assertThat(this.shedder.admit("GET", "/test", queuedFor(TARGET * 3 / 2))).isNotNull();
+        assertThat(this.shedder.admit("GET", "/high", queuedFor(TARGET * 3 / 2))).isNull();
+        assertThat(this.shedder.admit("GET", "/low", queuedFor(TARGET))).isNotNull();
+        assertThat(this.shedder.admit("GET", "/health", queuedFor(INTERVAL * 10))).isNull();
+    }
+
+    @Test
+    void testShortQueueDoesNotSwitchToTarget() {
+        for (var elapsed = 0L; elapsed <= INTERVAL * 2; elapsed += STEP) {
+            this.shedder.admit("GET", "/test", queuedFor(TARGET * 3));
+            this.shedder.admit("GET", "/test", queuedFor(TARGET / 2));
+            this.now.addAndGet(STEP);
+        }
+
+        assertThat(this.shedder.isOverloaded()).isFalse();
+        assertThat(this.shedder.admit("GET", "/test", queuedFor(TARGET * 3))).isNull();
+    }
+
+    @Test
+    void testOverloadEndsWhenQueueDrains() {
+        for (var elapsed = 0L; elapsed <= INTERVAL * 2; elapsed += STEP) {
+            this.shedder.admit("GET", "/test", queuedFor(TARGET * 3));
+            this.now.addAndGet(STEP);
+        }
+        assertThat(this.shedder.isOverloaded()).isTrue();
+
+        for (var elapsed = 0L; elapsed <= INTERVAL * 2; elapsed += STEP) {
+            this.shedder.admit("GET", "/test", queuedFor(0));
+            this.now.addAndGet(STEP);
+        }
+        assertThat(this.shedder.isOverloaded()).isFalse();
+    }
+
+    @Test
+    void testAdmissionIsDecidedOnce() {
+        var admission = this.shedder.admission("GET", "/test", queuedFor(0));
+        this.now.addAndGet(INTERVAL * 2);
+
+        assertThat(admission.admit()).isNotNull();
+        assertThat(admission.admit()).isNull();
+    }
+
+    @Test
+    void testUnmatchedRoutesAreNotRejected() {
+        assertThat(this.shedder.admit("GET", null, queuedFor(INTERVAL * 10))).isNull();
+    }
+
+    private long queuedFor(long nanos) {
+        return this.now.get() - nanos;
+    }
+}
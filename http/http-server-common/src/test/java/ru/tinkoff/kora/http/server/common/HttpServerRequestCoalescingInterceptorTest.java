@@ -0,0 +1,235 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import ru.tinkoff.kora.common.util.ReactorUtils;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class HttpServerRequestCoalescingInterceptorTest {
+    private final HttpServerMetrics metrics = mock(HttpServerMetrics.class);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Sinks.One<String> response = Sinks.one();
+
+    @Test
+    void testIdenticalRequestsShareResponse() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(List.of("id"), List.of("Accept"), 10, Duration.ofMinutes(1), this.metrics);
+
+        var first = interceptor.intercept(request("/test/", Map.of("id", List.of("1"), "ignored", List.of("1")), HttpHeaders.of("accept", "text/plain")), this::handle).toFuture();
+        var second = interceptor.intercept(request("//test", Map.of("id", List.of("1"), "ignored", List.of("2")), HttpHeaders.of("accept", "text/plain")), this::handle).toFuture();
+        var otherQuery = interceptor.intercept(request("/test", Map.of("id", List.of("2")), HttpHeaders.of("accept", "text/plain")), this::handle).toFuture();
+        var otherHeader = interceptor.intercept(request("/test", Map.of("id", List.of("1")), HttpHeaders.of("accept", "application/json")), this::handle).toFuture();
+        assertThat(this.calls).hasValue(3);
+
+        this.response.tryEmitValue("body");
+
+        assertThat(body(first.join())).isEqualTo("body");
+        assertThat(body(second.join())).isEqualTo("body");
+        assertThat(body(otherQuery.join())).isEqualTo("body");
+        assertThat(body(otherHeader.join())).isEqualTo("body");
+        verify(this.metrics, times(1)).requestCoalesced("GET");
+
+        // completed flight is not reused
+        interceptor.intercept(request("/test", Map.of("id", List.of("1")), HttpHeaders.of("accept", "text/plain")), this::handle).block();
+        assertThat(this.calls).hasValue(4);
+    }
+
+    @Test
+    void testMaxWaiters() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(1, Duration.ofMinutes(1), this.metrics);
+
+        var futures = List.of(
+            interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture(),
+            interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture(),
+            interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture()
+        );
+        this.response.tryEmitValue("body");
+
+        futures.forEach(CompletableFuture::join);
+        assertThat(this.calls).hasValue(2);
+        verify(this.metrics, times(1)).requestCoalesced("GET");
+    }
+
+    @Test
+    void testMaxWait() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(10, Duration.ofMillis(50), this.metrics);
+
+        var first = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture();
+        var second = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), r -> {
+            this.calls.incrementAndGet();
+            return Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode("own")));
+        }).toFuture();
+
+        assertThat(body(second.join())).isEqualTo("own");
+        assertThat(first).isNotDone();
+        assertThat(this.calls).hasValue(2);
+        verifyNoInteractions(this.metrics);
+    }
+
+    @Test
+    void testErrorIsShared() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(10, Duration.ofMinutes(1), this.metrics);
+
+        var first = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture();
+        var second = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), this::handle).toFuture();
+        this.response.tryEmitError(HttpServerResponseException.of(503, "unavailable"));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(HttpServerResponseException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(HttpServerResponseException.class);
+        assertThat(this.calls).hasValue(1);
+    }
+
+    @Test
+    void testBlockingHandlerWaitersDoNotHoldThreads() throws Exception {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(10, Duration.ofMinutes(1), this.metrics);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Function<HttpServerRequest, Mono<HttpServerResponse>> blockingHandler = r -> Mono.fromCallable(() -> {
+            this.calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return (HttpServerResponse) new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode("body"));
+        }).subscribeOn(Schedulers.boundedElastic());
+
+        assertThat(BlockingHttpServerInterceptor.of(interceptor)).isNull();
+        var leader = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), blockingHandler).toFuture();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        // subscribed on the calling thread, that is not blocked while waiting
+        var follower = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), r -> Mono.error(new IllegalStateException("handler should not be called"))).toFuture();
+        assertThat(follower).isNotDone();
+        release.countDown();
+
+        assertThat(body(leader.get(10, TimeUnit.SECONDS))).isEqualTo("body");
+        assertThat(body(follower.get(10, TimeUnit.SECONDS))).isEqualTo("body");
+        assertThat(this.calls).hasValue(1);
+        verify(this.metrics).requestCoalesced("GET");
+    }
+
+    @Test
+    void testRequestsWithCredentialsAreNotCoalesced() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(10, Duration.ofMinutes(1), this.metrics);
+
+        var first = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("authorization", "Bearer user1")), this::handle).toFuture();
+        var second = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("authorization", "Bearer user1")), this::handle).toFuture();
+        var third = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("cookie", "session=1")), this::handle).toFuture();
+        this.response.tryEmitValue("body");
+
+        List.of(first, second, third).forEach(CompletableFuture::join);
+        assertThat(this.calls).hasValue(3);
+        verifyNoInteractions(this.metrics);
+    }
+
+    @Test
+    void testRequestsWithCredentialsAreCoalescedWhenKeyedByThem() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(null, List.of("Authorization"), 10, Duration.ofMinutes(1), this.metrics);
+
+        var first = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("authorization", "Bearer user1")), this::handle).toFuture();
+        var second = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("authorization", "Bearer user1")), this::handle).toFuture();
+        var otherUser = interceptor.intercept(request("/test", Map.of(), HttpHeaders.of("authorization", "Bearer user2")), this::handle).toFuture();
+        this.response.tryEmitValue("body");
+
+        List.of(first, second, otherUser).forEach(CompletableFuture::join);
+        assertThat(this.calls).hasValue(2);
+        verify(this.metrics, times(1)).requestCoalesced("GET");
+    }
+
+    @Test
+    void testResponsesWithSetCookieAreNotShared() {
+        var interceptor = new HttpServerRequestCoalescingInterceptor(10, Duration.ofMinutes(1), this.metrics);
+        Function<HttpServerRequest, Mono<HttpServerResponse>> handler = r -> {
+            this.calls.incrementAndGet();
+            return this.response.asMono()
+                .map(body -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("set-cookie", "session=" + this.calls.get()), StandardCharsets.UTF_8.encode(body)));
+        };
+
+        var first = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), handler).toFuture();
+        var second = interceptor.intercept(request("/test", Map.of(), HttpHeaders.EMPTY), handler).toFuture();
+        assertThat(this.calls).hasValue(1);
+        this.response.tryEmitValue("body");
+
+        assertThat(body(first.join())).isEqualTo("body");
+        assertThat(body(second.join())).isEqualTo("body");
+        assertThat(this.calls).hasValue(2);
+        verifyNoInteractions(this.metrics);
+    }
+
+    @Test
+    void testNormalizePath() {
+        assertThat(normalize("/")).isEqualTo("/");
+        assertThat(normalize("//")).isEqualTo("/");
+        assertThat(normalize("/a//b/")).isEqualTo("/a/b");
+        assertThat(normalize("/a/b")).isEqualTo("/a/b");
+    }
+
+    private static String normalize(String path) {
+        var sb = new StringBuilder();
+        HttpServerRequestCoalescingInterceptor.normalizePath(sb, path);
+        return sb.toString();
+    }
+
+    private Mono<HttpServerResponse> handle(HttpServerRequest request) {
+        this.calls.incrementAndGet();
+        return this.response.asMono()
+            .map(body -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(body)));
+    }
+
+    private static String body(HttpServerResponse response) {
+        return ReactorUtils.toByteArrayMono(Flux.<ByteBuffer>from(response.body()))
+            .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+            .defaultIfEmpty("")
+            .block();
+    }
+
+    private static HttpServerRequest request(String path, Map<String, ? extends Collection<String>> queryParams, HttpHeaders headers) {
+        return new HttpServerRequest() {
+            @Override
+            public String method() {
+                return "GET";
+            }
+
+            @Override
+            public String path() {
+                return path;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Map<String, ? extends Collection<String>> queryParams() {
+                return queryParams;
+            }
+
+            @Override
+            public Map<String, String> pathParams() {
+                return Map.of();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+}
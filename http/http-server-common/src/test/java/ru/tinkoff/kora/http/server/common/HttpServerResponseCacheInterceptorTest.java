@@ -0,0 +1,199 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.common.util.ReactorUtils;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpServerResponseCacheInterceptorTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void testEtagIsComputedFromBody() {
+        var interceptor = new HttpServerResponseCacheInterceptor();
+
+        var response = interceptor.intercept(request("GET", HttpHeaders.EMPTY), this::handle).block();
+        var etag = response.headers().getFirst("etag");
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(etag).isEqualTo(HttpServerResponseCacheInterceptor.etag(StandardCharsets.UTF_8.encode("body")));
+        assertThat(body(response)).isEqualTo("body");
+
+        var notModified = interceptor.intercept(request("GET", HttpHeaders.of("if-none-match", "\"other\", " + etag)), this::handle).block();
+        assertThat(notModified.code()).isEqualTo(304);
+        assertThat(notModified.headers().getFirst("etag")).isEqualTo(etag);
+        assertThat(body(notModified)).isEmpty();
+        assertThat(this.calls).hasValue(2);
+    }
+
+    @Test
+    void testHandlerProvidedEtagSkipsBody() {
+        var interceptor = new HttpServerResponseCacheInterceptor();
+        var released = new AtomicBoolean();
+        var body = Flux.<ByteBuffer>never().doOnCancel(() -> released.set(true));
+
+        var response = interceptor.intercept(request("GET", HttpHeaders.of("if-none-match", "W/\"v1\"")), r -> Mono.just(
+            new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("etag", "\"v1\""), 4, body)
+        )).block();
+
+        assertThat(response.code()).isEqualTo(304);
+        assertThat(response.headers().getFirst("etag")).isEqualTo("\"v1\"");
+        assertThat(released).isTrue();
+    }
+
+    @Test
+    void testStoredResponsesAreServedWithoutHandler() throws Exception {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+
+        var response = interceptor.intercept(request("GET", HttpHeaders.EMPTY), this::handle).block();
+        assertThat(body(response)).isEqualTo("body");
+        var cached = interceptor.intercept(request("GET", HttpHeaders.EMPTY), this::handle).block();
+        assertThat(body(cached)).isEqualTo("body");
+        var blocking = interceptor.interceptBlocking(request("GET", HttpHeaders.of("if-none-match", "*")), r -> this.handle(r).block());
+        assertThat(blocking.code()).isEqualTo(304);
+
+        assertThat(this.calls).hasValue(1);
+    }
+
+    @Test
+    void testOnlySuccessfulGetResponsesAreProcessed() {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+
+        var post = interceptor.intercept(request("POST", HttpHeaders.EMPTY), this::handle).block();
+        assertThat(post.headers().getFirst("etag")).isNull();
+        var error = interceptor.intercept(request("GET", HttpHeaders.EMPTY), r -> Mono.just(new SimpleHttpServerResponse(500, "text/plain", HttpHeaders.EMPTY, null))).block();
+        assertThat(error.headers().getFirst("etag")).isNull();
+        var noStore = interceptor.intercept(request("GET", HttpHeaders.EMPTY), r -> Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("cache-control", "no-store"), null))).block();
+        assertThat(noStore.headers().getFirst("etag")).isNull();
+    }
+
+    @Test
+    void testRequestsWithCredentialsAreNotStored() {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+
+        interceptor.intercept(request("GET", HttpHeaders.of("authorization", "Bearer user1")), this::handle).block();
+        interceptor.intercept(request("GET", HttpHeaders.of("authorization", "Bearer user2")), this::handle).block();
+        interceptor.intercept(request("GET", HttpHeaders.of("cookie", "session=1")), this::handle).block();
+        interceptor.intercept(request("GET", HttpHeaders.EMPTY), this::handle).block();
+        var withCredentials = interceptor.intercept(request("GET", HttpHeaders.of("authorization", "Bearer user1")), this::handle).block();
+
+        assertThat(withCredentials.headers().getFirst("etag")).isNotNull();
+        assertThat(this.calls).hasValue(5);
+    }
+
+    @Test
+    void testResponsesWithSetCookieAreNotStored() {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+        Function<HttpServerRequest, Mono<HttpServerResponse>> handler = r -> {
+            this.calls.incrementAndGet();
+            return Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("set-cookie", "session=1"), StandardCharsets.UTF_8.encode("body")));
+        };
+
+        interceptor.intercept(request("GET", HttpHeaders.EMPTY), handler).block();
+        var response = interceptor.intercept(request("GET", HttpHeaders.EMPTY), handler).block();
+
+        assertThat(body(response)).isEqualTo("body");
+        assertThat(this.calls).hasValue(2);
+    }
+
+    @Test
+    void testVaryHeadersArePartOfKey() {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+        Function<HttpServerRequest, Mono<HttpServerResponse>> handler = r -> {
+            this.calls.incrementAndGet();
+            var language = r.headers().getFirst("accept-language");
+            return Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("vary", "Accept-Language"), StandardCharsets.UTF_8.encode(language)));
+        };
+
+        assertThat(body(interceptor.intercept(request("GET", HttpHeaders.of("accept-language", "en")), handler).block())).isEqualTo("en");
+        assertThat(body(interceptor.intercept(request("GET", HttpHeaders.of("accept-language", "en")), handler).block())).isEqualTo("en");
+        assertThat(this.calls).hasValue(1);
+        assertThat(body(interceptor.intercept(request("GET", HttpHeaders.of("accept-language", "ru")), handler).block())).isEqualTo("ru");
+        assertThat(this.calls).hasValue(2);
+    }
+
+    @Test
+    void testResponsesLargerThanMaxBytesAreNotKept() {
+        var interceptor = new HttpServerResponseCacheInterceptor(16, Duration.ofMinutes(1));
+        Function<HttpServerRequest, Mono<HttpServerResponse>> handler = r -> {
+            this.calls.incrementAndGet();
+            return Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, ByteBuffer.wrap(new byte[1024])));
+        };
+
+        interceptor.intercept(request("GET", HttpHeaders.EMPTY), handler).block();
+        interceptor.intercept(request("GET", HttpHeaders.EMPTY), handler).block();
+
+        assertThat(this.calls).hasValue(2);
+    }
+
+    @Test
+    void testFileResponseIsNotBuffered(@TempDir Path dir) throws Exception {
+        var interceptor = new HttpServerResponseCacheInterceptor(1024, Duration.ofMinutes(1));
+        var file = Files.writeString(dir.resolve("file.txt"), "file");
+        var fileResponse = new FileHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, file, 0, 4);
+
+        var response = interceptor.intercept(request("GET", HttpHeaders.EMPTY), r -> Mono.just(fileResponse)).block();
+
+        assertThat(response).isSameAs(fileResponse);
+    }
+
+    private Mono<HttpServerResponse> handle(HttpServerRequest request) {
+        this.calls.incrementAndGet();
+        return Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode("body")));
+    }
+
+    private static String body(HttpServerResponse response) {
+        return ReactorUtils.toByteArrayMono(Flux.<ByteBuffer>from(response.body()))
+            .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+            .defaultIfEmpty("")
+            .block();
+    }
+
+    private static HttpServerRequest request(String method, HttpHeaders headers) {
+        return new HttpServerRequest() {
+            @Override
+            public String method() {
+                return method;
+            }
+
+            @Override
+            public String path() {
+                return "/test";
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Map<String, ? extends Collection<String>> queryParams() {
+                return Map.of();
+            }
+
+            @Override
+            public Map<String, String> pathParams() {
+                return Map.of();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+}
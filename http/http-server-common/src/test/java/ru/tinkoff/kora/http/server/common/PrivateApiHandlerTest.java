@@ -0,0 +1,133 @@
+package ru.tinkoff.kora.http.server.common;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.telemetry.PrivateApiMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrivateApiHandlerTest {
+    private final TestMetrics metrics = new TestMetrics();
+
+    @Test
+    void testMetricsAreScrapedOnEveryRequestByDefault() {
+        var handler = handler(null);
+
+        var response = metrics(handler, HttpHeaders.of());
+        assertThat(response.contentType()).isEqualTo(PrivateApiMetrics.TEXT_CONTENT_TYPE);
+        assertThat(response.headers().has("content-encoding")).isFalse();
+        assertThat(body(response)).isEqualTo("metric{format=\"text\"} 1\n");
+
+        assertThat(body(metrics(handler, HttpHeaders.of()))).isEqualTo("metric{format=\"text\"} 2\n");
+    }
+
+    @Test
+    void testMetricsAreCachedForScrapeInterval() {
+        var handler = handler(60_000);
+
+        assertThat(body(metrics(handler, HttpHeaders.of()))).isEqualTo("metric{format=\"text\"} 1\n");
+        assertThat(body(metrics(handler, HttpHeaders.of()))).isEqualTo("metric{format=\"text\"} 1\n");
+        assertThat(gunzip(metrics(handler, HttpHeaders.of("accept-encoding", "gzip, deflate")))).isEqualTo("metric{format=\"text\"} 1\n");
+        assertThat(this.metrics.scrapes).hasValue(1);
+    }
+
+    @Test
+    void testGzip() {
+        var handler = handler(null);
+
+        var response = metrics(handler, HttpHeaders.of("accept-encoding", "deflate, gzip;q=0.5"));
+        assertThat(response.headers().getFirst("content-encoding")).isEqualTo("gzip");
+        assertThat(gunzip(response)).isEqualTo("metric{format=\"text\"} 1\n");
+
+        var identity = metrics(handler, HttpHeaders.of("accept-encoding", "gzip;q=0"));
+        assertThat(identity.headers().has("content-encoding")).isFalse();
+        assertThat(body(identity)).isEqualTo("metric{format=\"text\"} 2\n");
+    }
+
+    @Test
+    void testOpenMetricsNegotiation() {
+        var handler = handler(60_000);
+        var accept = "application/openmetrics-text;version=1.0.0,application/openmetrics-text;version=0.0.1;q=0.75,text/plain;version=0.0.4;q=0.5,*/*;q=0.1";
+
+        var response = metrics(handler, HttpHeaders.of("accept", accept));
+        assertThat(response.contentType()).isEqualTo(PrivateApiMetrics.OPENMETRICS_CONTENT_TYPE);
+        assertThat(body(response)).isEqualTo("metric{format=\"openmetrics\"} 1\n");
+
+        // snapshots are cached per format
+        assertThat(body(metrics(handler, HttpHeaders.of()))).isEqualTo("metric{format=\"text\"} 2\n");
+    }
+
+    private PrivateApiHandler handler(Integer scrapeInterval) {
+        var config = new HttpServerConfig(null, null, null, null, null, null, null, null, null, null, null, scrapeInterval, null, null, null, null, null, null);
+        return new PrivateApiHandler(valueOf(config), valueOf(Optional.of(this.metrics)), All.of(), All.of());
+    }
+
+    private static HttpServerResponse metrics(PrivateApiHandler handler, HttpHeaders headers) {
+        return Mono.from(handler.handle(HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_PATH, headers)).block();
+    }
+
+    private static byte[] bytes(HttpServerResponse response) {
+        var buffer = Mono.from(response.body()).block();
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(bytes).hasSize(response.contentLength());
+        return bytes;
+    }
+
+    private static String body(HttpServerResponse response) {
+        return new String(bytes(response), StandardCharsets.UTF_8);
+    }
+
+    private static String gunzip(HttpServerResponse response) {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes(response)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> ValueOf<T> valueOf(T object) {
+        return new ValueOf<>() {
+            @Override
+            public T get() {
+                return object;
+            }
+
+            @Override
+            public Mono<Void> refresh() {
+                return Mono.empty();
+            }
+        };
+    }
+
+    private static class TestMetrics implements PrivateApiMetrics {
+        private final AtomicInteger scrapes = new AtomicInteger();
+
+        @Override
+        public String scrape() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void scrape(String contentType, Writer writer) throws IOException {
+            var format = contentType.equals(OPENMETRICS_CONTENT_TYPE) ? "openmetrics" : "text";
+            writer.write("metric{format=\"" + format + "\"} " + this.scrapes.incrementAndGet() + "\n");
+        }
+
+        @Override
+        public boolean supportsOpenMetrics() {
+            return true;
+        }
+    }
+}
@@ -5,10 +5,15 @@ import org.assertj.core.presentation.Representation;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
+import ru.tinkoff.kora.http.server.common.HttpServerRequestResources;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
 
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -21,6 +26,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class MultipartReaderTest {
     @RepeatedTest(100)
@@ -238,6 +244,123 @@ class MultipartReaderTest {
             }, Index.atIndex(1));
     }
 
+    @Test
+    void largePartTest() {
+        var content = new byte[100 * 1024];
+        ThreadLocalRandom.current().nextBytes(content);
+        var request = new SimpleHttpServerRequest("POST", "/", multipartBody(content), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        var result = MultipartReader.read(request).collectList().block();
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).content()).isEqualTo(content);
+    }
+
+    @Test
+    void partLargerThanLimitTest() {
+        var request = new SimpleHttpServerRequest("POST", "/", multipartBody(new byte[100 * 1024]), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        assertThatThrownBy(() -> MultipartReader.read(request, 64 * 1024).collectList().block())
+            .isInstanceOfSatisfying(HttpServerResponseException.class, e -> assertThat(e.code()).isEqualTo(413));
+    }
+
+    @Test
+    void formMapperPartSizeLimitTest() {
+        var request = new SimpleHttpServerRequest("POST", "/", multipartBody(new byte[100 * 1024]), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        assertThatThrownBy(() -> new FormMultipartServerRequestMapper(-1, 64 * 1024).apply(request).block())
+            .isInstanceOfSatisfying(HttpServerResponseException.class, e -> assertThat(e.code()).isEqualTo(413));
+        var unlimited = new SimpleHttpServerRequest("POST", "/", multipartBody(new byte[100 * 1024]), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+        assertThat(new FormMultipartServerRequestMapper(-1, -1).apply(unlimited).block().parts()).hasSize(1);
+    }
+
+    @Test
+    void boundaryPrefixInContentTest() {
+        var body = """
+            preamble\r
+            --boundary\r
+            Content-Disposition: form-data; name="field1"\r
+            \r
+            value1\r
+            --boundaryX\r
+            --boundary--\r
+            """.getBytes(StandardCharsets.UTF_8);
+        var request = new SimpleHttpServerRequest("POST", "/", Flux.just(ByteBuffer.wrap(body)), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        var result = MultipartReader.read(request).collectList().block();
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).content()).asString(StandardCharsets.UTF_8).isEqualTo("value1\r\n--boundaryX");
+    }
+
+    @Test
+    void truncatedBodyTest() {
+        var request = new SimpleHttpServerRequest("POST", "/", multipartBody(new byte[1024]).take(2), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        assertThatThrownBy(() -> MultipartReader.read(request).collectList().block())
+            .isInstanceOfSatisfying(HttpServerResponseException.class, e -> assertThat(e.code()).isEqualTo(400));
+    }
+
+    @Test
+    void streamPartsSpillToDiskTest() {
+        var small = "small".getBytes(StandardCharsets.UTF_8);
+        var large = new byte[100 * 1024];
+        ThreadLocalRandom.current().nextBytes(large);
+        var head = "--boundary\r\nContent-Disposition: form-data; name=\"small\"\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+        var request = new SimpleHttpServerRequest("POST", "/", Flux.concat(Flux.just(ByteBuffer.wrap(head), ByteBuffer.wrap(small), StandardCharsets.UTF_8.encode("\r\n")), multipartBody(large)), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+
+        var result = MultipartReader.readStream(request, 16 * 1024).collectList().block();
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).name()).isEqualTo("small");
+        assertThat(ReactorUtils.toByteArrayMono(result.get(0).content()).block()).isEqualTo(small);
+        assertThat(result.get(1).name()).isEqualTo("file");
+        assertThat(result.get(1).fileName()).isEqualTo("file.bin");
+        assertThat(ReactorUtils.toByteArrayMono(result.get(1).content()).block()).isEqualTo(large);
+    }
+
+    @Test
+    void unreadSpilledPartIsClosedWithRequestTest() {
+        var request = new SimpleHttpServerRequest("POST", "/", multipartBody(new byte[100 * 1024]), new Map.Entry[]{
+            Map.entry("content-type", "multipart/form-data; boundary=boundary")
+        }, Map.of());
+        Context.clear();
+        try {
+            var context = Context.current();
+            var result = MultipartReader.readStream(request, 16 * 1024).collectList().block();
+            assertThat(result).hasSize(1);
+
+            HttpServerRequestResources.close(context);
+
+            assertThatThrownBy(() -> ReactorUtils.toByteArrayMono(result.get(0).content()).block())
+                .hasCauseInstanceOf(ClosedChannelException.class);
+        } finally {
+            Context.clear();
+        }
+    }
+
+    private static Flux<ByteBuffer> multipartBody(byte[] content) {
+        var head = "--boundary\r\nContent-Disposition: form-data; name=\"file\"; filename=\"file.bin\"\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+        var tail = "\r\n--boundary--\r\n".getBytes(StandardCharsets.UTF_8);
+        var chunks = Flux.range(0, (content.length + 1023) / 1024)
+            .map(i -> ByteBuffer.wrap(content, i * 1024, Math.min(1024, content.length - i * 1024)));
+        return Flux.concat(Flux.just(ByteBuffer.wrap(head)), chunks, Flux.just(ByteBuffer.wrap(tail)));
+    }
+
     static class SimpleHttpServerRequest implements HttpServerRequest {
         private final String method;
         private final String path;
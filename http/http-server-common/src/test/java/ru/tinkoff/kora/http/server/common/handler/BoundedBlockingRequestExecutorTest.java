@@ -0,0 +1,70 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BoundedBlockingRequestExecutorTest {
+    private final HttpServerMetrics metrics = mock(HttpServerMetrics.class);
+    private final BoundedBlockingRequestExecutor executor = new BoundedBlockingRequestExecutor("test", 1, 1, this.metrics);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        this.release.countDown();
+        this.executor.release().block();
+    }
+
+    @Test
+    void testStatsAreRegisteredOnInit() {
+        this.executor.init().block();
+
+        verify(this.metrics).blockingExecutorStats(eq("test"), same(this.executor));
+    }
+
+    @Test
+    void testRequestsAreRejectedWhenQueueIsFull() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        this.executor.dispatch(() -> {
+            started.countDown();
+            await(this.release);
+        });
+        started.await();
+        this.executor.dispatch(() -> {});
+
+        assertThat(this.executor.activeThreads()).isEqualTo(1);
+        assertThat(this.executor.queueSize()).isEqualTo(1);
+        assertThatThrownBy(() -> this.executor.dispatch(() -> {}))
+            .isInstanceOfSatisfying(HttpServerResponseException.class, e -> {
+                assertThat(e.code()).isEqualTo(503);
+                assertThat(e.headers().getFirst("retry-after")).isEqualTo("1");
+            });
+        assertThatThrownBy(() -> this.executor.execute(() -> "rejected").block())
+            .isInstanceOf(HttpServerResponseException.class);
+        assertThat(this.executor.rejectedTasks()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute() {
+        assertThat(this.executor.execute(() -> "ok").block(Duration.ofSeconds(5))).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
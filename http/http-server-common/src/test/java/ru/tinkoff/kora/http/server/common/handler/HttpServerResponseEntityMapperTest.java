@@ -0,0 +1,33 @@
+package ru.tinkoff.kora.http.server.common.handler;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseEntity;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpServerResponseEntityMapperTest {
+
+    @Test
+    void testEntityMapperIsBlockingWhenDelegateIsBlocking() throws Exception {
+        var mapper = HttpServerResponseEntityMapper.of((BlockingHttpServerResponseMapper<String>) r -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of("a", "1"), null));
+
+        var blocking = BlockingHttpServerResponseMapper.of(mapper);
+
+        assertThat(blocking).isNotNull();
+        var response = blocking.applyBlocking(new HttpServerResponseEntity<>(201, "test", HttpHeaders.of("b", "2")));
+        assertThat(response.code()).isEqualTo(201);
+        assertThat(response.headers().getFirst("a")).isEqualTo("1");
+        assertThat(response.headers().getFirst("b")).isEqualTo("2");
+    }
+
+    @Test
+    void testEntityMapperIsReactiveWhenDelegateIsReactive() {
+        var mapper = HttpServerResponseEntityMapper.<String>of(r -> Mono.just(new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, null)));
+
+        assertThat(BlockingHttpServerResponseMapper.of(mapper)).isNull();
+        assertThat(mapper.apply(new HttpServerResponseEntity<>(201, "test")).block().code()).isEqualTo(201);
+    }
+}
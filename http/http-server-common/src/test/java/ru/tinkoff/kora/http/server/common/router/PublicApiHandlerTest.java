@@ -5,16 +5,32 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import ru.tinkoff.kora.application.graph.All;
 import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.Deadline;
+import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerInterceptor;
+import ru.tinkoff.kora.http.server.common.HttpServerRequest;
 import ru.tinkoff.kora.http.server.common.HttpServerRequestHandler;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseSender;
 import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
 import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTelemetry;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
@@ -45,7 +61,7 @@ class PublicApiHandlerTest {
             valueOf(handler("GET", "/test")),
             valueOf(handler("POST", "/*"))
         );
-        var telemetry = Mockito.mock(HttpServerTelemetry.class);
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
         when(telemetry.get(any(), anyString())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
         var handler = new PublicApiHandler(handlers, All.of(), valueOf(telemetry));
 
@@ -58,6 +74,236 @@ class PublicApiHandlerTest {
         verify(responseSender).send(argThat(argument -> argument.code() == 200));
     }
 
+    @Test
+    void testBlockingHandler() {
+        var dispatched = new AtomicInteger();
+        var executor = new BlockingRequestExecutor() {
+            @Override
+            public <T> Mono<T> execute(Callable<T> handler) {
+                return Mono.fromCallable(handler);
+            }
+
+            @Override
+            public void dispatch(Runnable task) {
+                dispatched.incrementAndGet();
+                task.run();
+            }
+        };
+        var handlers = All.of(
+            valueOf((HttpServerRequestHandler) BlockingHttpServerRequestHandlerImpl.get("/test", executor, r -> new SimpleHttpServerResponse(201, "application/octet-stream", HttpHeaders.EMPTY, null)))
+        );
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), anyString())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(201)));
+        var request = new PublicApiHandler.PublicApiRequest("GET", "/test", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty());
+
+        new PublicApiHandler(handlers, All.of(), valueOf(telemetry)).process(request, responseSender);
+        Assertions.assertThat(dispatched).hasValue(1);
+
+        // reactive interceptor forces reactive pipeline
+        var interceptors = All.of(valueOf(HttpServerInterceptor.noop()));
+        new PublicApiHandler(handlers, interceptors, valueOf(telemetry)).process(request, responseSender);
+        Assertions.assertThat(dispatched).hasValue(1);
+
+        verify(responseSender, times(2)).send(argThat(argument -> argument.code() == 201));
+    }
+
+    @Test
+    void testBlockingHandlerBodyIsReadBeforeDispatch() {
+        var dispatched = new AtomicInteger();
+        var executor = new BlockingRequestExecutor() {
+            @Override
+            public <T> Mono<T> execute(Callable<T> handler) {
+                return Mono.fromCallable(handler);
+            }
+
+            @Override
+            public void dispatch(Runnable task) {
+                dispatched.incrementAndGet();
+                task.run();
+            }
+        };
+        var received = new AtomicReference<String>();
+        var handlers = All.of(
+            valueOf((HttpServerRequestHandler) BlockingHttpServerRequestHandlerImpl.post("/test", executor, r -> {
+                received.set(new String(ReactorUtils.toByteArrayMono(r.body()).block(), StandardCharsets.UTF_8));
+                return new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, null);
+            }))
+        );
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), anyString())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(200)));
+        var body = Sinks.many().unicast().<ByteBuffer>onBackpressureBuffer();
+        var request = new PublicApiHandler.PublicApiRequest("POST", "/test", "test", "http", HttpHeaders.of("content-length", "5"), Map.of(), body.asFlux());
+
+        new PublicApiHandler(handlers, All.of(), valueOf(telemetry)).process(request, responseSender);
+        Assertions.assertThat(dispatched).hasValue(0);
+
+        body.tryEmitNext(StandardCharsets.UTF_8.encode("hello"));
+        body.tryEmitComplete();
+
+        Assertions.assertThat(dispatched).hasValue(1);
+        Assertions.assertThat(received).hasValue("hello");
+        verify(responseSender).send(argThat(argument -> argument.code() == 200));
+    }
+
+    @Test
+    void testDeadline() {
+        var executor = new BlockingRequestExecutor() {
+            @Override
+            public <T> Mono<T> execute(Callable<T> handler) {
+                return Mono.fromCallable(handler);
+            }
+
+            @Override
+            public void dispatch(Runnable task) {
+                task.run();
+            }
+        };
+        var deadline = new AtomicReference<Deadline>();
+        var handlers = All.of(
+            valueOf((HttpServerRequestHandler) BlockingHttpServerRequestHandlerImpl.get("/test", executor, r -> {
+                deadline.set(Deadline.current());
+                return new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, null);
+            }))
+        );
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), anyString())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(200)));
+        var handler = new PublicApiHandler(handlers, All.of(), valueOf(telemetry), null, -1, "x-request-timeout", 60_000);
+
+        var headers = HttpHeaders.of("x-request-timeout", "1000");
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/test", "test", "http", headers, Map.of(), Flux.empty(), "HTTP/1.1", System.nanoTime()), responseSender);
+        verify(responseSender).send(argThat(argument -> argument.code() == 200));
+        Assertions.assertThat(deadline.get()).isNotNull();
+        Assertions.assertThat(deadline.get().remaining()).isLessThanOrEqualTo(Duration.ofSeconds(1));
+
+        // request waited in the queue longer than the client is going to wait for it
+        deadline.set(null);
+        var receivedAt = System.nanoTime() - TimeUnit.SECONDS.toNanos(2);
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/test", "test", "http", headers, Map.of(), Flux.empty(), "HTTP/1.1", receivedAt), responseSender);
+        verify(responseSender).send(argThat(argument -> argument.code() == 504));
+        Assertions.assertThat(deadline.get()).isNull();
+    }
+
+    @Test
+    void testInterceptorRoutes() {
+        var dispatched = new AtomicInteger();
+        var executor = new BlockingRequestExecutor() {
+            @Override
+            public <T> Mono<T> execute(Callable<T> handler) {
+                return Mono.fromCallable(handler);
+            }
+
+            @Override
+            public void dispatch(Runnable task) {
+                dispatched.incrementAndGet();
+                task.run();
+            }
+        };
+        var intercepted = new AtomicInteger();
+        var interceptor = new HttpServerInterceptor() {
+            @Override
+            public Mono<HttpServerResponse> intercept(HttpServerRequest request, Function<HttpServerRequest, Mono<HttpServerResponse>> chain) {
+                intercepted.incrementAndGet();
+                return chain.apply(request);
+            }
+
+            @Override
+            public boolean appliesTo(String method, String routeTemplate) {
+                return !routeTemplate.startsWith("/excluded");
+            }
+        };
+        var handlers = All.of(
+            valueOf(handler("GET", "/test")),
+            valueOf(handler("GET", "/excluded")),
+            valueOf((HttpServerRequestHandler) BlockingHttpServerRequestHandlerImpl.get("/excluded/blocking", executor, r -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, null)))
+        );
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), any())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(200)));
+        var handler = new PublicApiHandler(handlers, All.of(valueOf(interceptor)), valueOf(telemetry));
+
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/test", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        Assertions.assertThat(intercepted).hasValue(1);
+
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/excluded", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        Assertions.assertThat(intercepted).hasValue(1);
+
+        // reactive interceptor that doesn't apply to the route doesn't force reactive pipeline
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/excluded/blocking", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        Assertions.assertThat(intercepted).hasValue(1);
+        Assertions.assertThat(dispatched).hasValue(1);
+
+        // unmatched requests are passed through all the interceptors
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/unknown", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        Assertions.assertThat(intercepted).hasValue(2);
+    }
+
+    @Test
+    void testMethodNotAllowed() {
+        var handlers = All.of(valueOf(handler("GET", "/test/{id}")), valueOf(handler("POST", "/test/{id}")));
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), any())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(405)));
+        var handler = new PublicApiHandler(handlers, All.of(), valueOf(telemetry));
+        handler.graphRefreshed();
+
+        handler.process(new PublicApiHandler.PublicApiRequest("DELETE", "/test/1", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+
+        verify(responseSender).send(argThat(response -> response.code() == 405
+            && response.headers().getFirst("allow").contains("GET")
+            && response.headers().getFirst("allow").contains("POST")));
+        verify(telemetry).get(any(), eq("/test/{id}"));
+    }
+
+    @Test
+    void testRouteTelemetryIsResolvedOnce() {
+        var handlers = All.of(valueOf(handler("GET", "/test/{id}")));
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), any())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(200)));
+        var handler = new PublicApiHandler(handlers, All.of(), valueOf(telemetry));
+
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/test/1", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/test/2", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+        handler.process(new PublicApiHandler.PublicApiRequest("GET", "/unknown", "test", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty()), responseSender);
+
+        verify(telemetry, times(1)).route("GET", "/test/{id}");
+        verify(telemetry, times(2)).get(any(), eq("/test/{id}"));
+        verify(telemetry, times(1)).get(any(), isNull());
+    }
+
+    @Test
+    void testRequestBodySizeLimit() {
+        var bodyReader = (HttpServerRequestHandler) new HttpServerRequestHandlerImpl("POST", "/limited", 10, r -> ReactorUtils.toByteArrayMono(r.body())
+            .map(bytes -> new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, ByteBuffer.wrap(bytes))));
+        var handlers = All.of(valueOf(bodyReader), valueOf(handler("POST", "/default")));
+        var telemetry = Mockito.mock(HttpServerTelemetry.class, Mockito.CALLS_REAL_METHODS);
+        when(telemetry.get(any(), anyString())).thenReturn(mock(HttpServerTelemetry.HttpServerTelemetryContext.class));
+        var responseSender = mock(HttpServerResponseSender.class);
+        when(responseSender.send(any())).thenReturn(Mono.just(new HttpServerResponseSender.Success(200)));
+        var handler = new PublicApiHandler(handlers, All.of(), valueOf(telemetry), null, 100);
+        var body = Flux.just(ByteBuffer.wrap(new byte[8]), ByteBuffer.wrap(new byte[8]));
+
+        // declared content length is rejected before the handler is called
+        handler.process(new PublicApiHandler.PublicApiRequest("POST", "/limited", "test", "http", HttpHeaders.of("content-length", "16"), Map.of(), Flux.error(new IllegalStateException())), responseSender);
+        // chunked body is rejected while it is read
+        handler.process(new PublicApiHandler.PublicApiRequest("POST", "/limited", "test", "http", HttpHeaders.EMPTY, Map.of(), body), responseSender);
+        verify(responseSender, times(2)).send(argThat(argument -> argument.code() == 413 && "close".equals(argument.headers().getFirst("connection"))));
+
+        handler.process(new PublicApiHandler.PublicApiRequest("POST", "/default", "test", "http", HttpHeaders.of("content-length", "16"), Map.of(), body), responseSender);
+        handler.process(new PublicApiHandler.PublicApiRequest("POST", "/default", "test", "http", HttpHeaders.of("content-length", "101"), Map.of(), body), responseSender);
+        verify(responseSender, times(1)).send(argThat(argument -> argument.code() == 200));
+        verify(responseSender, times(3)).send(argThat(argument -> argument.code() == 413));
+    }
+
     private HttpServerRequestHandler handler(String method, String route) {
         return new HttpServerRequestHandlerImpl(method, route, httpServerRequest -> Mono.just(new SimpleHttpServerResponse(200, "application/octet-stream", HttpHeaders.EMPTY, null)));
     }
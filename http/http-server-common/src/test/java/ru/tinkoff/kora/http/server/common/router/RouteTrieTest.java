@@ -0,0 +1,116 @@
+package ru.tinkoff.kora.http.server.common.router;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTrieTest {
+
+    @Test
+    void testStaticRoutes() {
+        var trie = trie("/", "/test", "/test/", "/test/nested");
+
+        assertMatch(trie, "", "/", Map.of());
+        assertMatch(trie, "/", "/", Map.of());
+        assertMatch(trie, "/test", "/test", Map.of());
+        assertMatch(trie, "/test/", "/test/", Map.of());
+        assertMatch(trie, "/test/nested", "/test/nested", Map.of());
+        assertThat(trie.match("/test/other")).isNull();
+        assertThat(trie.match("/tes")).isNull();
+        assertThat(trie.match("test")).isNull();
+    }
+
+    @Test
+    void testPathParameters() {
+        var trie = trie("/users/{id}", "/users/{id}/orders/{orderId}", "/users/me", "/a/{b}/c", "/a/{other}/d");
+
+        assertMatch(trie, "/users/42", "/users/{id}", Map.of("id", "42"));
+        assertMatch(trie, "/users/me", "/users/me", Map.of());
+        assertMatch(trie, "/users/42/orders/7", "/users/{id}/orders/{orderId}", Map.of("id", "42", "orderId", "7"));
+        assertMatch(trie, "/a/x/c", "/a/{b}/c", Map.of("b", "x"));
+        assertMatch(trie, "/a/x/d", "/a/{other}/d", Map.of("other", "x"));
+        assertThat(trie.match("/users/42/orders")).isNull();
+    }
+
+    @Test
+    void testStaticSegmentHasPriorityWithBacktracking() {
+        var trie = trie("/a/b/c", "/a/{x}/d");
+
+        assertMatch(trie, "/a/b/c", "/a/b/c", Map.of());
+        assertMatch(trie, "/a/b/d", "/a/{x}/d", Map.of("x", "b"));
+    }
+
+    @Test
+    void testWildcards() {
+        var trie = trie("/*", "/files/*", "/{a}/{b}/*", "/stat*");
+
+        assertMatch(trie, "/", "/*", Map.of("*", ""));
+        assertMatch(trie, "/x", "/*", Map.of("*", "x"));
+        assertMatch(trie, "/files/", "/files/*", Map.of("*", ""));
+        assertMatch(trie, "/files/x/y", "/files/*", Map.of("*", "x/y"));
+        assertMatch(trie, "/x/y/z/w", "/{a}/{b}/*", Map.of("a", "x", "b", "y", "*", "z/w"));
+        assertMatch(trie, "/static/x", "/stat*", Map.of("*", "ic/x"));
+    }
+
+    @Test
+    void testBracesInsideSegmentAreLiteral() {
+        var trie = trie("/foo{id}", "/foo/{id}", "/q/a{b}");
+
+        assertMatch(trie, "/foo{id}", "/foo{id}", Map.of());
+        assertMatch(trie, "/q/a{b}", "/q/a{b}", Map.of());
+        assertThat(trie.match("/fooX")).isNull();
+        assertThat(trie.match("/q/ab")).isNull();
+    }
+
+    @Test
+    void testTrailingSlashIsIgnoredByTemplatesWithParameters() {
+        var trie = trie("/foo/{id}", "/foo/bar", "/a/{b}/c", "/x/{y}/");
+
+        assertMatch(trie, "/foo/a/", "/foo/{id}", Map.of("id", "a"));
+        assertMatch(trie, "/foo/bar/", "/foo/{id}", Map.of("id", "bar"));
+        assertMatch(trie, "/a/x/c/", "/a/{b}/c", Map.of("b", "x"));
+        assertMatch(trie, "/x/1/", "/x/{y}/", Map.of("y", "1"));
+        assertThat(trie.match("/x/1")).isNull();
+        assertThat(trie.match("/foo/a//")).isNull();
+    }
+
+    @Test
+    void testEquivalentTemplates() {
+        var trie = new RouteTrie<String>();
+        assertThat(trie.add("/some/{variable}/test", "1")).isNull();
+        assertThat(trie.add("/some/{other}/test", "2")).isEqualTo(Map.entry("/some/{variable}/test", "1"));
+        assertThat(trie.add("/some/*", "3")).isNull();
+        assertThat(trie.add("/some/*", "4")).isEqualTo(Map.entry("/some/*", "3"));
+    }
+
+    @Test
+    void testLazyParameters() {
+        var trie = trie("/{first}/{second}");
+
+        var match = trie.match("/one/two");
+        assertThat(match).isNotNull();
+        var parameters = match.parameters();
+        assertThat(parameters.get("first")).isEqualTo("one");
+        assertThat(parameters.get("third")).isNull();
+        assertThat(parameters.containsKey("second")).isTrue();
+        assertThat(parameters).containsExactly(Map.entry("first", "one"), Map.entry("second", "two"));
+    }
+
+    private static RouteTrie<String> trie(String... templates) {
+        var trie = new RouteTrie<String>();
+        for (var template : templates) {
+            assertThat(trie.add(template, template)).isNull();
+        }
+        return trie;
+    }
+
+    private static void assertMatch(RouteTrie<String> trie, String path, String template, Map<String, String> parameters) {
+        var match = trie.match(path);
+        assertThat(match).isNotNull();
+        assertThat(match.matchedTemplate()).isEqualTo(template);
+        assertThat(match.value()).isEqualTo(template);
+        assertThat(match.parameters()).isEqualTo(parameters);
+    }
+}
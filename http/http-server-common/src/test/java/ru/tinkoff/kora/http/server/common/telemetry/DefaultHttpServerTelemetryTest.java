@@ -0,0 +1,90 @@
+package ru.tinkoff.kora.http.server.common.telemetry;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.common.HttpResultCode;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DefaultHttpServerTelemetryTest {
+    private final HttpServerMetrics metrics = mock(HttpServerMetrics.class, CALLS_REAL_METHODS);
+    private final HttpServerLogger logger = mock(HttpServerLogger.class);
+    private final HttpServerTracer tracer = mock(HttpServerTracer.class);
+    private final PublicApiHandler.PublicApiRequest request = new PublicApiHandler.PublicApiRequest("GET", "/test", "localhost", "http", HttpHeaders.EMPTY, Map.of(), Flux.empty());
+
+    @Test
+    void testSampledOutRequestsAreOnlyMeasured() {
+        var sampler = new HttpServerTelemetrySampler(0.0, Map.of(), -1, TimeUnit.MILLISECONDS.toNanos(1000));
+        var telemetry = new DefaultHttpServerTelemetry(this.metrics, this.logger, this.tracer, sampler).route("GET", "/test");
+
+        telemetry.get(this.request).close(200, HttpResultCode.SUCCESS, null);
+
+        verify(this.metrics).requestFinished(eq("GET"), eq("/test"), eq("localhost"), eq("http"), eq("HTTP/1.1"), eq(200), anyLong());
+        verify(this.tracer).createSpan("/test", this.request, false);
+        verify(this.tracer, never()).createSpan(any(), any());
+        verifyNoInteractions(this.logger);
+    }
+
+    @Test
+    void testErrorsAreAlwaysLogged() {
+        var sampler = new HttpServerTelemetrySampler(0.0, Map.of(), -1, -1);
+        var telemetry = new DefaultHttpServerTelemetry(this.metrics, this.logger, this.tracer, sampler).route("GET", "/test");
+
+        var error = new RuntimeException();
+        telemetry.get(this.request).close(500, HttpResultCode.SERVER_ERROR, error);
+
+        verify(this.logger, never()).logStart(any());
+        verify(this.logger).logEnd(eq("GET /test"), eq(500), eq(HttpResultCode.SERVER_ERROR), anyLong(), same(error));
+        verify(this.tracer).createSpan("/test", this.request, false);
+    }
+
+    @Test
+    void testRouteProbability() {
+        var sampler = new HttpServerTelemetrySampler(0.0, Map.of("/test", 1.0), -1, -1);
+        var telemetry = new DefaultHttpServerTelemetry(this.metrics, this.logger, this.tracer, sampler);
+
+        telemetry.route("GET", "/test").get(this.request).close(200, HttpResultCode.SUCCESS, null);
+        telemetry.route("GET", "/other").get(this.request).close(200, HttpResultCode.SUCCESS, null);
+
+        verify(this.tracer).createSpan("/test", this.request, true);
+        verify(this.tracer).createSpan("/other", this.request, false);
+        verify(this.logger, times(1)).logStart("GET /test");
+        verify(this.logger, times(1)).logEnd(eq("GET /test"), eq(200), eq(HttpResultCode.SUCCESS), anyLong(), isNull());
+    }
+
+    @Test
+    void testSpanOfRecordedRequestIsClosed() {
+        var span = mock(HttpServerTracer.HttpServerSpan.class);
+        when(this.tracer.createSpan("/test", this.request, false)).thenReturn(span);
+        var sampler = new HttpServerTelemetrySampler(0.0, Map.of(), -1, -1);
+        var telemetry = new DefaultHttpServerTelemetry(this.metrics, this.logger, this.tracer, sampler).route("GET", "/test");
+
+        telemetry.get(this.request).close(200, HttpResultCode.SUCCESS, null);
+
+        // caller trace was sampled, so the tracer recorded the request
+        verify(span).close(eq(200), eq(HttpResultCode.SUCCESS), anyLong(), isNull());
+        verify(this.logger, never()).logStart(any());
+    }
+
+    @Test
+    void testLogRateLimit() {
+        var sampler = new HttpServerTelemetrySampler(1.0, Map.of(), 10, -1);
+        var telemetry = new DefaultHttpServerTelemetry(this.metrics, this.logger, this.tracer, sampler).route("GET", "/test");
+
+        for (int i = 0; i < 100; i++) {
+            telemetry.get(this.request).close(200, HttpResultCode.SUCCESS, null);
+        }
+
+        // spans are not limited, the bucket holds a second of log permits
+        verify(this.tracer, times(100)).createSpan(any(), any(), eq(true));
+        verify(this.logger, atLeast(10)).logStart("GET /test");
+        verify(this.logger, atMost(12)).logStart("GET /test");
+    }
+}
@@ -1,6 +1,7 @@
 package ru.tinkoff.kora.http.server.common;
 
 import okhttp3.*;
+import okio.BufferedSink;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -24,6 +25,7 @@ import ru.tinkoff.kora.common.util.ByteBufferFluxInputStream;
 import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.common.HttpHeaders;
 import ru.tinkoff.kora.http.common.HttpResultCode;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
 import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
 import ru.tinkoff.kora.http.server.common.telemetry.DefaultHttpServerTelemetry;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerLogger;
@@ -34,8 +36,12 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
@@ -63,7 +69,14 @@ public abstract class HttpServerTestKit {
 
 
 
-    private static ValueOf<HttpServerConfig> config = valueOf(new HttpServerConfig(0, 0, HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_READINESS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_LIVENESS_PATH, 1, 10, 1));
+    private static ValueOf<HttpServerConfig> config = valueOf(new HttpServerConfig(0, 0, HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_READINESS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_LIVENESS_PATH, 1, 10, 1, false, false, 0,
+        HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_SCRAPE_INTERVAL,
+        new HttpServerConfig.ConnectionConfig(null, null, null, null, null),
+        new HttpServerConfig.LimitsConfig(null, null, null),
+        new HttpServerConfig.LoadSheddingConfig(null, null, null, null, null, null),
+        new HttpServerConfig.TelemetryConfig(null, null, null, null),
+        new HttpServerConfig.MultipartConfig(null, null),
+        new HttpServerConfig.ProbesConfig(null, null, null, null)));
 
     private final PrivateApiHandler privateApiHandler = new PrivateApiHandler(config, valueOf(Optional.of(registry)), All.of(readinessProbePromise), All.of(livenessProbePromise));
 
@@ -73,7 +86,8 @@ public abstract class HttpServerTestKit {
         .connectionPool(new ConnectionPool(0, 1, TimeUnit.MICROSECONDS))
         .build();
 
-    protected HttpServerMetrics metrics = Mockito.mock(HttpServerMetrics.class);
+    // route metrics are resolved by the default method, so requests are still recorded by requestStarted/requestFinished
+    protected HttpServerMetrics metrics = Mockito.mock(HttpServerMetrics.class, Mockito.CALLS_REAL_METHODS);
     protected HttpServerLogger logger = Mockito.mock(HttpServerLogger.class);
 
     protected abstract HttpServer httpServer(ValueOf<HttpServerConfig> config, PublicApiHandler publicApiHandler);
@@ -211,6 +225,38 @@ public abstract class HttpServerTestKit {
         verifyResponse("GET", "/", 200, HttpResultCode.SUCCESS, "localhost", "http", ArgumentMatchers::isNull, anyLong());
     }
 
+    @Test
+    void testFileResponse() throws IOException {
+        var data = new byte[1024 * 1024 + 17];
+        ThreadLocalRandom.current().nextBytes(data);
+        var file = Files.createTempFile("kora-http-server-test", ".bin");
+        try {
+            Files.write(file, data);
+            var handler = handler(GET, "/", request -> Mono.fromCallable(() -> FileHttpServerResponse.of(request, file, "application/octet-stream")));
+            this.startServer(handler);
+
+            try (var response = client.newCall(request("/").get().build()).execute()) {
+                assertThat(response.code()).isEqualTo(200);
+                assertThat(response.header("accept-ranges")).isEqualTo("bytes");
+                assertThat(response.body().bytes()).isEqualTo(data);
+            }
+            try (var response = client.newCall(request("/").get().header("range", "bytes=100-1123").build()).execute()) {
+                assertThat(response.code()).isEqualTo(206);
+                assertThat(response.header("content-range")).isEqualTo("bytes 100-1123/" + data.length);
+                assertThat(response.body().bytes()).isEqualTo(Arrays.copyOfRange(data, 100, 1124));
+            }
+            try (var response = client.newCall(request("/").get().header("range", "bytes=" + data.length + "-").build()).execute()) {
+                assertThat(response.code()).isEqualTo(416);
+            }
+            var lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(Files.getLastModifiedTime(file).toInstant().atZone(ZoneOffset.UTC));
+            try (var response = client.newCall(request("/").get().header("if-modified-since", lastModified).build()).execute()) {
+                assertThat(response.code()).isEqualTo(304);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     @Test
     void testStreamResult() throws IOException {
         var dataList = new ArrayList<byte[]>(100);
@@ -295,8 +341,8 @@ public abstract class HttpServerTestKit {
         }
         verify(logger, never()).logStart(any());
         verify(logger, never()).logEnd(any(), any(), any(), anyLong().getAsLong(), any());
-        verify(metrics, times(1)).requestStarted(eq(GET), eq("UNKNOWN_ROUTE"), eq("localhost"), eq("http"));
-        verify(metrics, timeout(100).times(1)).requestFinished(eq(GET), eq("UNKNOWN_ROUTE"), eq("localhost"), eq("http"), eq(404), Mockito.anyLong());
+        verify(metrics, times(1)).requestStarted(eq(GET), eq("UNKNOWN_ROUTE"), eq("localhost"), eq("http"), eq("HTTP/1.1"));
+        verify(metrics, timeout(100).times(1)).requestFinished(eq(GET), eq("UNKNOWN_ROUTE"), eq("localhost"), eq("http"), eq("HTTP/1.1"), eq(404), Mockito.anyLong());
     }
 
     @Test
@@ -522,6 +568,38 @@ public abstract class HttpServerTestKit {
         executor.shutdown();
     }
 
+    @Test
+    void testRequestBodyTooLarge() throws IOException {
+        var handler = new HttpServerRequestHandlerImpl(POST, "/", 1024, request -> ReactorUtils.toByteArrayMono(request.body())
+            .map(data -> new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of(), ByteBuffer.wrap(data))));
+        this.startServer(handler);
+
+        try (var response = client.newCall(request("/").post(RequestBody.create(new byte[1024])).build()).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        try (var response = client.newCall(request("/").post(RequestBody.create(new byte[1025])).build()).execute()) {
+            assertThat(response.code()).isEqualTo(413);
+            assertThat(response.header("connection")).isEqualTo("close");
+        }
+        var chunked = new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return null;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                for (int i = 0; i < 16; i++) {
+                    sink.write(new byte[1024]);
+                    sink.flush();
+                }
+            }
+        };
+        try (var response = client.newCall(request("/").post(chunked).build()).execute()) {
+            assertThat(response.code()).isEqualTo(413);
+        }
+    }
+
     @Test
     void testInterceptor() throws IOException {
         var httpResponse = new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.of(), ByteBuffer.wrap("hello world".getBytes(StandardCharsets.UTF_8)));
@@ -604,10 +682,10 @@ public abstract class HttpServerTestKit {
     }
 
     private void verifyResponse(String method, String route, int code, HttpResultCode resultCode, String host, String scheme, Supplier<? extends Throwable> throwable, LongSupplier duration, VerificationMode mode) {
-        verify(metrics, mode).requestStarted(eq(method), eq(route), eq(host), eq(scheme));
+        verify(metrics, mode).requestStarted(eq(method), eq(route), eq(host), eq(scheme), eq("HTTP/1.1"));
         verify(logger, mode).logStart(method + " " + route);
         verify(logger, mode).logEnd(eq(method + " " + route), eq(code), eq(resultCode), duration.getAsLong(), throwable.get());
-        verify(metrics, mode).requestFinished(eq(method), eq(route), eq(host), eq(scheme), eq(code), Mockito.anyLong());
+        verify(metrics, mode).requestFinished(eq(method), eq(route), eq(host), eq(scheme), eq("HTTP/1.1"), eq(code), Mockito.anyLong());
     }
 
 
@@ -0,0 +1,61 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import ru.tinkoff.kora.http.common.HttpHeaders;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class NettyHttpHeaders implements HttpHeaders {
+    private final io.netty.handler.codec.http.HttpHeaders headers;
+
+    public NettyHttpHeaders(io.netty.handler.codec.http.HttpHeaders headers) {
+        this.headers = headers;
+    }
+
+    @Nullable
+    @Override
+    public String getFirst(String name) {
+        return this.headers.get(name);
+    }
+
+    @Override
+    public List<String> get(String name) {
+        var headers = this.headers.getAll(name);
+        if (headers.isEmpty()) {
+            return null;
+        }
+        return Collections.unmodifiableList(headers);
+    }
+
+    @Override
+    public boolean has(String key) {
+        return this.headers.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return this.headers.names().size();
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Map.Entry<String, List<String>>> iterator() {
+        var i = this.headers.names().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
+
+            @Override
+            public Map.Entry<String, List<String>> next() {
+                var name = i.next();
+                return Map.entry(name, Collections.unmodifiableList(NettyHttpHeaders.this.headers.getAll(name)));
+            }
+        };
+    }
+}
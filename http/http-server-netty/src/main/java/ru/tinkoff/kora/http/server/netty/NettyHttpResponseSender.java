@@ -0,0 +1,231 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.http.server.common.FileHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.HttpServerResponseSender;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+
+/**
+ * Writes the response on the channel event loop, response may be sent from any thread.
+ * Connection handler is notified when the response is written, so it can read the next request of the connection.
+ */
+public class NettyHttpResponseSender implements HttpServerResponseSender {
+    private final ChannelHandlerContext ctx;
+    private final boolean keepAlive;
+    @Nullable
+    private final HttpServerTracer tracer;
+    private final Runnable onSent;
+
+    NettyHttpResponseSender(ChannelHandlerContext ctx, boolean keepAlive, @Nullable HttpServerTracer tracer, Runnable onSent) {
+        this.ctx = ctx;
+        this.keepAlive = keepAlive;
+        this.tracer = tracer;
+        this.onSent = onSent;
+    }
+
+    @Override
+    public Mono<SendResult> send(HttpServerResponse httpResponse) {
+        var context = Context.current();
+        return Mono.create(sink -> this.execute(() -> {
+            var response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(httpResponse.code()));
+            var keepAlive = this.keepAlive;
+            if (this.tracer != null) this.tracer.inject(
+                context,
+                response.headers(),
+                (carrier, key, value) -> carrier.add(key, value)
+            );
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, httpResponse.contentType());
+            response.headers().set(HttpHeaderNames.SERVER, "kora/netty");
+            for (var header : httpResponse.headers()) {
+                var key = header.getKey();
+                if (key.equals("server")) {
+                    continue;
+                }
+                if (key.equals("content-type")) {
+                    continue;
+                }
+                if (key.equals("content-length")) {
+                    continue;
+                }
+                if (key.equals("transfer-encoding")) {
+                    continue;
+                }
+                if (key.equals("connection")) {
+                    // connection is closed after the response instead of draining unread request body
+                    if (header.getValue().contains("close")) {
+                        keepAlive = false;
+                    }
+                    continue;
+                }
+                response.headers().add(key, header.getValue());
+            }
+            HttpUtil.setKeepAlive(response, keepAlive);
+            if (httpResponse instanceof FileHttpServerResponse fileResponse) {
+                this.sendFile(response, keepAlive, fileResponse, sink);
+                return;
+            }
+            if (httpResponse.body() instanceof Callable<?> callable) {
+                final ByteBuffer body;
+                try {
+                    body = (ByteBuffer) callable.call();
+                } catch (Exception e) {
+                    sink.success(new HttpServerResponseSender.ResponseBodyErrorBeforeCommit(e));
+                    return;
+                }
+                var content = body == null
+                    ? Unpooled.EMPTY_BUFFER
+                    : Unpooled.wrappedBuffer(body);
+                var fullResponse = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, response.status(), content, response.headers(), EmptyHttpHeaders.INSTANCE);
+                HttpUtil.setContentLength(fullResponse, content.readableBytes());
+                this.complete(this.ctx.writeAndFlush(fullResponse), keepAlive, httpResponse.code(), sink);
+                return;
+            }
+            if (httpResponse.contentLength() >= 0) {
+                HttpUtil.setContentLength(response, httpResponse.contentLength());
+            } else {
+                HttpUtil.setTransferEncodingChunked(response, true);
+            }
+            httpResponse.body().subscribe(new HttpResponseBodySubscriber(response, keepAlive, sink));
+        }));
+    }
+
+    private void sendFile(HttpResponse response, boolean keepAlive, FileHttpServerResponse fileResponse, MonoSink<SendResult> sink) {
+        final FileChannel file;
+        try {
+            file = fileResponse.open();
+        } catch (IOException e) {
+            sink.success(new HttpServerResponseSender.ResponseBodyErrorBeforeCommit(e));
+            return;
+        }
+        HttpUtil.setContentLength(response, fileResponse.count());
+        this.ctx.write(response);
+        // file region is transferred with sendfile by native and nio transports, it closes the file when released
+        this.ctx.write(new DefaultFileRegion(file, fileResponse.position(), fileResponse.count()));
+        this.complete(this.ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT), keepAlive, response.status().code(), sink);
+    }
+
+    private void complete(ChannelFuture future, boolean keepAlive, int code, MonoSink<SendResult> sink) {
+        future.addListener(f -> {
+            if (!f.isSuccess()) {
+                this.ctx.close();
+                sink.success(new HttpServerResponseSender.ConnectionError(f.cause()));
+                return;
+            }
+            if (keepAlive) {
+                this.onSent.run();
+            } else {
+                this.ctx.close();
+            }
+            sink.success(new HttpServerResponseSender.Success(code));
+        });
+    }
+
+    private void execute(Runnable task) {
+        var executor = this.ctx.executor();
+        if (executor.inEventLoop()) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    private final class HttpResponseBodySubscriber implements Subscriber<ByteBuffer> {
+        private final HttpResponse response;
+        private final boolean keepAlive;
+        private final MonoSink<SendResult> sink;
+        private Subscription subscription;
+        private boolean committed;
+        private boolean failed;
+
+        private HttpResponseBodySubscriber(HttpResponse response, boolean keepAlive, MonoSink<SendResult> sink) {
+            this.response = response;
+            this.keepAlive = keepAlive;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            execute(() -> {
+                if (this.failed) {
+                    return;
+                }
+                this.commit();
+                ctx.writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(byteBuffer))).addListener(f -> {
+                    if (f.isSuccess()) {
+                        this.subscription.request(1);
+                    } else if (!this.failed) {
+                        this.failed = true;
+                        this.subscription.cancel();
+                        ctx.close();
+                        this.sink.success(new HttpServerResponseSender.ConnectionError(f.cause()));
+                    }
+                });
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            execute(() -> {
+                if (this.failed) {
+                    return;
+                }
+                this.failed = true;
+                if (this.committed) {
+                    ctx.close();
+                    this.sink.success(new HttpServerResponseSender.ResponseBodyError(t));
+                } else {
+                    this.sink.success(new HttpServerResponseSender.ResponseBodyErrorBeforeCommit(t));
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            execute(() -> {
+                if (this.failed) {
+                    return;
+                }
+                this.commit();
+                complete(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT), this.keepAlive, this.response.status().code(), this.sink);
+            });
+        }
+
+        private void commit() {
+            if (!this.committed) {
+                this.committed = true;
+                ctx.write(this.response);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.http.HttpObjectDecoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerExpectContinueHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.readiness.ReadinessProbe;
+import ru.tinkoff.kora.common.readiness.ReadinessProbeFailure;
+import ru.tinkoff.kora.common.util.ReactorUtils;
+import ru.tinkoff.kora.http.server.common.HttpServer;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.logging.common.arg.StructuredArgument;
+import ru.tinkoff.kora.netty.common.NettyCommonModule;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class NettyHttpServer implements HttpServer, ReadinessProbe {
+    private static final Logger log = LoggerFactory.getLogger(NettyHttpServer.class);
+
+    private final AtomicReference<HttpServerState> state = new AtomicReference<>(HttpServerState.INIT);
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final ChannelGroup connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ValueOf<HttpServerConfig> config;
+    private final ValueOf<NettyPublicApiHandler> publicApiHandler;
+    private final EventLoopGroup eventLoop;
+    private final EventLoopGroup bossEventLoop;
+    private volatile Channel channel;
+
+    public NettyHttpServer(ValueOf<HttpServerConfig> config, ValueOf<NettyPublicApiHandler> publicApiHandler, EventLoopGroup eventLoop, EventLoopGroup bossEventLoop) {
+        this.config = config;
+        this.publicApiHandler = publicApiHandler;
+        this.eventLoop = eventLoop;
+        this.bossEventLoop = bossEventLoop;
+    }
+
+    @Override
+    public Mono<Void> release() {
+        return Mono.fromRunnable(() -> this.state.set(HttpServerState.SHUTDOWN))
+            .then(Mono.delay(Duration.ofMillis(this.config.get().shutdownWait())))
+            .then(ReactorUtils.ioMono(() -> {
+                log.info("Stopping netty http server");
+                if (this.channel != null) {
+                    this.channel.close().syncUninterruptibly();
+                    this.channel = null;
+                }
+                // new connections are not accepted anymore, requests in flight are completed before connections are closed
+                while (this.activeRequests.get() > 0) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                log.debug("Graceful shutdown awaited");
+                this.connections.close().awaitUninterruptibly();
+                log.debug("Netty http server stopped");
+            }));
+    }
+
+    @Override
+    public Mono<Void> init() {
+        return Mono.create(sink -> {
+            log.info("Starting netty http server");
+            var config = this.config.get();
+            var connection = config.connection();
+            // request body chunks are not larger than the io buffer
+            var maxChunkSize = connection.bufferSize() > 0 ? connection.bufferSize() : HttpObjectDecoder.DEFAULT_MAX_CHUNK_SIZE;
+            var bootstrap = new ServerBootstrap()
+                .group(this.bossEventLoop, this.eventLoop)
+                .channel(NettyCommonModule.serverChannelType())
+                .option(ChannelOption.SO_BACKLOG, connection.backlog())
+                .childOption(ChannelOption.TCP_NODELAY, connection.tcpNoDelay())
+                // requests are read on demand, see NettyHttpServerChannelHandler
+                .childOption(ChannelOption.AUTO_READ, false)
+                .childOption(ChannelOption.ALLOCATOR, connection.directBuffers() ? PooledByteBufAllocator.DEFAULT : new PooledByteBufAllocator(false))
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        NettyHttpServer.this.connections.add(ch);
+                        var pipeline = ch.pipeline();
+                        if (connection.idleTimeout() > 0) {
+                            pipeline.addLast(new IdleStateHandler(0, 0, connection.idleTimeout(), TimeUnit.MILLISECONDS));
+                        }
+                        pipeline.addLast(new HttpServerCodec(HttpObjectDecoder.DEFAULT_MAX_INITIAL_LINE_LENGTH, HttpObjectDecoder.DEFAULT_MAX_HEADER_SIZE, maxChunkSize));
+                        pipeline.addLast(new HttpServerExpectContinueHandler());
+                        pipeline.addLast(new NettyHttpServerChannelHandler(NettyHttpServer.this.publicApiHandler.get(), NettyHttpServer.this.activeRequests));
+                    }
+                });
+            var bind = bootstrap.bind(config.publicApiHttpPort());
+            bind.addListener(future -> {
+                if (!future.isSuccess()) {
+                    sink.error(future.cause());
+                    return;
+                }
+                this.channel = bind.channel();
+                this.state.set(HttpServerState.RUN);
+                var data = StructuredArgument.marker(
+                    "port", this.port()
+                );
+                log.info(data, "Netty http server started");
+                sink.success();
+            });
+        });
+    }
+
+    @Override
+    public int port() {
+        var channel = this.channel;
+        if (channel == null) {
+            return -1;
+        }
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+
+    @Override
+    public Mono<ReadinessProbeFailure> probe() {
+        return switch (this.state.get()) {
+            case INIT -> Mono.just(new ReadinessProbeFailure("Public http server init"));
+            case RUN -> Mono.empty();
+            case SHUTDOWN -> Mono.just(new ReadinessProbeFailure("Public http server shutdown"));
+        };
+    }
+
+    private enum HttpServerState {
+        INIT, RUN, SHUTDOWN
+    }
+}
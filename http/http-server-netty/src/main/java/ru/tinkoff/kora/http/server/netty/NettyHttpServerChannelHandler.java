@@ -0,0 +1,154 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles requests of a single connection one by one.
+ * <p>
+ * Channel is read only when the connection handler waits for the next request or when the request body has demand,
+ * pipelined requests decoded with the previous one are kept until the previous response is written.
+ * Unread request body is drained after the response, so the connection can be reused.
+ */
+final class NettyHttpServerChannelHandler extends ChannelInboundHandlerAdapter {
+    private static final Logger log = LoggerFactory.getLogger(NettyHttpServerChannelHandler.class);
+
+    private final NettyPublicApiHandler publicApiHandler;
+    private final AtomicInteger activeRequests;
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+    // body of the current request until its last content is received
+    @Nullable
+    private NettyRequestBody body;
+    private boolean inFlight;
+
+    NettyHttpServerChannelHandler(NettyPublicApiHandler publicApiHandler, AtomicInteger activeRequests) {
+        this.publicApiHandler = publicApiHandler;
+        this.activeRequests = activeRequests;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        ctx.read();
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!this.pending.isEmpty() || this.inFlight && msg instanceof HttpRequest) {
+            this.pending.add(msg);
+            return;
+        }
+        this.handle(ctx, msg);
+        this.readIfIdle(ctx);
+    }
+
+    private void handle(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof HttpRequest request) {
+            if (request.decoderResult().isFailure()) {
+                ReferenceCountUtil.release(msg);
+                var response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.BAD_REQUEST, Unpooled.EMPTY_BUFFER);
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+                response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+                // nothing is read anymore, counter is decremented when the channel is closed
+                this.inFlight = true;
+                this.activeRequests.incrementAndGet();
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+                return;
+            }
+            var body = this.publicApiHandler.requestBody(ctx);
+            this.inFlight = true;
+            this.body = msg instanceof LastHttpContent ? null : body;
+            this.activeRequests.incrementAndGet();
+            if (msg instanceof HttpContent content) {
+                body.onContent(content);
+            }
+            this.publicApiHandler.handleRequest(ctx, request, body, () -> this.responseSent(ctx));
+        } else if (msg instanceof HttpContent content && this.body != null) {
+            var body = this.body;
+            if (content instanceof LastHttpContent) {
+                this.body = null;
+            }
+            body.onContent(content);
+        } else {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    private void responseSent(ChannelHandlerContext ctx) {
+        this.inFlight = false;
+        this.activeRequests.decrementAndGet();
+        if (this.body != null) {
+            this.body.discard();
+        }
+        while (!this.pending.isEmpty()) {
+            if (this.pending.peek() instanceof HttpRequest && (this.inFlight || this.body != null)) {
+                break;
+            }
+            this.handle(ctx, this.pending.poll());
+        }
+        this.readIfIdle(ctx);
+    }
+
+    /**
+     * Requests body reads itself when it has demand, other reads are issued here
+     */
+    private void readIfIdle(ChannelHandlerContext ctx) {
+        if (this.body != null) {
+            if (this.body.isDiscarded()) {
+                ctx.read();
+            }
+        } else if (!this.inFlight && this.pending.isEmpty()) {
+            ctx.read();
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        if (this.body != null) {
+            this.body.onError(new ClosedChannelException());
+            this.body = null;
+        }
+        if (this.inFlight) {
+            this.inFlight = false;
+            this.activeRequests.decrementAndGet();
+        }
+        for (var msg = this.pending.poll(); msg != null; msg = this.pending.poll()) {
+            ReferenceCountUtil.release(msg);
+        }
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+        if (evt instanceof IdleStateEvent) {
+            ctx.close();
+            return;
+        }
+        ctx.fireUserEventTriggered(evt);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.debug("Http connection error", cause);
+        ctx.close();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.channel.EventLoopGroup;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.LifecycleWrapper;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.application.graph.Wrapped;
+import ru.tinkoff.kora.common.Tag;
+import ru.tinkoff.kora.common.util.VirtualThreadExecutor;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.HttpServerModule;
+import ru.tinkoff.kora.http.server.common.PrivateApiHandler;
+import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
+import ru.tinkoff.kora.netty.common.NettyCommonModule;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Http server on the netty event loops shared with the other netty based modules, alternative to {@code UndertowHttpServerModule}
+ */
+public interface NettyHttpServerModule extends HttpServerModule, NettyCommonModule {
+    default NettyPublicApiHandler nettyPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer, HttpServerConfig config) {
+        return new NettyPublicApiHandler(publicApiHandler, tracer, config.pooledRequestBody());
+    }
+
+    default NettyHttpServer nettyHttpServer(ValueOf<HttpServerConfig> config, ValueOf<NettyPublicApiHandler> handler, EventLoopGroup eventLoop, @Tag(NettyCommonModule.BossLoopGroup.class) EventLoopGroup bossEventLoop) {
+        return new NettyHttpServer(config, handler, eventLoop, bossEventLoop);
+    }
+
+    default NettyPrivateApiHandler nettyPrivateApiHandler(PrivateApiHandler privateApiHandler) {
+        return new NettyPrivateApiHandler(privateApiHandler);
+    }
+
+    default NettyPrivateHttpServer nettyPrivateHttpServer(ValueOf<HttpServerConfig> config, ValueOf<NettyPrivateApiHandler> handler, EventLoopGroup eventLoop, @Tag(NettyCommonModule.BossLoopGroup.class) EventLoopGroup bossEventLoop) {
+        return new NettyPrivateHttpServer(config, handler, eventLoop, bossEventLoop);
+    }
+
+    default Wrapped<BlockingRequestExecutor> nettyBlockingRequestExecutor(HttpServerConfig config) {
+        final ExecutorService executor;
+        if (config.virtualThreads() && VirtualThreadExecutor.isSupported()) {
+            executor = VirtualThreadExecutor.create("kora-netty-virtual-", config.virtualThreadsConcurrency());
+        } else {
+            if (config.virtualThreads()) {
+                LoggerFactory.getLogger(NettyHttpServerModule.class).warn("Virtual threads are not supported by the current runtime {}, blocking requests are executed on the worker threads", Runtime.version());
+            }
+            var counter = new AtomicInteger();
+            var pool = new ThreadPoolExecutor(config.blockingThreads(), config.blockingThreads(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                var thread = new Thread(r, "kora-netty-blocking-" + counter.incrementAndGet());
+                thread.setDaemon(false);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        // blocking handlers must not run on the event loop, it would stop io of all the connections of the loop
+        return new LifecycleWrapper<>(new BlockingRequestExecutor.Default(executor), v -> Mono.empty(), v -> Mono.fromCallable(() -> {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            return null;
+        }));
+    }
+}
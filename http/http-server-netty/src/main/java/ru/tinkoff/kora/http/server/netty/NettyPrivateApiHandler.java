@@ -0,0 +1,62 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.PrivateApiHandler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+@ChannelHandler.Sharable
+public class NettyPrivateApiHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+    private final PrivateApiHandler privateApiHandler;
+
+    public NettyPrivateApiHandler(PrivateApiHandler privateApiHandler) {
+        this.privateApiHandler = privateApiHandler;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        var keepAlive = HttpUtil.isKeepAlive(request);
+        Mono.from(this.privateApiHandler.handle(request.uri(), new NettyHttpHeaders(request.headers())))
+            .subscribe(response -> Flux.from(response.body())
+                .collectList()
+                .subscribe(
+                    body -> send(ctx, keepAlive, response.code(), response.contentType(), response.headers(), Unpooled.wrappedBuffer(body.toArray(ByteBuffer[]::new))),
+                    error -> sendError(ctx, keepAlive, error)
+                ), error -> sendError(ctx, keepAlive, error));
+    }
+
+    private static void sendError(ChannelHandlerContext ctx, boolean keepAlive, Throwable error) {
+        var message = Objects.requireNonNullElse(error.getMessage(), "Unknown error");
+        send(ctx, keepAlive, 500, "text/plain; charset=utf-8", HttpHeaders.of(), Unpooled.copiedBuffer(message, StandardCharsets.UTF_8));
+    }
+
+    private static void send(ChannelHandlerContext ctx, boolean keepAlive, int code, String contentType, HttpHeaders headers, ByteBuf body) {
+        var response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(code), body);
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        for (var header : headers) {
+            response.headers().add(header.getKey(), header.getValue());
+        }
+        HttpUtil.setContentLength(response, body.readableBytes());
+        HttpUtil.setKeepAlive(response, keepAlive);
+        var future = ctx.writeAndFlush(response);
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.common.util.ReactorUtils;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.PrivateHttpServer;
+import ru.tinkoff.kora.logging.common.arg.StructuredArgument;
+import ru.tinkoff.kora.netty.common.NettyCommonModule;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+public class NettyPrivateHttpServer implements PrivateHttpServer {
+    private static final Logger log = LoggerFactory.getLogger(NettyPrivateHttpServer.class);
+    // private api requests are probes and metrics scrapes, they have no body
+    private static final int MAX_CONTENT_LENGTH = 64 * 1024;
+
+    private final ValueOf<HttpServerConfig> config;
+    private final ValueOf<NettyPrivateApiHandler> privateApiHandler;
+    private final EventLoopGroup eventLoop;
+    private final EventLoopGroup bossEventLoop;
+    private volatile Channel channel;
+
+    public NettyPrivateHttpServer(ValueOf<HttpServerConfig> config, ValueOf<NettyPrivateApiHandler> privateApiHandler, EventLoopGroup eventLoop, EventLoopGroup bossEventLoop) {
+        this.config = config;
+        this.privateApiHandler = privateApiHandler;
+        this.eventLoop = eventLoop;
+        this.bossEventLoop = bossEventLoop;
+    }
+
+    @Override
+    public Mono<Void> release() {
+        return Mono.delay(Duration.ofMillis(this.config.get().shutdownWait()))
+            .then(ReactorUtils.ioMono(() -> {
+                log.info("Stopping netty private api");
+                if (this.channel != null) {
+                    this.channel.close().syncUninterruptibly();
+                    this.channel = null;
+                }
+                log.debug("Netty private api stopped");
+            }));
+    }
+
+    @Override
+    public Mono<Void> init() {
+        return Mono.create(sink -> {
+            log.info("Starting netty private api");
+            var bootstrap = new ServerBootstrap()
+                .group(this.bossEventLoop, this.eventLoop)
+                .channel(NettyCommonModule.serverChannelType())
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline()
+                            .addLast(new HttpServerCodec())
+                            .addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH))
+                            .addLast(NettyPrivateHttpServer.this.privateApiHandler.get());
+                    }
+                });
+            var bind = bootstrap.bind(this.config.get().privateApiHttpPort());
+            bind.addListener(future -> {
+                if (!future.isSuccess()) {
+                    sink.error(future.cause());
+                    return;
+                }
+                this.channel = bind.channel();
+                var data = StructuredArgument.marker(
+                    "port", this.port()
+                );
+                log.info(data, "Private api netty started");
+                sink.success();
+            });
+        });
+    }
+
+    @Override
+    public int port() {
+        var channel = this.channel;
+        if (channel == null) {
+            return -1;
+        }
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
+
+import javax.annotation.Nullable;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+public final class NettyPublicApiHandler {
+    private final PublicApiHandler publicApiHandler;
+    @Nullable
+    private final HttpServerTracer tracer;
+    private final boolean pooledRequestBody;
+
+    public NettyPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer) {
+        this(publicApiHandler, tracer, HttpServerConfig.DEFAULT_POOLED_REQUEST_BODY);
+    }
+
+    public NettyPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer, boolean pooledRequestBody) {
+        this.publicApiHandler = publicApiHandler;
+        this.tracer = tracer;
+        this.pooledRequestBody = pooledRequestBody;
+    }
+
+    public int handlersSize() {
+        return this.publicApiHandler.handlersSize();
+    }
+
+    NettyRequestBody requestBody(ChannelHandlerContext ctx) {
+        return new NettyRequestBody(ctx, this.pooledRequestBody);
+    }
+
+    void handleRequest(ChannelHandlerContext ctx, HttpRequest request, NettyRequestBody body, Runnable onSent) {
+        var receivedAt = System.nanoTime();
+        var method = request.method().name();
+        var decoder = new QueryStringDecoder(request.uri());
+        var path = decoder.path();
+        var host = hostName(ctx, request);
+        var protocol = request.protocolVersion().text();
+        var headers = new NettyHttpHeaders(request.headers());
+        var queryParams = decoder.parameters();
+        var responseSender = new NettyHttpResponseSender(ctx, HttpUtil.isKeepAlive(request), this.tracer, onSent);
+
+        try {
+            var routerRequest = new PublicApiHandler.PublicApiRequest(method, path, host, "http", headers, queryParams, Flux.from(body), protocol, receivedAt);
+            this.publicApiHandler.process(routerRequest, responseSender);
+        } catch (Throwable exception) {
+            var message = Objects.requireNonNullElse(exception.getMessage(), "Unknown error");
+            responseSender.send(new SimpleHttpServerResponse(500, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(message))).subscribe();
+        } finally {
+            Context.clear();
+        }
+    }
+
+    private static String hostName(ChannelHandlerContext ctx, HttpRequest request) {
+        var host = request.headers().get(HttpHeaderNames.HOST);
+        if (host == null || host.isEmpty()) {
+            return ((InetSocketAddress) ctx.channel().localAddress()).getHostString();
+        }
+        if (host.charAt(0) == '[') {
+            var end = host.indexOf(']');
+            return end > 0 ? host.substring(0, end + 1) : host;
+        }
+        var colon = host.indexOf(':');
+        return colon > 0 ? host.substring(0, colon) : host;
+    }
+}
@@ -0,0 +1,188 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Operators;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Request body that reads the channel only when the subscriber has demand, so the socket receive buffer works as the backpressure.
+ * <p>
+ * Pooled body passes the subscriber the memory of the pooled netty buffers without copying,
+ * buffer is valid until the next {@link Subscription#request} call or until the body is completed, the subscriber should copy the data it keeps.
+ * Otherwise each chunk is copied to the heap buffer owned by the subscriber.
+ * <p>
+ * All the state is accessed on the channel event loop only, signals from the other threads are dispatched to it.
+ */
+final class NettyRequestBody implements Publisher<ByteBuffer>, Subscription {
+    private final ChannelHandlerContext ctx;
+    private final boolean pooled;
+    private final ArrayDeque<ByteBuf> received = new ArrayDeque<>();
+    private final ArrayDeque<ByteBuf> emitted = new ArrayDeque<>();
+    @Nullable
+    private Subscriber<? super ByteBuffer> subscriber;
+    @Nullable
+    private Throwable error;
+    private long demand;
+    private boolean last;
+    private boolean done;
+    private boolean draining;
+
+    NettyRequestBody(ChannelHandlerContext ctx, boolean pooled) {
+        this.ctx = ctx;
+        this.pooled = pooled;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> s) {
+        this.execute(() -> {
+            if (this.subscriber != null) {
+                Operators.error(s, new IllegalStateException("Request body can be subscribed only once"));
+                return;
+            }
+            if (this.done) {
+                Operators.error(s, new IllegalStateException("Request body is discarded after the response"));
+                return;
+            }
+            this.subscriber = s;
+            s.onSubscribe(this);
+            this.drain();
+        });
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            this.execute(() -> this.fail(new IllegalArgumentException("Request body demand should be positive: " + n)));
+            return;
+        }
+        this.execute(() -> {
+            // buffers passed to the subscriber are valid until it requests more of them
+            this.releaseEmitted();
+            this.demand = Operators.addCap(this.demand, n);
+            this.drain();
+        });
+    }
+
+    @Override
+    public void cancel() {
+        this.execute(this::discard);
+    }
+
+    /**
+     * Takes ownership of the content buffer
+     */
+    void onContent(HttpContent content) {
+        var buf = content.content();
+        if (this.done || !buf.isReadable()) {
+            content.release();
+        } else {
+            this.received.add(buf);
+        }
+        if (content instanceof LastHttpContent) {
+            this.last = true;
+        }
+        this.drain();
+    }
+
+    void onError(Throwable error) {
+        this.error = error;
+        this.drain();
+    }
+
+    /**
+     * Drops received and not yet received content, called when the response is sent before the body is read
+     */
+    void discard() {
+        this.done = true;
+        this.releaseEmitted();
+        this.releaseReceived();
+    }
+
+    boolean isDiscarded() {
+        return this.done;
+    }
+
+    private void fail(Throwable error) {
+        if (this.done) {
+            return;
+        }
+        this.discard();
+        if (this.subscriber != null) {
+            this.subscriber.onError(error);
+        }
+    }
+
+    private void drain() {
+        if (this.draining) {
+            return;
+        }
+        this.draining = true;
+        try {
+            var subscriber = this.subscriber;
+            if (subscriber == null || this.done) {
+                return;
+            }
+            while (this.demand > 0 && !this.received.isEmpty() && !this.done) {
+                var buf = this.received.poll();
+                this.demand--;
+                final ByteBuffer data;
+                if (this.pooled) {
+                    this.emitted.add(buf);
+                    data = buf.nioBuffer();
+                } else {
+                    data = ByteBuffer.allocate(buf.readableBytes());
+                    buf.readBytes(data);
+                    buf.release();
+                    data.flip();
+                }
+                subscriber.onNext(data);
+            }
+            if (this.done || !this.received.isEmpty()) {
+                return;
+            }
+            if (this.error != null) {
+                this.done = true;
+                subscriber.onError(this.error);
+                this.releaseEmitted();
+            } else if (this.last) {
+                this.done = true;
+                subscriber.onComplete();
+                this.releaseEmitted();
+            } else if (this.demand > 0) {
+                this.ctx.read();
+            }
+        } finally {
+            this.draining = false;
+        }
+    }
+
+    private void releaseEmitted() {
+        for (var buf = this.emitted.poll(); buf != null; buf = this.emitted.poll()) {
+            buf.release();
+        }
+    }
+
+    private void releaseReceived() {
+        for (var buf = this.received.poll(); buf != null; buf = this.received.poll()) {
+            buf.release();
+        }
+    }
+
+    private void execute(Runnable task) {
+        var executor = this.ctx.executor();
+        if (executor.inEventLoop()) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.tinkoff.kora.http.server.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterAll;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.http.server.common.*;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+
+class NettyHttpServerTest extends HttpServerTestKit {
+    private static final EventLoopGroup bossEventLoop = new NioEventLoopGroup(1);
+    private static final EventLoopGroup eventLoop = new NioEventLoopGroup(2);
+
+    @AfterAll
+    static void shutdownEventLoops() {
+        bossEventLoop.shutdownGracefully().syncUninterruptibly();
+        eventLoop.shutdownGracefully().syncUninterruptibly();
+    }
+
+    @Override
+    protected HttpServer httpServer(ValueOf<HttpServerConfig> config, PublicApiHandler publicApiHandler) {
+        return new NettyHttpServer(
+            config,
+            valueOf(new NettyPublicApiHandler(publicApiHandler, null)),
+            eventLoop,
+            bossEventLoop
+        );
+    }
+
+    @Override
+    protected PrivateHttpServer privateHttpServer(ValueOf<HttpServerConfig> config, PrivateApiHandler privateApiHandler) {
+        return new NettyPrivateHttpServer(config, valueOf(new NettyPrivateApiHandler(privateApiHandler)), eventLoop, bossEventLoop);
+    }
+}
@@ -14,11 +14,18 @@ import ru.tinkoff.kora.http.common.annotation.HttpRoute
 import ru.tinkoff.kora.http.common.annotation.Path
 import ru.tinkoff.kora.http.common.annotation.Query
 import ru.tinkoff.kora.http.server.common.HttpServerRequestHandler
+import ru.tinkoff.kora.http.server.common.HttpServerResponseCacheInterceptor
+import ru.tinkoff.kora.http.server.common.annotation.HttpBlockingExecutor
+import ru.tinkoff.kora.http.server.common.annotation.HttpResponseCache
 import ru.tinkoff.kora.http.server.common.handler.*
 import ru.tinkoff.kora.ksp.common.KotlinPoetUtils.controlFlow
 import ru.tinkoff.kora.ksp.common.KspCommonUtils.findRepeatableAnnotation
+import ru.tinkoff.kora.ksp.common.makeTagAnnotationSpec
+import ru.tinkoff.kora.ksp.common.parseAnnotationClassValue
 import ru.tinkoff.kora.ksp.common.parseAnnotationValue
 import ru.tinkoff.kora.ksp.common.parseMappingData
+import java.time.Duration
+import java.time.temporal.ChronoUnit
 
 
 @OptIn(KspExperimental::class)
@@ -38,7 +45,7 @@ class RouteProcessor(private val resolver: Resolver) {
     private val httpHeaders = ClassName("ru.tinkoff.kora.http.common", "HttpHeaders")
 
 
-    data class RequestMappingData(val method: String, val pathTemplate: String)
+    data class RequestMappingData(val method: String, val pathTemplate: String, val maxRequestBodySize: Long)
 
     @OptIn(KspExperimental::class)
     internal fun buildHttpRouteFunction(declaration: KSClassDeclaration, rootPath: String, function: KSFunctionDeclaration): FunSpec.Builder {
@@ -53,7 +60,14 @@ class RouteProcessor(private val resolver: Resolver) {
             .flatMap { it }
             .map { parseInterceptor(it) }
             .distinct()
-            .toList()
+            .toMutableList()
+        function.getAnnotationsByType(HttpResponseCache::class).firstOrNull()?.let {
+            // innermost, so the cached response is produced after all the other interceptors let the request through
+            val initializer = CodeBlock.of(
+                "%T(%LL, %T.of(%LL, %T.%L))", HttpServerResponseCacheInterceptor::class, it.maxBytes, Duration::class, it.ttl, ChronoUnit::class, it.unit.name
+            )
+            interceptors.add(Interceptor(HttpServerResponseCacheInterceptor::class.asClassName(), null, initializer))
+        }
 
         val mapperClassName = HttpServerResponseMapper::class.asClassName().parameterizedBy(function.returnType!!.toTypeName())
         val funBuilder = FunSpec.builder(funName)
@@ -78,14 +92,30 @@ class RouteProcessor(private val resolver: Resolver) {
         }
 
 
+        for (i in interceptors.indices) {
+            val initializer = interceptors[i].initializer
+            if (initializer != null) {
+                funBuilder.addStatement("val %L = %L", "_interceptor" + (i + 1), initializer)
+            }
+        }
+
         val isSuspend = function.modifiers.contains(Modifier.SUSPEND)
         val isBlocking = !isSuspend
-        funBuilder.controlFlow(
-            "return %T.%L(%S) { _request ->",
-            HttpServerRequestHandlerImpl::class,
-            requestMappingData.method.lowercase(),
-            requestMappingData.pathTemplate,
-        ) {
+        val (handlerFormat, handlerArgs) = if (requestMappingData.maxRequestBodySize >= 0) {
+            "return %T(%S, %S, %LL) { _request ->" to arrayOf<Any>(
+                HttpServerRequestHandlerImpl::class,
+                requestMappingData.method,
+                requestMappingData.pathTemplate,
+                requestMappingData.maxRequestBodySize,
+            )
+        } else {
+            "return %T.%L(%S) { _request ->" to arrayOf<Any>(
+                HttpServerRequestHandlerImpl::class,
+                requestMappingData.method.lowercase(),
+                requestMappingData.pathTemplate,
+            )
+        }
+        funBuilder.controlFlow(handlerFormat, *handlerArgs) {
             var requestName = "_request"
             for (i in interceptors.indices) {
                 val interceptor = interceptors[i]
@@ -93,6 +123,9 @@ class RouteProcessor(private val resolver: Resolver) {
                 val newRequestName = "_request" + (i + 1)
                 funBuilder.beginControlFlow("%L.intercept(%L) { %L ->", interceptorName, requestName, newRequestName)
                 requestName = newRequestName
+                if (interceptor.initializer != null) {
+                    continue
+                }
                 val builder = ParameterSpec.builder(interceptorName, interceptor.type)
                 if (interceptor.tag != null) {
                     builder.addAnnotation(interceptor.tag)
@@ -102,7 +135,13 @@ class RouteProcessor(private val resolver: Resolver) {
             funBuilder.controlFlow(" %M(%T.Unconfined + %T.Kotlin.asCoroutineContext(%T.current())) { ", monoMemberName, dispatchersClassName, Context::class, Context::class) {
                 val params = generateFunctionParameters(requestName, function, funBuilder)
                 if (isBlocking) {
-                    funBuilder.addParameter("_executor", BlockingRequestExecutor::class)
+                    val executor = ParameterSpec.builder("_executor", BlockingRequestExecutor::class)
+                    val executorTag = parseAnnotationClassValue(function, HttpBlockingExecutor::class.qualifiedName!!)
+                        .ifEmpty { parseAnnotationClassValue(declaration, HttpBlockingExecutor::class.qualifiedName!!) }
+                    if (executorTag.isNotEmpty()) {
+                        executor.addAnnotation(executorTag.makeTagAnnotationSpec())
+                    }
+                    funBuilder.addParameter(executor.build())
                     funBuilder.addStatement(
                         "val response = _executor.execute{ _controller.%L(%L)}.%M()",
                         function.simpleName.asString(),
@@ -171,7 +210,7 @@ class RouteProcessor(private val resolver: Resolver) {
     @OptIn(KspExperimental::class)
     private fun extractRequestMappingData(rootPath: String, declaration: KSFunctionDeclaration): RequestMappingData {
         val httpRoute = declaration.getAnnotationsByType(HttpRoute::class).first()
-        return RequestMappingData(httpRoute.method, "$rootPath${httpRoute.path}")
+        return RequestMappingData(httpRoute.method, "$rootPath${httpRoute.path}", httpRoute.maxRequestBodySize)
     }
 
     private fun funName(requestMappingData: RequestMappingData): String {
@@ -481,7 +520,10 @@ class RouteProcessor(private val resolver: Resolver) {
         }
     }
 
-    data class Interceptor(val type: TypeName, val tag: AnnotationSpec?)
+    /**
+     * @param initializer code that creates the interceptor in place, interceptor is requested from the graph when null
+     */
+    data class Interceptor(val type: TypeName, val tag: AnnotationSpec?, val initializer: CodeBlock? = null)
 
     private fun parseInterceptor(it: KSAnnotation): Interceptor {
         val interceptorType = parseAnnotationValue<KSType>(it, "value")!!.toTypeName()
@@ -43,7 +43,7 @@ public class Mappers {
         }
         var parameter = (ParameterizedType) type;
         if (parameter.getRawType() instanceof Class<?> clazz && HttpServerResponseEntityMapper.class.isAssignableFrom(clazz)) {
-            return Tuples.of(HttpServerResponseEntityMapper.class, new HttpServerResponseEntityMapper<>(lookupResponseMapper(parameter)));
+            return Tuples.of(HttpServerResponseEntityMapper.class, HttpServerResponseEntityMapper.of(lookupResponseMapper(parameter)));
         }
         if (parameter.getRawType() instanceof Class clazz && HttpServerRequestMapper.class.isAssignableFrom(clazz)) {
             return Tuples.of(HttpServerRequestMapper.class, lookupRequestMapper(parameter));
@@ -122,7 +122,7 @@ public class Mappers {
             return jsonResponseMapper(TypeRef.of(SomeEntity.class));
         }
         if (responseType.equals(TypeRef.of(HttpServerResponseEntity.class, TypeRef.of(String.class)))) {
-            return new HttpServerResponseEntityMapper<>(stringResponseMapper());
+            return HttpServerResponseEntityMapper.of(stringResponseMapper());
         }
 
         throw new RuntimeException("Unknown test response mapper: " + responseType);
@@ -41,7 +41,7 @@ object Mappers {
         val parameter = type as ParameterizedType
         val rawType = parameter.rawType
         if (rawType is Class<*> && HttpServerResponseEntityMapper::class.java.isAssignableFrom(rawType)) {
-            return Tuples.of(HttpServerResponseEntityMapper::class.java, HttpServerResponseEntityMapper(lookupResponseMapper(parameter)))
+            return Tuples.of(HttpServerResponseEntityMapper::class.java, HttpServerResponseEntityMapper.of(lookupResponseMapper(parameter)))
         }
         if (rawType is Class<*> && rawType.isAssignableFrom(HttpServerRequestMapper::class.java)) {
             return Tuples.of(HttpServerRequestMapper::class.java, lookupRequestMapper(parameter))
@@ -129,7 +129,7 @@ object Mappers {
                 )
             )
         ) {
-            return HttpServerResponseEntityMapper(stringResponseMapper())
+            return HttpServerResponseEntityMapper.of(stringResponseMapper())
         }
         if (responseType == TypeRef.of(
                 HttpServerResponseEntity::class.java, TypeRef.of(
@@ -137,7 +137,7 @@ object Mappers {
                 )
             )
         ) {
-            return HttpServerResponseEntityMapper(stringResponseMapper())
+            return HttpServerResponseEntityMapper.of(stringResponseMapper())
         }
         throw RuntimeException("Unknown test response mapper: $responseType")
     }
@@ -0,0 +1,96 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.DefaultHttpServerTelemetry;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares request body sources of the undertow adapter. Run with {@code -prof gc} to see allocation rate per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Measurement(time = 5, iterations = 5)
+@Warmup(time = 5, iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class RequestBodyBenchmark {
+    @Param({"false", "true"})
+    boolean pooledRequestBody;
+
+    @Param({"16384", "1048576", "16777216"})
+    int bodySize;
+
+    UndertowHttpServer server;
+    HttpClient client;
+    HttpRequest request;
+
+    @Setup
+    public void setup() {
+        var config = new HttpServerConfig(0, 0, HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_READINESS_PATH, HttpServerConfig.DEFAULT_PRIVATE_API_LIVENESS_PATH, 2, 16, 0, this.pooledRequestBody, false, 0,
+            HttpServerConfig.DEFAULT_PRIVATE_API_METRICS_SCRAPE_INTERVAL,
+            new HttpServerConfig.ConnectionConfig(null, null, null, null, null),
+            new HttpServerConfig.LimitsConfig(null, null, null),
+            new HttpServerConfig.LoadSheddingConfig(null, null, null, null, null, null),
+            new HttpServerConfig.TelemetryConfig(null, null, null, null),
+            new HttpServerConfig.MultipartConfig(null, null),
+            new HttpServerConfig.ProbesConfig(null, null, null, null));
+        var handler = HttpServerRequestHandlerImpl.post("/body", request -> request.body()
+            .reduce(0L, (size, buf) -> size + buf.remaining())
+            .map(size -> (HttpServerResponse) new SimpleHttpServerResponse(200, "text/plain", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode(size.toString()))));
+        var publicApiHandler = new PublicApiHandler(All.of(valueOf(handler)), All.of(), valueOf(new DefaultHttpServerTelemetry(null, null, null)));
+        this.server = new UndertowHttpServer(valueOf(config), valueOf(new UndertowPublicApiHandler(publicApiHandler, null, this.pooledRequestBody)), null);
+        this.server.init().block();
+
+        var body = new byte[this.bodySize];
+        ThreadLocalRandom.current().nextBytes(body);
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.server.port() + "/body"))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.server.release().block();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String upload() throws Exception {
+        var response = this.client.send(this.request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static <T> ValueOf<T> valueOf(T object) {
+        return new ValueOf<>() {
+            @Override
+            public T get() {
+                return object;
+            }
+
+            @Override
+            public Mono<Void> refresh() {
+                return Mono.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.server.DefaultByteBufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DefaultByteBufferPool} that counts buffers in use.
+ * <p>
+ * Pool is unbounded and keeps every released buffer, so it grows up to the peak of buffers in use:
+ * every time the number of buffers in use exceeds the previous peak the pool is considered exhausted, because a new buffer was allocated.
+ */
+final class UndertowByteBufferPool implements ByteBufferPool {
+    private final ByteBufferPool delegate;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder exhausted = new LongAdder();
+
+    UndertowByteBufferPool(int bufferSize, boolean direct) {
+        this.delegate = new DefaultByteBufferPool(direct, bufferSize > 0 ? bufferSize : defaultBufferSize(), -1, 4);
+    }
+
+    /**
+     * Same as undertow chooses when buffer size is not set
+     */
+    private static int defaultBufferSize() {
+        var maxMemory = Runtime.getRuntime().maxMemory();
+        if (maxMemory < 64 * 1024 * 1024) {
+            return 512;
+        } else if (maxMemory < 128 * 1024 * 1024) {
+            return 1024;
+        } else {
+            return 1024 * 16 - 20;
+        }
+    }
+
+    int inUse() {
+        return this.inUse.get();
+    }
+
+    long exhausted() {
+        return this.exhausted.sum();
+    }
+
+    @Override
+    public PooledByteBuffer allocate() {
+        var buffer = this.delegate.allocate();
+        var inUse = this.inUse.incrementAndGet();
+        var peak = this.peak.get();
+        if (inUse > peak && this.peak.compareAndSet(peak, inUse)) {
+            this.exhausted.increment();
+        }
+        return new CountedPooledByteBuffer(buffer);
+    }
+
+    @Override
+    public ByteBufferPool getArrayBackedPool() {
+        return this.delegate.getArrayBackedPool();
+    }
+
+    @Override
+    public void close() {
+        this.delegate.close();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return this.delegate.getBufferSize();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return this.delegate.isDirect();
+    }
+
+    private static final AtomicIntegerFieldUpdater<CountedPooledByteBuffer> RELEASED = AtomicIntegerFieldUpdater.newUpdater(CountedPooledByteBuffer.class, "released");
+
+    private final class CountedPooledByteBuffer implements PooledByteBuffer {
+        private final PooledByteBuffer delegate;
+        volatile int released = 0;
+
+        private CountedPooledByteBuffer(PooledByteBuffer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ByteBuffer getBuffer() {
+            return this.delegate.getBuffer();
+        }
+
+        @Override
+        public void close() {
+            if (RELEASED.compareAndSet(this, 0, 1)) {
+                inUse.decrementAndGet();
+                this.delegate.close();
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.delegate.isOpen();
+        }
+    }
+}
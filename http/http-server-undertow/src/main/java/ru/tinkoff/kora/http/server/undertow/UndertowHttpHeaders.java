@@ -5,6 +5,7 @@ import ru.tinkoff.kora.http.common.HttpHeaders;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +29,7 @@ public class UndertowHttpHeaders implements HttpHeaders {
         if (headers == null) {
             return null;
         }
-        return List.copyOf(headers);
+        return Collections.unmodifiableList(headers);
     }
 
     @Override
@@ -54,7 +55,7 @@ public class UndertowHttpHeaders implements HttpHeaders {
             @Override
             public Map.Entry<String, List<String>> next() {
                 var next = i.next();
-                return Map.entry(next.getHeaderName().toString(), next);
+                return Map.entry(next.getHeaderName().toString(), Collections.unmodifiableList(next));
             }
         };
     }
@@ -8,10 +8,14 @@ import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
+import org.xnio.ChannelListener;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSinkChannel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.http.server.common.FileHttpServerResponse;
 import ru.tinkoff.kora.http.server.common.HttpServerResponse;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseSender;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
@@ -19,6 +23,8 @@ import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,10 +32,17 @@ public class UndertowHttpResponseSender implements HttpServerResponseSender {
     private final HttpServerExchange exchange;
     @Nullable
     private final HttpServerTracer tracer;
+    @Nullable
+    private final UndertowResponseCompression compression;
 
     public UndertowHttpResponseSender(HttpServerExchange exchange, @Nullable HttpServerTracer tracer) {
+        this(exchange, tracer, null);
+    }
+
+    public UndertowHttpResponseSender(HttpServerExchange exchange, @Nullable HttpServerTracer tracer, @Nullable UndertowResponseCompression compression) {
         this.exchange = exchange;
         this.tracer = tracer;
+        this.compression = compression;
     }
 
     @Override
@@ -44,9 +57,6 @@ public class UndertowHttpResponseSender implements HttpServerResponseSender {
             (carrier, key, value) -> carrier.add(HttpString.tryFromString(key), value)
         );
 
-        if (contentLength >= 0) {
-            this.exchange.setResponseContentLength(contentLength);
-        }
         this.exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType);
         this.exchange.getResponseHeaders().put(Headers.SERVER, "kora/undertow");
         for (var header : headers) {
@@ -63,20 +73,64 @@ public class UndertowHttpResponseSender implements HttpServerResponseSender {
             if (key.equals("transfer-encoding")) {
                 continue;
             }
+            if (key.equals("connection") && header.getValue().contains("close")) {
+                // undertow closes connection after the response instead of draining unread request body
+                this.exchange.setPersistent(false);
+            }
             this.exchange.getResponseHeaders().addAll(HttpString.tryFromString(key), header.getValue());
         }
+        if (httpResponse instanceof FileHttpServerResponse fileResponse) {
+            // file regions are never compressed, so they can be sent with sendfile
+            return this.sendFile(fileResponse);
+        }
+        var encoding = this.compression == null
+            ? null
+            : this.compression.encoding(this.exchange, httpResponse.code(), contentType, contentLength);
         if (httpResponse.body() instanceof Callable<?> callable) {
-            final ByteBuffer body;
+            ByteBuffer body;
             try {
                 body = (ByteBuffer) callable.call();
             } catch (Exception e) {
                 return Mono.just(new HttpServerResponseSender.ResponseBodyErrorBeforeCommit(e));
             }
+            if (encoding != null && body != null && body.remaining() >= this.compression.minSize()) {
+                var compressed = this.compression.compress(body.duplicate(), encoding);
+                if (compressed != null) {
+                    this.exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, encoding);
+                    body = compressed;
+                }
+            }
             return this.sendBody(body);
         }
+        if (encoding != null) {
+            this.exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, encoding);
+            return this.sendBody(this.compression.compress(httpResponse.body(), encoding));
+        }
+        if (contentLength >= 0) {
+            this.exchange.setResponseContentLength(contentLength);
+        }
         return this.sendBody(httpResponse.body());
     }
 
+    private Mono<SendResult> sendFile(FileHttpServerResponse response) {
+        return Mono.create(sink -> {
+            final FileChannel file;
+            try {
+                file = response.open();
+            } catch (IOException e) {
+                sink.success(new HttpServerResponseSender.ResponseBodyErrorBeforeCommit(e));
+                return;
+            }
+            this.exchange.setResponseContentLength(response.count());
+            // connection may be aborted while the transfer waits for the channel to become writable, file is closed with the exchange then
+            this.exchange.addExchangeCompleteListener((exchange, nextListener) -> {
+                IoUtils.safeClose(file);
+                nextListener.proceed();
+            });
+            new FileTransfer(this.exchange, file, response.position(), response.count(), sink).handleEvent(this.exchange.getResponseChannel());
+        });
+    }
+
     private Mono<SendResult> sendBody(Flux<? extends ByteBuffer> body) {
         return Mono.create(sink -> body.subscribe(new HttpResponseBodySubscriber(this.exchange, sink)));
     }
@@ -112,6 +166,64 @@ public class UndertowHttpResponseSender implements HttpServerResponseSender {
         }
     }
 
+    /**
+     * Transfers file region to the response channel, {@link StreamSinkChannel#transferFrom} uses sendfile when connection conduits allow it
+     */
+    private static final class FileTransfer implements ChannelListener<StreamSinkChannel> {
+        private final HttpServerExchange exchange;
+        private final FileChannel file;
+        private final MonoSink<HttpServerResponseSender.SendResult> sink;
+        private final ChannelListener<StreamSinkChannel> onClose;
+        private long position;
+        private long remaining;
+
+        private FileTransfer(HttpServerExchange exchange, FileChannel file, long position, long count, MonoSink<HttpServerResponseSender.SendResult> sink) {
+            this.exchange = exchange;
+            this.file = file;
+            this.position = position;
+            this.remaining = count;
+            this.sink = sink;
+            this.onClose = channel -> {
+                IoUtils.safeClose(this.file);
+                this.sink.success(new HttpServerResponseSender.ConnectionError(new ClosedChannelException()));
+            };
+        }
+
+        @Override
+        public void handleEvent(StreamSinkChannel channel) {
+            try {
+                while (this.remaining > 0) {
+                    var transferred = channel.transferFrom(this.file, this.position, this.remaining);
+                    if (transferred == 0) {
+                        if (this.file.size() <= this.position) {
+                            throw new IOException("File is shorter than response region");
+                        }
+                        channel.getWriteSetter().set(this);
+                        channel.getCloseSetter().set(this.onClose);
+                        channel.resumeWrites();
+                        return;
+                    }
+                    this.position += transferred;
+                    this.remaining -= transferred;
+                }
+            } catch (IOException e) {
+                channel.getCloseSetter().set(null);
+                IoUtils.safeClose(this.file);
+                IoUtils.safeClose(this.exchange.getConnection());
+                this.sink.success(new HttpServerResponseSender.ConnectionError(e));
+                return;
+            }
+            channel.getCloseSetter().set(null);
+            channel.suspendWrites();
+            IoUtils.safeClose(this.file);
+            this.exchange.addExchangeCompleteListener((exchange, nextListener) -> {
+                this.sink.success(new HttpServerResponseSender.Success(exchange.getStatusCode()));
+                nextListener.proceed();
+            });
+            this.exchange.endExchange();
+        }
+    }
+
     private static class HttpResponseBodySubscriber implements Subscriber<ByteBuffer> {
         private final HttpServerExchange exchange;
         private final MonoSink<HttpServerResponseSender.SendResult> sink;
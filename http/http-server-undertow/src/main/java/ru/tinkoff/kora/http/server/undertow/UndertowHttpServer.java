@@ -1,9 +1,11 @@
 package ru.tinkoff.kora.http.server.undertow;
 
 import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
 import io.undertow.server.handlers.GracefulShutdownHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xnio.Options;
 import org.xnio.XnioWorker;
 import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.application.graph.ValueOf;
@@ -12,10 +14,19 @@ import ru.tinkoff.kora.common.readiness.ReadinessProbeFailure;
 import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.server.common.HttpServer;
 import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerWorkerStats;
 import ru.tinkoff.kora.logging.common.arg.StructuredArgument;
 
 import javax.annotation.Nullable;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -24,15 +35,25 @@ public class UndertowHttpServer implements HttpServer, ReadinessProbe {
 
     private final AtomicReference<HttpServerState> state = new AtomicReference<>(HttpServerState.INIT);
     private final ValueOf<HttpServerConfig> config;
+    private final ValueOf<UndertowHttpServerConfig> undertowConfig;
     private final ValueOf<UndertowPublicApiHandler> publicApiHandler;
     private final GracefulShutdownHandler gracefulShutdown;
     private final XnioWorker xnioWorker;
+    @Nullable
+    private final HttpServerMetrics metrics;
     private volatile Undertow undertow;
+    private volatile UndertowByteBufferPool byteBufferPool;
 
     public UndertowHttpServer(ValueOf<HttpServerConfig> config, ValueOf<UndertowPublicApiHandler> publicApiHandler, @Nullable XnioWorker xnioWorker) {
+        this(config, config.map(c -> new UndertowHttpServerConfig(null, null, null, null, null, null, null)), publicApiHandler, xnioWorker, null);
+    }
+
+    public UndertowHttpServer(ValueOf<HttpServerConfig> config, ValueOf<UndertowHttpServerConfig> undertowConfig, ValueOf<UndertowPublicApiHandler> publicApiHandler, @Nullable XnioWorker xnioWorker, @Nullable HttpServerMetrics metrics) {
         this.config = config;
+        this.undertowConfig = undertowConfig;
         this.publicApiHandler = publicApiHandler;
         this.xnioWorker = xnioWorker;
+        this.metrics = metrics;
         this.gracefulShutdown = new GracefulShutdownHandler(exchange -> this.publicApiHandler.get().handleRequest(exchange));
     }
 
@@ -53,6 +74,10 @@ public class UndertowHttpServer implements HttpServer, ReadinessProbe {
                     this.undertow.stop();
                     this.undertow = null;
                 }
+                if (this.byteBufferPool != null) {
+                    this.byteBufferPool.close();
+                    this.byteBufferPool = null;
+                }
                 log.debug("Undertow stopped");
             }));
     }
@@ -68,6 +93,9 @@ public class UndertowHttpServer implements HttpServer, ReadinessProbe {
                     this.undertow = this.createServer();
                     this.undertow.start();
                     this.state.set(HttpServerState.RUN);
+                    if (this.metrics != null) {
+                        this.metrics.workerStats(new WorkerStats(this.undertow.getWorker(), this.byteBufferPool));
+                    }
                     var data = StructuredArgument.marker(
                         "port", this.port()
                     );
@@ -83,10 +111,62 @@ public class UndertowHttpServer implements HttpServer, ReadinessProbe {
     }
 
     private Undertow createServer() {
-        return Undertow.builder()
-            .addHttpListener(this.config.get().publicApiHttpPort(), "0.0.0.0", this.gracefulShutdown)
+        var config = this.config.get();
+        var undertowConfig = this.undertowConfig.get();
+        var connection = config.connection();
+        this.byteBufferPool = new UndertowByteBufferPool(connection.bufferSize(), connection.directBuffers());
+        var builder = Undertow.builder()
+            .addHttpListener(config.publicApiHttpPort(), "0.0.0.0", this.gracefulShutdown)
             .setWorker(this.xnioWorker)
-            .build();
+            .setByteBufferPool(this.byteBufferPool)
+            .setSocketOption(Options.TCP_NODELAY, connection.tcpNoDelay())
+            .setSocketOption(Options.BACKLOG, connection.backlog())
+            .setServerOption(UndertowOptions.MAX_HEADERS, undertowConfig.maxHeaders())
+            .setServerOption(UndertowOptions.ALWAYS_SET_KEEP_ALIVE, undertowConfig.alwaysSetKeepAlive());
+        if (undertowConfig.maxEntitySize() >= 0) {
+            builder.setServerOption(UndertowOptions.MAX_ENTITY_SIZE, undertowConfig.maxEntitySize());
+        }
+        if (undertowConfig.noRequestTimeout() >= 0) {
+            builder.setServerOption(UndertowOptions.NO_REQUEST_TIMEOUT, undertowConfig.noRequestTimeout());
+        }
+        if (connection.idleTimeout() >= 0) {
+            builder.setServerOption(UndertowOptions.IDLE_TIMEOUT, (long) connection.idleTimeout());
+        }
+        var https = undertowConfig.https();
+        if (https.port() >= 0) {
+            builder.addHttpsListener(https.port(), "0.0.0.0", sslContext(https), this.gracefulShutdown);
+        }
+        var http2 = undertowConfig.http2();
+        if (http2.enabled()) {
+            // enables h2 with ALPN on https listener, h2c upgrade and prior knowledge on http listener
+            builder
+                .setServerOption(UndertowOptions.ENABLE_HTTP2, true)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_ENABLE_PUSH, false)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, http2.maxConcurrentStreams())
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_INITIAL_WINDOW_SIZE, http2.initialWindowSize())
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_MAX_FRAME_SIZE, http2.maxFrameSize());
+        }
+        return builder.build();
+    }
+
+    private static SSLContext sslContext(UndertowHttpServerConfig.HttpsConfig config) {
+        if (config.keyStorePath() == null) {
+            throw new IllegalStateException("Config value httpServer.undertow.https.keyStorePath is required when httpServer.undertow.https.port is set");
+        }
+        var password = config.keyStorePassword() == null
+            ? new char[0]
+            : config.keyStorePassword().toCharArray();
+        try (var is = Files.newInputStream(Path.of(config.keyStorePath()))) {
+            var keyStore = KeyStore.getInstance(config.keyStoreType());
+            keyStore.load(is, password);
+            var keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, password);
+            var sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Can't load https key store " + config.keyStorePath(), e);
+        }
     }
 
     @Override
@@ -108,6 +188,38 @@ public class UndertowHttpServer implements HttpServer, ReadinessProbe {
         };
     }
 
+    private record WorkerStats(XnioWorker worker, UndertowByteBufferPool byteBufferPool) implements HttpServerWorkerStats {
+        @Override
+        public int workerQueueSize() {
+            return this.worker.getMXBean().getWorkerQueueSize();
+        }
+
+        @Override
+        public int workerPoolSize() {
+            return this.worker.getMXBean().getWorkerPoolSize();
+        }
+
+        @Override
+        public int busyWorkerThreads() {
+            return this.worker.getMXBean().getBusyWorkerThreadCount();
+        }
+
+        @Override
+        public int configuredIoThreads() {
+            return this.worker.getMXBean().getIoThreadCount();
+        }
+
+        @Override
+        public int buffersInUse() {
+            return this.byteBufferPool.inUse();
+        }
+
+        @Override
+        public long buffersExhausted() {
+            return this.byteBufferPool.exhausted();
+        }
+    }
+
     private enum HttpServerState {
         INIT, RUN, SHUTDOWN
     }
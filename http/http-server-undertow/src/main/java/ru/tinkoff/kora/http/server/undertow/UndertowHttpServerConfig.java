@@ -0,0 +1,99 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Options of the public api server that are supported only by Undertow, read from {@code httpServer.undertow} config section
+ */
+public record UndertowHttpServerConfig(
+    long maxEntitySize,
+    int noRequestTimeout,
+    int maxHeaders,
+    boolean alwaysSetKeepAlive,
+    Http2Config http2,
+    HttpsConfig https,
+    CompressionConfig compression) {
+
+    public static long DEFAULT_MAX_ENTITY_SIZE = -1;
+    public static int DEFAULT_NO_REQUEST_TIMEOUT = -1;
+    public static int DEFAULT_MAX_HEADERS = 200;
+    public static boolean DEFAULT_ALWAYS_SET_KEEP_ALIVE = true;
+
+    public UndertowHttpServerConfig(
+        @Nullable Long maxEntitySize,
+        @Nullable Integer noRequestTimeout,
+        @Nullable Integer maxHeaders,
+        @Nullable Boolean alwaysSetKeepAlive,
+        @Nullable Http2Config http2,
+        @Nullable HttpsConfig https,
+        @Nullable CompressionConfig compression) {
+        this(
+            maxEntitySize != null ? maxEntitySize : DEFAULT_MAX_ENTITY_SIZE,
+            noRequestTimeout != null ? noRequestTimeout : DEFAULT_NO_REQUEST_TIMEOUT,
+            maxHeaders != null ? maxHeaders : DEFAULT_MAX_HEADERS,
+            alwaysSetKeepAlive != null ? alwaysSetKeepAlive : DEFAULT_ALWAYS_SET_KEEP_ALIVE,
+            http2 != null ? http2 : new Http2Config(null, null, null, null),
+            https != null ? https : new HttpsConfig(null, null, null, null),
+            compression != null ? compression : new CompressionConfig(null, null, null, null)
+        );
+    }
+
+    public record Http2Config(boolean enabled, int maxConcurrentStreams, int initialWindowSize, int maxFrameSize) {
+        public static boolean DEFAULT_ENABLED = false;
+        public static int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+        public static int DEFAULT_INITIAL_WINDOW_SIZE = 65535;
+        public static int DEFAULT_MAX_FRAME_SIZE = 16384;
+
+        public Http2Config(
+            @Nullable Boolean enabled,
+            @Nullable Integer maxConcurrentStreams,
+            @Nullable Integer initialWindowSize,
+            @Nullable Integer maxFrameSize) {
+            this(
+                enabled != null ? enabled : DEFAULT_ENABLED,
+                maxConcurrentStreams != null ? maxConcurrentStreams : DEFAULT_MAX_CONCURRENT_STREAMS,
+                initialWindowSize != null ? initialWindowSize : DEFAULT_INITIAL_WINDOW_SIZE,
+                maxFrameSize != null ? maxFrameSize : DEFAULT_MAX_FRAME_SIZE
+            );
+        }
+    }
+
+    public record HttpsConfig(int port, @Nullable String keyStorePath, @Nullable String keyStorePassword, String keyStoreType) {
+        public static int DEFAULT_PORT = -1;
+        public static String DEFAULT_KEY_STORE_TYPE = "PKCS12";
+
+        public HttpsConfig(
+            @Nullable Integer port,
+            @Nullable String keyStorePath,
+            @Nullable String keyStorePassword,
+            @Nullable String keyStoreType) {
+            this(
+                port != null ? port : DEFAULT_PORT,
+                keyStorePath,
+                keyStorePassword,
+                keyStoreType != null ? keyStoreType : DEFAULT_KEY_STORE_TYPE
+            );
+        }
+    }
+
+    public record CompressionConfig(boolean enabled, int minSize, int level, List<String> contentTypes) {
+        public static boolean DEFAULT_ENABLED = false;
+        public static int DEFAULT_MIN_SIZE = 1024;
+        public static int DEFAULT_LEVEL = 6;
+        public static List<String> DEFAULT_CONTENT_TYPES = List.of("text/*", "application/json", "application/problem+json", "application/xml", "application/javascript");
+
+        public CompressionConfig(
+            @Nullable Boolean enabled,
+            @Nullable Integer minSize,
+            @Nullable Integer level,
+            @Nullable List<String> contentTypes) {
+            this(
+                enabled != null ? enabled : DEFAULT_ENABLED,
+                minSize != null ? minSize : DEFAULT_MIN_SIZE,
+                level != null ? level : DEFAULT_LEVEL,
+                contentTypes != null ? contentTypes : DEFAULT_CONTENT_TYPES
+            );
+        }
+    }
+}
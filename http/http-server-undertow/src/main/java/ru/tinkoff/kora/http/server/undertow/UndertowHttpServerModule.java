@@ -1,24 +1,59 @@
 package ru.tinkoff.kora.http.server.undertow;
 
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
 import org.xnio.XnioWorker;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.LifecycleWrapper;
 import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.application.graph.Wrapped;
+import ru.tinkoff.kora.common.util.VirtualThreadExecutor;
+import ru.tinkoff.kora.config.common.extractor.ConfigValueExtractor;
 import ru.tinkoff.kora.http.server.common.HttpServerConfig;
 import ru.tinkoff.kora.http.server.common.handler.BlockingRequestExecutor;
 import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
 
 import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public interface UndertowHttpServerModule extends UndertowModule {
-    default UndertowPublicApiHandler undertowPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer) {
-        return new UndertowPublicApiHandler(publicApiHandler, tracer);
+    default UndertowHttpServerConfig undertowHttpServerConfig(Config config, ConfigValueExtractor<UndertowHttpServerConfig> configValueExtractor) {
+        if (config.hasPath("httpServer.undertow")) {
+            return configValueExtractor.extract(config.getValue("httpServer.undertow"));
+        } else {
+            return configValueExtractor.extract(ConfigValueFactory.fromMap(Map.of()));
+        }
     }
 
-    default UndertowHttpServer undertowHttpServer(ValueOf<HttpServerConfig> config, ValueOf<UndertowPublicApiHandler> handler, XnioWorker worker) {
-        return new UndertowHttpServer(config, handler, worker);
+    default UndertowPublicApiHandler undertowPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer, HttpServerConfig config, UndertowHttpServerConfig undertowConfig, @Nullable HttpServerMetrics metrics) {
+        var compression = undertowConfig.compression().enabled()
+            ? new UndertowResponseCompression(undertowConfig.compression(), metrics)
+            : null;
+        return new UndertowPublicApiHandler(publicApiHandler, tracer, config.pooledRequestBody(), compression);
     }
 
-    default BlockingRequestExecutor undertowBlockingRequestExecutor(XnioWorker xnioWorker) {
-        return new BlockingRequestExecutor.Default(xnioWorker);
+    default UndertowHttpServer undertowHttpServer(ValueOf<HttpServerConfig> config, ValueOf<UndertowHttpServerConfig> undertowConfig, ValueOf<UndertowPublicApiHandler> handler, XnioWorker worker,
+                                                  @Nullable HttpServerMetrics metrics) {
+        return new UndertowHttpServer(config, undertowConfig, handler, worker, metrics);
+    }
+
+    default Wrapped<BlockingRequestExecutor> undertowBlockingRequestExecutor(XnioWorker xnioWorker, HttpServerConfig config) {
+        if (config.virtualThreads()) {
+            if (VirtualThreadExecutor.isSupported()) {
+                var executor = VirtualThreadExecutor.create("kora-undertow-virtual-", config.virtualThreadsConcurrency());
+                return new LifecycleWrapper<>(new BlockingRequestExecutor.Default(executor), v -> Mono.empty(), v -> Mono.fromCallable(() -> {
+                    executor.shutdown();
+                    executor.awaitTermination(1, TimeUnit.MINUTES);
+                    return null;
+                }));
+            }
+            LoggerFactory.getLogger(UndertowHttpServerModule.class).warn("Virtual threads are not supported by the current runtime {}, blocking requests are executed on the worker threads", Runtime.version());
+        }
+        // worker is shut down by its own component
+        return new LifecycleWrapper<>(new BlockingRequestExecutor.Default(xnioWorker), v -> Mono.empty(), v -> Mono.empty());
     }
 }
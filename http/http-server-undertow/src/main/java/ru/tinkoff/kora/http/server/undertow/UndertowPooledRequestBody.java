@@ -0,0 +1,174 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.server.HttpServerExchange;
+import org.reactivestreams.Subscription;
+import org.xnio.ChannelListener;
+import org.xnio.channels.StreamSourceChannel;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request body that is read from the exchange request channel directly into buffers of the connection buffer pool.
+ * <p>
+ * Emitted buffer is a view of the pooled buffer and is owned by the subscriber until it requests more data,
+ * cancels the subscription or the body is completed. After that buffer is returned to the pool and must not be used anymore.
+ * When subscriber has outstanding demand buffer is released right after {@code onNext} returns,
+ * so subscribers that keep buffers after that (e.g. prefetching operators or {@code collectList}) must copy them.
+ */
+final class UndertowPooledRequestBody extends Flux<ByteBuffer> {
+    private final HttpServerExchange exchange;
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    UndertowPooledRequestBody(HttpServerExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super ByteBuffer> actual) {
+        if (!this.subscribed.compareAndSet(false, true)) {
+            Operators.error(actual, new IllegalStateException("Request body can be subscribed only once"));
+            return;
+        }
+        var subscription = new BodySubscription(this.exchange, actual);
+        this.exchange.addExchangeCompleteListener((exchange, nextListener) -> {
+            // returns buffer that subscriber didn't give back to the pool
+            subscription.cancel();
+            nextListener.proceed();
+        });
+        actual.onSubscribe(subscription);
+    }
+
+    private static final class BodySubscription implements Subscription, ChannelListener<StreamSourceChannel> {
+        private final HttpServerExchange exchange;
+        private final CoreSubscriber<? super ByteBuffer> actual;
+        private final AtomicLong demand = new AtomicLong(0);
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private volatile boolean cancelled = false;
+        private boolean done = false;
+        @Nullable
+        private StreamSourceChannel channel;
+        @Nullable
+        private PooledByteBuffer lent;
+
+        private BodySubscription(HttpServerExchange exchange, CoreSubscriber<? super ByteBuffer> actual) {
+            this.exchange = exchange;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(this.demand, n);
+                this.drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.drain();
+        }
+
+        @Override
+        public void handleEvent(StreamSourceChannel channel) {
+            channel.suspendReads();
+            this.drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            for (; ; ) {
+                this.readLoop();
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void readLoop() {
+            if (this.done) {
+                return;
+            }
+            if (this.cancelled) {
+                this.done = true;
+                this.release();
+                return;
+            }
+            while (this.demand.get() > 0) {
+                this.release();
+                var channel = this.channel();
+                if (channel == null) {
+                    this.done = true;
+                    this.actual.onError(new IllegalStateException("Request channel was already provided"));
+                    return;
+                }
+                var pooled = this.exchange.getConnection().getByteBufferPool().allocate();
+                var buffer = pooled.getBuffer();
+                final int read;
+                try {
+                    read = channel.read(buffer);
+                } catch (IOException | RuntimeException e) {
+                    pooled.close();
+                    this.done = true;
+                    this.actual.onError(e);
+                    return;
+                }
+                if (read < 0) {
+                    pooled.close();
+                    this.done = true;
+                    this.actual.onComplete();
+                    return;
+                }
+                if (read == 0) {
+                    pooled.close();
+                    channel.resumeReads();
+                    return;
+                }
+                buffer.flip();
+                this.lent = pooled;
+                this.demand.decrementAndGet();
+                this.actual.onNext(buffer);
+                if (this.cancelled) {
+                    this.done = true;
+                    this.release();
+                    return;
+                }
+            }
+        }
+
+        @Nullable
+        private StreamSourceChannel channel() {
+            var channel = this.channel;
+            if (channel == null) {
+                channel = this.exchange.getRequestChannel();
+                if (channel == null) {
+                    return null;
+                }
+                channel.getReadSetter().set(this);
+                this.channel = channel;
+            }
+            return channel;
+        }
+
+        private void release() {
+            var lent = this.lent;
+            if (lent != null) {
+                this.lent = null;
+                lent.close();
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ru.tinkoff.kora.http.server.undertow;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
 import io.undertow.util.SameThreadExecutor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -18,11 +20,16 @@ public class UndertowPrivateApiHandler {
 
     public void handleRequest(HttpServerExchange exchange) {
         var path = exchange.getRequestPath() + "?" + exchange.getQueryString();
+        var headers = new UndertowHttpHeaders(exchange.getRequestHeaders());
 
-        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> Mono.from(this.privateApiHandler.handle(path))
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> Mono.from(this.privateApiHandler.handle(path, headers))
             .subscribe(response -> {
                 exchange.setStatusCode(response.code());
                 exchange.setResponseContentLength(response.contentLength());
+                exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, response.contentType());
+                for (var header : response.headers()) {
+                    exchange.getResponseHeaders().putAll(HttpString.tryFromString(header.getKey()), header.getValue());
+                }
                 Flux.from(response.body())
                     .collectList()
                     .subscribe(body -> {
@@ -6,57 +6,79 @@ import io.undertow.util.SameThreadExecutor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import ru.tinkoff.kora.common.Context;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
 import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Predicate;
 
 public final class UndertowPublicApiHandler implements HttpHandler {
     private final PublicApiHandler publicApiHandler;
     @Nullable
     private final HttpServerTracer tracer;
+    private final boolean pooledRequestBody;
+    @Nullable
+    private final UndertowResponseCompression compression;
 
     public UndertowPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer) {
+        this(publicApiHandler, tracer, HttpServerConfig.DEFAULT_POOLED_REQUEST_BODY);
+    }
+
+    public UndertowPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer, boolean pooledRequestBody) {
+        this(publicApiHandler, tracer, pooledRequestBody, null);
+    }
+
+    public UndertowPublicApiHandler(PublicApiHandler publicApiHandler, @Nullable HttpServerTracer tracer, boolean pooledRequestBody, @Nullable UndertowResponseCompression compression) {
         this.publicApiHandler = publicApiHandler;
         this.tracer = tracer;
+        this.pooledRequestBody = pooledRequestBody;
+        this.compression = compression;
     }
 
     public int handlersSize() {
         return this.publicApiHandler.handlersSize();
     }
 
-    private static Map<String, List<String>> queryParams(HttpServerExchange httpServerExchange) {
-        var undertowQueryParams = httpServerExchange.getQueryParameters();
-        var queryParams = new HashMap<String, List<String>>(undertowQueryParams.size());
-        for (var entry : undertowQueryParams.entrySet()) {
-            var key = entry.getKey();
-            var value = entry.getValue().stream()
-                .filter(Predicate.not(String::isEmpty))
-                .toList();
-            queryParams.put(key, List.copyOf(value));
-        }
-        return Map.copyOf(queryParams);
-    }
-
     @Override
     public void handleRequest(HttpServerExchange exchange) {
+        var receivedAt = System.nanoTime();
         var method = exchange.getRequestMethod().toString();
         var path = exchange.getRelativePath();
         var host = exchange.getHostName();
         var scheme = exchange.getRequestScheme();
+        var protocol = exchange.getProtocol().toString();
         var headers = new UndertowHttpHeaders(exchange.getRequestHeaders());
-        var queryParams = queryParams(exchange);
+        var queryParams = new UndertowQueryParams(exchange.getQueryParameters());
+        var body = this.pooledRequestBody
+            ? new UndertowPooledRequestBody(exchange)
+            : partialBytesBody(exchange);
+
+        var context = Context.current();
+
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> {
+            context.inject();
+            try {
+                var routerRequest = new PublicApiHandler.PublicApiRequest(method, path, host, scheme, headers, queryParams, body, protocol, receivedAt);
+                var responseSender = new UndertowHttpResponseSender(exchange, tracer, this.compression);
+                this.publicApiHandler.process(routerRequest, responseSender);
+            } catch (Throwable exception) {
+                exchange.setStatusCode(500);
+                exchange.getResponseSender().send(StandardCharsets.UTF_8.encode(exception.getMessage()));
+            } finally {
+                Context.clear();
+            }
+        });
+        Context.clear();
+    }
+
+    private static Flux<ByteBuffer> partialBytesBody(HttpServerExchange exchange) {
         var requestReceiver = exchange.getRequestReceiver();
         requestReceiver.pause();
-        var body = Flux.<ByteBuffer>create(sink -> {
+        return Flux.<ByteBuffer>create(sink -> {
             var demand = new AtomicLong(0);
             record FirstItem(byte[] data, boolean last){}
             var firstItem = new AtomicReference<FirstItem>();
@@ -101,23 +123,5 @@ public final class UndertowPublicApiHandler implements HttpHandler {
                 });
             });
         }, FluxSink.OverflowStrategy.ERROR);
-
-
-        var context = Context.current();
-
-        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> {
-            context.inject();
-            try {
-                var routerRequest = new PublicApiHandler.PublicApiRequest(method, path, host, scheme, headers, queryParams, body);
-                var responseSender = new UndertowHttpResponseSender(exchange, tracer);
-                this.publicApiHandler.process(routerRequest, responseSender);
-            } catch (Throwable exception) {
-                exchange.setStatusCode(500);
-                exchange.getResponseSender().send(StandardCharsets.UTF_8.encode(exception.getMessage()));
-            } finally {
-                Context.clear();
-            }
-        });
-        Context.clear();
     }
 }
@@ -0,0 +1,90 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Read only view over undertow query parameters. Empty values are filtered out on access,
+ * nothing is copied when query parameters are not read by the handler.
+ */
+final class UndertowQueryParams extends AbstractMap<String, Collection<String>> {
+    private final Map<String, Deque<String>> queryParameters;
+    private Set<Entry<String, Collection<String>>> entrySet;
+
+    UndertowQueryParams(Map<String, Deque<String>> queryParameters) {
+        this.queryParameters = queryParameters;
+    }
+
+    @Nullable
+    @Override
+    public Collection<String> get(Object key) {
+        var values = this.queryParameters.get(key);
+        if (values == null) {
+            return null;
+        }
+        return nonEmptyValues(values);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.queryParameters.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return this.queryParameters.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.queryParameters.isEmpty();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<String, Collection<String>>> entrySet() {
+        var entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Collection<String>>> iterator() {
+                    var i = UndertowQueryParams.this.queryParameters.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return i.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Collection<String>> next() {
+                            var next = i.next();
+                            return Map.entry(next.getKey(), nonEmptyValues(next.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return UndertowQueryParams.this.queryParameters.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private static Collection<String> nonEmptyValues(Deque<String> values) {
+        for (var value : values) {
+            if (value.isEmpty()) {
+                var result = new ArrayList<String>(values.size());
+                for (var v : values) {
+                    if (!v.isEmpty()) {
+                        result.add(v);
+                    }
+                }
+                return Collections.unmodifiableList(result);
+            }
+        }
+        return Collections.unmodifiableCollection(values);
+    }
+}
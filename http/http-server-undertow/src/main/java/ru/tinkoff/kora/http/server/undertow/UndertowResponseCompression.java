@@ -0,0 +1,292 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import io.undertow.server.DirectByteBufferDeallocator;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Response body compression with {@code gzip} or {@code deflate} content encoding negotiated from {@code Accept-Encoding} request header.
+ * <p>
+ * Only responses with content type from the allowlist and with body not smaller than minimal size are compressed,
+ * streamed responses with unknown length are always compressed. Each streamed chunk is flushed with {@link Deflater#SYNC_FLUSH},
+ * so streams like server sent events are delivered to the client without waiting for the next chunk.
+ * <p>
+ * Deflaters are reused: each thread keeps a few of them and a deflater is taken from the cache of the thread that starts compression
+ * and is returned to the cache of the thread that finishes it.
+ */
+public final class UndertowResponseCompression {
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    private static final int DEFLATER_CACHE_SIZE = 4;
+    private static final byte[] GZIP_HEADER = new byte[]{0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final int minSize;
+    private final int level;
+    private final String[] contentTypes;
+    @Nullable
+    private final HttpServerMetrics metrics;
+    private final ThreadLocal<ArrayDeque<Deflater>> gzipDeflaters = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<ArrayDeque<Deflater>> zlibDeflaters = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public UndertowResponseCompression(UndertowHttpServerConfig.CompressionConfig config, @Nullable HttpServerMetrics metrics) {
+        this(config.minSize(), config.level(), config.contentTypes(), metrics);
+    }
+
+    UndertowResponseCompression(int minSize, int level, List<String> contentTypes, @Nullable HttpServerMetrics metrics) {
+        this.minSize = minSize;
+        this.level = level;
+        this.contentTypes = contentTypes.stream()
+            .map(contentType -> contentType.trim().toLowerCase(Locale.ROOT))
+            .toArray(String[]::new);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds {@code Vary} header when response can be compressed
+     *
+     * @param contentLength response body length, -1 if it's unknown
+     * @return negotiated content encoding or null if response should be sent as is
+     */
+    @Nullable
+    public String encoding(HttpServerExchange exchange, int code, String contentType, long contentLength) {
+        if (code < 200 || code == 204 || code == 304 || !this.isCompressible(contentType)) {
+            return null;
+        }
+        var responseHeaders = exchange.getResponseHeaders();
+        if (responseHeaders.contains(Headers.CONTENT_ENCODING)) {
+            return null;
+        }
+        responseHeaders.add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        if (contentLength >= 0 && contentLength < this.minSize || exchange.getRequestMethod().equals(Methods.HEAD)) {
+            return null;
+        }
+        return negotiate(exchange.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING));
+    }
+
+    public int minSize() {
+        return this.minSize;
+    }
+
+    public boolean isCompressible(String contentType) {
+        var end = contentType.indexOf(';');
+        var mediaType = (end < 0 ? contentType : contentType.substring(0, end)).trim();
+        for (var allowed : this.contentTypes) {
+            if (allowed.endsWith("/*")) {
+                if (mediaType.regionMatches(true, 0, allowed, 0, allowed.length() - 1)) {
+                    return true;
+                }
+            } else if (mediaType.equalsIgnoreCase(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compresses body in one shot
+     *
+     * @return compressed body or null if it's not smaller than the original one
+     */
+    @Nullable
+    public ByteBuffer compress(ByteBuffer body, String encoding) {
+        var encoder = new Encoder(encoding);
+        try {
+            var uncompressedSize = body.remaining();
+            var result = encoder.encode(body, true);
+            if (result.remaining() >= uncompressedSize) {
+                return null;
+            }
+            encoder.report();
+            return result;
+        } finally {
+            encoder.release();
+        }
+    }
+
+    /**
+     * Compresses body chunk by chunk. Original chunks are deallocated after they are compressed.
+     */
+    public Flux<ByteBuffer> compress(Flux<? extends ByteBuffer> body, String encoding) {
+        return Flux.defer(() -> {
+            var encoder = new Encoder(encoding);
+            return body
+                .map(buffer -> {
+                    try {
+                        return encoder.encode(buffer, false);
+                    } finally {
+                        DirectByteBufferDeallocator.free(buffer);
+                    }
+                })
+                .concatWith(Mono.fromCallable(() -> {
+                    var last = encoder.encode(ByteBuffer.allocate(0), true);
+                    encoder.report();
+                    return last;
+                }))
+                .filter(ByteBuffer::hasRemaining)
+                // on cancel deflater could still be used by the upstream, it will be freed by the gc
+                .doFinally(signal -> {
+                    if (signal != SignalType.CANCEL) {
+                        encoder.release();
+                    }
+                });
+        });
+    }
+
+    @Nullable
+    static String negotiate(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        var gzip = -1.0;
+        var deflate = -1.0;
+        var any = -1.0;
+        for (var coding : acceptEncoding.split(",")) {
+            var paramsStart = coding.indexOf(';');
+            var name = (paramsStart < 0 ? coding : coding.substring(0, paramsStart)).trim();
+            var q = paramsStart < 0 ? 1.0 : quality(coding.substring(paramsStart + 1));
+            if (name.equalsIgnoreCase(GZIP) || name.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (name.equalsIgnoreCase(DEFLATE)) {
+                deflate = Math.max(deflate, q);
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip < 0) gzip = any;
+        if (deflate < 0) deflate = any;
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static double quality(String params) {
+        for (var param : params.split(";")) {
+            var eq = param.indexOf('=');
+            if (eq > 0 && param.substring(0, eq).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(param.substring(eq + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1.0;
+    }
+
+    private final class Encoder {
+        private final String encoding;
+        private final boolean gzip;
+        private final Deflater deflater;
+        @Nullable
+        private final CRC32 crc;
+        private boolean headerWritten = false;
+        private long uncompressedSize = 0;
+        private long compressedSize = 0;
+        private long processingTime = 0;
+
+        private Encoder(String encoding) {
+            this.encoding = encoding;
+            this.gzip = encoding.equals(GZIP);
+            this.deflater = acquire(this.gzip);
+            this.crc = this.gzip ? new CRC32() : null;
+        }
+
+        private ByteBuffer encode(ByteBuffer input, boolean last) {
+            var started = System.nanoTime();
+            var inputSize = input.remaining();
+            this.uncompressedSize += inputSize;
+            var out = ByteBuffer.allocate(Math.max(inputSize / 2, 64) + (last ? 8 : 0) + (this.headerWritten ? 0 : GZIP_HEADER.length));
+            if (this.gzip && !this.headerWritten) {
+                out.put(GZIP_HEADER);
+            }
+            this.headerWritten = true;
+            if (this.crc != null) {
+                this.crc.update(input.duplicate());
+            }
+            this.deflater.setInput(input);
+            if (last) {
+                this.deflater.finish();
+                while (!this.deflater.finished()) {
+                    out = ensureCapacity(out);
+                    this.deflater.deflate(out, Deflater.NO_FLUSH);
+                }
+            } else {
+                do {
+                    out = ensureCapacity(out);
+                    this.deflater.deflate(out, Deflater.SYNC_FLUSH);
+                } while (!out.hasRemaining());
+            }
+            input.position(input.limit());
+            if (last && this.crc != null) {
+                out = out.remaining() < 8 ? grow(out, 8) : out;
+                writeIntLE(out, (int) this.crc.getValue());
+                writeIntLE(out, (int) this.uncompressedSize);
+            }
+            out.flip();
+            this.compressedSize += out.remaining();
+            this.processingTime += System.nanoTime() - started;
+            return out;
+        }
+
+        private void report() {
+            if (metrics != null) {
+                metrics.responseCompressed(this.encoding, this.uncompressedSize, this.compressedSize, this.processingTime);
+            }
+        }
+
+        private void release() {
+            UndertowResponseCompression.this.release(this.gzip, this.deflater);
+        }
+    }
+
+    private Deflater acquire(boolean gzip) {
+        var deflater = (gzip ? this.gzipDeflaters : this.zlibDeflaters).get().pollFirst();
+        if (deflater == null) {
+            // gzip header and trailer are written by hand, so deflater produces raw deflate stream for it
+            deflater = new Deflater(this.level, gzip);
+        }
+        return deflater;
+    }
+
+    private void release(boolean gzip, Deflater deflater) {
+        var cache = (gzip ? this.gzipDeflaters : this.zlibDeflaters).get();
+        if (cache.size() < DEFLATER_CACHE_SIZE) {
+            deflater.reset();
+            cache.addFirst(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer) {
+        return buffer.hasRemaining() ? buffer : grow(buffer, buffer.capacity());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int additional) {
+        var newBuffer = ByteBuffer.allocate(buffer.capacity() + additional);
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    private static void writeIntLE(ByteBuffer buffer, int value) {
+        buffer.put((byte) value);
+        buffer.put((byte) (value >>> 8));
+        buffer.put((byte) (value >>> 16));
+        buffer.put((byte) (value >>> 24));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UndertowByteBufferPoolTest {
+    @Test
+    void testBuffersInUseAndExhaustion() {
+        try (var pool = new UndertowByteBufferPool(1024, false)) {
+            var first = pool.allocate();
+            var second = pool.allocate();
+            assertThat(first.getBuffer().capacity()).isEqualTo(1024);
+            assertThat(pool.inUse()).isEqualTo(2);
+            assertThat(pool.exhausted()).isEqualTo(2);
+
+            first.close();
+            first.close();
+            assertThat(pool.inUse()).isEqualTo(1);
+
+            // released buffer is reused
+            var third = pool.allocate();
+            assertThat(pool.inUse()).isEqualTo(2);
+            assertThat(pool.exhausted()).isEqualTo(2);
+
+            var fourth = pool.allocate();
+            assertThat(pool.inUse()).isEqualTo(3);
+            assertThat(pool.exhausted()).isEqualTo(3);
+
+            second.close();
+            third.close();
+            fourth.close();
+            assertThat(pool.inUse()).isZero();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.application.graph.All;
+import ru.tinkoff.kora.application.graph.ValueOf;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerConfig;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestHandlerImpl;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.DefaultHttpServerTelemetry;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UndertowHttp2Test {
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path dir;
+
+    private UndertowHttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.release().block();
+        }
+    }
+
+    @Test
+    void testH2cUpgrade() throws Exception {
+        this.startServer(new UndertowHttpServerConfig.Http2Config(true, null, null, null), new UndertowHttpServerConfig.HttpsConfig(null, null, null, null));
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        for (int i = 0; i < 2; i++) {
+            var response = client.send(request("http", this.server.port()), HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+            assertThat(response.body()).isEqualTo("hello");
+        }
+    }
+
+    @Test
+    void testHttp11WhenHttp2IsDisabled() throws Exception {
+        this.startServer(new UndertowHttpServerConfig.Http2Config(null, null, null, null), new UndertowHttpServerConfig.HttpsConfig(null, null, null, null));
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        var response = client.send(request("http", this.server.port()), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(response.body()).isEqualTo("hello");
+    }
+
+    @Test
+    void testH2OverTls() throws Exception {
+        var keyStore = this.keyStore();
+        var httpsPort = freePort();
+        this.startServer(new UndertowHttpServerConfig.Http2Config(true, null, null, null), new UndertowHttpServerConfig.HttpsConfig(httpsPort, keyStore.toString(), PASSWORD, "PKCS12"));
+        var client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .sslContext(sslContext(keyStore))
+            .build();
+
+        var response = client.send(request("https", httpsPort), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(response.body()).isEqualTo("hello");
+    }
+
+    @Test
+    void testHttp11OverTls() throws Exception {
+        var keyStore = this.keyStore();
+        var httpsPort = freePort();
+        this.startServer(new UndertowHttpServerConfig.Http2Config(null, null, null, null), new UndertowHttpServerConfig.HttpsConfig(httpsPort, keyStore.toString(), PASSWORD, "PKCS12"));
+        var client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .sslContext(sslContext(keyStore))
+            .build();
+
+        var response = client.send(request("https", httpsPort), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(response.body()).isEqualTo("hello");
+    }
+
+    @Test
+    void testHttpsRequiresKeyStore() {
+        assertThatThrownBy(() -> this.startServer(new UndertowHttpServerConfig.Http2Config(null, null, null, null), new UndertowHttpServerConfig.HttpsConfig(0, null, null, null)))
+            .hasMessageContaining("httpServer.undertow.https.keyStorePath");
+        this.server = null;
+    }
+
+    private void startServer(UndertowHttpServerConfig.Http2Config http2, UndertowHttpServerConfig.HttpsConfig https) {
+        var handler = HttpServerRequestHandlerImpl.get("/test", request -> Mono.just(new SimpleHttpServerResponse(
+            200, "text/plain; charset=utf-8", HttpHeaders.EMPTY, StandardCharsets.UTF_8.encode("hello")
+        )));
+        var publicApiHandler = new PublicApiHandler(All.of(valueOf(handler)), All.of(), valueOf(new DefaultHttpServerTelemetry(null, null, null)));
+        var config = new HttpServerConfig(0, null, null, null, null, null, null, 0, null, null, null, null, null, null, null, null, null, null);
+        var undertowConfig = new UndertowHttpServerConfig(null, null, null, null, http2, https, null);
+        this.server = new UndertowHttpServer(valueOf(config), valueOf(undertowConfig), valueOf(new UndertowPublicApiHandler(publicApiHandler, null)), null, null);
+        this.server.init().block(Duration.ofSeconds(10));
+    }
+
+    private Path keyStore() throws IOException, InterruptedException {
+        var keyStore = this.dir.resolve("server.p12");
+        var keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+        var process = new ProcessBuilder(
+            keytool, "-genkeypair", "-alias", "server", "-keyalg", "RSA", "-keysize", "2048", "-validity", "1",
+            "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+            "-storetype", "PKCS12", "-keystore", keyStore.toString(), "-storepass", PASSWORD, "-keypass", PASSWORD
+        )
+            .redirectErrorStream(true)
+            .start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor()).as(output).isZero();
+        return keyStore;
+    }
+
+    private static SSLContext sslContext(Path keyStorePath) throws Exception {
+        var keyStore = KeyStore.getInstance("PKCS12");
+        try (var is = Files.newInputStream(keyStorePath)) {
+            keyStore.load(is, PASSWORD.toCharArray());
+        }
+        var trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(keyStore);
+        var sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    private static HttpRequest request(String scheme, int port) {
+        return HttpRequest.newBuilder(URI.create(scheme + "://localhost:" + port + "/test"))
+            .timeout(Duration.ofSeconds(10))
+            .GET()
+            .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static <T> ValueOf<T> valueOf(T instance) {
+        return new ValueOf<>() {
+            @Override
+            public T get() {
+                return instance;
+            }
+
+            @Override
+            public Mono<Void> refresh() {
+                return Mono.empty();
+            }
+        };
+    }
+}
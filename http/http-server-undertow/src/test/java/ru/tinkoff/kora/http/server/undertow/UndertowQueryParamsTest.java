@@ -0,0 +1,43 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UndertowQueryParamsTest {
+    @Test
+    void testEmptyValuesAreFilteredOnAccess() {
+        var undertowParams = new TreeMap<String, Deque<String>>();
+        undertowParams.put("a", new ArrayDeque<>(List.of("1", "", "2")));
+        undertowParams.put("b", new ArrayDeque<>(List.of("")));
+        undertowParams.put("c", new ArrayDeque<>(List.of("3")));
+
+        var params = new UndertowQueryParams(undertowParams);
+
+        assertThat(params.get("a")).containsExactly("1", "2");
+        assertThat(params.get("b")).isEmpty();
+        assertThat(params.get("c")).containsExactly("3");
+        assertThat(params.get("d")).isNull();
+        assertThat(params.containsKey("b")).isTrue();
+        assertThat(params).hasSize(3);
+        assertThat(Map.copyOf(params)).containsEntry("a", List.of("1", "2"));
+    }
+
+    @Test
+    void testParamsAreReadOnly() {
+        var undertowParams = new TreeMap<String, Deque<String>>();
+        undertowParams.put("a", new ArrayDeque<>(List.of("1")));
+
+        var params = new UndertowQueryParams(undertowParams);
+
+        assertThatThrownBy(() -> params.get("a").add("2")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> params.put("b", List.of())).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
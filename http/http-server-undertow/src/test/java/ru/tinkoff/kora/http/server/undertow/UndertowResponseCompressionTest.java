@@ -0,0 +1,106 @@
+package ru.tinkoff.kora.http.server.undertow;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UndertowResponseCompressionTest {
+    private final HttpServerMetrics metrics = mock(HttpServerMetrics.class);
+    private final UndertowResponseCompression compression = new UndertowResponseCompression(16, 6, List.of("text/*", "application/json"), this.metrics);
+
+    @Test
+    void testNegotiation() {
+        assertThat(UndertowResponseCompression.negotiate(null)).isNull();
+        assertThat(UndertowResponseCompression.negotiate("br")).isNull();
+        assertThat(UndertowResponseCompression.negotiate("gzip, deflate, br")).isEqualTo("gzip");
+        assertThat(UndertowResponseCompression.negotiate("gzip;q=0.5, deflate")).isEqualTo("deflate");
+        assertThat(UndertowResponseCompression.negotiate("gzip;q=0, *")).isEqualTo("deflate");
+        assertThat(UndertowResponseCompression.negotiate("*")).isEqualTo("gzip");
+        assertThat(UndertowResponseCompression.negotiate("identity, *;q=0")).isNull();
+    }
+
+    @Test
+    void testContentTypeAllowlist() {
+        assertThat(this.compression.isCompressible("application/json")).isTrue();
+        assertThat(this.compression.isCompressible("application/json; charset=utf-8")).isTrue();
+        assertThat(this.compression.isCompressible("Text/Plain")).isTrue();
+        assertThat(this.compression.isCompressible("image/png")).isFalse();
+        assertThat(this.compression.isCompressible("application/octet-stream")).isFalse();
+    }
+
+    @Test
+    void testOneShotCompression() throws IOException {
+        var body = body(1000);
+
+        var gzip = this.compression.compress(ByteBuffer.wrap(body), "gzip");
+        var deflate = this.compression.compress(ByteBuffer.wrap(body), "deflate");
+
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(toBytes(gzip))).readAllBytes()).isEqualTo(body);
+        assertThat(new InflaterInputStream(new ByteArrayInputStream(toBytes(deflate))).readAllBytes()).isEqualTo(body);
+        verify(this.metrics).responseCompressed(eq("gzip"), eq((long) body.length), eq((long) toBytes(gzip.rewind()).length), anyLong());
+    }
+
+    @Test
+    void testIncompressibleBodyIsNotCompressed() {
+        var body = "x".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(this.compression.compress(ByteBuffer.wrap(body), "gzip")).isNull();
+    }
+
+    @Test
+    void testStreamingCompression() throws IOException {
+        var chunks = List.of(body(100), body(2000), new byte[0], body(10));
+        var expected = new ByteArrayOutputStream();
+        for (var chunk : chunks) {
+            expected.writeBytes(chunk);
+        }
+
+        for (var encoding : List.of("gzip", "deflate")) {
+            // twice to check that reused deflaters are reset
+            for (int i = 0; i < 2; i++) {
+                var compressed = new ByteArrayOutputStream();
+                var buffers = this.compression.compress(Flux.fromIterable(chunks).map(ByteBuffer::wrap), encoding)
+                    .collectList()
+                    .block();
+                for (var buffer : buffers) {
+                    compressed.writeBytes(toBytes(buffer));
+                }
+                InputStream is = encoding.equals("gzip")
+                    ? new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))
+                    : new InflaterInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+
+                assertThat(is.readAllBytes()).isEqualTo(expected.toByteArray());
+            }
+        }
+    }
+
+    private static byte[] body(int lines) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"test\"}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
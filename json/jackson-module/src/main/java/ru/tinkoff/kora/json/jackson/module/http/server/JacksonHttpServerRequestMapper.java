@@ -6,11 +6,11 @@ import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
-import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestMapper;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerRequestMapper;
 
 import java.lang.reflect.Type;
 
-public class JacksonHttpServerRequestMapper<T> implements HttpServerRequestMapper<T> {
+public class JacksonHttpServerRequestMapper<T> implements BlockingHttpServerRequestMapper<T> {
     private final ObjectReader objectMapper;
 
     public JacksonHttpServerRequestMapper(ObjectMapper objectMapper, Type type) {
@@ -29,4 +29,14 @@ public class JacksonHttpServerRequestMapper<T> implements HttpServerRequestMappe
                 }
             });
     }
+
+    @Override
+    public T applyBlocking(HttpServerRequest request) {
+        var bytes = ReactorUtils.toByteArrayMono(request.body()).block();
+        try {
+            return this.objectMapper.readValue(bytes);
+        } catch (Exception e) {
+            throw HttpServerResponseException.of(e, 400, e.getMessage());
+        }
+    }
 }
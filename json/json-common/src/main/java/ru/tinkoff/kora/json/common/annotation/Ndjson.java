@@ -0,0 +1,17 @@
+package ru.tinkoff.kora.json.common.annotation;
+
+import ru.tinkoff.kora.common.Tag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that {@link reactor.core.publisher.Flux} result will be streamed as newline delimited JSON values with {@code application/x-ndjson} content type
+ */
+@Target({ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Tag(Ndjson.class)
+public @interface Ndjson {
+}
@@ -4,10 +4,14 @@ import ru.tinkoff.kora.json.common.JsonCommonModule;
 import ru.tinkoff.kora.json.common.JsonReader;
 import ru.tinkoff.kora.json.common.JsonWriter;
 import ru.tinkoff.kora.json.common.annotation.Json;
+import ru.tinkoff.kora.json.common.annotation.JsonArrayStream;
+import ru.tinkoff.kora.json.common.annotation.JsonEventStream;
+import ru.tinkoff.kora.json.common.annotation.Ndjson;
 import ru.tinkoff.kora.json.module.http.client.JsonHttpClientRequestMapper;
 import ru.tinkoff.kora.json.module.http.client.JsonHttpClientResponseMapper;
 import ru.tinkoff.kora.json.module.http.client.JsonStringParameterConverter;
 import ru.tinkoff.kora.json.module.http.server.JsonReaderHttpServerRequestMapper;
+import ru.tinkoff.kora.json.module.http.server.JsonStreamHttpServerResponseMapper;
 import ru.tinkoff.kora.json.module.http.server.JsonStringParameterReader;
 import ru.tinkoff.kora.json.module.http.server.JsonWriterHttpServerResponseMapper;
 
@@ -22,6 +26,21 @@ public interface JsonModule extends JsonCommonModule {
         return new JsonWriterHttpServerResponseMapper<>(writer);
     }
 
+    @JsonArrayStream
+    default <T> JsonStreamHttpServerResponseMapper<T> jsonArrayStreamResponseMapper(JsonWriter<T> writer) {
+        return new JsonStreamHttpServerResponseMapper<>(writer, JsonStreamHttpServerResponseMapper.Format.ARRAY);
+    }
+
+    @Ndjson
+    default <T> JsonStreamHttpServerResponseMapper<T> ndjsonStreamResponseMapper(JsonWriter<T> writer) {
+        return new JsonStreamHttpServerResponseMapper<>(writer, JsonStreamHttpServerResponseMapper.Format.NDJSON);
+    }
+
+    @JsonEventStream
+    default <T> JsonStreamHttpServerResponseMapper<T> jsonEventStreamResponseMapper(JsonWriter<T> writer) {
+        return new JsonStreamHttpServerResponseMapper<>(writer, JsonStreamHttpServerResponseMapper.Format.EVENT_STREAM);
+    }
+
     @Json
     default <T> JsonHttpClientRequestMapper<T> jsonHttpClientRequestMapper(JsonWriter<T> jsonWriter) {
         return new JsonHttpClientRequestMapper<>(jsonWriter);
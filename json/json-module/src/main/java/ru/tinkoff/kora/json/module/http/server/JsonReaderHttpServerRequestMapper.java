@@ -4,10 +4,10 @@ import reactor.core.publisher.Mono;
 import ru.tinkoff.kora.common.util.ReactorUtils;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
-import ru.tinkoff.kora.http.server.common.handler.HttpServerRequestMapper;
+import ru.tinkoff.kora.http.server.common.handler.BlockingHttpServerRequestMapper;
 import ru.tinkoff.kora.json.common.JsonReader;
 
-public class JsonReaderHttpServerRequestMapper<T> implements HttpServerRequestMapper<T> {
+public class JsonReaderHttpServerRequestMapper<T> implements BlockingHttpServerRequestMapper<T> {
     private final JsonReader<T> reader;
 
     public JsonReaderHttpServerRequestMapper(JsonReader<T> reader) {
@@ -26,4 +26,14 @@ public class JsonReaderHttpServerRequestMapper<T> implements HttpServerRequestMa
                 }
             });
     }
+
+    @Override
+    public T applyBlocking(HttpServerRequest request) {
+        var bytes = ReactorUtils.toByteArrayMono(request.body()).block();
+        try {
+            return this.reader.read(bytes);
+        } catch (Exception e) {
+            throw HttpServerResponseException.of(e, 400, e.getMessage());
+        }
+    }
 }
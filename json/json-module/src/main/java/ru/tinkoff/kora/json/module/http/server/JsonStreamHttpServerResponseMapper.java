@@ -0,0 +1,93 @@
+package ru.tinkoff.kora.json.module.http.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.tinkoff.kora.http.common.HttpHeaders;
+import ru.tinkoff.kora.http.server.common.HttpServerResponse;
+import ru.tinkoff.kora.http.server.common.SimpleHttpServerResponse;
+import ru.tinkoff.kora.http.server.common.handler.HttpServerResponseMapper;
+import ru.tinkoff.kora.json.common.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streams {@link Flux} result as it is produced, elements are serialized one by one and the whole result is never kept in memory.
+ * Next elements are requested only when the connection accepted previous data.
+ */
+public final class JsonStreamHttpServerResponseMapper<T> implements HttpServerResponseMapper<Flux<T>> {
+    private final JsonWriter<T> writer;
+    private final Format format;
+
+    public enum Format {
+        /**
+         * Elements of the single JSON array
+         */
+        ARRAY("application/json") {
+            @Override
+            <T> void writeElement(JsonGenerator generator, JsonWriter<T> writer, T element, boolean first) throws IOException {
+                if (first) {
+                    generator.writeStartArray();
+                }
+                writer.write(generator, element);
+            }
+
+            @Override
+            void writeEnd(JsonGenerator generator, boolean empty) throws IOException {
+                if (empty) {
+                    generator.writeStartArray();
+                }
+                generator.writeEndArray();
+            }
+        },
+        /**
+         * Newline delimited JSON values
+         */
+        NDJSON("application/x-ndjson") {
+            @Override
+            <T> void writeElement(JsonGenerator generator, JsonWriter<T> writer, T element, boolean first) throws IOException {
+                writer.write(generator, element);
+                generator.writeRaw('\n');
+            }
+        },
+        /**
+         * Server sent events with JSON value as event data
+         */
+        EVENT_STREAM("text/event-stream") {
+            @Override
+            <T> void writeElement(JsonGenerator generator, JsonWriter<T> writer, T element, boolean first) throws IOException {
+                generator.writeRaw("data: ");
+                writer.write(generator, element);
+                generator.writeRaw("\n\n");
+            }
+        };
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return this.contentType;
+        }
+
+        abstract <T> void writeElement(JsonGenerator generator, JsonWriter<T> writer, T element, boolean first) throws IOException;
+
+        void writeEnd(JsonGenerator generator, boolean empty) throws IOException {}
+    }
+
+    public JsonStreamHttpServerResponseMapper(JsonWriter<T> writer, Format format) {
+        this.writer = writer;
+        this.format = format;
+    }
+
+    @Override
+    public Mono<? extends HttpServerResponse> apply(Flux<T> result) {
+        var headers = this.format == Format.EVENT_STREAM
+            ? HttpHeaders.of("cache-control", "no-cache")
+            : HttpHeaders.of();
+        var body = Flux.from(new JsonStreamPublisher<>(result, this.writer, this.format));
+        return Mono.just(new SimpleHttpServerResponse(200, this.format.contentType(), headers, -1, body));
+    }
+}
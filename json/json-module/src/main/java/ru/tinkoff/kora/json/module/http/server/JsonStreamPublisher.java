@@ -0,0 +1,241 @@
+package ru.tinkoff.kora.json.module.http.server;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ru.tinkoff.kora.json.common.JsonCommonModule;
+import ru.tinkoff.kora.json.common.JsonWriter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes elements of the source with one generator into a pooled buffer.
+ * <p>
+ * Elements are requested from the source only while serialized data that wasn't requested by the subscriber is smaller than {@link #CHUNK_SIZE},
+ * everything serialized while subscriber was busy is emitted as one chunk on the next request. So a slow connection gets fewer bigger writes
+ * and a fast one gets each element as soon as it is serialized.
+ */
+final class JsonStreamPublisher<T> implements Publisher<ByteBuffer> {
+    static final int CHUNK_SIZE = 16 * 1024;
+    static final int PREFETCH = 32;
+
+    private final Publisher<? extends T> source;
+    private final JsonWriter<T> writer;
+    private final JsonStreamHttpServerResponseMapper.Format format;
+
+    JsonStreamPublisher(Publisher<? extends T> source, JsonWriter<T> writer, JsonStreamHttpServerResponseMapper.Format format) {
+        this.source = source;
+        this.writer = writer;
+        this.format = format;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> actual) {
+        this.source.subscribe(new JsonStreamSubscriber<>(actual, this.writer, this.format));
+    }
+
+    private static final class JsonStreamSubscriber<T> implements Subscriber<T>, Subscription {
+        private final Subscriber<? super ByteBuffer> actual;
+        private final JsonWriter<T> writer;
+        private final JsonStreamHttpServerResponseMapper.Format format;
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final AtomicLong demand = new AtomicLong(0);
+        private volatile boolean cancelled = false;
+        private Subscription upstream;
+
+        // guarded by this
+        @Nullable
+        private ByteArrayBuilder out;
+        @Nullable
+        private JsonGenerator generator;
+        private boolean first = true;
+        private boolean done = false;
+        private boolean terminated = false;
+        @Nullable
+        private Throwable error;
+        private int outstanding = 0;
+
+        private JsonStreamSubscriber(Subscriber<? super ByteBuffer> actual, JsonWriter<T> writer, JsonStreamHttpServerResponseMapper.Format format) {
+            this.actual = actual;
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            synchronized (this) {
+                this.out = new ByteArrayBuilder(JsonCommonModule.JSON_FACTORY._getBufferRecycler());
+                try {
+                    this.generator = JsonCommonModule.JSON_FACTORY.createGenerator(this.out, JsonEncoding.UTF8);
+                    this.generator.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+                    this.generator.setRootValueSeparator(null);
+                } catch (IOException e) {
+                    s.cancel();
+                    this.done = true;
+                    this.error = e;
+                }
+            }
+            this.actual.onSubscribe(this);
+            this.drain();
+        }
+
+        @Override
+        public void onNext(T t) {
+            var failed = false;
+            synchronized (this) {
+                if (this.done || this.generator == null) {
+                    return;
+                }
+                this.outstanding--;
+                try {
+                    this.format.writeElement(this.generator, this.writer, t, this.first);
+                    this.first = false;
+                    this.generator.flush();
+                } catch (IOException | RuntimeException e) {
+                    this.done = true;
+                    this.error = e;
+                    failed = true;
+                }
+            }
+            if (failed) {
+                this.upstream.cancel();
+            }
+            this.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            synchronized (this) {
+                if (this.done) {
+                    return;
+                }
+                this.done = true;
+                this.error = t;
+            }
+            this.drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (this.done || this.generator == null) {
+                    return;
+                }
+                this.done = true;
+                try {
+                    this.format.writeEnd(this.generator, this.first);
+                    this.generator.flush();
+                } catch (IOException e) {
+                    this.error = e;
+                }
+            }
+            this.drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.cancel();
+                this.actual.onError(new IllegalArgumentException("Request amount must be positive, but it was " + n));
+                return;
+            }
+            this.demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.upstream.cancel();
+            this.drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            for (; ; ) {
+                if (this.cancelled) {
+                    this.release();
+                    return;
+                }
+                ByteBuffer chunk = null;
+                Throwable error = null;
+                var complete = false;
+                var request = 0;
+                synchronized (this) {
+                    if (this.terminated) {
+                        return;
+                    }
+                    if (this.done && this.error != null) {
+                        error = this.error;
+                    } else {
+                        var out = this.out;
+                        if (out.size() > 0 && this.demand.get() > 0) {
+                            chunk = ByteBuffer.wrap(out.toByteArray());
+                            out.reset();
+                            this.demand.decrementAndGet();
+                        }
+                        if (this.done && out.size() == 0) {
+                            complete = true;
+                        } else if (!this.done && this.outstanding <= PREFETCH / 2 && out.size() < CHUNK_SIZE) {
+                            request = PREFETCH - this.outstanding;
+                            this.outstanding = PREFETCH;
+                        }
+                    }
+                    if (error != null || complete) {
+                        this.terminated = true;
+                        this.releaseLocked();
+                    }
+                }
+                if (chunk != null) {
+                    this.actual.onNext(chunk);
+                }
+                if (error != null) {
+                    this.actual.onError(error);
+                    return;
+                }
+                if (complete) {
+                    this.actual.onComplete();
+                    return;
+                }
+                if (request > 0) {
+                    this.upstream.request(request);
+                }
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized void release() {
+            this.done = true;
+            this.releaseLocked();
+        }
+
+        private void releaseLocked() {
+            var generator = this.generator;
+            var out = this.out;
+            this.generator = null;
+            this.out = null;
+            if (generator != null) {
+                try {
+                    generator.close();
+                } catch (IOException ignored) {}
+            }
+            if (out != null) {
+                out.release();
+            }
+        }
+    }
+}
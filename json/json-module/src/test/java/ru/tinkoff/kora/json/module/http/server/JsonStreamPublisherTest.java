@@ -0,0 +1,171 @@
+package ru.tinkoff.kora.json.module.http.server;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import ru.tinkoff.kora.json.common.JsonWriter;
+import ru.tinkoff.kora.json.module.http.server.JsonStreamHttpServerResponseMapper.Format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonStreamPublisherTest {
+    private static final JsonWriter<Integer> INT_WRITER = (generator, object) -> generator.writeNumber(object);
+    private static final JsonWriter<String> STRING_WRITER = (generator, object) -> generator.writeString(object);
+
+    @Test
+    void testArray() {
+        assertThat(collect(Flux.just(1, 2, 3), Format.ARRAY)).isEqualTo("[1,2,3]");
+        assertThat(collect(Flux.empty(), Format.ARRAY)).isEqualTo("[]");
+    }
+
+    @Test
+    void testNdjson() {
+        assertThat(collect(Flux.just(1, 2, 3), Format.NDJSON)).isEqualTo("1\n2\n3\n");
+        assertThat(collect(Flux.empty(), Format.NDJSON)).isEmpty();
+    }
+
+    @Test
+    void testEventStream() {
+        assertThat(collect(Flux.just(1, 2), Format.EVENT_STREAM)).isEqualTo("data: 1\n\ndata: 2\n\n");
+        assertThat(collect(Flux.empty(), Format.EVENT_STREAM)).isEmpty();
+    }
+
+    @Test
+    void testNothingIsEmittedWithoutDemand() {
+        var publisher = new JsonStreamPublisher<>(Flux.just(1, 2, 3), INT_WRITER, Format.NDJSON);
+
+        StepVerifier.create(strings(publisher), 0)
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            .thenRequest(1)
+            // everything serialized while the subscriber was busy goes as one chunk
+            .expectNext("1\n2\n3\n")
+            .verifyComplete();
+    }
+
+    @Test
+    void testEachElementIsEmittedWhenSubscriberIsFast() {
+        var source = TestPublisher.<Integer>create();
+        var publisher = new JsonStreamPublisher<>(source, INT_WRITER, Format.ARRAY);
+
+        StepVerifier.create(strings(publisher), 1)
+            .then(() -> source.next(1))
+            .expectNext("[1")
+            .thenRequest(1)
+            .then(() -> source.next(2))
+            .expectNext(",2")
+            .thenRequest(1)
+            .then(source::complete)
+            .expectNext("]")
+            .verifyComplete();
+    }
+
+    @Test
+    void testSourceIsNotRequestedWhenUnrequestedDataExceedsChunk() {
+        var requested = new AtomicLong();
+        var element = "x".repeat(1024);
+        var source = Flux.range(0, 1000).map(i -> element).doOnRequest(requested::addAndGet);
+        var publisher = new JsonStreamPublisher<>(source, STRING_WRITER, Format.NDJSON);
+
+        StepVerifier.create(Flux.from(publisher), 0)
+            .expectSubscription()
+            .then(() -> assertThat(requested.get()).isEqualTo(JsonStreamPublisher.PREFETCH))
+            .thenRequest(1)
+            .assertNext(chunk -> assertThat(chunk.remaining()).isEqualTo(JsonStreamPublisher.PREFETCH * (element.length() + 3)))
+            .then(() -> assertThat(requested.get()).isEqualTo(JsonStreamPublisher.PREFETCH * 2))
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    void testErrorBeforeFirstElement() {
+        var publisher = new JsonStreamPublisher<>(Flux.<Integer>error(new RuntimeException("boom")), INT_WRITER, Format.ARRAY);
+
+        StepVerifier.create(strings(publisher))
+            .expectErrorMessage("boom")
+            .verify();
+    }
+
+    @Test
+    void testErrorAfterFirstElement() {
+        var source = TestPublisher.<Integer>create();
+        var publisher = new JsonStreamPublisher<>(source, INT_WRITER, Format.ARRAY);
+
+        StepVerifier.create(strings(publisher), 1)
+            .then(() -> source.next(1))
+            .expectNext("[1")
+            .then(() -> source.error(new RuntimeException("boom")))
+            .expectErrorMessage("boom")
+            .verify();
+    }
+
+    @Test
+    void testWriterErrorCancelsSource() {
+        var cancelled = new AtomicBoolean();
+        JsonWriter<Integer> writer = (generator, object) -> {
+            throw new IOException("write failed");
+        };
+        var source = Flux.just(1, 2).doOnCancel(() -> cancelled.set(true));
+        var publisher = new JsonStreamPublisher<>(source, writer, Format.NDJSON);
+
+        StepVerifier.create(strings(publisher))
+            .expectErrorMessage("write failed")
+            .verify();
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void testCancel() {
+        var source = TestPublisher.<Integer>create();
+        var publisher = new JsonStreamPublisher<>(source, INT_WRITER, Format.NDJSON);
+
+        StepVerifier.create(strings(publisher), 1)
+            .then(() -> source.next(1))
+            .expectNext("1\n")
+            .thenCancel()
+            .verify();
+        source.assertCancelled();
+    }
+
+    @Test
+    void testNonPositiveRequestIsError() {
+        var publisher = new JsonStreamPublisher<>(Flux.just(1), INT_WRITER, Format.NDJSON);
+        var error = new AtomicReference<Throwable>();
+
+        publisher.subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                error.set(throwable);
+            }
+        });
+
+        assertThat(error.get()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Flux<String> strings(Publisher<ByteBuffer> publisher) {
+        return Flux.from(publisher).map(buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+    }
+
+    private static String collect(Flux<Integer> source, Format format) {
+        return strings(new JsonStreamPublisher<>(source, INT_WRITER, format))
+            .reduce("", String::concat)
+            .block(Duration.ofSeconds(5));
+    }
+}
@@ -26,6 +26,11 @@ public final class MicrometerGrpcServerMetricsFactory implements GrpcServerMetri
 
     @Override
     public GrpcServerMetrics get(ServerCall<?, ?> call, Metadata headers, String serviceName, String methodName) {
+        return this.get(serviceName, methodName);
+    }
+
+    @Override
+    public GrpcServerMetrics get(String serviceName, String methodName) {
         return this.metrics.computeIfAbsent(new MetricsKey(serviceName, methodName), this::buildMetrics);
     }
 
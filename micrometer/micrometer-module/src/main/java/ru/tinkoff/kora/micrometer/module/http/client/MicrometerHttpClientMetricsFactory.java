@@ -1,8 +1,10 @@
 package ru.tinkoff.kora.micrometer.module.http.client;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import ru.tinkoff.kora.http.client.common.telemetry.HttpClientMetrics;
 import ru.tinkoff.kora.http.client.common.telemetry.HttpClientMetricsFactory;
+import ru.tinkoff.kora.http.client.common.telemetry.HttpClientPoolStats;
 import ru.tinkoff.kora.micrometer.module.MetricsConfig;
 
 import javax.annotation.Nullable;
@@ -20,4 +22,22 @@ public final class MicrometerHttpClientMetricsFactory implements HttpClientMetri
     public HttpClientMetrics get(String clientName) {
         return new MicrometerHttpClientMetrics(this.meterRegistry, this.config);
     }
+
+    @Override
+    public void poolStats(String client, HttpClientPoolStats stats) {
+        Gauge.builder("http.client.active_requests", stats, HttpClientPoolStats::activeRequests)
+            .tag("client", client)
+            .register(this.meterRegistry);
+        // executor stats are unknown for executors other than ThreadPoolExecutor
+        if (stats.executorActiveThreads() >= 0) {
+            Gauge.builder("http.client.executor.active_threads", stats, HttpClientPoolStats::executorActiveThreads)
+                .tag("client", client)
+                .register(this.meterRegistry);
+        }
+        if (stats.executorQueueSize() >= 0) {
+            Gauge.builder("http.client.executor.queue_size", stats, HttpClientPoolStats::executorQueueSize)
+                .tag("client", client)
+                .register(this.meterRegistry);
+        }
+    }
 }
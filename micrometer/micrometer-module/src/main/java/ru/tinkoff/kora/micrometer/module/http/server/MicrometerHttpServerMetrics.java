@@ -1,23 +1,37 @@
 package ru.tinkoff.kora.micrometer.module.http.server;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerBlockingExecutorStats;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerMetrics;
+import ru.tinkoff.kora.http.server.common.telemetry.HttpServerWorkerStats;
 import ru.tinkoff.kora.micrometer.module.MetricsConfig.HttpServerMetricsConfig;
 import ru.tinkoff.kora.micrometer.module.http.server.tag.ActiveRequestsKey;
 import ru.tinkoff.kora.micrometer.module.http.server.tag.DurationKey;
 import ru.tinkoff.kora.micrometer.module.http.server.tag.MicrometerHttpServerTagsProvider;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
 
 public final class MicrometerHttpServerMetrics implements HttpServerMetrics {
     private final MeterRegistry meterRegistry;
     private final MicrometerHttpServerTagsProvider httpServerTagsProvider;
-    private final ConcurrentHashMap<ActiveRequestsKey, AtomicInteger> requestCounters = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<DurationKey, DistributionSummary> duration = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RouteKey, MicrometerRouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompressionMetrics> compression = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ShedKey, Counter> shed = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final AtomicReference<HttpServerWorkerStats> workerStats = new AtomicReference<>();
+    private final AtomicLong previousBuffersExhausted = new AtomicLong();
     private final HttpServerMetricsConfig config;
 
     public MicrometerHttpServerMetrics(MeterRegistry meterRegistry, MicrometerHttpServerTagsProvider httpServerTagsProvider, @Nullable HttpServerMetricsConfig config) {
@@ -28,24 +42,193 @@ public final class MicrometerHttpServerMetrics implements HttpServerMetrics {
 
     @Override
     public void requestStarted(String method, String target, String host, String scheme) {
-        var counter = requestCounters.computeIfAbsent(new ActiveRequestsKey(method, target, host, scheme), activeRequestsKey -> {
-            var c = new AtomicInteger(0);
-            this.registerActiveRequestsGauge(activeRequestsKey, c);
-            return c;
-        });
-        counter.incrementAndGet();
+        this.requestStarted(method, target, host, scheme, PublicApiHandler.PublicApiRequest.HTTP_1_1);
     }
 
     @Override
     public void requestFinished(String method, String target, String host, String scheme, int statusCode, long processingTime) {
-        var counter = requestCounters.computeIfAbsent(new ActiveRequestsKey(method, target, host, scheme), activeRequestsKey -> {
-            var c = new AtomicInteger(0);
-            this.registerActiveRequestsGauge(activeRequestsKey, c);
-            return c;
-        });
-        counter.decrementAndGet();
-        this.duration.computeIfAbsent(new DurationKey(statusCode, method, target, host, scheme), this::requestDuration)
-            .record(((double) processingTime) / 1_000_000);
+        this.requestFinished(method, target, host, scheme, PublicApiHandler.PublicApiRequest.HTTP_1_1, statusCode, processingTime);
+    }
+
+    @Override
+    public void requestStarted(String method, String target, String host, String scheme, String protocol) {
+        this.route(method, target).requestStarted(host, scheme, protocol);
+    }
+
+    @Override
+    public void requestFinished(String method, String target, String host, String scheme, String protocol, int statusCode, long processingTime) {
+        this.route(method, target).requestFinished(host, scheme, protocol, statusCode, processingTime);
+    }
+
+    @Override
+    public RouteMetrics route(String method, String route) {
+        return this.routes.computeIfAbsent(new RouteKey(method, route), MicrometerRouteMetrics::new);
+    }
+
+    @Override
+    public void responseCompressed(String encoding, long uncompressedSize, long compressedSize, long processingTime) {
+        var metrics = this.compression.computeIfAbsent(encoding, this::compressionMetrics);
+        if (uncompressedSize > 0) {
+            metrics.ratio.record(((double) compressedSize) / uncompressedSize);
+        }
+        metrics.duration.record(((double) processingTime) / 1_000_000);
+    }
+
+    @Override
+    public void requestShed(String method, String route, String priority, long queueTime) {
+        this.shed.computeIfAbsent(new ShedKey(method, route, priority), this::shedCounter).increment();
+    }
+
+    @Override
+    public void requestCoalesced(String method) {
+        this.coalesced.computeIfAbsent(method, this::coalescedCounter).increment();
+    }
+
+    /**
+     * Gauges are registered once and read the stats of the last started server, so they neither depend on the server keeping its stats reachable
+     * nor get registered again when the server is restarted.
+     */
+    @Override
+    public void workerStats(HttpServerWorkerStats stats) {
+        var previous = this.workerStats.getAndSet(stats);
+        if (previous != null) {
+            this.previousBuffersExhausted.addAndGet(previous.buffersExhausted());
+            return;
+        }
+        this.registerWorkerGauge("http.server.worker.queue_size", HttpServerWorkerStats::workerQueueSize);
+        this.registerWorkerGauge("http.server.worker.pool_size", HttpServerWorkerStats::workerPoolSize);
+        this.registerWorkerGauge("http.server.worker.busy_threads", HttpServerWorkerStats::busyWorkerThreads);
+        this.registerWorkerGauge("http.server.io_threads.configured", HttpServerWorkerStats::configuredIoThreads);
+        this.registerWorkerGauge("http.server.buffers.in_use", HttpServerWorkerStats::buffersInUse);
+        FunctionCounter.builder("http.server.buffers.exhausted", this.workerStats, s -> this.previousBuffersExhausted.get() + s.get().buffersExhausted())
+            .register(this.meterRegistry);
+    }
+
+    private void registerWorkerGauge(String name, ToDoubleFunction<HttpServerWorkerStats> value) {
+        Gauge.builder(name, this.workerStats, s -> value.applyAsDouble(s.get()))
+            .strongReference(true)
+            .register(this.meterRegistry);
+    }
+
+    @Override
+    public void blockingExecutorStats(String executor, HttpServerBlockingExecutorStats stats) {
+        Gauge.builder("http.server.blocking_executor.queue_size", stats, HttpServerBlockingExecutorStats::queueSize).tag("executor", executor).register(this.meterRegistry);
+        Gauge.builder("http.server.blocking_executor.queue_capacity", stats, HttpServerBlockingExecutorStats::queueCapacity).tag("executor", executor).register(this.meterRegistry);
+        Gauge.builder("http.server.blocking_executor.active_threads", stats, HttpServerBlockingExecutorStats::activeThreads).tag("executor", executor).register(this.meterRegistry);
+        Gauge.builder("http.server.blocking_executor.max_threads", stats, HttpServerBlockingExecutorStats::maxThreads).tag("executor", executor).register(this.meterRegistry);
+        FunctionCounter.builder("http.server.blocking_executor.rejected", stats, HttpServerBlockingExecutorStats::rejectedTasks).tag("executor", executor).register(this.meterRegistry);
+    }
+
+    private record RouteKey(String method, String route) {}
+
+    private record ConnectionKey(String host, String scheme, String protocol) {}
+
+    /**
+     * Requests of a route usually have the same host, scheme and protocol, so the last used meters are checked before the lookup.
+     * Duration meters are kept in a copy-on-write array by status code, as each route usually responds with a few status codes only.
+     */
+    private final class MicrometerRouteMetrics implements RouteMetrics {
+        private final String method;
+        private final String route;
+        private final ConcurrentHashMap<ConnectionKey, ConnectionMetrics> connections = new ConcurrentHashMap<>();
+        @Nullable
+        private volatile ConnectionMetrics last;
+
+        private MicrometerRouteMetrics(RouteKey key) {
+            this.method = key.method();
+            this.route = key.route();
+        }
+
+        @Override
+        public void requestStarted(String host, String scheme, String protocol) {
+            this.connection(host, scheme, protocol).activeRequests.incrementAndGet();
+        }
+
+        @Override
+        public void requestFinished(String host, String scheme, String protocol, int statusCode, long processingTime) {
+            var connection = this.connection(host, scheme, protocol);
+            connection.activeRequests.decrementAndGet();
+            connection.duration(statusCode).record(((double) processingTime) / 1_000_000);
+        }
+
+        private ConnectionMetrics connection(String host, String scheme, String protocol) {
+            var last = this.last;
+            if (last != null && last.host.equals(host) && last.scheme.equals(scheme) && last.protocol.equals(protocol)) {
+                return last;
+            }
+            var connection = this.connections.computeIfAbsent(new ConnectionKey(host, scheme, protocol), ConnectionMetrics::new);
+            this.last = connection;
+            return connection;
+        }
+
+        private final class ConnectionMetrics {
+            private final String host;
+            private final String scheme;
+            private final String protocol;
+            private final AtomicInteger activeRequests = new AtomicInteger(0);
+            private volatile DurationMetrics[] durations = new DurationMetrics[0];
+
+            private ConnectionMetrics(ConnectionKey key) {
+                this.host = key.host();
+                this.scheme = key.scheme();
+                this.protocol = key.protocol();
+                registerActiveRequestsGauge(new ActiveRequestsKey(method, route, this.host, this.scheme, this.protocol), this.activeRequests);
+            }
+
+            private DistributionSummary duration(int statusCode) {
+                for (var duration : this.durations) {
+                    if (duration.statusCode == statusCode) {
+                        return duration.summary;
+                    }
+                }
+                synchronized (this) {
+                    var durations = this.durations;
+                    for (var duration : durations) {
+                        if (duration.statusCode == statusCode) {
+                            return duration.summary;
+                        }
+                    }
+                    var summary = requestDuration(new DurationKey(statusCode, method, route, this.host, this.scheme, this.protocol));
+                    var newDurations = Arrays.copyOf(durations, durations.length + 1);
+                    newDurations[durations.length] = new DurationMetrics(statusCode, summary);
+                    this.durations = newDurations;
+                    return summary;
+                }
+            }
+        }
+    }
+
+    private record DurationMetrics(int statusCode, DistributionSummary summary) {}
+
+    private record ShedKey(String method, String route, String priority) {}
+
+    private Counter shedCounter(ShedKey key) {
+        return Counter.builder("http.server.requests.shed")
+            .tag(SemanticAttributes.HTTP_METHOD.getKey(), key.method())
+            .tag(SemanticAttributes.HTTP_TARGET.getKey(), key.route())
+            .tag("priority", key.priority())
+            .register(this.meterRegistry);
+    }
+
+    private Counter coalescedCounter(String method) {
+        return Counter.builder("http.server.requests.coalesced")
+            .tag(SemanticAttributes.HTTP_METHOD.getKey(), method)
+            .register(this.meterRegistry);
+    }
+
+    private record CompressionMetrics(DistributionSummary ratio, DistributionSummary duration) {}
+
+    private CompressionMetrics compressionMetrics(String encoding) {
+        var ratio = DistributionSummary.builder("http.server.response.compression.ratio")
+            .serviceLevelObjectives(0.1, 0.2, 0.3, 0.5, 0.7, 0.9, 1)
+            .tag("content_encoding", encoding)
+            .register(this.meterRegistry);
+        var duration = DistributionSummary.builder("http.server.response.compression.duration")
+            .serviceLevelObjectives(0.1, 0.5, 1, 5, 10, 50, 100)
+            .baseUnit("milliseconds")
+            .tag("content_encoding", encoding)
+            .register(this.meterRegistry);
+        return new CompressionMetrics(ratio, duration);
     }
 
     private void registerActiveRequestsGauge(ActiveRequestsKey key, AtomicInteger counter) {
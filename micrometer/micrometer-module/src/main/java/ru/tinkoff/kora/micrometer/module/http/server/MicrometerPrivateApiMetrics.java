@@ -1,10 +1,16 @@
 package ru.tinkoff.kora.micrometer.module.http.server;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import ru.tinkoff.kora.http.server.common.telemetry.PrivateApiMetrics;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ConcurrentHashMap;
+
 public final class MicrometerPrivateApiMetrics implements PrivateApiMetrics {
     private final PrometheusMeterRegistry meterRegistry;
+    private final ConcurrentHashMap<ProbeKey, DistributionSummary> probes = new ConcurrentHashMap<>();
 
     public MicrometerPrivateApiMetrics(PrometheusMeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -14,4 +20,31 @@ public final class MicrometerPrivateApiMetrics implements PrivateApiMetrics {
     public String scrape() {
         return this.meterRegistry.scrape();
     }
+
+    @Override
+    public void scrape(String contentType, Writer writer) throws IOException {
+        this.meterRegistry.scrape(writer, contentType);
+    }
+
+    @Override
+    public boolean supportsOpenMetrics() {
+        return true;
+    }
+
+    @Override
+    public void probeChecked(String kind, String probe, boolean success, long processingTime) {
+        this.probes.computeIfAbsent(new ProbeKey(kind, probe, success), this::probeDuration).record(((double) processingTime) / 1_000_000);
+    }
+
+    private record ProbeKey(String kind, String probe, boolean success) {}
+
+    private DistributionSummary probeDuration(ProbeKey key) {
+        return DistributionSummary.builder("probe.duration")
+            .serviceLevelObjectives(1, 10, 50, 100, 500, 1000, 5000)
+            .baseUnit("milliseconds")
+            .tag("kind", key.kind())
+            .tag("probe", key.probe())
+            .tag("result", key.success() ? "success" : "failure")
+            .register(this.meterRegistry);
+    }
 }
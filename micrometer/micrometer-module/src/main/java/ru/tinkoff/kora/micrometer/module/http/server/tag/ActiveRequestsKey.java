@@ -1,3 +1,7 @@
 package ru.tinkoff.kora.micrometer.module.http.server.tag;
 
-public record ActiveRequestsKey(String method, String target, String host, String scheme) {}
+public record ActiveRequestsKey(String method, String target, String host, String scheme, String protocol) {
+    public ActiveRequestsKey(String method, String target, String host, String scheme) {
+        this(method, target, host, scheme, "HTTP/1.1");
+    }
+}
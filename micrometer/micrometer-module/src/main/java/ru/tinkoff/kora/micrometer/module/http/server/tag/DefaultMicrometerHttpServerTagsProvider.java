@@ -13,7 +13,8 @@ public class DefaultMicrometerHttpServerTagsProvider implements MicrometerHttpSe
             Tag.of(SemanticAttributes.HTTP_TARGET.getKey(), key.target()),
             Tag.of(SemanticAttributes.HTTP_METHOD.getKey(), key.method()),
             Tag.of(SemanticAttributes.NET_HOST_NAME.getKey(), key.host()),
-            Tag.of(SemanticAttributes.HTTP_SCHEME.getKey(), key.scheme())
+            Tag.of(SemanticAttributes.HTTP_SCHEME.getKey(), key.scheme()),
+            Tag.of(SemanticAttributes.HTTP_FLAVOR.getKey(), flavor(key.protocol()))
         );
     }
 
@@ -24,8 +25,16 @@ public class DefaultMicrometerHttpServerTagsProvider implements MicrometerHttpSe
             Tag.of(SemanticAttributes.HTTP_METHOD.getKey(), key.method()),
             Tag.of(SemanticAttributes.NET_HOST_NAME.getKey(), key.host()),
             Tag.of(SemanticAttributes.HTTP_SCHEME.getKey(), key.scheme()),
+            Tag.of(SemanticAttributes.HTTP_FLAVOR.getKey(), flavor(key.protocol())),
             Tag.of(SemanticAttributes.HTTP_STATUS_CODE.getKey(), Integer.toString(key.statusCode()))
         );
     }
 
+    private static String flavor(String protocol) {
+        // semantic conventions use version only: 1.1, 2.0
+        return protocol.startsWith("HTTP/")
+            ? protocol.substring(5)
+            : protocol;
+    }
+
 }
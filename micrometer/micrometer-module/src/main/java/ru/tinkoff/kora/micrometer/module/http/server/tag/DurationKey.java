@@ -1,3 +1,7 @@
 package ru.tinkoff.kora.micrometer.module.http.server.tag;
 
-public record DurationKey(int statusCode, String method, String target, String host, String scheme) {}
+public record DurationKey(int statusCode, String method, String target, String host, String scheme, String protocol) {
+    public DurationKey(int statusCode, String method, String target, String host, String scheme) {
+        this(statusCode, method, target, host, scheme, "HTTP/1.1");
+    }
+}
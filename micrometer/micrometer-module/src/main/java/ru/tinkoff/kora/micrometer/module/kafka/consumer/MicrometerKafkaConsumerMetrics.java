@@ -4,7 +4,6 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.common.TopicPartition;
 import ru.tinkoff.kora.kafka.common.telemetry.KafkaConsumerMetrics;
 import ru.tinkoff.kora.micrometer.module.MetricsConfig.KafkaConsumerMetricsConfig;
 
@@ -13,7 +12,10 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class MicrometerKafkaConsumerMetrics implements KafkaConsumerMetrics {
     private final MeterRegistry meterRegistry;
-    private final ConcurrentHashMap<TopicPartition, DistributionSummary> metrics = new ConcurrentHashMap<>();
+    // meters are tagged by topic only, so partitions of the topic share them
+    private final ConcurrentHashMap<String, TopicMetrics> metrics = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile TopicMetrics last;
     private final KafkaConsumerMetricsConfig config;
 
     public MicrometerKafkaConsumerMetrics(MeterRegistry meterRegistry, @Nullable KafkaConsumerMetricsConfig config) {
@@ -24,11 +26,13 @@ public class MicrometerKafkaConsumerMetrics implements KafkaConsumerMetrics {
     @Override
     public void onRecordsReceived(ConsumerRecords<?, ?> records) {
         for (var partition : records.partitions()) {
-            this.metrics.computeIfAbsent(partition, this::metrics);
+            this.metrics.computeIfAbsent(partition.topic(), this::metrics);
         }
     }
 
-    private DistributionSummary metrics(TopicPartition topicPartition) {
+    private record TopicMetrics(String topic, DistributionSummary duration) {}
+
+    private TopicMetrics metrics(String topic) {
         // wait for opentelemetry standard https://github.com/open-telemetry/opentelemetry-specification/tree/main/specification/metrics/semantic_conventions
         var builder = DistributionSummary.builder("messaging.consumer.duration");
         if (this.config != null && this.config.slo() != null) {
@@ -36,17 +40,24 @@ public class MicrometerKafkaConsumerMetrics implements KafkaConsumerMetrics {
         } else {
             builder.serviceLevelObjectives(1, 10, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 20000, 30000, 60000, 90000);
         }
-        return builder.baseUnit("milliseconds")
+        var duration = builder.baseUnit("milliseconds")
             .tag("messaging.system", "kafka")
-            .tag("messaging.destination", topicPartition.topic())
+            .tag("messaging.destination", topic)
             .tag("messaging.destination_kind", "topic")
             .register(this.meterRegistry);
+        return new TopicMetrics(topic, duration);
     }
 
     @Override
     public void onRecordProcessed(ConsumerRecord<?, ?> record, long duration, Throwable ex) {
         double durationDouble = ((double) duration) / 1_000_000;
-        this.metrics.get(new TopicPartition(record.topic(), record.partition())).record(durationDouble);
+        // consumer usually processes a single topic, so the last used meter is checked before the lookup
+        var metrics = this.last;
+        if (metrics == null || !metrics.topic().equals(record.topic())) {
+            metrics = this.metrics.computeIfAbsent(record.topic(), this::metrics);
+            this.last = metrics;
+        }
+        metrics.duration().record(durationDouble);
     }
 
     @Override
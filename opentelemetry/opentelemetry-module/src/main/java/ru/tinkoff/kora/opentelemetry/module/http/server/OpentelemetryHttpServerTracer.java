@@ -1,7 +1,13 @@
 package ru.tinkoff.kora.opentelemetry.module.http.server;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.propagation.TextMapGetter;
@@ -12,9 +18,11 @@ import ru.tinkoff.kora.http.server.common.router.PublicApiHandler;
 import ru.tinkoff.kora.http.server.common.telemetry.HttpServerTracer;
 import ru.tinkoff.kora.opentelemetry.common.OpentelemetryContext;
 
+import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import static io.opentelemetry.context.Context.root;
@@ -37,9 +45,38 @@ public final class OpentelemetryHttpServerTracer implements HttpServerTracer {
 
     @Override
     public HttpServerSpan createSpan(String template, PublicApiHandler.PublicApiRequest routerRequest) {
+        var parentCtx = W3CTraceContextPropagator.getInstance().extract(root(), routerRequest, PublicApiRequestTextMapGetter.INSTANCE);
+        return this.createSpan(template, routerRequest, parentCtx);
+    }
 
-        var context = Context.current();
+    /**
+     * Requests are recorded when the caller trace is sampled, or when there is no caller trace and the server sampled the request.
+     * Otherwise the caller trace, or a new one that is not sampled, is propagated without a span.
+     */
+    @Nullable
+    @Override
+    public HttpServerSpan createSpan(String template, PublicApiHandler.PublicApiRequest routerRequest, boolean sampled) {
         var parentCtx = W3CTraceContextPropagator.getInstance().extract(root(), routerRequest, PublicApiRequestTextMapGetter.INSTANCE);
+        var parent = Span.fromContext(parentCtx).getSpanContext();
+        if (parent.isValid() ? parent.isSampled() : sampled) {
+            return this.createSpan(template, routerRequest, parentCtx);
+        }
+        final Span span;
+        if (parent.isValid()) {
+            span = Span.wrap(parent);
+        } else {
+            var random = ThreadLocalRandom.current();
+            var traceId = TraceId.fromLongs(random.nextLong(), random.nextLong());
+            var spanId = SpanId.fromLong(random.nextLong());
+            span = Span.wrap(SpanContext.create(traceId, spanId, TraceFlags.getDefault(), TraceState.getDefault()));
+        }
+        var context = Context.current();
+        OpentelemetryContext.set(context, OpentelemetryContext.get(context).add(span));
+        return null;
+    }
+
+    private HttpServerSpan createSpan(String template, PublicApiHandler.PublicApiRequest routerRequest, io.opentelemetry.context.Context parentCtx) {
+        var context = Context.current();
         var span = this.tracer
             .spanBuilder(routerRequest.method() + " " + template)
             .setSpanKind(SpanKind.SERVER)
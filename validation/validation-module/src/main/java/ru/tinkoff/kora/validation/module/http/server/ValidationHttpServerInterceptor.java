@@ -1,7 +1,7 @@
 package ru.tinkoff.kora.validation.module.http.server;
 
 import reactor.core.publisher.Mono;
-import ru.tinkoff.kora.http.server.common.HttpServerInterceptor;
+import ru.tinkoff.kora.http.server.common.BlockingHttpServerInterceptor;
 import ru.tinkoff.kora.http.server.common.HttpServerRequest;
 import ru.tinkoff.kora.http.server.common.HttpServerResponse;
 import ru.tinkoff.kora.http.server.common.HttpServerResponseException;
@@ -10,7 +10,7 @@ import ru.tinkoff.kora.validation.common.ViolationException;
 import javax.annotation.Nullable;
 import java.util.function.Function;
 
-public final class ValidationHttpServerInterceptor implements HttpServerInterceptor {
+public final class ValidationHttpServerInterceptor implements BlockingHttpServerInterceptor {
     @Nullable
     private final ViolationExceptionHttpServerResponseMapper mapper;
 
@@ -29,6 +29,15 @@ public final class ValidationHttpServerInterceptor implements HttpServerIntercep
         return rsMono.onErrorResume(ViolationException.class, e -> Mono.just(this.toResponse(request, e)));
     }
 
+    @Override
+    public HttpServerResponse interceptBlocking(HttpServerRequest request, Chain chain) throws Exception {
+        try {
+            return chain.process(request);
+        } catch (ViolationException e) {
+            return this.toResponse(request, e);
+        }
+    }
+
     private HttpServerResponse toResponse(HttpServerRequest request, ViolationException exception) {
         if (this.mapper != null) {
             var response = this.mapper.apply(request, exception);